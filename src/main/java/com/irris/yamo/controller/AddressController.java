@@ -1,6 +1,7 @@
 package com.irris.yamo.controller;
 
 import com.irris.yamo.dtos.AddressDto;
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.creation.AdressCreationDto;
 import com.irris.yamo.service.AddressService;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/addresses")
@@ -59,8 +61,10 @@ public class AddressController {
      * Récupérer toutes les adresses
      */
     @GetMapping
-    public ResponseEntity<List<AddressDto>> getAllAddresses() {
-        List<AddressDto> addresses = addressService.getAllAddresses();
+    public ResponseEntity<CursorPageDto<AddressDto>> getAllAddresses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDto<AddressDto> addresses = addressService.getAllAddresses(cursor, size);
         return ResponseEntity.ok(addresses);
     }
 
@@ -113,4 +117,20 @@ public class AddressController {
         boolean isValid = addressService.validateAddress(dto);
         return ResponseEntity.ok(isValid);
     }
+
+    /**
+     * Lancer le géocodage en masse des adresses sans coordonnées
+     */
+    @PostMapping("/geocode-missing")
+    public ResponseEntity<Map<String, Object>> startBulkGeocoding() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(addressService.startBulkGeocoding());
+    }
+
+    /**
+     * Avancement du géocodage en masse
+     */
+    @GetMapping("/geocode-missing/status")
+    public ResponseEntity<Map<String, Object>> getBulkGeocodingStatus() {
+        return ResponseEntity.ok(addressService.getBulkGeocodingStatus());
+    }
 }
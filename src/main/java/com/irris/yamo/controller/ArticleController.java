@@ -2,6 +2,7 @@ package com.irris.yamo.controller;
 
 import com.irris.yamo.dtos.ArticleDto;
 import com.irris.yamo.dtos.ArticleInstanceDto;
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.creation.ArticleCreationDto;
 import com.irris.yamo.entities.Article;
 import com.irris.yamo.service.OrderService;
@@ -26,8 +27,10 @@ public class ArticleController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ArticleDto>> getAllArticles() {
-        List<ArticleDto> articles = orderService.getAllArticles();
+    public ResponseEntity<CursorPageDto<ArticleDto>> getAllArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDto<ArticleDto> articles = orderService.getAllArticles(cursor, size);
         return ResponseEntity.ok(articles);
     }
 
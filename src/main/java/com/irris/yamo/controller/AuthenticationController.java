@@ -118,9 +118,15 @@ public class AuthenticationController {
      */
     @PostMapping("/logout")
     public ResponseEntity<Map<String, String>> logout(
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestHeader("Authorization") String authHeader,
+            @RequestBody(required = false) Map<String, String> request) {
         String token = authHeader.replace("Bearer ", "");
         authenticationService.logout(token);
+
+        // Révoquer aussi le refresh token s'il est fourni
+        if (request != null && request.get("refreshToken") != null) {
+            authenticationService.logout(request.get("refreshToken"));
+        }
         
         Map<String, String> response = new HashMap<>();
         response.put("message", "Déconnexion réussie");
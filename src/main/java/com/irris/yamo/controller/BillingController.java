@@ -1,5 +1,6 @@
 package com.irris.yamo.controller;
 
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.InvoiceDto;
 import com.irris.yamo.entities.Invoice;
 import com.irris.yamo.entities.Order;
@@ -7,6 +8,8 @@ import com.irris.yamo.mapper.InvoiceMapper;
 import com.irris.yamo.repositories.InvoiceRepository;
 import com.irris.yamo.repositories.OrderRepository;
 import com.irris.yamo.service.BillingService;
+import com.irris.yamo.service.pagination.KeysetPageRequest;
+import com.irris.yamo.service.pagination.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +30,7 @@ public class BillingController {
     private final InvoiceRepository invoiceRepository;
     private final OrderRepository orderRepository;
     private final InvoiceMapper invoiceMapper;
+    private final KeysetPagination keysetPagination;
 
     /**
      * Générer une facture pour une commande
@@ -99,15 +103,15 @@ public class BillingController {
     }
 
     /**
-     * Récupérer toutes les factures
+     * Récupérer les factures page par page (curseur)
      */
     @GetMapping("/invoices")
-    public ResponseEntity<List<InvoiceDto>> getAllInvoices() {
-        List<Invoice> invoices = invoiceRepository.findAll();
-        List<InvoiceDto> invoiceDtos = invoices.stream()
-                .map(invoiceMapper::toDto)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(invoiceDtos);
+    public ResponseEntity<CursorPageDto<InvoiceDto>> getAllInvoices(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        KeysetPageRequest page = keysetPagination.request(cursor, size);
+        List<Invoice> invoices = invoiceRepository.findPageBefore(page.beforeId(), page.limit());
+
+        return ResponseEntity.ok(keysetPagination.page(invoices, page, Invoice::getId, invoiceMapper::toDto));
     }
 }
@@ -0,0 +1,44 @@
+package com.irris.yamo.controller;
+
+import com.irris.yamo.dtos.creation.CampaignRequest;
+import com.irris.yamo.entities.Campaign;
+import com.irris.yamo.service.campaign.CampaignService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/campaigns")
+@RequiredArgsConstructor
+public class CampaignController {
+
+    private final CampaignService campaignService;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createCampaign(
+            @RequestBody CampaignRequest request,
+            Principal principal) {
+        Campaign campaign = campaignService.create(request, principal != null ? principal.getName() : null);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(CampaignService.toMap(campaign));
+    }
+
+    @GetMapping("/{campaignId}")
+    public ResponseEntity<Map<String, Object>> getCampaign(@PathVariable Long campaignId) {
+        return ResponseEntity.ok(CampaignService.toMap(campaignService.getCampaign(campaignId)));
+    }
+
+    @PostMapping("/{campaignId}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelCampaign(@PathVariable Long campaignId) {
+        return ResponseEntity.ok(CampaignService.toMap(campaignService.cancel(campaignId)));
+    }
+
+    @PostMapping("/{campaignId}/resume")
+    public ResponseEntity<Map<String, Object>> resumeCampaign(@PathVariable Long campaignId) {
+        Campaign campaign = campaignService.resume(campaignId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(CampaignService.toMap(campaign));
+    }
+}
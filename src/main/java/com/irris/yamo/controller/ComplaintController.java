@@ -1,6 +1,7 @@
 package com.irris.yamo.controller;
 
 import com.irris.yamo.dtos.ComplaintDto;
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.creation.ComplaintCreationDto;
 import com.irris.yamo.entities.enums.ComplaintStatus;
 import com.irris.yamo.service.ComplaintService;
@@ -27,8 +28,10 @@ public class ComplaintController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ComplaintDto>> getAllComplaints() {
-        List<ComplaintDto> complaints = complaintService.getAllComplaints();
+    public ResponseEntity<CursorPageDto<ComplaintDto>> getAllComplaints(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDto<ComplaintDto> complaints = complaintService.getAllComplaints(cursor, size);
         return ResponseEntity.ok(complaints);
     }
 
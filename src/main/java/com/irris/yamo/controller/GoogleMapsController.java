@@ -1,11 +1,15 @@
 package com.irris.yamo.controller;
 
+import com.irris.yamo.exception.InvalidOperationException;
 import com.irris.yamo.service.GoogleMapsService;
+import com.irris.yamo.service.maps.TravelMatrix;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -15,6 +19,10 @@ public class GoogleMapsController {
 
     private final GoogleMapsService googleMapsService;
 
+    // Chaque bloc 10x10 de la matrice est un appel facturé
+    @Value("${google.maps.matrix.max-points:25}")
+    private int maxMatrixPoints;
+
     /**
      * Géocoder une adresse
      */
@@ -82,6 +90,37 @@ public class GoogleMapsController {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Matrice des distances et durées routières entre plusieurs points
+     */
+    @PostMapping("/distance-matrix")
+    public ResponseEntity<Map<String, Object>> getTravelMatrix(@RequestBody List<Map<String, Double>> points) {
+        if (points == null || points.isEmpty()) {
+            throw new InvalidOperationException("Au moins un point est requis");
+        }
+        if (points.size() > maxMatrixPoints) {
+            throw new InvalidOperationException("Matrice limitée à " + maxMatrixPoints + " points");
+        }
+        double[] latitudes = new double[points.size()];
+        double[] longitudes = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            Double latitude = points.get(i).get("latitude");
+            Double longitude = points.get(i).get("longitude");
+            if (latitude == null || longitude == null) {
+                throw new InvalidOperationException("Latitude et longitude requises pour chaque point");
+            }
+            latitudes[i] = latitude;
+            longitudes[i] = longitude;
+        }
+        TravelMatrix matrix = googleMapsService.getTravelMatrix(latitudes, longitudes);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("distanceKm", matrix.distanceKm());
+        response.put("durationMinutes", matrix.durationMinutes());
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Trouver lieux à proximité
      */
@@ -1,17 +1,22 @@
 package com.irris.yamo.controller;
 
 import com.irris.yamo.dtos.LogisticTaskDto;
+import com.irris.yamo.dtos.creation.DriverPositionPingDto;
 import com.irris.yamo.dtos.creation.LogisticTaskCreationDto;
 import com.irris.yamo.entities.Article;
 import com.irris.yamo.entities.ArticleInstance;
 import com.irris.yamo.entities.LogisticTask;
+import com.irris.yamo.entities.enums.Role;
 import com.irris.yamo.entities.enums.TaskStatus;
+import com.irris.yamo.security.JwtUserPrincipal;
 import com.irris.yamo.service.LogisticService;
 import com.irris.yamo.service.impl.LogisticServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -203,8 +208,8 @@ public class LogisticController {
     @GetMapping("/tasks/{taskId}/route")
     public ResponseEntity<Map<String, Object>> getRouteToTask(
             @PathVariable Long taskId,
-            @RequestParam Double driverLat,
-            @RequestParam Double driverLon) {
+            @RequestParam(required = false) Double driverLat,
+            @RequestParam(required = false) Double driverLon) {
         Map<String, Object> route = logisticService.calculateRouteToTask(taskId, driverLat, driverLon);
         return ResponseEntity.ok(route);
     }
@@ -246,8 +251,8 @@ public class LogisticController {
     @GetMapping("/tasks/{taskId}/travel-time")
     public ResponseEntity<Map<String, Object>> getEstimatedTravelTime(
             @PathVariable Long taskId,
-            @RequestParam Double driverLat,
-            @RequestParam Double driverLon) {
+            @RequestParam(required = false) Double driverLat,
+            @RequestParam(required = false) Double driverLon) {
         Integer travelTime = logisticService.calculateEstimatedTravelTime(taskId, driverLat, driverLon);
         
         Map<String, Object> response = new HashMap<>();
@@ -275,9 +280,42 @@ public class LogisticController {
         return ResponseEntity.ok(result);
     }
 
+    @PostMapping("/dispatch")
+    public ResponseEntity<Map<String, Object>> dispatchDay(
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) 
+            java.time.LocalDate date) {
+        Map<String, Object> result = logisticService.dispatchDay(date);
+        return ResponseEntity.ok(result);
+    }
+
     // ❌ SUPPRIMÉ : POST /drivers/{driverId}/reoptimize-route - doublon de optimizeDriverRoute()
     // L'optimisation se fait automatiquement dans assignTaskToDriver()
 
+    // ========== Suivi GPS ==========
+
+    @PostMapping("/drivers/{driverId}/positions")
+    public ResponseEntity<Map<String, Object>> recordDriverPositions(
+            @PathVariable Long driverId,
+            @RequestBody List<DriverPositionPingDto> pings,
+            @AuthenticationPrincipal JwtUserPrincipal principal) {
+        // Un chauffeur ne transmet que sa propre position (elle alimente le dispatch)
+        if (principal == null || (principal.role() == Role.ROLE_DRIVER && !driverId.equals(principal.id()))) {
+            throw new AccessDeniedException("Positions réservées au chauffeur concerné");
+        }
+        int accepted = logisticService.recordDriverPositions(driverId, pings);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("received", pings.size());
+        response.put("accepted", accepted);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/drivers/{driverId}/position")
+    public ResponseEntity<Map<String, Object>> getDriverCurrentPosition(@PathVariable Long driverId) {
+        return ResponseEntity.ok(logisticService.getDriverCurrentPosition(driverId));
+    }
+
     @GetMapping("/drivers/{driverId}/current-route")
     public ResponseEntity<List<LogisticTaskDto>> getCurrentDriverRoute(
             @PathVariable Long driverId,
@@ -2,6 +2,7 @@ package com.irris.yamo.controller;
 
 import com.irris.yamo.dtos.ArticleDto;
 import com.irris.yamo.dtos.ArticleInstanceDto;
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.OrderDto;
 import com.irris.yamo.dtos.creation.ArticleCreationDto;
 import com.irris.yamo.dtos.creation.OrderCreationRequest;
@@ -28,8 +29,10 @@ public class OrderController {
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderDto>> getAllOrders() {
-        List<OrderDto> orders = orderService.getAllOrders();
+    public ResponseEntity<CursorPageDto<OrderDto>> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDto<OrderDto> orders = orderService.getAllOrders(cursor, size);
         return ResponseEntity.ok(orders);
     }
 
@@ -0,0 +1,35 @@
+package com.irris.yamo.controller;
+
+import com.irris.yamo.security.JwtUserPrincipal;
+import com.irris.yamo.service.PromoCodeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/promo-codes")
+@RequiredArgsConstructor
+public class PromoCodeController {
+
+    private final PromoCodeService promoCodeService;
+
+    @GetMapping("/check")
+    public ResponseEntity<Map<String, Object>> checkCode(
+            @RequestParam String code,
+            @AuthenticationPrincipal JwtUserPrincipal principal) {
+        return ResponseEntity.ok(promoCodeService.checkCode(code, principal != null ? principal.id() : null));
+    }
+
+    @GetMapping("/index")
+    public ResponseEntity<Map<String, Object>> getIndexStats() {
+        return ResponseEntity.ok(promoCodeService.getIndexStats());
+    }
+
+    @PostMapping("/index/refresh")
+    public ResponseEntity<Map<String, Object>> refreshIndex() {
+        return ResponseEntity.ok(promoCodeService.refreshIndex());
+    }
+}
@@ -1,13 +1,24 @@
 package com.irris.yamo.controller;
 
+import com.irris.yamo.dtos.SalesReportDto;
+import com.irris.yamo.dtos.creation.ReportJobRequest;
+import com.irris.yamo.entities.ReportJob;
 import com.irris.yamo.service.ReportService;
+import com.irris.yamo.service.pdf.PdfRenderer;
+import com.irris.yamo.service.report.ReportJobService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Path;
+import java.security.Principal;
 import java.time.LocalDate;
 import java.util.Map;
 
@@ -17,62 +28,42 @@ import java.util.Map;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
 
     // ========== Rapports PDF ==========
 
     @GetMapping("/orders/{orderId}/pdf")
-    public ResponseEntity<byte[]> downloadOrderReport(@PathVariable Long orderId) {
-        byte[] pdf = reportService.generateOrderReportPdf(orderId);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "order_" + orderId + ".pdf");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdf);
+    public ResponseEntity<StreamingResponseBody> downloadOrderReport(@PathVariable Long orderId) {
+        PdfRenderer pdf = reportService.generateOrderReportPdf(orderId);
+        return pdfResponse("order_" + orderId + ".pdf", pdf);
     }
 
     @GetMapping("/invoices/{invoiceId}/pdf")
-    public ResponseEntity<byte[]> downloadInvoice(@PathVariable Long invoiceId) {
-        byte[] pdf = reportService.generateInvoicePdf(invoiceId);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "invoice_" + invoiceId + ".pdf");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdf);
+    public ResponseEntity<StreamingResponseBody> downloadInvoice(@PathVariable Long invoiceId) {
+        PdfRenderer pdf = reportService.generateInvoicePdf(invoiceId);
+        return pdfResponse("invoice_" + invoiceId + ".pdf", pdf);
     }
 
     @GetMapping("/receipts/{receiptId}/pdf")
-    public ResponseEntity<byte[]> downloadReceipt(@PathVariable Long receiptId) {
-        byte[] pdf = reportService.generateReceiptPdf(receiptId);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "receipt_" + receiptId + ".pdf");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdf);
+    public ResponseEntity<StreamingResponseBody> downloadReceipt(@PathVariable Long receiptId) {
+        PdfRenderer pdf = reportService.generateReceiptPdf(receiptId);
+        return pdfResponse("receipt_" + receiptId + ".pdf", pdf);
     }
 
     // ========== Rapports de Statistiques (JSON) ==========
 
     @GetMapping("/sales/daily")
-    public ResponseEntity<Map<String, Object>> getDailySalesReport(
+    public ResponseEntity<SalesReportDto> getDailySalesReport(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        Map<String, Object> report = reportService.getDailySalesReport(date);
+        SalesReportDto report = reportService.getDailySalesReport(date);
         return ResponseEntity.ok(report);
     }
 
     @GetMapping("/sales/monthly")
-    public ResponseEntity<Map<String, Object>> getMonthlySalesReport(
+    public ResponseEntity<SalesReportDto> getMonthlySalesReport(
             @RequestParam int year,
             @RequestParam int month) {
-        Map<String, Object> report = reportService.getMonthlySalesReport(year, month);
+        SalesReportDto report = reportService.getMonthlySalesReport(year, month);
         return ResponseEntity.ok(report);
     }
 
@@ -100,65 +91,77 @@ public class ReportController {
     // ========== Export PDF Rapports ==========
 
     @GetMapping("/sales/daily/pdf")
-    public ResponseEntity<byte[]> exportDailyReportPdf(
+    public ResponseEntity<StreamingResponseBody> exportDailyReportPdf(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        byte[] pdf = reportService.exportDailyReportPdf(date);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "daily_report_" + date + ".pdf");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdf);
+        PdfRenderer pdf = reportService.exportDailyReportPdf(date);
+        return pdfResponse("daily_report_" + date + ".pdf", pdf);
     }
 
     @GetMapping("/sales/monthly/pdf")
-    public ResponseEntity<byte[]> exportMonthlyReportPdf(
+    public ResponseEntity<StreamingResponseBody> exportMonthlyReportPdf(
             @RequestParam int year,
             @RequestParam int month) {
-        byte[] pdf = reportService.exportMonthlyReportPdf(year, month);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", 
-                "monthly_report_" + year + "-" + String.format("%02d", month) + ".pdf");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdf);
+        PdfRenderer pdf = reportService.exportMonthlyReportPdf(year, month);
+        return pdfResponse("monthly_report_" + year + "-" + String.format("%02d", month) + ".pdf", pdf);
     }
 
     @GetMapping("/drivers/{driverId}/performance/pdf")
-    public ResponseEntity<byte[]> exportDriverReportPdf(
+    public ResponseEntity<StreamingResponseBody> exportDriverReportPdf(
             @PathVariable Long driverId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        byte[] pdf = reportService.exportDriverReportPdf(driverId, startDate, endDate);
-        
+        PdfRenderer pdf = reportService.exportDriverReportPdf(driverId, startDate, endDate);
+        return pdfResponse("driver_" + driverId + "_report.pdf", pdf);
+    }
+
+    @GetMapping("/orders/list/pdf")
+    public ResponseEntity<StreamingResponseBody> generateOrderListPdf(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        PdfRenderer pdf = reportService.generateOrderListPdf(startDate, endDate);
+        return pdfResponse("orders_" + startDate + "_to_" + endDate + ".pdf", pdf);
+    }
+
+    // ========== Rapports en arrière-plan ==========
+
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> submitReportJob(
+            @RequestBody ReportJobRequest request,
+            Principal principal) {
+        ReportJob job = reportJobService.submit(request, principal != null ? principal.getName() : null);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ReportJobService.toMap(job));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getReportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(ReportJobService.toMap(reportJobService.getJob(jobId)));
+    }
+
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadReportJob(@PathVariable String jobId) {
+        Path file = reportJobService.getResultFile(jobId);
+        ReportJob job = reportJobService.getJob(jobId);
+
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", 
-                "driver_" + driverId + "_report.pdf");
-        
+        headers.setContentDispositionFormData("attachment",
+                job.getType().name().toLowerCase() + "_" + jobId + ".pdf");
+
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdf);
+                .body(new FileSystemResource(file));
     }
 
-    @GetMapping("/orders/list/pdf")
-    public ResponseEntity<byte[]> generateOrderListPdf(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        byte[] pdf = reportService.generateOrderListPdf(startDate, endDate);
-        
+    /**
+     * Réponse PDF écrite directement dans le flux HTTP (pas de byte[] intermédiaire)
+     */
+    private ResponseEntity<StreamingResponseBody> pdfResponse(String filename, PdfRenderer pdf) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", 
-                "orders_" + startDate + "_to_" + endDate + ".pdf");
-        
+        headers.setContentDispositionFormData("attachment", filename);
+
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdf);
+                .body(pdf::writeTo);
     }
 }
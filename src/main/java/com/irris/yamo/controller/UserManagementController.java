@@ -1,5 +1,6 @@
 package com.irris.yamo.controller;
 
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.CustomerDto;
 import com.irris.yamo.dtos.DriverDto;
 import com.irris.yamo.entities.UserYamo;
@@ -28,8 +29,10 @@ public class UserManagementController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserYamo>> getAllUsers() {
-        List<UserYamo> users = userManagementService.getAllUsers();
+    public ResponseEntity<CursorPageDto<UserYamo>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDto<UserYamo> users = userManagementService.getAllUsers(cursor, size);
         return ResponseEntity.ok(users);
     }
 
@@ -80,8 +83,10 @@ public class UserManagementController {
     // ========== Gestion Drivers ==========
 
     @GetMapping("/drivers")
-    public ResponseEntity<List<DriverDto>> getAllDrivers() {
-        List<DriverDto> drivers = userManagementService.getAllDrivers();
+    public ResponseEntity<CursorPageDto<DriverDto>> getAllDrivers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDto<DriverDto> drivers = userManagementService.getAllDrivers(cursor, size);
         return ResponseEntity.ok(drivers);
     }
 
@@ -102,8 +107,10 @@ public class UserManagementController {
     // ========== Gestion Customers ==========
 
     @GetMapping("/customers")
-    public ResponseEntity<List<CustomerDto>> getAllCustomers() {
-        List<CustomerDto> customers = userManagementService.getAllCustomers();
+    public ResponseEntity<CursorPageDto<CustomerDto>> getAllCustomers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDto<CustomerDto> customers = userManagementService.getAllCustomers(cursor, size);
         return ResponseEntity.ok(customers);
     }
 
@@ -0,0 +1,21 @@
+package com.irris.yamo.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Page d'une liste parcourue par curseur : nextCursor est à renvoyer tel quel
+ * pour obtenir la page suivante, null sur la dernière page
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int size;
+}
@@ -0,0 +1,49 @@
+package com.irris.yamo.dtos;
+
+import com.irris.yamo.repositories.projection.SalesAggregate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rapport des ventes sur une période (journalière ou mensuelle)
+ */
+public record SalesReportDto(
+        String period,
+        long totalOrders,
+        BigDecimal totalRevenue,
+        BigDecimal totalDiscount,
+        BigDecimal averageOrderValue
+) {
+
+    public static SalesReportDto of(String period, SalesAggregate aggregate) {
+        long count = aggregate.orderCount() != null ? aggregate.orderCount() : 0L;
+        BigDecimal revenue = aggregate.totalRevenue() != null ? aggregate.totalRevenue() : BigDecimal.ZERO;
+        // Moyenne décimale (chiffre d'affaires / nombre de commandes), sans passer par un double
+        BigDecimal average = count > 0
+                ? revenue.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
+        return new SalesReportDto(
+                period,
+                count,
+                revenue,
+                aggregate.totalDiscount() != null ? aggregate.totalDiscount() : BigDecimal.ZERO,
+                average);
+    }
+
+    /**
+     * Représentation clé/valeur utilisée pour les exports
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("period", period);
+        map.put("totalOrders", totalOrders);
+        map.put("totalRevenue", totalRevenue);
+        map.put("totalDiscount", totalDiscount);
+        map.put("averageOrderValue", averageOrderValue);
+        return map;
+    }
+}
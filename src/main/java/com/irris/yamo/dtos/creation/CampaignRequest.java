@@ -0,0 +1,26 @@
+package com.irris.yamo.dtos.creation;
+
+import com.irris.yamo.entities.enums.CustomerSegment;
+import lombok.*;
+
+import java.util.Set;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CampaignRequest {
+    private String name;
+    private Long promotionId;        // optionnel : variables promotionTitle, promoCode
+
+    private CustomerSegment segment; // optionnel
+    private Set<String> tags;        // optionnel : au moins un tag
+
+    private Boolean email;
+    private Boolean sms;
+    private Boolean push;
+
+    private String subject;          // email et push
+    private String message;          // modèle {{variable}}
+}
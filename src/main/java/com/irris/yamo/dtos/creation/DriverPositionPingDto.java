@@ -0,0 +1,18 @@
+package com.irris.yamo.dtos.creation;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DriverPositionPingDto {
+    private Double latitude;
+    private Double longitude;
+    private Double speedKmh;
+    private Double heading;
+    private LocalDateTime recordedAt; // Heure du relevé GPS côté application (maintenant si absente)
+}
@@ -0,0 +1,22 @@
+package com.irris.yamo.dtos.creation;
+
+import com.irris.yamo.entities.enums.ReportType;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobRequest {
+    private ReportType type;
+
+    private LocalDate date;       // DAILY_SALES
+    private Integer year;         // MONTHLY_SALES
+    private Integer month;        // MONTHLY_SALES
+    private Long driverId;        // DRIVER_PERFORMANCE
+    private LocalDate startDate;  // DRIVER_PERFORMANCE, ORDER_LIST
+    private LocalDate endDate;    // DRIVER_PERFORMANCE, ORDER_LIST
+}
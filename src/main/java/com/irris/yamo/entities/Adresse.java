@@ -3,6 +3,7 @@ package com.irris.yamo.entities;
 
 
 import com.irris.yamo.entities.enums.AddressType;
+import com.irris.yamo.service.geo.AddressChangeListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,6 +11,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
+@EntityListeners(AddressChangeListener.class)
 public class Adresse {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,6 +3,7 @@ package com.irris.yamo.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.irris.yamo.entities.enums.InstanceStatus;
 import com.irris.yamo.entities.enums.ProcessingStatus;
+import com.irris.yamo.service.stats.OrderProgressListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,6 +13,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(OrderProgressListener.class)
 @Getter
 @Setter
 public class ArticleInstance {
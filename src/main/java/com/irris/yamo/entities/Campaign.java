@@ -0,0 +1,92 @@
+package com.irris.yamo.entities;
+
+import com.irris.yamo.entities.enums.CampaignStatus;
+import com.irris.yamo.entities.enums.CustomerSegment;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Campagne de notification d'un segment de clients, envoyée par pages avec
+ * point de reprise (dernier client traité)
+ */
+@Entity
+@Table(name = "campaigns")
+@Getter
+@Setter
+@NoArgsConstructor
+public class Campaign {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "promotion_id")
+    private Promotion promotion;
+
+    // Ciblage : segment et/ou au moins un des tags (vides = tous les clients actifs)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "customer_segment")
+    private CustomerSegment segment;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "campaign_tags", joinColumns = @JoinColumn(name = "campaign_id"))
+    @Column(name = "tag")
+    private Set<String> tags = new HashSet<>();
+
+    // Canaux demandés, croisés avec les préférences de chaque client
+    private boolean emailChannel;
+    private boolean smsChannel;
+    private boolean pushChannel;
+
+    private String subject;
+
+    // Modèle {{variable}} : firstName, lastName, customerName, promotionTitle, promoCode
+    @Column(nullable = false, columnDefinition = "text")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CampaignStatus status = CampaignStatus.PENDING;
+
+    // Point de reprise : id du dernier client entièrement traité
+    @Column(name = "last_customer_id", nullable = false)
+    private Long lastCustomerId = 0L;
+
+    @Column(name = "targeted_count", nullable = false)
+    private long targetedCount;
+
+    @Column(name = "sent_count", nullable = false)
+    private long sentCount;
+
+    // Envois en échec confiés à l'outbox (nouvel essai différé)
+    @Column(name = "deferred_count", nullable = false)
+    private long deferredCount;
+
+    // Canal demandé mais coordonnée absente ou invalide
+    @Column(name = "skipped_count", nullable = false)
+    private long skippedCount;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
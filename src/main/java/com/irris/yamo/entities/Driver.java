@@ -1,5 +1,6 @@
 package com.irris.yamo.entities;
 
+import com.irris.yamo.service.geo.DriverChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(DriverChangeListener.class)
 public class Driver extends UserYamo{
 
     @Column(name = "cni_number")
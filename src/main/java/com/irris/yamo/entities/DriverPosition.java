@@ -0,0 +1,43 @@
+package com.irris.yamo.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Point de trajectoire d'un chauffeur (sous-échantillonné, voir DriverPositionStore)
+ */
+@Entity
+@Table(name = "driver_positions", indexes = {
+        @Index(name = "idx_driver_positions_driver_time", columnList = "driver_id, recorded_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class DriverPosition {
+    // Séquence plutôt qu'IDENTITY : permet l'insertion par lots (hibernate.jdbc.batch_size)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "driver_positions_seq")
+    @SequenceGenerator(name = "driver_positions_seq", sequenceName = "driver_positions_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "driver_id", nullable = false)
+    @JsonIgnore
+    private Driver driver;
+
+    private Double latitude;
+    private Double longitude;
+
+    @Column(name = "speed_kmh")
+    private Double speedKmh;
+
+    private Double heading;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+}
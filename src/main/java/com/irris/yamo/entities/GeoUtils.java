@@ -13,12 +13,26 @@ public class GeoUtils {
             return 0.0;
         }
 
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
 
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return haversineRadians(
+            lat1Rad, Math.toRadians(lon1), Math.cos(lat1Rad),
+            lat2Rad, Math.toRadians(lon2), Math.cos(lat2Rad)
+        );
+    }
+
+    /**
+     * Haversine sur des coordonnées déjà converties en radians, avec cos(latitude)
+     * précalculé : évite toRadians/cos répétés dans les boucles O(n²)
+     * @return Distance en kilomètres
+     */
+    public static double haversineRadians(double lat1, double lon1, double cosLat1,
+                                          double lat2, double lon2, double cosLat2) {
+        double sinDLat = Math.sin((lat2 - lat1) / 2);
+        double sinDLon = Math.sin((lon2 - lon1) / 2);
+
+        double a = sinDLat * sinDLat + cosLat1 * cosLat2 * sinDLon * sinDLon;
 
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
 
@@ -1,6 +1,7 @@
 package com.irris.yamo.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.irris.yamo.service.pricing.LaundryServicePriceListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,6 +11,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(LaundryServicePriceListener.class)
 @Getter
 @Setter
 public class LaundryService {
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import com.irris.yamo.entities.enums.OrderStatus;
 import com.irris.yamo.entities.enums.PaymentStatus;
+import com.irris.yamo.service.stats.OrderProgressListener;
+import com.irris.yamo.service.stats.OrderStatisticsListener;
+import com.irris.yamo.service.stats.OrderStatsState;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -15,13 +18,39 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at", columnList = "created_at"),
+        @Index(name = "idx_orders_fully_paid", columnList = "fully_paid, status"),
+        @Index(name = "idx_orders_fully_processed", columnList = "fully_processed, required_completion_date")
+})
+@EntityListeners({OrderStatisticsListener.class, OrderProgressListener.class})
+@NamedEntityGraphs({
+        // Listes paginées : associations à un élément uniquement (la limite reste appliquée en SQL)
+        @NamedEntityGraph(name = Order.GRAPH_SUMMARY, attributeNodes = {
+                @NamedAttributeNode("customer"),
+                @NamedAttributeNode("appliedPromotion"),
+                @NamedAttributeNode("invoice")
+        }),
+        // Listes non paginées et détail : articles et catégories chargés dans la même requête
+        @NamedEntityGraph(name = Order.GRAPH_DETAIL, attributeNodes = {
+                @NamedAttributeNode("customer"),
+                @NamedAttributeNode("appliedPromotion"),
+                @NamedAttributeNode("invoice"),
+                @NamedAttributeNode(value = "articles", subgraph = "articles")
+        }, subgraphs = @NamedSubgraph(name = "articles", attributeNodes = @NamedAttributeNode("category")))
+})
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Order {
+
+    // Plans de chargement ; les autres collections (paiements, instances, suivis)
+    // sont chargées par lots (hibernate.default_batch_fetch_size)
+    public static final String GRAPH_SUMMARY = "Order.summary";
+    public static final String GRAPH_DETAIL = "Order.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -81,12 +110,38 @@ public class Order {
     private BigDecimal deliveryPrice = BigDecimal.ZERO;
 
 
+    @Column(name = "required_completion_date")
     private LocalDateTime requiredCompletionDate;
 
     private boolean wasReceived = false;
     private boolean wasSorted = false;
     private boolean wasProcessed = false;
     private boolean wasPackaged = false;
+
+    // État de paiement et d'avancement dénormalisé, recalculé après commit par
+    // OrderProgressUpdater ; jamais écrit par le flush de l'entité (null tant que non calculé)
+    @Column(name = "paid_amount", precision = 12, scale = 2, insertable = false, updatable = false)
+    private BigDecimal amountPaid;
+
+    @Column(name = "instance_count", insertable = false, updatable = false)
+    private Integer instanceCount;
+
+    @Column(name = "processed_instance_count", insertable = false, updatable = false)
+    private Integer processedInstanceCount;
+
+    @Column(name = "progress_percentage", insertable = false, updatable = false)
+    private Double progressPercentage;
+
+    @Column(name = "fully_paid", insertable = false, updatable = false)
+    private Boolean paymentComplete;
+
+    @Column(name = "fully_processed", insertable = false, updatable = false)
+    private Boolean processingComplete;
+
+    // Dernier état persisté, utilisé pour les compteurs du tableau de bord
+    @Transient
+    @JsonIgnore
+    private OrderStatsState persistedStatsState;
     
 
 
@@ -117,10 +172,8 @@ public class Order {
     }
 
     public boolean isFullyPaid() {
-        BigDecimal totalPaid = payments.stream()
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        return totalPaid.compareTo(totalAmount) >= 0;
+        // Seuls les paiements validés comptent, comme pour la colonne fully_paid
+        return getPaidAmount().compareTo(totalAmount) >= 0;
     }
 
 
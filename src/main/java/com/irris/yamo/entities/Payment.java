@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import com.irris.yamo.entities.enums.PaymentMethod;
 import com.irris.yamo.entities.enums.PaymentStatus;
+import com.irris.yamo.service.stats.OrderProgressListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,6 +13,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(OrderProgressListener.class)
 @Getter
 @Setter
 public class Payment {
@@ -3,6 +3,7 @@ package com.irris.yamo.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import com.irris.yamo.entities.enums.ProcessingStatus;
+import com.irris.yamo.service.stats.OrderProgressListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "process_step_tracking")
+@EntityListeners(OrderProgressListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -2,6 +2,7 @@ package com.irris.yamo.entities;
 
 import com.irris.yamo.entities.enums.PromotionTarget;
 import com.irris.yamo.entities.enums.PromotionType;
+import com.irris.yamo.service.promotion.PromotionChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,6 +12,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(PromotionChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -93,7 +95,8 @@ public class Promotion {
     private Integer maxUsagePerCustomer;
     private Integer maxTotalUsage;
     
-    @Column(nullable = false)
+    // Écrit uniquement par PromotionUsageCounters (mise à jour incrémentale)
+    @Column(nullable = false, updatable = false)
     private Integer currentUsageCount = 0;
     
     // Ciblage clients
@@ -141,10 +144,6 @@ public class Promotion {
         return maxTotalUsage != null && currentUsageCount >= maxTotalUsage;
     }
     
-    public void incrementUsage() {
-        this.currentUsageCount++;
-    }
-    
     public boolean isEligible(UserYamo customer) {
         if (eligibleCustomers != null && !eligibleCustomers.isEmpty()) {
             return eligibleCustomers.contains(customer);
@@ -0,0 +1,59 @@
+package com.irris.yamo.entities;
+
+import com.irris.yamo.entities.enums.ReportJobStatus;
+import com.irris.yamo.entities.enums.ReportType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Génération de rapport en arrière-plan, le fichier produit est conservé dans le stockage local
+ */
+@Entity
+@Table(name = "report_jobs", indexes = {
+        @Index(name = "idx_report_jobs_request_key", columnList = "request_key, status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReportJob {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportType type;
+
+    // Type + paramètres normalisés : deux demandes identiques ont la même clé
+    @Column(name = "request_key", nullable = false)
+    private String requestKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportJobStatus status = ReportJobStatus.PENDING;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "requested_by")
+    private String requestedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -133,6 +133,13 @@ public class UserYamo implements UserDetails {
     // ========================================
     
     public String getFullName() {
+        return formatFullName(firstName, lastName, email, gender);
+    }
+    
+    /**
+     * Nom complet avec civilité, aussi utilisé par les projections de rapports
+     */
+    public static String formatFullName(String firstName, String lastName, String email, Gender gender) {
         if (firstName == null || lastName == null) {
             return email;
         }
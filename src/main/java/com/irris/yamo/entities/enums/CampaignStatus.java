@@ -0,0 +1,9 @@
+package com.irris.yamo.entities.enums;
+
+public enum CampaignStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.irris.yamo.entities.enums;
+
+public enum NotificationChannel {
+    EMAIL,
+    SMS,
+    PUSH
+}
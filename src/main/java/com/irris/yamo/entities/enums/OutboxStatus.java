@@ -0,0 +1,8 @@
+package com.irris.yamo.entities.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.irris.yamo.entities.enums;
+
+public enum ReportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.irris.yamo.entities.enums;
+
+public enum ReportType {
+    DAILY_SALES,
+    MONTHLY_SALES,
+    DRIVER_PERFORMANCE,
+    ORDER_LIST
+}
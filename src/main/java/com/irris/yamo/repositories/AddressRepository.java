@@ -3,7 +3,11 @@ package com.irris.yamo.repositories;
 
 import com.irris.yamo.entities.Adresse;
 import com.irris.yamo.entities.UserYamo;
+import com.irris.yamo.repositories.projection.GeoPoint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +15,17 @@ import java.util.List;
 @Repository
 public interface AddressRepository extends JpaRepository<Adresse, Long> {
     List<Adresse> findByUser(UserYamo user);
+
+    @Query("SELECT new com.irris.yamo.repositories.projection.GeoPoint(a.id, a.latitude, a.longitude) " +
+           "FROM Adresse a WHERE a.latitude IS NOT NULL AND a.longitude IS NOT NULL")
+    List<GeoPoint> findAllGeoPoints();
+
+    // Adresses sans coordonnées, parcourues par id croissant (pagination par curseur)
+    @Query("SELECT a FROM Adresse a WHERE (a.latitude IS NULL OR a.longitude IS NULL) " +
+           "AND a.id > :afterId ORDER BY a.id")
+    List<Adresse> findNotGeocodedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Pagination par curseur : ids strictement inférieurs au curseur, par id décroissant
+    @Query("SELECT a FROM Adresse a WHERE a.id < :beforeId ORDER BY a.id DESC")
+    List<Adresse> findPageBefore(@Param("beforeId") Long beforeId, Pageable pageable);
 }
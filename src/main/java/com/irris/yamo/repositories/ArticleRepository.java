@@ -3,6 +3,7 @@ package com.irris.yamo.repositories;
 import com.irris.yamo.entities.Article;
 import com.irris.yamo.entities.ArticleCategory;
 import com.irris.yamo.entities.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -25,4 +26,8 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
     
     @Query("SELECT a.category, COUNT(a) FROM Article a GROUP BY a.category")
     List<Object[]> countByCategory();
+
+    // Pagination par curseur : ids strictement inférieurs au curseur, par id décroissant
+    @Query("SELECT a FROM Article a WHERE a.id < :beforeId ORDER BY a.id DESC")
+    List<Article> findPageBefore(@Param("beforeId") Long beforeId, Pageable pageable);
 }
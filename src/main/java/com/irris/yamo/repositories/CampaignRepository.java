@@ -0,0 +1,44 @@
+package com.irris.yamo.repositories;
+
+import com.irris.yamo.entities.Campaign;
+import com.irris.yamo.entities.enums.CampaignStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface CampaignRepository extends JpaRepository<Campaign, Long> {
+
+    List<Campaign> findByStatusIn(Collection<CampaignStatus> statuses);
+
+    @Query("SELECT c.status FROM Campaign c WHERE c.id = :id")
+    CampaignStatus findStatusById(@Param("id") Long id);
+
+    // Mises à jour ciblées : une annulation concurrente n'est jamais écrasée par le travailleur
+
+    @Modifying
+    @Query("UPDATE Campaign c SET c.status = :status, c.startedAt = COALESCE(c.startedAt, :now), c.error = NULL " +
+           "WHERE c.id = :id AND c.status IN :from")
+    int start(@Param("id") Long id, @Param("from") Collection<CampaignStatus> from,
+              @Param("status") CampaignStatus status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Campaign c SET c.lastCustomerId = :lastCustomerId, " +
+           "c.targetedCount = c.targetedCount + :targeted, c.sentCount = c.sentCount + :sent, " +
+           "c.deferredCount = c.deferredCount + :deferred, c.skippedCount = c.skippedCount + :skipped " +
+           "WHERE c.id = :id")
+    int checkpoint(@Param("id") Long id, @Param("lastCustomerId") Long lastCustomerId,
+                   @Param("targeted") long targeted, @Param("sent") long sent,
+                   @Param("deferred") long deferred, @Param("skipped") long skipped);
+
+    @Modifying
+    @Query("UPDATE Campaign c SET c.status = :status, c.completedAt = :now, c.error = :error " +
+           "WHERE c.id = :id AND c.status IN :from")
+    int finish(@Param("id") Long id, @Param("from") Collection<CampaignStatus> from,
+               @Param("status") CampaignStatus status, @Param("error") String error,
+               @Param("now") LocalDateTime now);
+}
@@ -37,4 +37,8 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
     
     @Query("SELECT c.type, COUNT(c) FROM Complaint c GROUP BY c.type")
     List<Object[]> countByType();
+
+    // Pagination par curseur : ids strictement inférieurs au curseur, par id décroissant
+    @Query("SELECT c FROM Complaint c WHERE c.id < :beforeId ORDER BY c.id DESC")
+    List<Complaint> findPageBefore(@Param("beforeId") Long beforeId, Pageable pageable);
 }
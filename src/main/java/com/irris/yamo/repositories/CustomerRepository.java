@@ -3,9 +3,13 @@ package com.irris.yamo.repositories;
 import com.irris.yamo.entities.Customer;
 import com.irris.yamo.entities.enums.CustomerSegment;
 import com.irris.yamo.entities.enums.CustomerType;
+import com.irris.yamo.repositories.projection.CampaignRecipient;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,4 +41,28 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     // Clients avec dette
     @Query("SELECT c FROM Customer c WHERE c.customerDebt > 0")
     List<Customer> findCustomersWithDebt();
+
+    // Pagination par curseur : ids strictement inférieurs au curseur, par id décroissant
+    @Query("SELECT c FROM Customer c WHERE c.id < :beforeId ORDER BY c.id DESC")
+    List<Customer> findPageBefore(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Cibles d'une campagne par id croissant (reprise après le dernier client traité) ;
+    // seuls les clients ayant accepté au moins un des canaux demandés
+    @Query("SELECT new com.irris.yamo.repositories.projection.CampaignRecipient(c.id, c.firstName, c.lastName, " +
+           "c.email, c.gender, c.phoneNumber, c.emailNotifications, c.smsNotifications, c.pushNotifications) " +
+           "FROM Customer c WHERE c.id > :afterId AND c.isActive = true " +
+           "AND (:segment IS NULL OR c.customerSegment = :segment) " +
+           "AND (:anyTag = false OR EXISTS (SELECT t FROM c.tags t WHERE t IN :tags)) " +
+           "AND ((:email = true AND c.emailNotifications = true) " +
+           "OR (:sms = true AND c.smsNotifications = true) " +
+           "OR (:push = true AND c.pushNotifications = true)) " +
+           "ORDER BY c.id")
+    List<CampaignRecipient> findCampaignRecipients(@Param("afterId") Long afterId,
+                                                   @Param("segment") CustomerSegment segment,
+                                                   @Param("anyTag") boolean anyTag,
+                                                   @Param("tags") Collection<String> tags,
+                                                   @Param("email") boolean email,
+                                                   @Param("sms") boolean sms,
+                                                   @Param("push") boolean push,
+                                                   Pageable pageable);
 }
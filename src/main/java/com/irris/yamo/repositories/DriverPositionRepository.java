@@ -0,0 +1,14 @@
+package com.irris.yamo.repositories;
+
+import com.irris.yamo.entities.DriverPosition;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DriverPositionRepository extends JpaRepository<DriverPosition, Long> {
+
+    // Trajectoire d'un chauffeur sur une période
+    List<DriverPosition> findByDriverIdAndRecordedAtBetweenOrderByRecordedAtAsc(
+            Long driverId, LocalDateTime start, LocalDateTime end);
+}
@@ -1,10 +1,13 @@
 package com.irris.yamo.repositories;
 
 import com.irris.yamo.entities.Driver;
+import com.irris.yamo.repositories.projection.GeoPoint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,23 @@ public interface DriverRepository extends JpaRepository<Driver, Long> {
     @Query("SELECT d FROM Driver d WHERE d.isAvailable = true AND d.isActive = true")
     List<Driver> findAvailableDrivers();
     
+    @Query("SELECT d FROM Driver d LEFT JOIN FETCH d.baseLocation WHERE d.isAvailable = true AND d.isActive = true")
+    List<Driver> findAvailableDriversWithBaseLocation();
+    
+    @Query("SELECT d.id FROM Driver d WHERE d.isAvailable = true AND d.isActive = true")
+    List<Long> findAvailableDriverIds();
+    
+    // Position de repli des chauffeurs : leur base
+    @Query("SELECT new com.irris.yamo.repositories.projection.GeoPoint(d.id, b.latitude, b.longitude) " +
+           "FROM Driver d JOIN d.baseLocation b WHERE d.isActive = true " +
+           "AND b.latitude IS NOT NULL AND b.longitude IS NOT NULL")
+    List<GeoPoint> findBaseLocationGeoPoints();
+
+    // Chauffeurs actifs parmi ceux donnés, base éventuellement absente (coordonnées nulles)
+    @Query("SELECT new com.irris.yamo.repositories.projection.GeoPoint(d.id, b.latitude, b.longitude) " +
+           "FROM Driver d LEFT JOIN d.baseLocation b WHERE d.id IN :ids AND d.isActive = true")
+    List<GeoPoint> findActiveGeoPoints(@Param("ids") Collection<Long> ids);
+    
     // Recherche par type de véhicule
     List<Driver> findByVehicleType(String vehicleType);
     
@@ -33,4 +53,8 @@ public interface DriverRepository extends JpaRepository<Driver, Long> {
     // Compter chauffeurs disponibles par type véhicule
     @Query("SELECT COUNT(d) FROM Driver d WHERE d.vehicleType = :vehicleType AND d.isAvailable = true")
     Long countAvailableByVehicleType(@Param("vehicleType") String vehicleType);
+
+    // Pagination par curseur : ids strictement inférieurs au curseur, par id décroissant
+    @Query("SELECT d FROM Driver d WHERE d.id < :beforeId ORDER BY d.id DESC")
+    List<Driver> findPageBefore(@Param("beforeId") Long beforeId, Pageable pageable);
 }
@@ -3,14 +3,19 @@ package com.irris.yamo.repositories;
 
 import com.irris.yamo.entities.Invoice;
 import com.irris.yamo.entities.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
@@ -25,4 +30,17 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     @Query("SELECT i FROM Invoice i WHERE i.issueDate BETWEEN :startDate AND :endDate")
     List<Invoice> findInvoicesBetweenDates(@Param("startDate") LocalDateTime startDate,
                                            @Param("endDate") LocalDateTime endDate);
+
+    // Pagination par curseur : ids strictement inférieurs au curseur, par id décroissant
+    @Query("SELECT i FROM Invoice i WHERE i.id < :beforeId ORDER BY i.id DESC")
+    List<Invoice> findPageBefore(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Export au fil de l'eau (curseur JDBC) : associations à un élément chargées dans la même requête
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Invoice i JOIN FETCH i.order o " +
+           "WHERE i.issueDate >= :start AND i.issueDate < :end ORDER BY i.id")
+    Stream<Invoice> streamForExport(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
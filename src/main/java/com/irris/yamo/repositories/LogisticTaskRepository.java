@@ -50,6 +50,19 @@ public interface LogisticTaskRepository extends JpaRepository<LogisticTask, Long
     @Query("SELECT COUNT(lt) FROM LogisticTask lt WHERE lt.driver.id = :driverId AND CAST(lt.scheduledDate AS date) = :date AND lt.type = :taskType")
     long countTasksByDriverAndDateAndType(@Param("driverId") Long driverId, @Param("date") LocalDate date, @Param("taskType") TaskType taskType);
     
+    @Query("SELECT lt FROM LogisticTask lt LEFT JOIN FETCH lt.address WHERE lt.scheduledDate = :date AND lt.status = 'PENDING'")
+    List<LogisticTask> findPendingTasksForDayWithAddress(@Param("date") LocalDate date);
+    
+    // [driverId, nombre de tâches engagées, dernier ordre de passage engagé (0 si aucun)] pour une journée
+    @Query("SELECT lt.driver.id, COUNT(lt), COALESCE(MAX(lt.sequenceOrder), 0) FROM LogisticTask lt " +
+           "WHERE lt.driver IS NOT NULL AND lt.scheduledDate = :date " +
+           "AND lt.status NOT IN ('PENDING', 'CANCELLED') GROUP BY lt.driver.id")
+    List<Object[]> countCommittedTasksByDriverForDay(@Param("date") LocalDate date);
+    
+    long countByTypeAndStatus(TaskType type, TaskStatus status);
+    
+    long countByStatus(TaskStatus status);
+    
     // Nouvelles méthodes pour la gestion des livraisons
     boolean existsByOrderAndType(Order order, TaskType type);
     
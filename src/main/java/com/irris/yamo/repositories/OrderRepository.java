@@ -3,14 +3,27 @@ package com.irris.yamo.repositories;
 import com.irris.yamo.entities.Order;
 import com.irris.yamo.entities.UserYamo;
 import com.irris.yamo.entities.enums.OrderStatus;
+import com.irris.yamo.repositories.projection.CustomerOrderCount;
+import com.irris.yamo.repositories.projection.InstanceProgress;
+import com.irris.yamo.repositories.projection.OrderListRow;
+import com.irris.yamo.repositories.projection.SalesAggregate;
+import com.irris.yamo.repositories.projection.StatusCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -21,6 +34,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     List<Order> findByStatus(OrderStatus status);
     
+    @EntityGraph(Order.GRAPH_DETAIL)
     @Query("SELECT o FROM Order o WHERE o.customer.id = :customerId ORDER BY o.createdAt DESC")
     List<Order> findByCustomerIdOrderByDateDesc(@Param("customerId") Long customerId);
     
@@ -40,6 +54,22 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.status = 'READY' OR o.status = 'DELIVERY_SCHEDULED'")
     List<Order> findOrdersReadyForDelivery();
     
+    @EntityGraph(Order.GRAPH_DETAIL)
+    @Query("SELECT o FROM Order o WHERE o.status IN ('READY', 'DELIVERY_SCHEDULED') AND o.wasPackaged = true " +
+           "AND o.paymentComplete = true")
+    List<Order> findPaidPackagedReadyForDelivery();
+
+    @EntityGraph(Order.GRAPH_SUMMARY)
+    @Query("SELECT o FROM Order o WHERE o.processingComplete = false AND o.requiredCompletionDate < :now")
+    List<Order> findLateUnprocessed(@Param("now") LocalDateTime now);
+    
+    @EntityGraph(Order.GRAPH_DETAIL)
+    @Query("SELECT o FROM Order o WHERE o.wasProcessed = true AND o.wasPackaged = false")
+    List<Order> findReadyToPackage();
+    
+    @EntityGraph(Order.GRAPH_DETAIL)
+    List<Order> findByStatusAndWasReceivedFalse(OrderStatus status);
+    
     @Query("SELECT COUNT(o) FROM Order o WHERE o.customer.id = :customerId")
     Long countByCustomerId(@Param("customerId") Long customerId);
     
@@ -61,4 +91,112 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status IN :statuses")
     long countByStatusIn(@Param("statuses") List<OrderStatus> statuses);
+    
+    // Agrégats de ventes sur [start, end[ (utilise l'index idx_orders_created_at)
+    @Query("SELECT new com.irris.yamo.repositories.projection.SalesAggregate(" +
+           "COUNT(o), COALESCE(SUM(o.totalAmount), 0), COALESCE(SUM(o.discountAmount), 0)) " +
+           "FROM Order o WHERE o.createdAt >= :start AND o.createdAt < :end")
+    SalesAggregate aggregateSalesBetween(@Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end);
+    
+    // Commandes sur [start, end[ lues au fil de l'eau (curseur JDBC), sans entités gérées
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.irris.yamo.repositories.projection.OrderListRow(o.id, o.reference, " +
+           "c.firstName, c.lastName, c.email, c.gender, o.createdAt, o.totalAmount, o.status) " +
+           "FROM Order o JOIN o.customer c " +
+           "WHERE o.createdAt >= :start AND o.createdAt < :end ORDER BY o.createdAt")
+    Stream<OrderListRow> streamOrderListRows(@Param("start") LocalDateTime start,
+                                             @Param("end") LocalDateTime end);
+    
+    @Query("SELECT new com.irris.yamo.repositories.projection.StatusCount(o.status, COUNT(o)) " +
+           "FROM Order o GROUP BY o.status")
+    List<StatusCount> countGroupByStatus();
+    
+    @Query("SELECT new com.irris.yamo.repositories.projection.CustomerOrderCount(c.id, COUNT(o)) " +
+           "FROM Order o LEFT JOIN o.customer c GROUP BY c.id")
+    List<CustomerOrderCount> countGroupByCustomer();
+    
+    long countByStatusAndWasReceivedFalse(OrderStatus status);
+    
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.status IN ('READY', 'DELIVERY_SCHEDULED') AND o.wasPackaged = true " +
+           "AND o.paymentComplete = true")
+    long countPackagedReadyForDelivery();
+    
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.paymentComplete = false")
+    long countNotFullyPaid();
+    
+    @EntityGraph(Order.GRAPH_SUMMARY)
+    List<Order> findTop10ByOrderByCreatedAtDesc();
+
+    // Pagination par curseur : ids strictement inférieurs au curseur, par id décroissant
+    @EntityGraph(Order.GRAPH_SUMMARY)
+    @Query("SELECT o FROM Order o WHERE o.id < :beforeId ORDER BY o.id DESC")
+    List<Order> findPageBefore(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Export au fil de l'eau (curseur JDBC) : associations à un élément chargées dans la même requête
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o JOIN FETCH o.customer LEFT JOIN FETCH o.invoice " +
+           "WHERE o.createdAt >= :start AND o.createdAt < :end ORDER BY o.id")
+    Stream<Order> streamForExport(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // ========== Avancement du workflow (consommateurs d'événements) ==========
+
+    // Mises à jour ciblées : aucune autre colonne de la commande n'est réécrite
+    @Modifying
+    @Query("UPDATE Order o SET o.wasSorted = true WHERE o.id = :orderId AND o.wasSorted = false " +
+           "AND NOT EXISTS (SELECT a.id FROM Article a WHERE a.order = o AND a.wasSorted = false)")
+    int markSortedIfAllArticlesSorted(@Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.wasProcessed = true WHERE o.id = :orderId AND o.wasProcessed = false " +
+           "AND NOT EXISTS (SELECT a.id FROM Article a WHERE a.order = o AND a.wasProcessed = false)")
+    int markProcessedIfAllArticlesProcessed(@Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id = :orderId AND o.status = :from")
+    int updateStatusIfCurrent(@Param("orderId") Long orderId,
+                              @Param("from") OrderStatus from,
+                              @Param("to") OrderStatus to);
+
+    // ========== État dénormalisé (OrderProgressUpdater) ==========
+
+    @Query("SELECT DISTINCT a.order.id FROM ArticleInstance i JOIN i.article a WHERE i.id IN :instanceIds")
+    List<Long> findOrderIdsByInstanceIds(@Param("instanceIds") Collection<Long> instanceIds);
+
+    @Query("SELECT DISTINCT a.order.id FROM ArticleInstance i JOIN i.article a JOIN i.trackings t " +
+           "WHERE t.id IN :trackingIds")
+    List<Long> findOrderIdsByTrackingIds(@Param("trackingIds") Collection<Long> trackingIds);
+
+    @Query("SELECT new com.irris.yamo.repositories.projection.InstanceProgress(a.order.id, i.id, COUNT(t), " +
+           "SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END)) " +
+           "FROM ArticleInstance i JOIN i.article a LEFT JOIN i.trackings t " +
+           "WHERE a.order.id IN :orderIds GROUP BY a.order.id, i.id")
+    List<InstanceProgress> findInstanceProgress(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT o.id FROM Order o WHERE (o.amountPaid IS NULL OR o.progressPercentage IS NULL) " +
+           "AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsWithoutProgress(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.amountPaid = (SELECT COALESCE(SUM(p.amount), 0) FROM Payment p " +
+           "WHERE p.order = o AND p.status = 'COMPLETED') WHERE o.id IN :orderIds")
+    int refreshAmountPaid(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentComplete = " +
+           "CASE WHEN o.amountPaid >= COALESCE(o.totalAmount, 0) THEN true ELSE false END " +
+           "WHERE o.id IN :orderIds")
+    int refreshPaymentComplete(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.instanceCount = :instances, o.processedInstanceCount = :processed, " +
+           "o.progressPercentage = :progress, o.processingComplete = :complete WHERE o.id = :orderId")
+    int updateProgress(@Param("orderId") Long orderId,
+                       @Param("instances") int instances,
+                       @Param("processed") int processed,
+                       @Param("progress") double progress,
+                       @Param("complete") boolean complete);
 }
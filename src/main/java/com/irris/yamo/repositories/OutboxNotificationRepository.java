@@ -0,0 +1,33 @@
+package com.irris.yamo.repositories;
+
+import com.irris.yamo.entities.OutboxNotification;
+import com.irris.yamo.entities.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxNotificationRepository extends JpaRepository<OutboxNotification, Long> {
+
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    // Lot à envoyer : en attente ou bail expiré ; SKIP LOCKED (-2) laisse les lignes prises par une autre instance
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT n FROM OutboxNotification n WHERE n.status IN ('PENDING', 'SENDING') " +
+           "AND n.nextAttemptAt <= :now ORDER BY n.id")
+    List<OutboxNotification> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxNotification n WHERE n.status = :status AND n.createdAt < :before")
+    int deleteByStatusAndCreatedAtBefore(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+}
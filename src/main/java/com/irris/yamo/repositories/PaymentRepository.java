@@ -4,14 +4,18 @@ import com.irris.yamo.entities.Order;
 import com.irris.yamo.entities.Payment;
 import com.irris.yamo.entities.enums.PaymentMethod;
 import com.irris.yamo.entities.enums.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -42,4 +46,13 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.status = 'COMPLETED'")
     java.math.BigDecimal sumAllCompletedPayments();
+
+    // Export au fil de l'eau (curseur JDBC) : associations à un élément chargées dans la même requête
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p JOIN FETCH p.order o LEFT JOIN FETCH o.invoice LEFT JOIN FETCH p.receipt " +
+           "WHERE p.paymentDate >= :start AND p.paymentDate < :end ORDER BY p.id")
+    Stream<Payment> streamForExport(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
@@ -2,7 +2,10 @@ package com.irris.yamo.repositories;
 
 import com.irris.yamo.entities.Promotion;
 import com.irris.yamo.entities.enums.PromotionTarget;
+import com.irris.yamo.repositories.projection.PromoCodeEntry;
+import com.irris.yamo.repositories.projection.PromotionUsageState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +20,14 @@ public interface PromotionRepository extends JpaRepository<Promotion, Long> {
     // Trouver par code promo
     Optional<Promotion> findByPromoCode(String promoCode);
     
+    // Index des codes promo (PromoCodeIndex)
+    @Query("SELECT new com.irris.yamo.repositories.projection.PromoCodeEntry(p.id, p.promoCode) " +
+           "FROM Promotion p WHERE p.promoCode IS NOT NULL")
+    List<PromoCodeEntry> findPromoCodeEntries();
+
+    @Query("SELECT p.promoCode FROM Promotion p WHERE p.id = :id")
+    Optional<String> findPromoCodeById(@Param("id") Long id);
+
     // Promotions actives
     @Query("SELECT p FROM Promotion p WHERE p.isActive = true " +
            "AND (p.startDate IS NULL OR p.startDate <= :now) " +
@@ -38,6 +49,18 @@ public interface PromotionRepository extends JpaRepository<Promotion, Long> {
            "ORDER BY p.priority DESC")
     List<Promotion> findAutoApplyPromotions(@Param("now") LocalDateTime now);
     
+    // Promotions automatiques actives, toutes périodes (index des règles)
+    List<Promotion> findByIsActiveTrueAndAutoApplyTrue();
+
     // Promotions par cible
     List<Promotion> findByTargetAndIsActiveTrue(PromotionTarget target);
+
+    // Compteurs d'utilisation (PromotionUsageCounters)
+    @Query("SELECT new com.irris.yamo.repositories.projection.PromotionUsageState(p.id, p.maxTotalUsage, " +
+           "p.maxUsagePerCustomer, p.currentUsageCount) FROM Promotion p WHERE p.id = :id")
+    Optional<PromotionUsageState> findUsageState(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Promotion p SET p.currentUsageCount = p.currentUsageCount + :delta WHERE p.id = :id")
+    int addUsage(@Param("id") Long id, @Param("delta") int delta);
 }
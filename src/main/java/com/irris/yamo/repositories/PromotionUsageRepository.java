@@ -3,7 +3,10 @@ package com.irris.yamo.repositories;
 import com.irris.yamo.entities.Promotion;
 import com.irris.yamo.entities.PromotionUsage;
 import com.irris.yamo.entities.UserYamo;
+import com.irris.yamo.repositories.projection.CustomerUsageCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,4 +21,11 @@ public interface PromotionUsageRepository extends JpaRepository<PromotionUsage,
     long countByPromotionAndCustomer(Promotion promotion, UserYamo customer);
     
     long countByPromotion(Promotion promotion);
+
+    @Query("SELECT COUNT(u) FROM PromotionUsage u WHERE u.promotion.id = :promotionId")
+    long countByPromotionId(@Param("promotionId") Long promotionId);
+
+    @Query("SELECT new com.irris.yamo.repositories.projection.CustomerUsageCount(u.customer.id, COUNT(u)) " +
+           "FROM PromotionUsage u WHERE u.promotion.id = :promotionId GROUP BY u.customer.id")
+    List<CustomerUsageCount> countByCustomerForPromotion(@Param("promotionId") Long promotionId);
 }
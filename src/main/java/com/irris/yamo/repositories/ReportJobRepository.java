@@ -0,0 +1,21 @@
+package com.irris.yamo.repositories;
+
+import com.irris.yamo.entities.ReportJob;
+import com.irris.yamo.entities.enums.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReportJobRepository extends JpaRepository<ReportJob, String> {
+
+    // Dernier rapport terminé pour une même demande
+    Optional<ReportJob> findFirstByRequestKeyAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+            String requestKey, ReportJobStatus status, LocalDateTime completedAfter);
+
+    List<ReportJob> findByStatusIn(Collection<ReportJobStatus> statuses);
+
+    List<ReportJob> findByCreatedAtBefore(LocalDateTime date);
+}
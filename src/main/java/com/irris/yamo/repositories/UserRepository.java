@@ -2,8 +2,10 @@ package com.irris.yamo.repositories;
 
 import com.irris.yamo.entities.UserYamo;
 import com.irris.yamo.entities.enums.Role;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -38,4 +40,8 @@ public interface UserRepository extends JpaRepository<UserYamo, Long> {
     // Existence
     boolean existsByEmail(String email);
     boolean existsByPhoneNumber(String phoneNumber);
+
+    // Pagination par curseur : ids strictement inférieurs au curseur, par id décroissant
+    @Query("SELECT u FROM UserYamo u WHERE u.id < :beforeId ORDER BY u.id DESC")
+    List<UserYamo> findPageBefore(@Param("beforeId") Long beforeId, Pageable pageable);
 }
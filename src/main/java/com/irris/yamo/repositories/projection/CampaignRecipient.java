@@ -0,0 +1,11 @@
+package com.irris.yamo.repositories.projection;
+
+import com.irris.yamo.entities.enums.Gender;
+
+/**
+ * Coordonnées et préférences d'un client ciblé par une campagne
+ */
+public record CampaignRecipient(Long id, String firstName, String lastName, String email, Gender gender,
+                                String phoneNumber, Boolean emailNotifications, Boolean smsNotifications,
+                                Boolean pushNotifications) {
+}
@@ -0,0 +1,7 @@
+package com.irris.yamo.repositories.projection;
+
+/**
+ * Nombre de commandes d'un client (customerId null pour les commandes sans client)
+ */
+public record CustomerOrderCount(Long customerId, Long count) {
+}
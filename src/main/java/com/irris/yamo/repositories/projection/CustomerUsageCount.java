@@ -0,0 +1,7 @@
+package com.irris.yamo.repositories.projection;
+
+/**
+ * Nombre d'utilisations d'une promotion par un client
+ */
+public record CustomerUsageCount(Long customerId, Long count) {
+}
@@ -0,0 +1,7 @@
+package com.irris.yamo.repositories.projection;
+
+/**
+ * Coordonnées d'une entité géolocalisée (adresse, chauffeur)
+ */
+public record GeoPoint(Long id, Double latitude, Double longitude) {
+}
@@ -0,0 +1,7 @@
+package com.irris.yamo.repositories.projection;
+
+/**
+ * Avancement d'une instance d'article : nombre d'étapes suivies et d'étapes terminées
+ */
+public record InstanceProgress(Long orderId, Long instanceId, Long steps, Long completedSteps) {
+}
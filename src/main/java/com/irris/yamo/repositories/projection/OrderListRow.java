@@ -0,0 +1,20 @@
+package com.irris.yamo.repositories.projection;
+
+import com.irris.yamo.entities.UserYamo;
+import com.irris.yamo.entities.enums.Gender;
+import com.irris.yamo.entities.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la liste des commandes (rapports, exports), sans entité gérée
+ */
+public record OrderListRow(Long id, String reference, String customerFirstName, String customerLastName,
+                           String customerEmail, Gender customerGender, LocalDateTime createdAt,
+                           BigDecimal totalAmount, OrderStatus status) {
+
+    public String customerName() {
+        return UserYamo.formatFullName(customerFirstName, customerLastName, customerEmail, customerGender);
+    }
+}
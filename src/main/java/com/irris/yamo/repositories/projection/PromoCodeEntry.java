@@ -0,0 +1,7 @@
+package com.irris.yamo.repositories.projection;
+
+/**
+ * Code promo d'une promotion (index des codes)
+ */
+public record PromoCodeEntry(Long id, String promoCode) {
+}
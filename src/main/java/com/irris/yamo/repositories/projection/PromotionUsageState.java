@@ -0,0 +1,8 @@
+package com.irris.yamo.repositories.projection;
+
+/**
+ * Limites et compteur d'utilisation d'une promotion
+ */
+public record PromotionUsageState(Long id, Integer maxTotalUsage, Integer maxUsagePerCustomer,
+                                  Integer currentUsageCount) {
+}
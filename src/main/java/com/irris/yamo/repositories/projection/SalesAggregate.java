@@ -0,0 +1,13 @@
+package com.irris.yamo.repositories.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Agrégat des ventes calculé côté base (COUNT / SUM) sur une plage de dates.
+ */
+public record SalesAggregate(
+        Long orderCount,
+        BigDecimal totalRevenue,
+        BigDecimal totalDiscount
+) {
+}
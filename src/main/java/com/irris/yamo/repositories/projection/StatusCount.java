@@ -0,0 +1,9 @@
+package com.irris.yamo.repositories.projection;
+
+import com.irris.yamo.entities.enums.OrderStatus;
+
+/**
+ * Nombre de commandes pour un statut donné
+ */
+public record StatusCount(OrderStatus status, Long count) {
+}
@@ -1,7 +1,7 @@
 package com.irris.yamo.security;
 
-import com.irris.yamo.entities.UserYamo;
-import com.irris.yamo.repositories.UserRepository;
+import com.irris.yamo.entities.enums.Role;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +9,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -16,6 +18,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -23,7 +26,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationStore tokenRevocationStore;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,28 +37,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extraire le token JWT de la requête
             String jwt = getJwtFromRequest(request);
 
-            // Valider et authentifier
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            // Valider et authentifier (un seul parsing du token)
+            Claims claims = StringUtils.hasText(jwt) ? jwtTokenProvider.parseClaims(jwt) : null;
+            if (claims != null && !jwtTokenProvider.isRefreshToken(claims)) {
+                Long userId = jwtTokenProvider.getUserId(claims);
 
-                // Charger l'utilisateur
-                UserYamo user = userRepository.findById(userId)
-                        .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+                // Token révoqué (déconnexion, désactivation du compte)
+                if (tokenRevocationStore.isRevoked(claims.getId(), userId, claims.getIssuedAt().getTime())) {
+                    log.debug("Token révoqué pour l'utilisateur {}", userId);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
-                // Créer l'authentification
-                UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(
-                                user, 
-                                null, 
-                                user.getAuthorities()
-                        );
-                
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // Compte encore actif (cache, sans requête en base à chaque appel)
+                JwtUserPrincipal user = userPrincipalCache.get(userId);
+                if (user == null || !user.active()) {
+                    log.debug("Utilisateur {} inexistant ou désactivé", userId);
+                } else {
+                    // Autorités issues du rôle porté par le token (préfixe ROLE_ déjà inclus)
+                    String role = claims.get("role", String.class);
+                    List<GrantedAuthority> authorities = role != null
+                            ? List.of(new SimpleGrantedAuthority(Role.valueOf(role).name()))
+                            : List.of();
 
-                // Définir l'authentification dans le contexte de sécurité
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(user, null, authorities);
 
-                log.debug("Utilisateur authentifié: {} avec rôle: {}", user.getUsername(), user.getRole());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    // Définir l'authentification dans le contexte de sécurité
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+
+                    log.debug("Utilisateur authentifié: {} avec rôle: {}", user.username(), role);
+                }
             }
         } catch (Exception ex) {
             log.error("Impossible d'authentifier l'utilisateur", ex);
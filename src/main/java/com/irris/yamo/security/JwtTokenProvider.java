@@ -3,12 +3,14 @@ package com.irris.yamo.security;
 import com.irris.yamo.entities.UserYamo;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -23,6 +25,18 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration:86400000}") // 24 heures par défaut
     private Long jwtRefreshExpiration;
 
+    // Clé et parser construits une seule fois (thread-safe)
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     /**
      * Génère un token JWT pour l'utilisateur
      */
@@ -31,13 +45,14 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getId().toString())
                 .claim("username", user.getUsername())
                 .claim("email", user.getEmail())
                 .claim("role", user.getRole().name())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -49,24 +64,44 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtRefreshExpiration);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getId().toString())
                 .claim("type", "refresh")
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Vérifie la signature et l'expiration du token et retourne ses claims,
+     * ou null si le token est invalide. Un seul parsing par requête.
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (MalformedJwtException ex) {
+            log.error("Token JWT mal formé");
+        } catch (ExpiredJwtException ex) {
+            log.error("Token JWT expiré");
+        } catch (UnsupportedJwtException ex) {
+            log.error("Token JWT non supporté");
+        } catch (IllegalArgumentException ex) {
+            log.error("Claims JWT vide");
+        } catch (JwtException ex) {
+            log.error("Token JWT invalide: {}", ex.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Extrait l'ID utilisateur du token
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getUserId(parser.parseSignedClaims(token).getPayload());
+    }
 
+    public Long getUserId(Claims claims) {
         return Long.parseLong(claims.getSubject());
     }
 
@@ -74,35 +109,14 @@ public class JwtTokenProvider {
      * Extrait le username du token
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.get("username", String.class);
+        return parser.parseSignedClaims(token).getPayload().get("username", String.class);
     }
 
     /**
      * Valide le token JWT
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (MalformedJwtException ex) {
-            log.error("Token JWT mal formé");
-        } catch (ExpiredJwtException ex) {
-            log.error("Token JWT expiré");
-        } catch (UnsupportedJwtException ex) {
-            log.error("Token JWT non supporté");
-        } catch (IllegalArgumentException ex) {
-            log.error("Claims JWT vide");
-        }
-        return false;
+        return parseClaims(token) != null;
     }
 
     /**
@@ -110,12 +124,7 @@ public class JwtTokenProvider {
      */
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
+            Claims claims = parser.parseSignedClaims(token).getPayload();
             return claims.getExpiration().before(new Date());
         } catch (Exception e) {
             return true;
@@ -126,19 +135,13 @@ public class JwtTokenProvider {
      * Obtient la date d'expiration du token
      */
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getExpiration();
+        return parser.parseSignedClaims(token).getPayload().getExpiration();
     }
 
     /**
-     * Génère la clé de signature
+     * Indique si le token est un refresh token (non utilisable pour authentifier une requête)
      */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public boolean isRefreshToken(Claims claims) {
+        return "refresh".equals(claims.get("type", String.class));
     }
 }
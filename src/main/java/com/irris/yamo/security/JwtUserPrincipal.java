@@ -0,0 +1,23 @@
+package com.irris.yamo.security;
+
+import com.irris.yamo.entities.UserYamo;
+import com.irris.yamo.entities.enums.Role;
+
+import java.security.Principal;
+
+/**
+ * Utilisateur authentifié par JWT : état minimal conservé en cache à la place
+ * de l'entité UserYamo complète
+ */
+public record JwtUserPrincipal(Long id, String username, Role role, boolean active) implements Principal {
+
+    public static JwtUserPrincipal from(UserYamo user) {
+        return new JwtUserPrincipal(user.getId(), user.getUsername(), user.getRole(),
+                Boolean.TRUE.equals(user.getIsActive()));
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
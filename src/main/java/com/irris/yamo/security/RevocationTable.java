@@ -0,0 +1,151 @@
+package com.irris.yamo.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Table de hachage à adressage ouvert (sondage linéaire) de clés (long, long)
+ * associées à une valeur et une date d'expiration.
+ *
+ * Lecture sans verrou ni allocation : un slot n'est jamais réattribué à une
+ * autre clé, sa date d'expiration (écriture volatile, publiée en dernier) sert
+ * de marqueur d'occupation. Les entrées expirées sont éliminées lors de la
+ * reconstruction de la table, qui remplace la référence publiée.
+ */
+final class RevocationTable {
+
+    static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private static final class Slots {
+        final long[] keys1;
+        final long[] keys2;
+        final AtomicLongArray values;
+        final AtomicLongArray expiresAt; // 0 = slot libre
+        final int mask;
+        int used;
+
+        Slots(int capacity) {
+            keys1 = new long[capacity];
+            keys2 = new long[capacity];
+            values = new AtomicLongArray(capacity);
+            expiresAt = new AtomicLongArray(capacity);
+            mask = capacity - 1;
+        }
+    }
+
+    private volatile Slots slots = new Slots(MIN_CAPACITY);
+
+    /**
+     * Valeur associée à la clé si elle n'a pas expiré, sinon ABSENT
+     */
+    long get(long key1, long key2, long nowMillis) {
+        Slots table = slots;
+        int index = index(key1, key2, table.mask);
+        while (true) {
+            long expires = table.expiresAt.get(index);
+            if (expires == 0) {
+                return ABSENT;
+            }
+            if (table.keys1[index] == key1 && table.keys2[index] == key2) {
+                long value = table.values.get(index);
+                return expires > nowMillis ? value : ABSENT;
+            }
+            index = (index + 1) & table.mask;
+        }
+    }
+
+    /**
+     * Ajoute ou remplace l'entrée ; la valeur et l'expiration retenues sont les plus grandes
+     *
+     * @return vrai si la clé n'avait pas d'entrée non expirée avant cet appel
+     */
+    synchronized boolean put(long key1, long key2, long value, long expiresAtMillis, long nowMillis) {
+        Slots table = slots;
+        if ((table.used + 1) * 2 > table.mask + 1) {
+            table = rebuild(nowMillis);
+        }
+        int index = index(key1, key2, table.mask);
+        while (true) {
+            long expires = table.expiresAt.get(index);
+            if (expires == 0) {
+                table.keys1[index] = key1;
+                table.keys2[index] = key2;
+                table.values.set(index, value);
+                // Publication : la clé est visible avant que le slot ne soit marqué occupé
+                table.expiresAt.set(index, Math.max(expiresAtMillis, 1));
+                table.used++;
+                return true;
+            }
+            if (table.keys1[index] == key1 && table.keys2[index] == key2) {
+                boolean live = expires > nowMillis;
+                table.values.set(index, live ? Math.max(value, table.values.get(index)) : value);
+                table.expiresAt.set(index, live ? Math.max(expires, expiresAtMillis) : Math.max(expiresAtMillis, 1));
+                return !live;
+            }
+            index = (index + 1) & table.mask;
+        }
+    }
+
+    /**
+     * Parcourt les entrées non expirées : (key1, key2, value, expiresAt)
+     */
+    synchronized void forEachLive(long nowMillis, Consumer<long[]> consumer) {
+        Slots table = slots;
+        for (int i = 0; i <= table.mask; i++) {
+            long expires = table.expiresAt.get(i);
+            if (expires > nowMillis) {
+                consumer.accept(new long[]{table.keys1[i], table.keys2[i], table.values.get(i), expires});
+            }
+        }
+    }
+
+    synchronized int purge(long nowMillis) {
+        int before = slots.used;
+        return before - rebuild(nowMillis).used;
+    }
+
+    int size() {
+        return slots.used;
+    }
+
+    private Slots rebuild(long nowMillis) {
+        Slots current = slots;
+        int live = 0;
+        for (int i = 0; i <= current.mask; i++) {
+            if (current.expiresAt.get(i) > nowMillis) {
+                live++;
+            }
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < live * 4) {
+            capacity <<= 1;
+        }
+        Slots rebuilt = new Slots(capacity);
+        for (int i = 0; i <= current.mask; i++) {
+            long expires = current.expiresAt.get(i);
+            if (expires > nowMillis) {
+                int index = index(current.keys1[i], current.keys2[i], rebuilt.mask);
+                while (rebuilt.expiresAt.get(index) != 0) {
+                    index = (index + 1) & rebuilt.mask;
+                }
+                rebuilt.keys1[index] = current.keys1[i];
+                rebuilt.keys2[index] = current.keys2[i];
+                rebuilt.values.set(index, current.values.get(i));
+                rebuilt.expiresAt.set(index, expires);
+                rebuilt.used++;
+            }
+        }
+        slots = rebuilt;
+        return rebuilt;
+    }
+
+    private static int index(long key1, long key2, int mask) {
+        long h = key1 * 0x9E3779B97F4A7C15L ^ key2;
+        h ^= h >>> 33;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 29;
+        return (int) h & mask;
+    }
+}
@@ -40,18 +40,24 @@ public class SecurityConfig {
                         
                         // Endpoints Admin
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/api/campaigns/**").hasRole("ADMIN")
+                        .requestMatchers("/api/promo-codes/index/**").hasRole("ADMIN")
                         .requestMatchers("/api/users/**").hasAnyRole("ADMIN", "OPERATOR")
                         .requestMatchers("/api/reports/**").hasAnyRole("ADMIN", "OPERATOR")
+                        .requestMatchers("/api/exports/**").hasAnyRole("ADMIN", "OPERATOR")
                         
                         // Endpoints Operator
                         .requestMatchers("/api/orders/**").hasAnyRole("ADMIN", "OPERATOR", "CUSTOMER")
                         .requestMatchers("/api/processing/**").hasAnyRole("ADMIN", "OPERATOR")
+                        .requestMatchers("/api/maps/distance-matrix").hasAnyRole("ADMIN", "OPERATOR")
                         
                         // Endpoints Driver
+                        .requestMatchers("/api/logistics/dispatch").hasAnyRole("ADMIN", "OPERATOR")
                         .requestMatchers("/api/logistics/tasks/driver/**").hasRole("DRIVER")
                         .requestMatchers("/api/logistics/drivers/**").hasAnyRole("ADMIN", "OPERATOR", "DRIVER")
                         
                         // Endpoints Customer
+                        .requestMatchers("/api/addresses/geocode-missing/**").hasAnyRole("ADMIN", "OPERATOR")
                         .requestMatchers("/api/addresses/**").hasAnyRole("ADMIN", "OPERATOR", "CUSTOMER")
                         
                         // Tous les autres endpoints nécessitent authentification
@@ -0,0 +1,285 @@
+package com.irris.yamo.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Révocation des JWT côté serveur.
+ *
+ * Deux tables en mémoire (voir RevocationTable) : les identifiants (jti)
+ * des tokens révoqués, et par utilisateur la date avant laquelle tous ses
+ * tokens sont invalides (désactivation, suppression). Chaque entrée expire
+ * avec les tokens qu'elle concerne ; la vérification faite par le filtre à
+ * chaque requête est en O(1), sans verrou ni allocation.
+ *
+ * Chaque révocation est ajoutée à un journal binaire à enregistrements fixes,
+ * rejoué au démarrage puis compacté (entrées expirées retirées).
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore {
+
+    private static final byte TOKEN = 1;
+    private static final byte USER = 2;
+
+    // type (1) + clé (8 + 8) + valeur (8) + expiration (8)
+    private static final int RECORD_SIZE = 33;
+
+    private final RevocationTable revokedTokens = new RevocationTable();
+    private final RevocationTable revokedUsers = new RevocationTable();
+
+    private final Path logFile;
+    private final long maxTokenLifetimeMs;
+
+    private FileChannel journal;
+
+    public TokenRevocationStore(
+            @Value("${security.revocation.log-file:${java.io.tmpdir}/yamo-revocations.log}") String logFile,
+            @Value("${jwt.refresh-expiration:86400000}") long refreshExpirationMs,
+            @Value("${jwt.expiration:3600000}") long expirationMs) {
+        this.logFile = Path.of(logFile);
+        this.maxTokenLifetimeMs = Math.max(refreshExpirationMs, expirationMs);
+    }
+
+    // ========== Vérification (chemin critique) ==========
+
+    /**
+     * Vrai si le token a été révoqué, individuellement ou via son utilisateur
+     *
+     * @param jti            identifiant du token (UUID), null pour un token émis sans jti
+     * @param userId         sujet du token
+     * @param issuedAtMillis date d'émission du token
+     */
+    public boolean isRevoked(String jti, long userId, long issuedAtMillis) {
+        long now = System.currentTimeMillis();
+        long revokedBefore = revokedUsers.get(userId, 0L, now);
+        if (revokedBefore != RevocationTable.ABSENT && issuedAtMillis <= revokedBefore) {
+            return true;
+        }
+        if (!isUuid(jti)) {
+            return false;
+        }
+        return revokedTokens.get(uuidHigh(jti), uuidLow(jti), now) != RevocationTable.ABSENT;
+    }
+
+    // ========== Révocation ==========
+
+    /**
+     * Révoque un token jusqu'à son expiration
+     *
+     * @return vrai si cet appel l'a révoqué, faux s'il l'était déjà (ou s'il
+     *         n'est pas révocable : sans jti ou expiré)
+     */
+    public boolean revokeToken(String jti, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (!isUuid(jti) || expiresAtMillis <= now) {
+            return false;
+        }
+        long high = uuidHigh(jti);
+        long low = uuidLow(jti);
+        if (!revokedTokens.put(high, low, 0L, expiresAtMillis, now)) {
+            return false;
+        }
+        append(TOKEN, high, low, 0L, expiresAtMillis);
+        return true;
+    }
+
+    /**
+     * Révoque tous les tokens émis jusqu'à maintenant pour cet utilisateur
+     */
+    public void revokeUser(Long userId) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + maxTokenLifetimeMs;
+        revokedUsers.put(userId, 0L, now, expiresAt, now);
+        append(USER, userId, 0L, now, expiresAt);
+        log.info("Tokens de l'utilisateur {} révoqués", userId);
+    }
+
+    // ========== Journal ==========
+
+    @PostConstruct
+    void recover() {
+        try {
+            if (logFile.getParent() != null) {
+                Files.createDirectories(logFile.getParent());
+            }
+            if (Files.exists(logFile)) {
+                replay();
+            }
+            rewriteJournal();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal des révocations illisible: " + logFile, e);
+        }
+        log.info("{} token(s) et {} utilisateur(s) révoqués restaurés",
+                revokedTokens.size(), revokedUsers.size());
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.compact-interval-ms:3600000}")
+    public void compact() {
+        try {
+            rewriteJournal();
+        } catch (IOException e) {
+            log.error("Compactage du journal des révocations impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Réécrit le journal avec les seules entrées encore valides
+     */
+    private synchronized void rewriteJournal() throws IOException {
+        long now = System.currentTimeMillis();
+        revokedTokens.purge(now);
+        revokedUsers.purge(now);
+
+        Path temporary = logFile.resolveSibling(logFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+            IOException[] failure = {null};
+            for (byte type : new byte[]{TOKEN, USER}) {
+                RevocationTable table = type == TOKEN ? revokedTokens : revokedUsers;
+                table.forEachLive(now, entry -> {
+                    if (failure[0] != null) {
+                        return;
+                    }
+                    try {
+                        writeRecord(out, buffer, type, entry[0], entry[1], entry[2], entry[3]);
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                });
+            }
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.force(false);
+        }
+
+        if (journal != null) {
+            journal.close();
+        }
+        Files.move(temporary, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = FileChannel.open(logFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void replay() throws IOException {
+        long now = System.currentTimeMillis();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 512);
+        try (FileChannel in = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            while (in.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    byte type = buffer.get();
+                    long key1 = buffer.getLong();
+                    long key2 = buffer.getLong();
+                    long value = buffer.getLong();
+                    long expiresAt = buffer.getLong();
+                    if (expiresAt <= now) {
+                        continue;
+                    }
+                    if (type == TOKEN) {
+                        revokedTokens.put(key1, key2, value, expiresAt, now);
+                    } else if (type == USER) {
+                        revokedUsers.put(key1, key2, value, expiresAt, now);
+                    }
+                }
+                // Enregistrement incomplet (arrêt pendant l'écriture) conservé pour la lecture suivante
+                buffer.compact();
+            }
+        }
+    }
+
+    private synchronized void append(byte type, long key1, long key2, long value, long expiresAt) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            writeRecord(journal, ByteBuffer.allocate(RECORD_SIZE), type, key1, key2, value, expiresAt);
+            journal.force(false);
+        } catch (IOException e) {
+            // La révocation reste effective en mémoire jusqu'au redémarrage
+            log.error("Écriture du journal des révocations impossible: {}", e.getMessage());
+        }
+    }
+
+    private static void writeRecord(FileChannel channel, ByteBuffer buffer, byte type,
+                                    long key1, long key2, long value, long expiresAt) throws IOException {
+        buffer.clear();
+        buffer.put(type).putLong(key1).putLong(key2).putLong(value).putLong(expiresAt);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // ========== UUID sans allocation ==========
+
+    static boolean isUuid(String value) {
+        if (value == null || value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (hexDigit(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long uuidHigh(String uuid) {
+        return parseHex(uuid, 0, 8) << 32 | parseHex(uuid, 9, 13) << 16 | parseHex(uuid, 14, 18);
+    }
+
+    static long uuidLow(String uuid) {
+        return parseHex(uuid, 19, 23) << 48 | parseHex(uuid, 24, 36);
+    }
+
+    private static long parseHex(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result = result << 4 | hexDigit(value.charAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Chiffre hexadécimal ASCII uniquement (Character.digit accepte aussi d'autres chiffres Unicode)
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
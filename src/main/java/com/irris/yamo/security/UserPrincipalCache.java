@@ -0,0 +1,53 @@
+package com.irris.yamo.security;
+
+import com.irris.yamo.repositories.UserRepository;
+import com.irris.yamo.service.cache.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache borné des utilisateurs authentifiés, consulté à chaque requête JWT au
+ * lieu d'un findById. Invalidé par UserManagementServiceImpl lorsqu'un compte
+ * est activé, désactivé ou supprimé ; la durée de vie borne le délai de prise
+ * en compte des autres modifications.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final ExpiringCache<Long, JwtUserPrincipal> principals;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.principals = new ExpiringCache<>(ttlSeconds * 1000L, maxEntries);
+    }
+
+    /**
+     * Utilisateur en cache, sinon chargé depuis la base ; null s'il n'existe pas
+     */
+    public JwtUserPrincipal get(Long userId) {
+        return principals.get(userId, () -> userRepository.findById(userId)
+                .map(JwtUserPrincipal::from)
+                .orElse(null));
+    }
+
+    /**
+     * Retire l'utilisateur du cache, après le commit si une transaction est active
+     */
+    public void invalidate(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principals.invalidate(userId);
+                }
+            });
+        } else {
+            principals.invalidate(userId);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.irris.yamo.service;
 
 import com.irris.yamo.dtos.AddressDto;
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.creation.AdressCreationDto;
 
 import java.util.List;
+import java.util.Map;
 
 public interface AddressService {
 
@@ -28,9 +30,9 @@ public interface AddressService {
     AddressDto getAddressById(Long id);
 
     /**
-     * Récupère toutes les adresses
+     * Récupère les adresses page par page (curseur)
      */
-    List<AddressDto> getAllAddresses();
+    CursorPageDto<AddressDto> getAllAddresses(String cursor, Integer size);
 
     /**
      * Récupère les adresses d'un utilisateur
@@ -56,4 +58,14 @@ public interface AddressService {
      * Calcule la distance entre deux adresses
      */
     Double calculateDistance(Long addressId1, Long addressId2);
+
+    /**
+     * Lance le géocodage en masse des adresses sans coordonnées
+     */
+    Map<String, Object> startBulkGeocoding();
+
+    /**
+     * Avancement du dernier géocodage en masse
+     */
+    Map<String, Object> getBulkGeocodingStatus();
 }
@@ -1,6 +1,7 @@
 package com.irris.yamo.service;
 
 import com.irris.yamo.dtos.ComplaintDto;
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.creation.ComplaintCreationDto;
 import com.irris.yamo.entities.Complaint;
 import com.irris.yamo.entities.enums.ComplaintStatus;
@@ -11,7 +12,7 @@ public interface ComplaintService {
     
     ComplaintDto createComplaint(ComplaintCreationDto complaintDto);
     
-    List<ComplaintDto> getAllComplaints();
+    CursorPageDto<ComplaintDto> getAllComplaints(String cursor, Integer size);
     
     List<ComplaintDto> getComplaintsByStatus(ComplaintStatus status);
     
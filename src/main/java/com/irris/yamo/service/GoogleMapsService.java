@@ -1,5 +1,7 @@
 package com.irris.yamo.service;
 
+import com.irris.yamo.service.maps.TravelMatrix;
+
 import java.util.Map;
 
 public interface GoogleMapsService {
@@ -24,6 +26,12 @@ public interface GoogleMapsService {
      */
     Map<String, Object> getDirections(Double originLat, Double originLon, Double destLat, Double destLon);
 
+    /**
+     * Distances et durées routières entre tous les couples de points
+     * (Distance Matrix par blocs, trajets déjà connus servis depuis le cache)
+     */
+    TravelMatrix getTravelMatrix(double[] latitudes, double[] longitudes);
+
     /**
      * Obtenir les adresses à proximité
      */
@@ -1,6 +1,7 @@
 package com.irris.yamo.service;
 
 import com.irris.yamo.dtos.LogisticTaskDto;
+import com.irris.yamo.dtos.creation.DriverPositionPingDto;
 import com.irris.yamo.dtos.creation.LogisticTaskCreationDto;
 import com.irris.yamo.entities.Article;
 import com.irris.yamo.entities.ArticleInstance;
@@ -57,8 +58,16 @@ public interface LogisticService {
     
     Driver findNearestDriver(Long taskId);
     
+    int recordDriverPositions(Long driverId, List<DriverPositionPingDto> pings);
+    
+    Map<String, Object> getDriverCurrentPosition(Long driverId);
+    
     List<LogisticTask> optimizeDriverRoute(Long driverId, LocalDate date);
     
+    List<LogisticTask> reoptimizeDriverRoute(Long driverId, LocalDate date);
+    
+    void notifyDriverRouteUpdate(Long driverId, List<LogisticTask> newRoute);
+    
     void geocodeTaskAddress(Long taskId);
     
     Integer calculateEstimatedTravelTime(Long taskId, Double driverLat, Double driverLon);
@@ -70,4 +79,6 @@ public interface LogisticService {
     Driver findBestDriverForTask(Long taskId);
     
     Map<String, Object> autoAssignUrgentTask(Long taskId);
+    
+    Map<String, Object> dispatchDay(LocalDate date);
 }
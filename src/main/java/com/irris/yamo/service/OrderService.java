@@ -2,6 +2,7 @@ package com.irris.yamo.service;
 
 import com.irris.yamo.dtos.ArticleDto;
 import com.irris.yamo.dtos.ArticleInstanceDto;
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.OrderDto;
 import com.irris.yamo.dtos.creation.ArticleCreationDto;
 import com.irris.yamo.dtos.creation.OrderCreationRequest;
@@ -18,7 +19,7 @@ public interface OrderService {
 
     Article createArticle(ArticleCreationDto articleCreationDto);
 
-    List<OrderDto> getAllOrders();
+    CursorPageDto<OrderDto> getAllOrders(String cursor, Integer size);
 
     ArticleDto addLaundryServicesToArticle(Long articleId, List<Long> serviceIds);
 
@@ -28,7 +29,7 @@ public interface OrderService {
 
     void deleteOrder(Long orderId);
 
-    List<ArticleDto> getAllArticles();
+    CursorPageDto<ArticleDto> getAllArticles(String cursor, Integer size);
 
     List<OrderDto> getOrdersByCustomerId(Long customerId);
 
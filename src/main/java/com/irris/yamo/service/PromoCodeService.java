@@ -0,0 +1,13 @@
+package com.irris.yamo.service;
+
+import java.util.Map;
+
+public interface PromoCodeService {
+
+    // Vérification rapide pendant la saisie (existence et validité du code)
+    Map<String, Object> checkCode(String code, Long userId);
+
+    Map<String, Object> getIndexStats();
+
+    Map<String, Object> refreshIndex();
+}
@@ -1,6 +1,7 @@
 package com.irris.yamo.service;
 
-import com.irris.yamo.entities.Order;
+import com.irris.yamo.dtos.SalesReportDto;
+import com.irris.yamo.service.pdf.PdfRenderer;
 
 import java.time.LocalDate;
 import java.util.Map;
@@ -12,29 +13,29 @@ public interface ReportService {
     /**
      * Génère un rapport PDF pour une commande
      */
-    byte[] generateOrderReportPdf(Long orderId);
+    PdfRenderer generateOrderReportPdf(Long orderId);
 
     /**
      * Génère un rapport PDF pour une facture
      */
-    byte[] generateInvoicePdf(Long invoiceId);
+    PdfRenderer generateInvoicePdf(Long invoiceId);
 
     /**
      * Génère un reçu PDF
      */
-    byte[] generateReceiptPdf(Long receiptId);
+    PdfRenderer generateReceiptPdf(Long receiptId);
 
     // ========== Rapports de Statistiques ==========
 
     /**
      * Rapport des ventes journalières
      */
-    Map<String, Object> getDailySalesReport(LocalDate date);
+    SalesReportDto getDailySalesReport(LocalDate date);
 
     /**
      * Rapport des ventes mensuelles
      */
-    Map<String, Object> getMonthlySalesReport(int year, int month);
+    SalesReportDto getMonthlySalesReport(int year, int month);
 
     /**
      * Rapport des performances chauffeurs
@@ -56,27 +57,22 @@ public interface ReportService {
     /**
      * Export rapport journalier en PDF
      */
-    byte[] exportDailyReportPdf(LocalDate date);
+    PdfRenderer exportDailyReportPdf(LocalDate date);
 
     /**
      * Export rapport mensuel en PDF
      */
-    byte[] exportMonthlyReportPdf(int year, int month);
+    PdfRenderer exportMonthlyReportPdf(int year, int month);
 
     /**
      * Export rapport chauffeur en PDF
      */
-    byte[] exportDriverReportPdf(Long driverId, LocalDate startDate, LocalDate endDate);
+    PdfRenderer exportDriverReportPdf(Long driverId, LocalDate startDate, LocalDate endDate);
 
-    // ========== Utilitaires PDF ==========
-
-    /**
-     * Génère un PDF générique à partir de HTML
-     */
-    byte[] generatePdfFromHtml(String html);
+    // ========== Listes PDF ==========
 
     /**
      * Génère un PDF de liste de commandes
      */
-    byte[] generateOrderListPdf(LocalDate startDate, LocalDate endDate);
+    PdfRenderer generateOrderListPdf(LocalDate startDate, LocalDate endDate);
 }
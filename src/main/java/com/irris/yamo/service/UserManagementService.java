@@ -1,5 +1,6 @@
 package com.irris.yamo.service;
 
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.CustomerDto;
 import com.irris.yamo.dtos.DriverDto;
 import com.irris.yamo.entities.UserYamo;
@@ -18,9 +19,9 @@ public interface UserManagementService {
     UserYamo getUserById(Long id);
 
     /**
-     * Récupère tous les utilisateurs
+     * Récupère les utilisateurs page par page (curseur)
      */
-    List<UserYamo> getAllUsers();
+    CursorPageDto<UserYamo> getAllUsers(String cursor, Integer size);
 
     /**
      * Récupère les utilisateurs par rôle
@@ -62,9 +63,9 @@ public interface UserManagementService {
     // ========== Gestion Drivers ==========
 
     /**
-     * Récupère tous les chauffeurs
+     * Récupère les chauffeurs page par page (curseur)
      */
-    List<DriverDto> getAllDrivers();
+    CursorPageDto<DriverDto> getAllDrivers(String cursor, Integer size);
 
     /**
      * Récupère les chauffeurs disponibles
@@ -84,9 +85,9 @@ public interface UserManagementService {
     // ========== Gestion Customers ==========
 
     /**
-     * Récupère tous les clients
+     * Récupère les clients page par page (curseur)
      */
-    List<CustomerDto> getAllCustomers();
+    CursorPageDto<CustomerDto> getAllCustomers(String cursor, Integer size);
 
     /**
      * Récupère les clients VIP
@@ -0,0 +1,102 @@
+package com.irris.yamo.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Relectures d'un index en mémoire demandées après commit, exécutées par un
+ * unique thread de fond.
+ *
+ * Le thread qui vient de valider détient encore sa connexion : relire depuis
+ * afterCommit dans une nouvelle transaction demanderait une seconde connexion
+ * au pool. Les clés soumises pendant une relecture sont regroupées pour la
+ * suivante.
+ */
+@Slf4j
+public class RefreshQueue<K> {
+
+    private final String name;
+    private final Consumer<Set<K>> refresh;
+    private final ExecutorService worker;
+    private final Queue<K> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /**
+     * @param refresh relecture des clés données
+     */
+    public RefreshQueue(String name, Consumer<Set<K>> refresh) {
+        this.name = name;
+        this.refresh = refresh;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void submit(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        pending.addAll(keys);
+        schedule();
+    }
+
+    /**
+     * Termine les relectures en attente, dans la limite du délai donné
+     */
+    public void close(long timeout, TimeUnit unit) throws InterruptedException {
+        worker.shutdown();
+        if (!worker.awaitTermination(timeout, unit)) {
+            log.warn("Relecture {} interrompue: {} clé(s) en attente", name, pending.size());
+            worker.shutdownNow();
+        }
+    }
+
+    private void schedule() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            worker.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Arrêt en cours : la prochaine relecture complète rattrapera l'écart
+            draining.set(false);
+            log.warn("Relecture {} abandonnée: arrêt en cours", name);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!pending.isEmpty()) {
+                Set<K> batch = new LinkedHashSet<>();
+                K key;
+                while ((key = pending.poll()) != null) {
+                    batch.add(key);
+                }
+                try {
+                    refresh.accept(batch);
+                } catch (RuntimeException e) {
+                    log.error("Relecture {} de {} impossible: {}", name, batch, e.getMessage());
+                }
+            }
+        } finally {
+            draining.set(false);
+            // Clé soumise entre la dernière lecture de la file et la libération
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
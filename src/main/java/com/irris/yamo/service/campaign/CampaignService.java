@@ -0,0 +1,368 @@
+package com.irris.yamo.service.campaign;
+
+import com.irris.yamo.dtos.creation.CampaignRequest;
+import com.irris.yamo.entities.Campaign;
+import com.irris.yamo.entities.Promotion;
+import com.irris.yamo.entities.UserYamo;
+import com.irris.yamo.entities.enums.CampaignStatus;
+import com.irris.yamo.entities.enums.NotificationChannel;
+import com.irris.yamo.exception.InvalidOperationException;
+import com.irris.yamo.exception.ResourceNotFoundException;
+import com.irris.yamo.repositories.CampaignRepository;
+import com.irris.yamo.repositories.CustomerRepository;
+import com.irris.yamo.repositories.PromotionRepository;
+import com.irris.yamo.repositories.projection.CampaignRecipient;
+import com.irris.yamo.service.NotificationService;
+import com.irris.yamo.service.campaign.ChannelBatchSender.Delivery;
+import com.irris.yamo.service.notification.NotificationOutbox;
+import com.irris.yamo.service.notification.OutboundMessage;
+import com.irris.yamo.service.notification.template.CompiledTemplate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Campagnes de notification d'un segment de clients (promotions).
+ *
+ * Les clients ciblés sont lus par pages d'id croissant (segment, tags et
+ * préférences de notification filtrés en base) ; chaque page est rendue puis
+ * envoyée par {@link ChannelBatchSender}. Après chaque page, les compteurs et
+ * le dernier client traité sont enregistrés dans la même transaction que la
+ * mise en outbox des envois en échec. Une campagne interrompue reprend après
+ * ce point ; la page en cours est renvoyée avec les mêmes clés d'idempotence,
+ * que le fournisseur déduplique.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CampaignService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final Set<CampaignStatus> ACTIVE = EnumSet.of(CampaignStatus.PENDING, CampaignStatus.RUNNING);
+    private static final Set<CampaignStatus> RESUMABLE =
+            EnumSet.of(CampaignStatus.PENDING, CampaignStatus.FAILED, CampaignStatus.CANCELLED);
+
+    private final CampaignRepository campaignRepository;
+    private final CustomerRepository customerRepository;
+    private final PromotionRepository promotionRepository;
+    private final NotificationService notificationService;
+    private final NotificationOutbox notificationOutbox;
+    private final ChannelBatchSender batchSender;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${campaigns.workers:2}")
+    private int workers;
+
+    @Value("${campaigns.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${campaigns.page-size:500}")
+    private int pageSize;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transaction;
+
+    // Campagnes soumises à un travailleur et pas encore terminées
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Paramètres figés d'une exécution
+     */
+    private record Plan(Long id, Campaign campaign, boolean email, boolean sms, boolean push, Set<String> tags,
+                        CompiledTemplate subject, CompiledTemplate message, Map<String, Object> variables) {
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "campaign-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Les campagnes restent RUNNING et reprennent au prochain démarrage
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reprend les campagnes interrompues par un redémarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        for (Campaign campaign : campaignRepository.findByStatusIn(ACTIVE)) {
+            log.info("Reprise de la campagne {} après le client {}", campaign.getId(), campaign.getLastCustomerId());
+            try {
+                schedule(campaign.getId());
+            } catch (InvalidOperationException e) {
+                log.warn("Campagne {} non reprise: {}", campaign.getId(), e.getMessage());
+            }
+        }
+    }
+
+    // ========== Commandes ==========
+
+    public Campaign create(CampaignRequest request, String createdBy) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new InvalidOperationException("Le nom de la campagne est obligatoire");
+        }
+        if (request.getMessage() == null || request.getMessage().isBlank()) {
+            throw new InvalidOperationException("Le message de la campagne est obligatoire");
+        }
+        boolean email = Boolean.TRUE.equals(request.getEmail());
+        boolean sms = Boolean.TRUE.equals(request.getSms());
+        boolean push = Boolean.TRUE.equals(request.getPush());
+        if (!email && !sms && !push) {
+            throw new InvalidOperationException("Au moins un canal doit être sélectionné");
+        }
+        // Rejette un modèle mal formé avant l'enregistrement
+        compile("message", request.getMessage());
+        compile("subject", request.getSubject());
+
+        Campaign campaign = new Campaign();
+        if (request.getPromotionId() != null) {
+            campaign.setPromotion(promotionRepository.findById(request.getPromotionId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Promotion non trouvée")));
+        }
+        campaign.setName(request.getName());
+        campaign.setSegment(request.getSegment());
+        if (request.getTags() != null) {
+            campaign.setTags(new HashSet<>(request.getTags()));
+        }
+        campaign.setEmailChannel(email);
+        campaign.setSmsChannel(sms);
+        campaign.setPushChannel(push);
+        campaign.setSubject(request.getSubject());
+        campaign.setMessage(request.getMessage());
+        campaign.setStatus(CampaignStatus.PENDING);
+        campaign.setCreatedBy(createdBy);
+        campaign.setCreatedAt(LocalDateTime.now());
+        campaign = campaignRepository.save(campaign);
+
+        schedule(campaign.getId());
+        return campaign;
+    }
+
+    public Campaign cancel(Long campaignId) {
+        Campaign campaign = getCampaign(campaignId);
+        Integer updated = transaction.execute(status -> campaignRepository.finish(campaignId, ACTIVE,
+                CampaignStatus.CANCELLED, null, LocalDateTime.now()));
+        if (updated == null || updated == 0) {
+            throw new InvalidOperationException("La campagne ne peut pas être annulée (statut: "
+                    + campaign.getStatus() + ")");
+        }
+        // Le travailleur s'arrête à la fin de la page en cours
+        return getCampaign(campaignId);
+    }
+
+    /**
+     * Relance une campagne annulée, en échec ou restée en attente, après le dernier client traité
+     */
+    public Campaign resume(Long campaignId) {
+        Campaign campaign = getCampaign(campaignId);
+        if (!RESUMABLE.contains(campaign.getStatus()) || inFlight.contains(campaignId)) {
+            throw new InvalidOperationException("La campagne ne peut pas être reprise (statut: "
+                    + campaign.getStatus() + ")");
+        }
+        transaction.executeWithoutResult(status -> campaignRepository.start(campaignId,
+                RESUMABLE, CampaignStatus.PENDING, LocalDateTime.now()));
+        schedule(campaignId);
+        return getCampaign(campaignId);
+    }
+
+    private void schedule(Long campaignId) {
+        if (!inFlight.add(campaignId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(campaignId);
+                } finally {
+                    inFlight.remove(campaignId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(campaignId);
+            throw new InvalidOperationException("Trop de campagnes en attente, réessayez plus tard");
+        }
+    }
+
+    // ========== Exécution ==========
+
+    private void run(Long campaignId) {
+        Plan plan = transaction.execute(status -> {
+            int started = campaignRepository.start(campaignId, ACTIVE, CampaignStatus.RUNNING, LocalDateTime.now());
+            return started == 0 ? null : plan(campaignId);
+        });
+        if (plan == null) {
+            return;
+        }
+
+        long afterId = plan.campaign().getLastCustomerId();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (campaignRepository.findStatusById(campaignId) != CampaignStatus.RUNNING) {
+                    log.info("Campagne {} arrêtée après le client {}", campaignId, afterId);
+                    return;
+                }
+                List<CampaignRecipient> page = customerRepository.findCampaignRecipients(afterId,
+                        plan.campaign().getSegment(), !plan.tags().isEmpty(),
+                        plan.tags().isEmpty() ? Set.of("") : plan.tags(),
+                        plan.email(), plan.sms(), plan.push(), PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    transaction.executeWithoutResult(status -> campaignRepository.finish(campaignId,
+                            Set.of(CampaignStatus.RUNNING), CampaignStatus.COMPLETED, null, LocalDateTime.now()));
+                    log.info("Campagne {} terminée", campaignId);
+                    return;
+                }
+                sendPage(plan, page);
+                afterId = page.get(page.size() - 1).id();
+            }
+        } catch (InterruptedException e) {
+            // Arrêt du serveur : reprise au prochain démarrage depuis le dernier point enregistré
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.error("Échec de la campagne {}: {}", campaignId, message, e);
+            transaction.executeWithoutResult(status -> campaignRepository.finish(campaignId,
+                    Set.of(CampaignStatus.RUNNING), CampaignStatus.FAILED,
+                    message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message,
+                    LocalDateTime.now()));
+        }
+    }
+
+    private Plan plan(Long campaignId) {
+        Campaign campaign = getCampaign(campaignId);
+        Map<String, Object> variables = new HashMap<>();
+        Promotion promotion = campaign.getPromotion();
+        if (promotion != null) {
+            variables.put("promotionTitle", promotion.getTitle());
+            variables.put("promoCode", promotion.getPromoCode());
+        }
+        return new Plan(campaignId, campaign, campaign.isEmailChannel(), campaign.isSmsChannel(),
+                campaign.isPushChannel(), new HashSet<>(campaign.getTags()),
+                compile("subject", campaign.getSubject()), compile("message", campaign.getMessage()),
+                variables);
+    }
+
+    private void sendPage(Plan plan, List<CampaignRecipient> page) throws InterruptedException {
+        List<Delivery> deliveries = new ArrayList<>();
+        long skipped = 0;
+        Map<String, Object> variables = new HashMap<>(plan.variables());
+        StringBuilder buffer = new StringBuilder();
+        for (CampaignRecipient recipient : page) {
+            variables.put("firstName", recipient.firstName());
+            variables.put("lastName", recipient.lastName());
+            variables.put("customerName", UserYamo.formatFullName(recipient.firstName(), recipient.lastName(),
+                    recipient.email(), recipient.gender()));
+            buffer.setLength(0);
+            plan.message().renderTo(variables, buffer);
+            String body = buffer.toString();
+            String subject = plan.subject().render(variables);
+
+            if (plan.email() && Boolean.TRUE.equals(recipient.emailNotifications())) {
+                if (notificationService.isValidEmail(recipient.email())) {
+                    deliveries.add(delivery(plan, NotificationChannel.EMAIL, recipient, recipient.email(), subject, body));
+                } else {
+                    skipped++;
+                }
+            }
+            if (plan.sms() && Boolean.TRUE.equals(recipient.smsNotifications())) {
+                if (notificationService.isValidPhoneNumber(recipient.phoneNumber())) {
+                    deliveries.add(delivery(plan, NotificationChannel.SMS, recipient, recipient.phoneNumber(), null, body));
+                } else {
+                    skipped++;
+                }
+            }
+            if (plan.push() && Boolean.TRUE.equals(recipient.pushNotifications())) {
+                deliveries.add(delivery(plan, NotificationChannel.PUSH, recipient,
+                        String.valueOf(recipient.id()), subject, body));
+            }
+        }
+
+        List<Delivery> failed = batchSender.send(deliveries);
+
+        long lastCustomerId = page.get(page.size() - 1).id();
+        long skippedCount = skipped;
+        transaction.executeWithoutResult(status -> {
+            for (Delivery delivery : failed) {
+                OutboundMessage message = delivery.message();
+                notificationOutbox.enqueue(delivery.channel(), message.recipient(), message.subject(),
+                        message.body(), message.idempotencyKey());
+            }
+            campaignRepository.checkpoint(plan.id(), lastCustomerId, page.size(),
+                    deliveries.size() - failed.size(), failed.size(), skippedCount);
+        });
+    }
+
+    private static Delivery delivery(Plan plan, NotificationChannel channel, CampaignRecipient recipient,
+                                     String address, String subject, String body) {
+        String key = "campaign-" + plan.id() + "-" + channel.name().toLowerCase() + "-" + recipient.id();
+        return new Delivery(channel, new OutboundMessage(key, address, subject, body));
+    }
+
+    private static CompiledTemplate compile(String name, String source) {
+        try {
+            return CompiledTemplate.compile(name, source != null ? source : "");
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException(e.getMessage());
+        }
+    }
+
+    // ========== Consultation ==========
+
+    public Campaign getCampaign(Long campaignId) {
+        return campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new ResourceNotFoundException("Campagne non trouvée: " + campaignId));
+    }
+
+    public static Map<String, Object> toMap(Campaign campaign) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("campaignId", campaign.getId());
+        map.put("name", campaign.getName());
+        map.put("status", campaign.getStatus());
+        map.put("targeted", campaign.getTargetedCount());
+        map.put("sent", campaign.getSentCount());
+        map.put("deferred", campaign.getDeferredCount());
+        map.put("skipped", campaign.getSkippedCount());
+        map.put("lastCustomerId", campaign.getLastCustomerId());
+        map.put("createdAt", campaign.getCreatedAt());
+        map.put("startedAt", campaign.getStartedAt());
+        map.put("completedAt", campaign.getCompletedAt());
+        if (campaign.getError() != null) {
+            map.put("error", campaign.getError());
+        }
+        return map;
+    }
+}
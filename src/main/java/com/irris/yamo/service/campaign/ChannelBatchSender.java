@@ -0,0 +1,126 @@
+package com.irris.yamo.service.campaign;
+
+import com.irris.yamo.entities.enums.NotificationChannel;
+import com.irris.yamo.service.notification.NotificationAdapterRegistry;
+import com.irris.yamo.service.notification.NotificationChannelAdapter;
+import com.irris.yamo.service.notification.OutboundMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Envoi direct d'un lot de messages de campagne aux fournisseurs.
+ *
+ * Chaque message part sur un thread virtuel ; par canal, le nombre d'envois
+ * simultanés et le débit sont bornés (limites des fournisseurs). Les messages
+ * en échec sont rendus à l'appelant, qui les confie à l'outbox.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChannelBatchSender {
+
+    private final NotificationAdapterRegistry adapterRegistry;
+
+    @Value("${campaigns.concurrency.email:8}")
+    private int emailConcurrency;
+
+    @Value("${campaigns.concurrency.sms:4}")
+    private int smsConcurrency;
+
+    @Value("${campaigns.concurrency.push:16}")
+    private int pushConcurrency;
+
+    @Value("${campaigns.rate.email:200}")
+    private int emailRate;
+
+    @Value("${campaigns.rate.sms:100}")
+    private int smsRate;
+
+    @Value("${campaigns.rate.push:500}")
+    private int pushRate;
+
+    private ExecutorService senders;
+    private final Map<NotificationChannel, Semaphore> channelPermits = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, ChannelThrottle> throttles = new EnumMap<>(NotificationChannel.class);
+
+    /**
+     * Message destiné à un canal
+     */
+    public record Delivery(NotificationChannel channel, OutboundMessage message) {
+    }
+
+    @PostConstruct
+    void init() {
+        senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("campaign-sender-", 0).factory());
+        channelPermits.put(NotificationChannel.EMAIL, new Semaphore(emailConcurrency));
+        channelPermits.put(NotificationChannel.SMS, new Semaphore(smsConcurrency));
+        channelPermits.put(NotificationChannel.PUSH, new Semaphore(pushConcurrency));
+        throttles.put(NotificationChannel.EMAIL, new ChannelThrottle(emailRate));
+        throttles.put(NotificationChannel.SMS, new ChannelThrottle(smsRate));
+        throttles.put(NotificationChannel.PUSH, new ChannelThrottle(pushRate));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Envoie le lot et attend la fin de tous les envois.
+     *
+     * @return les messages non envoyés (erreur fournisseur ou envoi interrompu)
+     */
+    public List<Delivery> send(List<Delivery> deliveries) throws InterruptedException {
+        List<Future<Boolean>> sends = new ArrayList<>(deliveries.size());
+        for (Delivery delivery : deliveries) {
+            sends.add(senders.submit(() -> send(delivery)));
+        }
+        List<Delivery> failed = new ArrayList<>();
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                if (!sends.get(i).get()) {
+                    failed.add(deliveries.get(i));
+                }
+            } catch (ExecutionException e) {
+                failed.add(deliveries.get(i));
+            } catch (InterruptedException e) {
+                sends.forEach(send -> send.cancel(true));
+                throw e;
+            }
+        }
+        return failed;
+    }
+
+    private boolean send(Delivery delivery) throws InterruptedException {
+        NotificationChannelAdapter adapter = adapterRegistry.adapterFor(delivery.channel()).orElse(null);
+        if (adapter == null) {
+            return false;
+        }
+        Semaphore permits = channelPermits.get(delivery.channel());
+        permits.acquire();
+        try {
+            throttles.get(delivery.channel()).acquire();
+            adapter.send(delivery.channel(), delivery.message());
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Envoi {} en échec: {}", delivery.message().idempotencyKey(), e.getMessage());
+            return false;
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.irris.yamo.service.campaign;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limiteur de débit d'un canal : chaque appel réserve le prochain créneau
+ * libre (1 / débit) et attend son heure. Sans accumulation de crédit, un
+ * canal resté inactif ne peut pas envoyer en rafale.
+ */
+final class ChannelThrottle {
+
+    private final long intervalNanos;
+    private long nextSlot;
+
+    ChannelThrottle(int perSecond) {
+        this.intervalNanos = perSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / perSecond : 0;
+    }
+
+    void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(nextSlot, now);
+            nextSlot = slot + intervalNanos;
+            wait = slot - now;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.irris.yamo.service.events;
+
+import com.irris.yamo.entities.LogisticTask;
+import com.irris.yamo.service.LogisticService;
+import com.irris.yamo.service.events.WorkflowEvent.RouteDispatched;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Notifie le chauffeur de sa tournée après la répartition de la journée. Pas
+ * de réoptimisation : l'ordre de passage vient de la répartition elle-même.
+ */
+@Component
+@RequiredArgsConstructor
+public class DispatchedRouteConsumer implements WorkflowEventConsumer<RouteDispatched> {
+
+    private final LogisticService logisticService;
+
+    @Override
+    public Class<RouteDispatched> eventType() {
+        return RouteDispatched.class;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void handle(RouteDispatched event) {
+        List<LogisticTask> route = logisticService.getCurrentDriverRoute(event.driverId(), event.date());
+        logisticService.notifyDriverRouteUpdate(event.driverId(), route);
+    }
+}
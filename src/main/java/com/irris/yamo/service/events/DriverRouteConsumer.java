@@ -0,0 +1,35 @@
+package com.irris.yamo.service.events;
+
+import com.irris.yamo.entities.LogisticTask;
+import com.irris.yamo.service.LogisticService;
+import com.irris.yamo.service.events.WorkflowEvent.TaskAssigned;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Réoptimise la tournée du chauffeur après une affectation puis le notifie.
+ * Les affectations d'un même chauffeur sont traitées l'une après l'autre.
+ */
+@Component
+@RequiredArgsConstructor
+public class DriverRouteConsumer implements WorkflowEventConsumer<TaskAssigned> {
+
+    private final LogisticService logisticService;
+
+    @Override
+    public Class<TaskAssigned> eventType() {
+        return TaskAssigned.class;
+    }
+
+    @Override
+    @Transactional
+    public void handle(TaskAssigned event) {
+        LocalDate date = event.date() != null ? event.date() : LocalDate.now();
+        List<LogisticTask> route = logisticService.reoptimizeDriverRoute(event.driverId(), date);
+        logisticService.notifyDriverRouteUpdate(event.driverId(), route);
+    }
+}
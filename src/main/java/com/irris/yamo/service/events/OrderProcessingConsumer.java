@@ -0,0 +1,32 @@
+package com.irris.yamo.service.events;
+
+import com.irris.yamo.repositories.OrderRepository;
+import com.irris.yamo.service.events.WorkflowEvent.InstanceProcessed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Marque la commande comme traitée lorsque tous ses articles le sont
+ * (mise à jour ciblée de was_processed, voir OrderSortingConsumer)
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderProcessingConsumer implements WorkflowEventConsumer<InstanceProcessed> {
+
+    private final OrderRepository orderRepository;
+
+    @Override
+    public Class<InstanceProcessed> eventType() {
+        return InstanceProcessed.class;
+    }
+
+    @Override
+    @Transactional
+    public void handle(InstanceProcessed event) {
+        if (event.orderId() == null) {
+            return;
+        }
+        orderRepository.markProcessedIfAllArticlesProcessed(event.orderId());
+    }
+}
@@ -0,0 +1,43 @@
+package com.irris.yamo.service.events;
+
+import com.irris.yamo.entities.enums.OrderStatus;
+import com.irris.yamo.repositories.OrderRepository;
+import com.irris.yamo.service.events.WorkflowEvent.ArticleSorted;
+import com.irris.yamo.service.stats.OrderStatisticsStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Marque la commande comme triée lorsque tous ses articles le sont.
+ * Exécuté hors de la requête d'origine : seules les colonnes concernées sont
+ * mises à jour, pour ne pas écraser une modification concurrente de la commande.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderSortingConsumer implements WorkflowEventConsumer<ArticleSorted> {
+
+    private final OrderRepository orderRepository;
+    private final OrderStatisticsStore orderStatisticsStore;
+
+    @Override
+    public Class<ArticleSorted> eventType() {
+        return ArticleSorted.class;
+    }
+
+    @Override
+    @Transactional
+    public void handle(ArticleSorted event) {
+        if (event.orderId() == null) {
+            return;
+        }
+        if (orderRepository.markSortedIfAllArticlesSorted(event.orderId()) == 0) {
+            return;
+        }
+        // Mettre à jour le statut de la commande
+        if (orderRepository.updateStatusIfCurrent(event.orderId(),
+                OrderStatus.RECEIVED, OrderStatus.PRODUCTION_COMPLETED) > 0) {
+            orderStatisticsStore.onStatusChanged(OrderStatus.RECEIVED, OrderStatus.PRODUCTION_COMPLETED);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.irris.yamo.service.events;
+
+import java.time.LocalDate;
+
+/**
+ * Événements du circuit de traitement des commandes, publiés par
+ * {@link WorkflowEventBus} après commit de la transaction qui les émet.
+ */
+public sealed interface WorkflowEvent {
+
+    /**
+     * Clé de l'agrégat concerné : les événements d'une même clé sont traités
+     * un par un, dans l'ordre de publication
+     */
+    String aggregateKey();
+
+    record OrderReceived(Long orderId) implements WorkflowEvent {
+        @Override
+        public String aggregateKey() {
+            return orderKey(orderId);
+        }
+    }
+
+    record ArticleSorted(Long articleId, Long orderId) implements WorkflowEvent {
+        @Override
+        public String aggregateKey() {
+            return orderKey(orderId);
+        }
+    }
+
+    /**
+     * Toutes les étapes de traitement d'une instance d'article sont terminées
+     */
+    record InstanceProcessed(Long instanceId, Long articleId, Long orderId) implements WorkflowEvent {
+        @Override
+        public String aggregateKey() {
+            return orderKey(orderId);
+        }
+    }
+
+    record OrderPackaged(Long orderId) implements WorkflowEvent {
+        @Override
+        public String aggregateKey() {
+            return orderKey(orderId);
+        }
+    }
+
+    record TaskAssigned(Long taskId, Long driverId, LocalDate date) implements WorkflowEvent {
+        @Override
+        public String aggregateKey() {
+            return "driver:" + driverId;
+        }
+    }
+
+    /**
+     * Tournée d'un chauffeur modifiée par la répartition de la journée
+     * (tâches gagnées, perdues ou réordonnées)
+     */
+    record RouteDispatched(Long driverId, LocalDate date) implements WorkflowEvent {
+        @Override
+        public String aggregateKey() {
+            return "driver:" + driverId;
+        }
+    }
+
+    private static String orderKey(Long orderId) {
+        return "order:" + orderId;
+    }
+}
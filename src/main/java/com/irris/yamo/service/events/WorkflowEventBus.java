@@ -0,0 +1,150 @@
+package com.irris.yamo.service.events;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bus d'événements en mémoire pour les effets de bord du circuit de commande.
+ *
+ * Les événements publiés dans une transaction ne sont distribués qu'après son
+ * commit (abandonnés en cas de rollback) : la requête ne paie que l'écriture
+ * principale. Chaque consommateur s'exécute sur un thread virtuel ; les
+ * événements d'un même agrégat sont chaînés et traités dans l'ordre, ceux
+ * d'agrégats différents en parallèle. Le nombre de traitements simultanés est
+ * borné pour laisser les connexions du pool aux requêtes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowEventBus {
+
+    // Résolus à l'usage : les consommateurs dépendent des services qui publient
+    private final ObjectProvider<WorkflowEventConsumer<?>> consumerProvider;
+
+    @Value("${workflow.events.max-concurrency:2}")
+    private int maxConcurrency;
+
+    @Value("${workflow.events.shutdown-timeout-seconds:10}")
+    private long shutdownTimeoutSeconds;
+
+    private ExecutorService executor;
+    private Semaphore permits;
+    private volatile Map<Class<?>, List<WorkflowEventConsumer<?>>> routes;
+
+    // Dernier traitement en attente par agrégat ; retiré dès que la file se vide
+    private final Map<String, CompletableFuture<Void>> lanes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("workflow-event-", 0).factory());
+        permits = new Semaphore(maxConcurrency);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+            log.warn("Arrêt du bus d'événements : {} agrégats encore en cours", lanes.size());
+            executor.shutdownNow();
+        }
+    }
+
+    // ========== Publication ==========
+
+    /**
+     * Publie un événement ; dans une transaction, la distribution attend le commit
+     */
+    public void publish(WorkflowEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    /**
+     * Nombre d'agrégats ayant des événements en attente ou en cours de traitement
+     */
+    public int pendingAggregates() {
+        return lanes.size();
+    }
+
+    // ========== Distribution ==========
+
+    private void dispatch(WorkflowEvent event) {
+        List<WorkflowEventConsumer<?>> targets = routes().getOrDefault(event.getClass(), List.of());
+        if (targets.isEmpty()) {
+            return;
+        }
+        String key = event.aggregateKey();
+        CompletableFuture<Void> next = lanes.compute(key, (k, tail) ->
+                (tail != null ? tail : CompletableFuture.<Void>completedFuture(null))
+                        .thenRunAsync(() -> deliver(event, targets), executor));
+        // Hors de compute : le nettoyage peut s'exécuter immédiatement
+        next.whenComplete((result, error) -> {
+            lanes.remove(key, next);
+            if (error != null) {
+                log.error("Événement {} non distribué: {}", event, error.getMessage());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(WorkflowEvent event, List<WorkflowEventConsumer<?>> targets) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Événement {} abandonné (arrêt en cours)", event);
+            return;
+        }
+        try {
+            for (WorkflowEventConsumer<?> consumer : targets) {
+                try {
+                    ((WorkflowEventConsumer<WorkflowEvent>) consumer).handle(event);
+                } catch (RuntimeException e) {
+                    // Un consommateur en échec ne bloque ni les autres ni la suite de l'agrégat
+                    log.error("Échec du traitement de {} par {}: {}",
+                            event, consumer.getClass().getSimpleName(), e.getMessage(), e);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Map<Class<?>, List<WorkflowEventConsumer<?>>> routes() {
+        Map<Class<?>, List<WorkflowEventConsumer<?>>> current = routes;
+        if (current == null) {
+            current = new HashMap<>();
+            for (WorkflowEventConsumer<?> consumer : consumerProvider.orderedStream().toList()) {
+                current.computeIfAbsent(consumer.eventType(), type -> new ArrayList<>()).add(consumer);
+            }
+            routes = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,13 @@
+package com.irris.yamo.service.events;
+
+/**
+ * Traitement asynchrone d'un type d'événement. Les implémentations déclarées
+ * comme beans sont découvertes par {@link WorkflowEventBus} ; chaque appel
+ * s'exécute sur un thread virtuel, hors de la transaction d'origine.
+ */
+public interface WorkflowEventConsumer<E extends WorkflowEvent> {
+
+    Class<E> eventType();
+
+    void handle(E event);
+}
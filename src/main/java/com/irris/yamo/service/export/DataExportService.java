@@ -0,0 +1,169 @@
+package com.irris.yamo.service.export;
+
+import com.irris.yamo.entities.Invoice;
+import com.irris.yamo.entities.Order;
+import com.irris.yamo.entities.Payment;
+import com.irris.yamo.exception.InvalidOperationException;
+import com.irris.yamo.repositories.InvoiceRepository;
+import com.irris.yamo.repositories.OrderRepository;
+import com.irris.yamo.repositories.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exports back-office (commandes, paiements, factures) écrits au fil de la
+ * lecture : curseur JDBC avec fetch size, une ligne NDJSON ou CSV par
+ * enregistrement, et contexte de persistance vidé toutes les
+ * exports.clear-every lignes pour que la mémoire reste constante quel que
+ * soit l'historique exporté.
+ */
+@Slf4j
+@Service
+public class DataExportService {
+
+    private static final LocalDate EARLIEST = LocalDate.of(2000, 1, 1);
+
+    private static final List<ExportColumn<Order>> ORDER_COLUMNS = List.of(
+            new ExportColumn<>("id", Order::getId),
+            new ExportColumn<>("reference", Order::getReference),
+            new ExportColumn<>("createdAt", Order::getCreatedAt),
+            new ExportColumn<>("status", Order::getStatus),
+            new ExportColumn<>("customerId", o -> o.getCustomer().getId()),
+            new ExportColumn<>("customerName", o -> o.getCustomer().getFullName()),
+            new ExportColumn<>("customerEmail", o -> o.getCustomer().getEmail()),
+            new ExportColumn<>("express", Order::getIsExpress),
+            new ExportColumn<>("totalAmount", Order::getTotalAmount),
+            new ExportColumn<>("discountAmount", Order::getDiscountAmount),
+            new ExportColumn<>("deliveryPrice", Order::getDeliveryPrice),
+            new ExportColumn<>("requiredCompletionDate", Order::getRequiredCompletionDate),
+            new ExportColumn<>("invoiceNumber", o -> o.getInvoice() != null ? o.getInvoice().getInvoiceNumber() : null)
+    );
+
+    private static final List<ExportColumn<Payment>> PAYMENT_COLUMNS = List.of(
+            new ExportColumn<>("id", Payment::getId),
+            new ExportColumn<>("paymentReference", Payment::getPaymentReference),
+            new ExportColumn<>("paymentDate", Payment::getPaymentDate),
+            new ExportColumn<>("orderReference", p -> p.getOrder() != null ? p.getOrder().getReference() : null),
+            new ExportColumn<>("invoiceNumber", p -> p.getOrder() != null && p.getOrder().getInvoice() != null
+                    ? p.getOrder().getInvoice().getInvoiceNumber() : null),
+            new ExportColumn<>("amount", Payment::getAmount),
+            new ExportColumn<>("method", Payment::getMethod),
+            new ExportColumn<>("status", Payment::getStatus),
+            new ExportColumn<>("partial", Payment::isPartial),
+            new ExportColumn<>("transactionId", Payment::getTransactionId),
+            new ExportColumn<>("receivedBy", Payment::getReceivedBy),
+            new ExportColumn<>("receiptNumber", p -> p.getReceipt() != null ? p.getReceipt().getReceiptNumber() : null)
+    );
+
+    private static final List<ExportColumn<Invoice>> INVOICE_COLUMNS = List.of(
+            new ExportColumn<>("id", Invoice::getId),
+            new ExportColumn<>("invoiceNumber", Invoice::getInvoiceNumber),
+            new ExportColumn<>("issueDate", Invoice::getIssueDate),
+            new ExportColumn<>("dueDate", Invoice::getDueDate),
+            new ExportColumn<>("orderReference", i -> i.getOrder() != null ? i.getOrder().getReference() : null),
+            new ExportColumn<>("customerEmail", Invoice::getCustomerEmail),
+            new ExportColumn<>("subtotal", Invoice::getSubtotal),
+            new ExportColumn<>("taxAmount", Invoice::getTaxAmount),
+            new ExportColumn<>("discountAmount", Invoice::getDiscountAmount),
+            new ExportColumn<>("totalAmount", Invoice::getTotalAmount),
+            new ExportColumn<>("sentToCustomer", Invoice::isSentToCustomer),
+            new ExportColumn<>("sentDate", Invoice::getSentDate)
+    );
+
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${exports.clear-every:500}")
+    private int clearEvery;
+
+    public DataExportService(OrderRepository orderRepository,
+                             PaymentRepository paymentRepository,
+                             InvoiceRepository invoiceRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.paymentRepository = paymentRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // ========== Exports ==========
+
+    public ExportWriter exportOrders(LocalDate startDate, LocalDate endDate, ExportFormat format) {
+        LocalDateTime[] period = period(startDate, endDate);
+        return out -> export("commandes", period, format, out, ORDER_COLUMNS, orderRepository::streamForExport);
+    }
+
+    public ExportWriter exportPayments(LocalDate startDate, LocalDate endDate, ExportFormat format) {
+        LocalDateTime[] period = period(startDate, endDate);
+        return out -> export("paiements", period, format, out, PAYMENT_COLUMNS, paymentRepository::streamForExport);
+    }
+
+    public ExportWriter exportInvoices(LocalDate startDate, LocalDate endDate, ExportFormat format) {
+        LocalDateTime[] period = period(startDate, endDate);
+        return out -> export("factures", period, format, out, INVOICE_COLUMNS, invoiceRepository::streamForExport);
+    }
+
+    /**
+     * Période exportée [start, end[ ; sans bornes, tout l'historique
+     */
+    private static LocalDateTime[] period(LocalDate startDate, LocalDate endDate) {
+        LocalDate start = startDate != null ? startDate : EARLIEST;
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        if (end.isBefore(start)) {
+            throw new InvalidOperationException("La date de fin doit être postérieure à la date de début");
+        }
+        return new LocalDateTime[]{start.atStartOfDay(), end.plusDays(1).atStartOfDay()};
+    }
+
+    private <T> void export(String label, LocalDateTime[] period, ExportFormat format, OutputStream out,
+                            List<ExportColumn<T>> columns, StreamQuery<T> query) {
+        long started = System.currentTimeMillis();
+
+        long count = readOnlyTransaction.execute(status -> {
+            try (Stream<T> rows = query.open(period[0], period[1]);
+                 ExportRowWriter<T> writer = ExportRowWriter.create(format, columns, out)) {
+                long written = 0;
+                Iterator<T> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                    if (++written % clearEvery == 0) {
+                        // Libère les entités déjà exportées et envoie la partie écrite
+                        entityManager.clear();
+                        writer.flush();
+                    }
+                }
+                return written;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        log.info("Export des {} ({}): {} lignes en {} ms", label, format, count,
+                System.currentTimeMillis() - started);
+    }
+
+    @FunctionalInterface
+    private interface StreamQuery<T> {
+        Stream<T> open(LocalDateTime start, LocalDateTime end);
+    }
+}
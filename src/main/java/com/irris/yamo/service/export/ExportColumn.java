@@ -0,0 +1,9 @@
+package com.irris.yamo.service.export;
+
+import java.util.function.Function;
+
+/**
+ * Colonne d'un export : nom et extraction de la valeur depuis l'enregistrement
+ */
+public record ExportColumn<T>(String name, Function<T, Object> value) {
+}
@@ -0,0 +1,157 @@
+package com.irris.yamo.service.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Écriture ligne à ligne d'un export. Seul un tampon de taille fixe est
+ * conservé en mémoire, quel que soit le nombre de lignes.
+ */
+abstract class ExportRowWriter<T> implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final List<ExportColumn<T>> columns;
+    protected final Writer writer;
+
+    private ExportRowWriter(List<ExportColumn<T>> columns, OutputStream out) {
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    static <T> ExportRowWriter<T> create(ExportFormat format, List<ExportColumn<T>> columns,
+                                         OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new Ndjson<>(columns, out);
+            case CSV -> new Csv<>(columns, out);
+        };
+    }
+
+    abstract void write(T record) throws IOException;
+
+    /**
+     * Transmet au client les lignes déjà écrites
+     */
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    // ========== NDJSON ==========
+
+    private static final class Ndjson<T> extends ExportRowWriter<T> {
+
+        private static final JsonFactory JSON_FACTORY = new JsonFactory().setRootValueSeparator(null);
+
+        private final JsonGenerator generator;
+
+        Ndjson(List<ExportColumn<T>> columns, OutputStream out) throws IOException {
+            super(columns, out);
+            // Le générateur ne ferme pas le flux HTTP
+            this.generator = JSON_FACTORY.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+        }
+
+        @Override
+        void write(T record) throws IOException {
+            generator.writeStartObject();
+            for (ExportColumn<T> column : columns) {
+                generator.writeFieldName(column.name());
+                Object value = column.value().apply(record);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+            super.close();
+        }
+    }
+
+    // ========== CSV (RFC 4180) ==========
+
+    private static final class Csv<T> extends ExportRowWriter<T> {
+
+        Csv(List<ExportColumn<T>> columns, OutputStream out) throws IOException {
+            super(columns, out);
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(columns.get(i).name());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void write(T record) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value().apply(record);
+                if (value instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+    }
+}
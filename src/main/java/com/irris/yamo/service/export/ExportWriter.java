@@ -0,0 +1,14 @@
+package com.irris.yamo.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Export prêt à être écrit : les paramètres sont validés à la création,
+ * la lecture en base n'a lieu que pendant writeTo
+ */
+@FunctionalInterface
+public interface ExportWriter {
+
+    void writeTo(OutputStream out) throws IOException;
+}
@@ -0,0 +1,39 @@
+package com.irris.yamo.service.geo;
+
+import com.irris.yamo.entities.Adresse;
+import com.irris.yamo.service.routing.DistanceMatrixService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA qui répercute les modifications d'adresses sur l'index spatial
+ * et invalide les distances en cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class AddressChangeListener {
+
+    private final ObjectProvider<SpatialIndexService> spatialIndexService;
+    private final ObjectProvider<DistanceMatrixService> distanceMatrixService;
+
+    @PostPersist
+    public void onCreate(Adresse address) {
+        spatialIndexService.getObject().onAddressSaved(address);
+    }
+
+    @PostUpdate
+    public void onUpdate(Adresse address) {
+        spatialIndexService.getObject().onAddressSaved(address);
+        distanceMatrixService.getObject().invalidateAddress(address.getId());
+    }
+
+    @PostRemove
+    public void onRemove(Adresse address) {
+        spatialIndexService.getObject().onAddressRemoved(address);
+        distanceMatrixService.getObject().invalidateAddress(address.getId());
+    }
+}
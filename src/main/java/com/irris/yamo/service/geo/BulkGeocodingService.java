@@ -0,0 +1,170 @@
+package com.irris.yamo.service.geo;
+
+import com.irris.yamo.entities.Adresse;
+import com.irris.yamo.exception.InvalidOperationException;
+import com.irris.yamo.repositories.AddressRepository;
+import com.irris.yamo.service.GoogleMapsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Géocodage en masse des adresses sans coordonnées.
+ *
+ * Les adresses sont parcourues par pages (curseur sur l'id), géocodées en
+ * parallèle avec une concurrence bornée, puis leurs coordonnées sont écrites
+ * par page dans une transaction dédiée (UPDATE regroupés en lots JDBC).
+ * Une adresse en échec est conservée dans le rapport et retentée au passage
+ * suivant.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkGeocodingService {
+
+    private final AddressRepository addressRepository;
+    private final GoogleMapsService googleMapsService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${geocoding.bulk.page-size:200}")
+    private int pageSize;
+
+    @Value("${geocoding.bulk.concurrency:4}")
+    private int concurrency;
+
+    private TransactionTemplate writeTransaction;
+    private ExecutorService workers;
+    private ExecutorService jobRunner;
+
+    private final AtomicReference<GeocodingJob> currentJob = new AtomicReference<>();
+
+    @PostConstruct
+    void init() {
+        // Transaction propre : l'écriture ne dépend pas d'une éventuelle transaction appelante en lecture seule
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        workers = Executors.newFixedThreadPool(concurrency, daemonThreads("geocoding-worker-"));
+        jobRunner = Executors.newSingleThreadExecutor(daemonThreads("geocoding-job-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobRunner.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // ========== Job de fond ==========
+
+    /**
+     * Lance un géocodage de toutes les adresses sans coordonnées
+     */
+    public GeocodingJob start() {
+        GeocodingJob job = new GeocodingJob();
+        GeocodingJob previous = currentJob.get();
+        if ((previous != null && previous.isRunning()) || !currentJob.compareAndSet(previous, job)) {
+            throw new InvalidOperationException("Un géocodage en masse est déjà en cours");
+        }
+        jobRunner.submit(() -> run(job));
+        return job;
+    }
+
+    public Optional<GeocodingJob> getCurrentJob() {
+        return Optional.ofNullable(currentJob.get());
+    }
+
+    @Scheduled(fixedDelayString = "${geocoding.bulk.interval-ms:3600000}",
+               initialDelayString = "${geocoding.bulk.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        GeocodingJob job = currentJob.get();
+        if (job == null || !job.isRunning()) {
+            start();
+        }
+    }
+
+    private void run(GeocodingJob job) {
+        log.info("Géocodage en masse {} démarré", job.getId());
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Adresse> page = addressRepository.findNotGeocodedAfter(afterId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).getId();
+                writeBack(geocode(page, job));
+            }
+            job.complete();
+            log.info("Géocodage en masse terminé: {}", job.toMap());
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            log.error("Échec du géocodage en masse: {}", e.getMessage(), e);
+        }
+    }
+
+    private Map<Long, Map<String, Double>> geocode(List<Adresse> addresses, GeocodingJob job) {
+        List<CompletableFuture<Map<String, Double>>> futures = new ArrayList<>(addresses.size());
+        for (Adresse address : addresses) {
+            String fullAddress = address.getFullAddress();
+            futures.add(CompletableFuture.supplyAsync(() -> googleMapsService.geocodeAddress(fullAddress), workers)
+                    .exceptionally(e -> null));
+        }
+
+        Map<Long, Map<String, Double>> coordinates = new HashMap<>();
+        for (int i = 0; i < addresses.size(); i++) {
+            Long addressId = addresses.get(i).getId();
+            Map<String, Double> coords = futures.get(i).join();
+            if (coords != null && coords.get("latitude") != null && coords.get("longitude") != null) {
+                coordinates.put(addressId, coords);
+                if (job != null) {
+                    job.recordSuccess();
+                }
+            } else if (job != null) {
+                job.recordFailure(addressId);
+            }
+        }
+        return coordinates;
+    }
+
+    private void writeBack(Map<Long, Map<String, Double>> coordinates) {
+        if (coordinates.isEmpty()) {
+            return;
+        }
+        writeTransaction.executeWithoutResult(status -> {
+            // Entités gérées : les UPDATE sont émis en lot au commit (hibernate.jdbc.batch_size)
+            for (Adresse address : addressRepository.findAllById(coordinates.keySet())) {
+                Map<String, Double> coords = coordinates.get(address.getId());
+                address.setLatitude(coords.get("latitude"));
+                address.setLongitude(coords.get("longitude"));
+            }
+        });
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.irris.yamo.service.geo;
+
+import com.irris.yamo.entities.Driver;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA qui signale les chauffeurs créés, modifiés (activation, base)
+ * ou supprimés à l'index spatial
+ */
+@Component
+@RequiredArgsConstructor
+public class DriverChangeListener {
+
+    private final ObjectProvider<SpatialIndexService> spatialIndexService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Driver driver) {
+        spatialIndexService.getObject().onDriverChanged(driver.getId());
+    }
+}
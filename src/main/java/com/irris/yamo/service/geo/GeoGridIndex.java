@@ -0,0 +1,305 @@
+package com.irris.yamo.service.geo;
+
+import com.irris.yamo.entities.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Index spatial en mémoire : grille régulière en degrés (équivalent d'un geohash
+ * à précision fixe). Chaque cellule contient les ids des points qu'elle couvre,
+ * les coordonnées sont conservées en radians avec cos(latitude) précalculé.
+ *
+ * Les requêtes ne parcourent que les cellules intersectant la zone recherchée
+ * (rayon) ou des anneaux de cellules croissants autour du point (k plus
+ * proches). Les colonnes de longitude bouclent à l'antiméridien ; une zone qui
+ * atteint un pôle couvre toutes les longitudes. Thread-safe : lectures
+ * concurrentes, écritures exclusives.
+ */
+public class GeoGridIndex {
+
+    // Même rayon terrestre que GeoUtils : les bornes de distance restent exactes en latitude
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180;
+
+    private final double cellDegrees;
+    private final double cellKm;
+    private final int lonCells;
+
+    private final Map<Long, Set<Long>> cells = new HashMap<>();
+    private final Map<Long, Point> points = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public GeoGridIndex(double cellDegrees) {
+        if (cellDegrees <= 0) {
+            throw new IllegalArgumentException("Taille de cellule invalide: " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+        this.cellKm = cellDegrees * KM_PER_DEGREE;
+        this.lonCells = (int) Math.ceil(360.0 / cellDegrees);
+    }
+
+    /**
+     * Point trouvé avec sa distance au centre de la requête
+     */
+    public record Hit(long id, double distanceKm) {
+    }
+
+    private record Point(long id, long cell, double latRad, double lonRad, double cosLat) {
+    }
+
+    // ========== Mises à jour ==========
+
+    /**
+     * Ajoute ou déplace un point
+     */
+    public void put(long id, double latitude, double longitude) {
+        double latRad = Math.toRadians(latitude);
+        Point point = new Point(id, cellOf(latitude, longitude),
+                latRad, Math.toRadians(longitude), Math.cos(latRad));
+
+        lock.writeLock().lock();
+        try {
+            Point previous = points.put(id, point);
+            if (previous != null && previous.cell() != point.cell()) {
+                detach(previous);
+            }
+            cells.computeIfAbsent(point.cell(), c -> new HashSet<>()).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Point previous = points.remove(id);
+            if (previous != null) {
+                detach(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            points.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== Requêtes ==========
+
+    /**
+     * Points situés à moins de radiusKm, triés par distance croissante
+     */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm) {
+        double latRad = Math.toRadians(latitude);
+        double lonRad = Math.toRadians(longitude);
+        double cosLat = Math.cos(latRad);
+
+        int latSpan = (int) Math.ceil(radiusKm / cellKm);
+        int lonSpan = lonSpan(latitude, latSpan, radiusKm);
+        int centerLat = latIndex(latitude);
+        int centerLon = lonIndex(longitude);
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long cellsToScan = (2L * latSpan + 1) * (2L * lonSpan + 1);
+            if (2L * lonSpan + 1 >= lonCells || cellsToScan > cells.size()) {
+                // Rayon très large : balayer les points est moins coûteux que les cellules vides
+                for (Point point : points.values()) {
+                    collect(point, latRad, lonRad, cosLat, radiusKm, hits);
+                }
+            } else {
+                for (int i = centerLat - latSpan; i <= centerLat + latSpan; i++) {
+                    for (int j = centerLon - lonSpan; j <= centerLon + lonSpan; j++) {
+                        Set<Long> ids = cells.get(cellKey(i, j));
+                        if (ids == null) {
+                            continue;
+                        }
+                        for (Long id : ids) {
+                            collect(points.get(id), latRad, lonRad, cosLat, radiusKm, hits);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    /**
+     * Les k points les plus proches acceptés par le filtre, triés par distance croissante
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k, LongPredicate accept) {
+        if (k <= 0) {
+            return List.of();
+        }
+        double latRad = Math.toRadians(latitude);
+        double lonRad = Math.toRadians(longitude);
+        double cosLat = Math.cos(latRad);
+        int centerLat = latIndex(latitude);
+        int centerLon = lonIndex(longitude);
+
+        // Tas max des k meilleurs candidats
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::distanceKm).reversed());
+
+        lock.readLock().lock();
+        try {
+            int visited = 0;
+            int total = points.size();
+            for (int ring = 0; visited < total; ring++) {
+                // Distance minimale d'un point hors des anneaux déjà parcourus
+                if (best.size() == k && best.peek().distanceKm() <= outsideRingsKm(latitude, ring)) {
+                    break;
+                }
+                if (8L * ring > cells.size() || 2L * ring + 1 >= lonCells) {
+                    // Points épars : l'anneau compte plus de cellules que la grille n'en contient
+                    best.clear();
+                    for (Point point : points.values()) {
+                        offer(point, latRad, lonRad, cosLat, k, accept, best);
+                    }
+                    break;
+                }
+                for (int i = centerLat - ring; i <= centerLat + ring; i++) {
+                    // Lignes extrêmes complètes, sinon seulement les deux colonnes de bord
+                    int step = Math.abs(i - centerLat) == ring ? 1 : Math.max(2 * ring, 1);
+                    for (int j = centerLon - ring; j <= centerLon + ring; j += step) {
+                        Set<Long> ids = cells.get(cellKey(i, j));
+                        if (ids == null) {
+                            continue;
+                        }
+                        for (Long id : ids) {
+                            visited++;
+                            offer(points.get(id), latRad, lonRad, cosLat, k, accept, best);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return result;
+    }
+
+    // ========== Grille ==========
+
+    /**
+     * Nombre de colonnes de part et d'autre du centre couvrant le rayon ; toutes
+     * les colonnes si la zone atteint un pôle
+     */
+    private int lonSpan(double latitude, int latSpan, double radiusKm) {
+        double cosMin = minCos(latitude, latSpan + 1);
+        double sinHalf = Math.sin(radiusKm / (2 * EARTH_RADIUS_KM));
+        if (cosMin <= 0 || sinHalf >= cosMin) {
+            return lonCells;
+        }
+        // Écart de longitude maximal d'un point à moins de radiusKm (haversine)
+        double lonDegrees = Math.toDegrees(2 * Math.asin(sinHalf / cosMin));
+        return (int) Math.min(lonCells, Math.ceil(lonDegrees / cellDegrees));
+    }
+
+    /**
+     * Borne inférieure de la distance d'un point situé hors des anneaux 0 à ring - 1 :
+     * au moins ring - 1 cellules d'écart en latitude ou en longitude
+     */
+    private double outsideRingsKm(double latitude, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double latKm = (ring - 1) * cellKm;
+        double lonKm = 2 * EARTH_RADIUS_KM * minCos(latitude, ring + 1)
+                * Math.sin(Math.toRadians((ring - 1) * cellDegrees) / 2);
+        return Math.min(latKm, lonKm);
+    }
+
+    // Plus petit cos(latitude) sur la bande de ±cellSpan cellules autour de la latitude
+    private double minCos(double latitude, int cellSpan) {
+        double maxLatitude = Math.abs(latitude) + cellSpan * cellDegrees;
+        return maxLatitude >= 90 ? 0 : Math.cos(Math.toRadians(maxLatitude));
+    }
+
+    private void collect(Point point, double latRad, double lonRad, double cosLat, double radiusKm, List<Hit> hits) {
+        double distance = GeoUtils.haversineRadians(latRad, lonRad, cosLat,
+                point.latRad(), point.lonRad(), point.cosLat());
+        if (distance <= radiusKm) {
+            hits.add(new Hit(point.id(), distance));
+        }
+    }
+
+    private void offer(Point point, double latRad, double lonRad, double cosLat,
+                       int k, LongPredicate accept, PriorityQueue<Hit> best) {
+        if (accept != null && !accept.test(point.id())) {
+            return;
+        }
+        double distance = GeoUtils.haversineRadians(latRad, lonRad, cosLat,
+                point.latRad(), point.lonRad(), point.cosLat());
+        if (best.size() < k) {
+            best.add(new Hit(point.id(), distance));
+        } else if (distance < best.peek().distanceKm()) {
+            best.poll();
+            best.add(new Hit(point.id(), distance));
+        }
+    }
+
+    private void detach(Point point) {
+        Set<Long> ids = cells.get(point.cell());
+        if (ids != null) {
+            ids.remove(point.id());
+            if (ids.isEmpty()) {
+                cells.remove(point.cell());
+            }
+        }
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(latIndex(latitude), lonIndex(longitude));
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellDegrees), lonCells);
+    }
+
+    // Colonne ramenée dans [0, lonCells[ : les anneaux traversent l'antiméridien
+    private long cellKey(int latIndex, int lonIndex) {
+        return key(latIndex, Math.floorMod(lonIndex, lonCells));
+    }
+
+    private static long key(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+}
@@ -0,0 +1,80 @@
+package com.irris.yamo.service.geo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Avancement d'un géocodage en masse
+ */
+public class GeocodingJob {
+
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    // Nombre d'ids en échec conservés dans le rapport
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    private final String id = UUID.randomUUID().toString();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+    private volatile State state = State.RUNNING;
+    private volatile String error;
+
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger geocoded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Long> failedAddressIds = new ConcurrentLinkedQueue<>();
+
+    void recordSuccess() {
+        processed.incrementAndGet();
+        geocoded.incrementAndGet();
+    }
+
+    void recordFailure(Long addressId) {
+        processed.incrementAndGet();
+        if (failed.incrementAndGet() <= MAX_REPORTED_FAILURES) {
+            failedAddressIds.add(addressId);
+        }
+    }
+
+    void complete() {
+        state = State.COMPLETED;
+        finishedAt = LocalDateTime.now();
+    }
+
+    void fail(String message) {
+        error = message;
+        state = State.FAILED;
+        finishedAt = LocalDateTime.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("jobId", id);
+        map.put("state", state.name());
+        map.put("startedAt", startedAt);
+        map.put("finishedAt", finishedAt);
+        map.put("processed", processed.get());
+        map.put("geocoded", geocoded.get());
+        map.put("failed", failed.get());
+        List<Long> failures = new ArrayList<>(failedAddressIds);
+        map.put("failedAddressIds", failures);
+        if (error != null) {
+            map.put("error", error);
+        }
+        return map;
+    }
+}
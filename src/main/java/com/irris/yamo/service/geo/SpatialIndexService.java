@@ -0,0 +1,291 @@
+package com.irris.yamo.service.geo;
+
+import com.irris.yamo.entities.Adresse;
+import com.irris.yamo.repositories.AddressRepository;
+import com.irris.yamo.repositories.DriverRepository;
+import com.irris.yamo.repositories.projection.GeoPoint;
+import com.irris.yamo.service.cache.RefreshQueue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+/**
+ * Index spatiaux des adresses et des positions chauffeurs.
+ *
+ * Chargés au démarrage depuis la base (coordonnées uniquement), puis tenus à
+ * jour après commit par {@link AddressChangeListener} pour les adresses et par
+ * {@link DriverChangeListener} pour les chauffeurs (création, désactivation,
+ * suppression), relus par un thread de fond. Les chauffeurs sont positionnés
+ * sur leur base tant qu'aucune position GPS n'est connue. Un rechargement
+ * périodique rattrape ce que les listeners ne voient pas (mises à jour en
+ * masse, base d'un chauffeur déplacée) : il construit de nouveaux index et
+ * les publie d'un bloc ; les positions GPS et les mises à jour reçues pendant
+ * le chargement y sont reportées avant publication.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpatialIndexService {
+
+    // ~1,1 km de côté : quelques dizaines d'adresses par cellule en zone dense
+    private static final double ADDRESS_CELL_DEGREES = 0.01;
+    private static final double DRIVER_CELL_DEGREES = 0.05;
+
+    private final AddressRepository addressRepository;
+    private final DriverRepository driverRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${geo.index.shutdown-timeout-seconds:5}")
+    private long shutdownTimeoutSeconds;
+
+    private TransactionTemplate readTransaction;
+    private RefreshQueue<Long> driverRefreshQueue;
+
+    private volatile GeoGridIndex addresses = new GeoGridIndex(ADDRESS_CELL_DEGREES);
+    private volatile GeoGridIndex drivers = new GeoGridIndex(DRIVER_CELL_DEGREES);
+
+    private volatile boolean initialized = false;
+
+    // Dernière position GPS connue par chauffeur, prioritaire sur sa base
+    private final Map<Long, LivePosition> livePositions = new ConcurrentHashMap<>();
+
+    // Adresses et fiches chauffeurs reçues pendant un rechargement (null hors rechargement) ;
+    // les relevés GPS passent par livePositions, reportée après publication
+    private final Object updateLock = new Object();
+    private List<IndexUpdate> replayLog;
+
+    @FunctionalInterface
+    private interface IndexUpdate {
+        void apply(GeoGridIndex addresses, GeoGridIndex drivers);
+    }
+
+    private record LivePosition(double latitude, double longitude, LocalDateTime recordedAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        // Rejoint la transaction appelante s'il y en a une (aucune seconde connexion)
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        driverRefreshQueue = new RefreshQueue<>("driver-index", this::refreshDrivers);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        driverRefreshQueue.close(shutdownTimeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    // ========== Requêtes ==========
+
+    /**
+     * Adresses à moins de radiusKm, de la plus proche à la plus éloignée
+     */
+    public List<GeoGridIndex.Hit> findAddressesWithin(double latitude, double longitude, double radiusKm) {
+        ensureInitialized();
+        return addresses.withinRadius(latitude, longitude, radiusKm);
+    }
+
+    public List<GeoGridIndex.Hit> findNearestAddresses(double latitude, double longitude, int k) {
+        ensureInitialized();
+        return addresses.nearest(latitude, longitude, k, null);
+    }
+
+    /**
+     * Chauffeurs les plus proches parmi ceux acceptés par le filtre (ex. disponibles)
+     */
+    public List<GeoGridIndex.Hit> findNearestDrivers(double latitude, double longitude, int k, LongPredicate accept) {
+        ensureInitialized();
+        return drivers.nearest(latitude, longitude, k, accept);
+    }
+
+    // ========== Mises à jour ==========
+
+    void onAddressSaved(Adresse address) {
+        Long id = address.getId();
+        Double latitude = address.getLatitude();
+        Double longitude = address.getLongitude();
+        if (id == null) {
+            return;
+        }
+        afterCommit(() -> update((addressIndex, driverIndex) -> {
+            if (latitude == null || longitude == null) {
+                addressIndex.remove(id);
+            } else {
+                addressIndex.put(id, latitude, longitude);
+            }
+        }));
+    }
+
+    void onAddressRemoved(Adresse address) {
+        Long id = address.getId();
+        if (id == null) {
+            return;
+        }
+        afterCommit(() -> update((addressIndex, driverIndex) -> addressIndex.remove(id)));
+    }
+
+    /**
+     * Position GPS relevée à recordedAt ; ignorée si une position plus récente
+     * est déjà indexée. Sérialisé par chauffeur uniquement : les relevés de
+     * chauffeurs différents ne s'attendent pas.
+     */
+    public void updateDriverPosition(Long driverId, double latitude, double longitude, LocalDateTime recordedAt) {
+        livePositions.compute(driverId, (id, previous) -> {
+            if (previous != null && !recordedAt.isAfter(previous.recordedAt())) {
+                return previous;
+            }
+            drivers.put(id, latitude, longitude);
+            return new LivePosition(latitude, longitude, recordedAt);
+        });
+    }
+
+    /**
+     * Chauffeur créé, modifié ou supprimé : relu après commit (statut actif, base)
+     */
+    void onDriverChanged(Long driverId) {
+        if (driverId == null) {
+            return;
+        }
+        afterCommit(() -> driverRefreshQueue.submit(List.of(driverId)));
+    }
+
+    private void refreshDrivers(Set<Long> driverIds) {
+        Map<Long, GeoPoint> active = new HashMap<>();
+        List<GeoPoint> points = readTransaction.execute(status -> driverRepository.findActiveGeoPoints(driverIds));
+        if (points != null) {
+            points.forEach(point -> active.put(point.id(), point));
+        }
+        for (Long driverId : driverIds) {
+            GeoPoint base = active.get(driverId);
+            // Dans compute : pas de relevé GPS concurrent entre la vérification et l'écriture
+            update((addressIndex, driverIndex) -> livePositions.compute(driverId, (id, live) -> {
+                if (base == null) {
+                    // Désactivé ou supprimé : ni base ni position GPS
+                    driverIndex.remove(id);
+                    return null;
+                }
+                if (live == null) {
+                    putBase(driverIndex, base);
+                }
+                return live;
+            }));
+        }
+    }
+
+    private static void putBase(GeoGridIndex driverIndex, GeoPoint base) {
+        if (base.latitude() == null || base.longitude() == null) {
+            driverIndex.remove(base.id());
+        } else {
+            driverIndex.put(base.id(), base.latitude(), base.longitude());
+        }
+    }
+
+    private void update(IndexUpdate update) {
+        synchronized (updateLock) {
+            update.apply(addresses, drivers);
+            if (replayLog != null) {
+                replayLog.add(update);
+            }
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    // ========== Chargement ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureInitialized();
+    }
+
+    /**
+     * Recharge les deux index depuis la base ; les requêtes continuent d'utiliser
+     * les index courants jusqu'à la publication des nouveaux
+     */
+    @Scheduled(fixedDelayString = "${geo.index.refresh-interval-ms:3600000}",
+            initialDelayString = "${geo.index.initial-delay-ms:3600000}")
+    public synchronized void rebuild() {
+        synchronized (updateLock) {
+            replayLog = new ArrayList<>();
+        }
+        try {
+            GeoGridIndex loadedAddresses = new GeoGridIndex(ADDRESS_CELL_DEGREES);
+            GeoGridIndex loadedDrivers = new GeoGridIndex(DRIVER_CELL_DEGREES);
+            readTransaction.executeWithoutResult(status -> {
+                for (GeoPoint point : addressRepository.findAllGeoPoints()) {
+                    loadedAddresses.put(point.id(), point.latitude(), point.longitude());
+                }
+                for (GeoPoint point : driverRepository.findBaseLocationGeoPoints()) {
+                    loadedDrivers.put(point.id(), point.latitude(), point.longitude());
+                }
+            });
+
+            synchronized (updateLock) {
+                // La position GPS prime sur la base rechargée (retirée à la désactivation du chauffeur)
+                livePositions.forEach((driverId, position) ->
+                        loadedDrivers.put(driverId, position.latitude(), position.longitude()));
+                for (IndexUpdate update : replayLog) {
+                    update.apply(loadedAddresses, loadedDrivers);
+                }
+                addresses = loadedAddresses;
+                drivers = loadedDrivers;
+            }
+            // Relevés GPS écrits dans l'ancien index pendant le chargement : reportés
+            // chauffeur par chauffeur, sérialisés avec les relevés suivants
+            for (Long driverId : livePositions.keySet()) {
+                livePositions.computeIfPresent(driverId, (id, position) -> {
+                    drivers.put(id, position.latitude(), position.longitude());
+                    return position;
+                });
+            }
+            log.info("Index spatiaux chargés: {} adresses, {} chauffeurs",
+                    loadedAddresses.size(), loadedDrivers.size());
+        } finally {
+            synchronized (updateLock) {
+                replayLog = null;
+            }
+        }
+        initialized = true;
+    }
+
+    private void ensureInitialized() {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    rebuild();
+                }
+            }
+        }
+    }
+}
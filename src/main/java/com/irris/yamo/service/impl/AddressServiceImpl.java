@@ -1,6 +1,7 @@
 package com.irris.yamo.service.impl;
 
 import com.irris.yamo.dtos.AddressDto;
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.creation.AdressCreationDto;
 import com.irris.yamo.entities.Adresse;
 import com.irris.yamo.entities.GeoUtils;
@@ -11,11 +12,20 @@ import com.irris.yamo.mapper.AddressMapper;
 import com.irris.yamo.repositories.AddressRepository;
 import com.irris.yamo.repositories.UserRepository;
 import com.irris.yamo.service.AddressService;
+import com.irris.yamo.service.geo.BulkGeocodingService;
+import com.irris.yamo.service.geo.GeoGridIndex;
+import com.irris.yamo.service.geo.GeocodingJob;
+import com.irris.yamo.service.geo.SpatialIndexService;
+import com.irris.yamo.service.pagination.KeysetPageRequest;
+import com.irris.yamo.service.pagination.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +35,9 @@ public class AddressServiceImpl implements AddressService {
     private final AddressRepository addressRepository;
     private final UserRepository userRepository;
     private final AddressMapper addressMapper;
+    private final SpatialIndexService spatialIndexService;
+    private final BulkGeocodingService bulkGeocodingService;
+    private final KeysetPagination keysetPagination;
 
     @Override
     @Transactional
@@ -70,10 +83,10 @@ public class AddressServiceImpl implements AddressService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<AddressDto> getAllAddresses() {
-        return addressRepository.findAll().stream()
-                .map(addressMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<AddressDto> getAllAddresses(String cursor, Integer size) {
+        KeysetPageRequest page = keysetPagination.request(cursor, size);
+        List<Adresse> rows = addressRepository.findPageBefore(page.beforeId(), page.limit());
+        return keysetPagination.page(rows, page, Adresse::getId, addressMapper::toDto);
     }
 
     @Override
@@ -106,17 +119,19 @@ public class AddressServiceImpl implements AddressService {
             throw new InvalidOperationException("Latitude, longitude et rayon sont requis");
         }
 
-        return addressRepository.findAll().stream()
-                .filter(adresse -> {
-                    if (adresse.getLatitude() == null || adresse.getLongitude() == null) {
-                        return false;
-                    }
-                    Double distance = GeoUtils.haversineDistance(
-                            latitude, longitude,
-                            adresse.getLatitude(), adresse.getLongitude()
-                    );
-                    return distance != null && distance <= radiusKm;
-                })
+        List<Long> ids = spatialIndexService.findAddressesWithin(latitude, longitude, radiusKm).stream()
+                .map(GeoGridIndex.Hit::id)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Conserver l'ordre par distance de l'index
+        Map<Long, Adresse> byId = addressRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Adresse::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(addressMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -159,4 +174,16 @@ public class AddressServiceImpl implements AddressService {
 
         return GeoUtils.calculateDistance(address1, address2);
     }
+
+    @Override
+    public Map<String, Object> startBulkGeocoding() {
+        return bulkGeocodingService.start().toMap();
+    }
+
+    @Override
+    public Map<String, Object> getBulkGeocodingStatus() {
+        return bulkGeocodingService.getCurrentJob()
+                .map(GeocodingJob::toMap)
+                .orElseThrow(() -> new ResourceNotFoundException("Aucun géocodage en masse lancé"));
+    }
 }
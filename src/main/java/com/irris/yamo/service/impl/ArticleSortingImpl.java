@@ -2,14 +2,13 @@ package com.irris.yamo.service.impl;
 
 import com.irris.yamo.dtos.ArticleDto;
 import com.irris.yamo.entities.Article;
-import com.irris.yamo.entities.Order;
-import com.irris.yamo.entities.enums.OrderStatus;
 import com.irris.yamo.exception.InvalidOperationException;
 import com.irris.yamo.exception.ResourceNotFoundException;
 import com.irris.yamo.mapper.ArticleMapper;
 import com.irris.yamo.repositories.ArticleRepository;
-import com.irris.yamo.repositories.OrderRepository;
 import com.irris.yamo.service.ArticleSortingService;
+import com.irris.yamo.service.events.WorkflowEvent;
+import com.irris.yamo.service.events.WorkflowEventBus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,8 +22,8 @@ import java.util.stream.Collectors;
 public class ArticleSortingImpl implements ArticleSortingService {
 
     private final ArticleRepository articleRepository;
-    private final OrderRepository orderRepository;
     private final ArticleMapper articleMapper;
+    private final WorkflowEventBus workflowEventBus;
 
     @Override
     @Transactional
@@ -49,9 +48,9 @@ public class ArticleSortingImpl implements ArticleSortingService {
         article.setWasSorted(true);
         article = articleRepository.save(article);
 
-        // Mettre à jour le statut de la commande si tous les articles sont triés
+        // Statut de tri de la commande mis à jour après commit (OrderSortingConsumer)
         if (article.getOrder() != null) {
-            updateOrderSortingStatus(article.getOrder());
+            workflowEventBus.publish(new WorkflowEvent.ArticleSorted(article.getId(), article.getOrder().getId()));
         }
 
         return article;
@@ -120,23 +119,4 @@ public class ArticleSortingImpl implements ArticleSortingService {
 
         return allArticles;
     }
-
-    /**
-     * Met à jour le statut de tri de la commande
-     */
-    private void updateOrderSortingStatus(Order order) {
-        boolean allArticlesSorted = order.getArticles().stream()
-                .allMatch(Article::isWasSorted);
-
-        if (allArticlesSorted) {
-            order.setWasSorted(true);
-            
-            // Mettre à jour le statut de la commande
-            if (order.getStatus() == OrderStatus.RECEIVED) {
-                order.setStatus(OrderStatus.PRODUCTION_COMPLETED);
-            }
-            
-            orderRepository.save(order);
-        }
-    }
 }
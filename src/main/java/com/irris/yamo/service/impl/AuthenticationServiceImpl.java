@@ -9,6 +9,7 @@ import com.irris.yamo.exception.InvalidOperationException;
 import com.irris.yamo.exception.ResourceNotFoundException;
 import com.irris.yamo.repositories.UserRepository;
 import com.irris.yamo.service.AuthenticationService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -33,6 +34,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final com.irris.yamo.security.JwtTokenProvider jwtTokenProvider;
+    private final com.irris.yamo.security.TokenRevocationStore tokenRevocationStore;
 
     @Override
     @Transactional
@@ -314,7 +316,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     @Override
     public void logout(String token) {
-        // TODO: Ajouter token à une blacklist (Redis recommandé)
+        Claims claims = jwtTokenProvider.parseClaims(token);
+        if (claims == null) {
+            return;
+        }
+        tokenRevocationStore.revokeToken(claims.getId(), claims.getExpiration().getTime());
         log.info("Déconnexion - Token invalidé");
     }
 
@@ -326,11 +332,15 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Override
     @Transactional
     public LoginResponseDto refreshToken(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        Claims claims = jwtTokenProvider.parseClaims(refreshToken);
+        if (claims == null) {
             throw new InvalidOperationException("Refresh token invalide ou expiré");
         }
 
-        Long userId = jwtTokenProvider.getUserIdFromToken(refreshToken);
+        Long userId = jwtTokenProvider.getUserId(claims);
+        if (tokenRevocationStore.isRevoked(claims.getId(), userId, claims.getIssuedAt().getTime())) {
+            throw new InvalidOperationException("Refresh token révoqué");
+        }
         UserYamo user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
 
@@ -338,6 +348,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             throw new InvalidOperationException("Compte désactivé");
         }
 
+        // Rotation : l'ancien refresh token n'est plus utilisable ; un seul appel
+        // concurrent avec le même token obtient la révocation et donc de nouveaux tokens
+        if (!tokenRevocationStore.revokeToken(claims.getId(), claims.getExpiration().getTime())) {
+            throw new InvalidOperationException("Refresh token révoqué");
+        }
+
         // Générer nouveau token
         String newToken = jwtTokenProvider.generateToken(user);
         String newRefreshToken = jwtTokenProvider.generateRefreshToken(user);
@@ -357,11 +373,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Override
     @Transactional(readOnly = true)
     public UserYamo getUserFromToken(String token) {
-        if (!jwtTokenProvider.validateToken(token)) {
+        Claims claims = jwtTokenProvider.parseClaims(token);
+        if (claims == null) {
             throw new InvalidOperationException("Token invalide");
         }
 
-        Long userId = jwtTokenProvider.getUserIdFromToken(token);
+        Long userId = jwtTokenProvider.getUserId(claims);
         return userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
     }
@@ -1,15 +1,17 @@
 package com.irris.yamo.service.impl;
 
 import com.irris.yamo.entities.*;
-import com.irris.yamo.entities.enums.BillingMode;
 import com.irris.yamo.entities.enums.PromotionType;
 import com.irris.yamo.exception.InvalidOperationException;
 import com.irris.yamo.exception.ResourceNotFoundException;
 import com.irris.yamo.repositories.InvoiceRepository;
 import com.irris.yamo.repositories.OrderRepository;
-import com.irris.yamo.repositories.PromotionRepository;
 import com.irris.yamo.repositories.PromotionUsageRepository;
 import com.irris.yamo.service.BillingService;
+import com.irris.yamo.service.pricing.PriceTable;
+import com.irris.yamo.service.pricing.PricingEngine;
+import com.irris.yamo.service.promotion.PromotionRuleEngine;
+import com.irris.yamo.service.promotion.PromotionUsageCounters;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,8 +19,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -26,8 +31,10 @@ public class BillingServiceImpl implements BillingService {
 
     private final OrderRepository orderRepository;
     private final InvoiceRepository invoiceRepository;
-    private final PromotionRepository promotionRepository;
     private final PromotionUsageRepository promotionUsageRepository;
+    private final PricingEngine pricingEngine;
+    private final PromotionRuleEngine promotionRuleEngine;
+    private final PromotionUsageCounters usageCounters;
 
     @Override
     @Transactional
@@ -78,22 +85,20 @@ public class BillingServiceImpl implements BillingService {
             return BigDecimal.ZERO;
         }
 
-        BigDecimal total = BigDecimal.ZERO;
+        // Une seule version de la grille pour toute la commande
+        PriceTable table = pricingEngine.current();
+        long total = 0;
 
-        // Calculer le prix de chaque article
         if (order.getArticles() != null) {
             for (Article article : order.getArticles()) {
-                BigDecimal articlePrice = calculateArticlePrice(article);
-                total = total.add(articlePrice);
+                total += articleCents(table, article);
             }
         }
 
         // Ajouter les frais de livraison si présents
-        if (order.getDeliveryPrice() != null) {
-            total = total.add(order.getDeliveryPrice());
-        }
+        total += PriceTable.toCents(order.getDeliveryPrice());
 
-        return total.setScale(2, RoundingMode.HALF_UP);
+        return PriceTable.toAmount(total);
     }
 
     @Override
@@ -108,76 +113,20 @@ public class BillingServiceImpl implements BillingService {
             return article.getPrice();
         }
 
-        // Sinon, calculer selon le mode de facturation
-        BillingMode billingMode = article.getEffectiveBillingMode();
-        Set<LaundryService> services = article.getLaundryServices();
-
-        if (services == null || services.isEmpty()) {
-            // Pas de service associé, retourner zéro
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal totalPrice = BigDecimal.ZERO;
-
-        for (LaundryService service : services) {
-            BigDecimal servicePrice = calculateServicePrice(service, article, billingMode);
-            totalPrice = totalPrice.add(servicePrice);
-        }
-
-        // Mettre à jour le prix de l'article
-        article.setPrice(totalPrice);
-
-        return totalPrice.setScale(2, RoundingMode.HALF_UP);
+        return PriceTable.toAmount(articleCents(pricingEngine.current(), article));
     }
 
     /**
-     * Calcule le prix d'un service pour un article donné
+     * Prix de l'article en centimes ; un prix calculé est reporté sur l'article
      */
-    private BigDecimal calculateServicePrice(LaundryService service, Article article, BillingMode billingMode) {
-        BigDecimal price = BigDecimal.ZERO;
-
-        switch (billingMode) {
-            case PIECE:
-            case PAR_PIECE:
-                // Facturation à la pièce
-                if (service.getPricePerPiece() != null) {
-                    int quantity = article.getQuantity() != null ? article.getQuantity() : 1;
-                    price = service.getPricePerPiece().multiply(BigDecimal.valueOf(quantity));
-                }
-                break;
-
-            case KG:
-            case PAR_KG:
-                // Facturation au poids
-                if (service.getPricePerKg() != null) {
-                    BigDecimal weight = article.getActualWeight() != null && 
-                                      article.getActualWeight().compareTo(BigDecimal.ZERO) > 0
-                            ? article.getActualWeight()
-                            : article.getEstimatedWeight();
-
-                    if (weight != null && weight.compareTo(BigDecimal.ZERO) > 0) {
-                        price = service.getPricePerKg().multiply(weight);
-                    }
-                }
-                break;
-
-            case FLAT_RATE:
-                // Tarif forfaitaire - prendre le prix par pièce par défaut
-                if (service.getPricePerPiece() != null) {
-                    price = service.getPricePerPiece();
-                }
-                break;
-        }
-
-        // Appliquer la remise si elle existe
-        if (service.getDiscountPercentage() != null && 
-            service.getDiscountPercentage().compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal discount = price.multiply(service.getDiscountPercentage())
-                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-            price = price.subtract(discount);
+    private long articleCents(PriceTable table, Article article) {
+        long cents = pricingEngine.articleCents(table, article);
+        if (article.getPrice() == null || article.getPrice().signum() <= 0) {
+            if (article.getLaundryServices() != null && !article.getLaundryServices().isEmpty()) {
+                article.setPrice(PriceTable.toAmount(cents));
+            }
         }
-
-        return price;
+        return cents;
     }
 
     /**
@@ -224,88 +173,47 @@ public class BillingServiceImpl implements BillingService {
         }
 
         // Sinon, chercher et appliquer automatiquement la meilleure promotion
-        List<Promotion> autoApplyPromotions = promotionRepository.findAutoApplyPromotions(LocalDateTime.now());
-        
-        Promotion bestPromotion = null;
-        BigDecimal maxDiscount = BigDecimal.ZERO;
+        // (candidates déjà filtrées par l'index des règles)
+        List<Promotion> autoApplyPromotions = promotionRuleEngine.applicablePromotions(order, subtotal);
 
+        // Meilleure réduction d'abord ; si sa limite vient d'être atteinte, la suivante
+        Map<Promotion, BigDecimal> discounts = new HashMap<>();
         for (Promotion promo : autoApplyPromotions) {
-            if (isPromotionApplicable(promo, order, subtotal)) {
-                BigDecimal promoDiscount = calculatePromotionDiscountAmount(promo, order, subtotal);
-                if (promoDiscount.compareTo(maxDiscount) > 0) {
-                    maxDiscount = promoDiscount;
-                    bestPromotion = promo;
-                }
+            BigDecimal promoDiscount = calculatePromotionDiscountAmount(promo, order, subtotal);
+            if (promoDiscount.compareTo(BigDecimal.ZERO) > 0) {
+                discounts.put(promo, promoDiscount);
             }
         }
+        List<Promotion> ranked = new ArrayList<>(autoApplyPromotions);
+        ranked.removeIf(promo -> !discounts.containsKey(promo));
+        // Tri stable : à réduction égale, l'ordre de priorité est conservé
+        ranked.sort(Comparator.comparing(discounts::get).reversed());
 
-        // Appliquer la meilleure promotion trouvée
-        if (bestPromotion != null && maxDiscount.compareTo(BigDecimal.ZERO) > 0) {
-            order.setAppliedPromotion(bestPromotion);
-            order.setDiscountAmount(maxDiscount);
-            discount = maxDiscount;
+        Long customerId = order.getCustomer() != null ? order.getCustomer().getId() : null;
+        for (Promotion promo : ranked) {
+            // Réservée jusqu'au commit de la facture, libérée en cas d'échec
+            if (!usageCounters.reserve(promo, customerId).granted()) {
+                continue;
+            }
+            BigDecimal promoDiscount = discounts.get(promo);
+            order.setAppliedPromotion(promo);
+            order.setDiscountAmount(promoDiscount);
+            discount = promoDiscount;
 
             // Enregistrer l'utilisation
             PromotionUsage usage = PromotionUsage.builder()
-                    .promotion(bestPromotion)
+                    .promotion(promo)
                     .customer(order.getCustomer())
                     .order(order)
-                    .discountAmount(maxDiscount)
+                    .discountAmount(promoDiscount)
                     .build();
             promotionUsageRepository.save(usage);
-
-            // Incrémenter le compteur
-            bestPromotion.incrementUsage();
-            promotionRepository.save(bestPromotion);
+            break;
         }
 
         return discount;
     }
 
-    /**
-     * Vérifie si une promotion est applicable à une commande
-     */
-    private boolean isPromotionApplicable(Promotion promo, Order order, BigDecimal orderTotal) {
-        // Vérifier validité
-        if (!promo.isValid()) return false;
-        
-        // Vérifier usage maximum
-        if (promo.hasReachedMaxUsage()) return false;
-        
-        // Vérifier montant minimum
-        if (promo.getMinimumOrderAmount() != null && 
-            orderTotal.compareTo(promo.getMinimumOrderAmount()) < 0) {
-            return false;
-        }
-        
-        // Vérifier nombre d'articles minimum
-        if (promo.getMinimumItems() != null && 
-            order.getArticles().size() < promo.getMinimumItems()) {
-            return false;
-        }
-
-        // Vérifier nouveau client
-        if (promo.getIsForNewCustomersOnly()) {
-            if (order.getCustomer() instanceof Customer) {
-                long orderCount = orderRepository.countByCustomer((Customer) order.getCustomer());
-                if (orderCount > 1) return false; // >1 car la commande actuelle compte
-            }
-        }
-
-        // Vérifier client VIP
-        if (promo.getIsForVipCustomersOnly()) {
-            if (order.getCustomer() instanceof Customer) {
-                Customer customer = (Customer) order.getCustomer();
-                if (!com.irris.yamo.entities.enums.CustomerSegment.VIP.equals(customer.getCustomerSegment())) return false;
-            }
-        }
-
-        // Vérifier éligibilité
-        if (!promo.isEligible(order.getCustomer())) return false;
-        
-        return true;
-    }
-
     /**
      * Calcule le montant de réduction d'une promotion
      */
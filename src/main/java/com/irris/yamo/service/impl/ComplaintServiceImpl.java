@@ -1,6 +1,7 @@
 package com.irris.yamo.service.impl;
 
 import com.irris.yamo.dtos.ComplaintDto;
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.creation.ComplaintCreationDto;
 import com.irris.yamo.entities.Complaint;
 import com.irris.yamo.entities.Order;
@@ -12,6 +13,8 @@ import com.irris.yamo.repositories.ComplaintRepository;
 import com.irris.yamo.repositories.OrderRepository;
 import com.irris.yamo.repositories.UserRepository;
 import com.irris.yamo.service.ComplaintService;
+import com.irris.yamo.service.pagination.KeysetPageRequest;
+import com.irris.yamo.service.pagination.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +30,7 @@ public class ComplaintServiceImpl implements ComplaintService {
     private final ComplaintRepository complaintRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
+    private final KeysetPagination keysetPagination;
 
     @Override
     @Transactional
@@ -53,10 +57,10 @@ public class ComplaintServiceImpl implements ComplaintService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ComplaintDto> getAllComplaints() {
-        return complaintRepository.findAll().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<ComplaintDto> getAllComplaints(String cursor, Integer size) {
+        KeysetPageRequest page = keysetPagination.request(cursor, size);
+        List<Complaint> rows = complaintRepository.findPageBefore(page.beforeId(), page.limit());
+        return keysetPagination.page(rows, page, Complaint::getId, this::toDto);
     }
 
     @Override
@@ -8,7 +8,9 @@ import com.irris.yamo.entities.enums.TaskStatus;
 import com.irris.yamo.entities.enums.TaskType;
 import com.irris.yamo.mapper.OrderMapper;
 import com.irris.yamo.repositories.*;
+import com.irris.yamo.repositories.projection.CustomerOrderCount;
 import com.irris.yamo.service.DashboardService;
+import com.irris.yamo.service.stats.OrderStatisticsStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +31,7 @@ public class DashboardServiceImpl implements DashboardService {
     private final PaymentRepository paymentRepository;
     private final LogisticTaskRepository logisticTaskRepository;
     private final OrderMapper orderMapper;
+    private final OrderStatisticsStore orderStatisticsStore;
 
     @Override
     @Transactional(readOnly = true)
@@ -42,18 +45,12 @@ public class DashboardServiceImpl implements DashboardService {
         dashboard.setIncompletePaymentOrders(getIncompletePaymentCount());
         
         // Statistiques logistiques
-        dashboard.setPendingPickups(logisticTaskRepository
-                .findPendingTasksByType(TaskType.PICKUP).size() + 0L);
-        dashboard.setPendingDeliveries(logisticTaskRepository
-                .findPendingTasksByType(TaskType.DELIVERY).size() + 0L);
-        dashboard.setTasksInProgress((long) logisticTaskRepository
-                .findByDriverIdAndStatus(null, TaskStatus.IN_PROGRESS).size());
-
-        // Commandes récentes (10 dernières)
-        List<Order> recentOrders = orderRepository.findAll().stream()
-                .sorted(Comparator.comparing(Order::getCreatedAt).reversed())
-                .limit(10)
-                .collect(Collectors.toList());
+        dashboard.setPendingPickups(logisticTaskRepository.countByTypeAndStatus(TaskType.PICKUP, TaskStatus.PENDING));
+        dashboard.setPendingDeliveries(logisticTaskRepository.countByTypeAndStatus(TaskType.DELIVERY, TaskStatus.PENDING));
+        dashboard.setTasksInProgress(logisticTaskRepository.countByStatus(TaskStatus.IN_PROGRESS));
+
+        // Commandes récentes (10 dernières, via l'index sur created_at)
+        List<Order> recentOrders = orderRepository.findTop10ByOrderByCreatedAtDesc();
         dashboard.setRecentOrders(recentOrders.stream()
                 .map(orderMapper::toDto)
                 .collect(Collectors.toList()));
@@ -86,14 +83,7 @@ public class DashboardServiceImpl implements DashboardService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> getOrderStatisticsByStatus() {
-        Map<String, Long> stats = new HashMap<>();
-        
-        for (OrderStatus status : OrderStatus.values()) {
-            long count = orderRepository.findByStatus(status).size();
-            stats.put(status.name(), count);
-        }
-        
-        return stats;
+        return orderStatisticsStore.getCountsByStatus();
     }
 
     @Override
@@ -116,14 +106,13 @@ public class DashboardServiceImpl implements DashboardService {
         // Grouper les commandes par ville/quartier des clients
         Map<String, Long> zones = new HashMap<>();
         
-        List<Order> orders = orderRepository.findAll();
-        for (Order order : orders) {
+        for (CustomerOrderCount row : orderRepository.countGroupByCustomer()) {
             String zone = "Unknown";
-            if (order.getCustomer() != null) {
+            if (row.customerId() != null) {
                 // Utiliser la ville du client comme zone
-                zone = "Zone_" + order.getCustomer().getId(); // À améliorer avec vraie adresse
+                zone = "Zone_" + row.customerId(); // À améliorer avec vraie adresse
             }
-            zones.put(zone, zones.getOrDefault(zone, 0L) + 1);
+            zones.merge(zone, row.count(), Long::sum);
         }
         
         return zones;
@@ -132,37 +121,30 @@ public class DashboardServiceImpl implements DashboardService {
     @Override
     @Transactional(readOnly = true)
     public Long getOrdersCount() {
-        return orderRepository.count();
+        return orderStatisticsStore.getTotalOrders();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getPendingReceptionCount() {
-        return orderRepository.findByStatus(OrderStatus.CREATED).stream()
-                .filter(order -> !order.isWasReceived())
-                .count();
+        return orderStatisticsStore.getPendingReceptionCount();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getInProductionCount() {
-        return orderRepository.findByStatus(OrderStatus.IN_PRODUCTION).size() + 0L;
+        return orderStatisticsStore.getCount(OrderStatus.IN_PRODUCTION);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getReadyForDeliveryCount() {
-        return orderRepository.findOrdersReadyForDelivery().stream()
-                .filter(Order::isWasPackaged)
-                .filter(Order::isFullyPaid)
-                .count();
+        return orderStatisticsStore.getReadyForDeliveryCount();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getIncompletePaymentCount() {
-        return orderRepository.findAll().stream()
-                .filter(order -> !order.isFullyPaid())
-                .count();
+        return orderStatisticsStore.getIncompletePaymentCount();
     }
 }
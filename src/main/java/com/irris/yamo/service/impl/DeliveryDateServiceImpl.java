@@ -16,7 +16,6 @@ import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -122,11 +121,7 @@ public class DeliveryDateServiceImpl implements DeliveryDateService {
     @Override
     @Transactional
     public Map<String, Object> recalculateLateOrders() {
-        List<Order> lateOrders = orderRepository.findAll().stream()
-                .filter(o -> o.getRequiredCompletionDate() != null &&
-                        LocalDateTime.now().isAfter(o.getRequiredCompletionDate()) &&
-                        !o.isFullyProcessed())
-                .collect(Collectors.toList());
+        List<Order> lateOrders = orderRepository.findLateUnprocessed(LocalDateTime.now());
 
         int recalculated = 0;
         for (Order order : lateOrders) {
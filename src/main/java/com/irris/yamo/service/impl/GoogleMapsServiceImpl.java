@@ -1,152 +1,277 @@
 package com.irris.yamo.service.impl;
 
+import com.irris.yamo.entities.GeoUtils;
 import com.irris.yamo.service.GoogleMapsService;
+import com.irris.yamo.service.cache.ExpiringCache;
+import com.irris.yamo.service.maps.GoogleMapsClient;
+import com.irris.yamo.service.maps.TravelMatrix;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class GoogleMapsServiceImpl implements GoogleMapsService {
 
-    @Value("${google.maps.api-key:}")
-    private String apiKey;
+    private final GoogleMapsClient mapsClient;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${google.maps.cache.max-entries:10000}")
+    private int cacheMaxEntries;
 
-    private static final String GEOCODING_API = "https://maps.googleapis.com/maps/api/geocode/json";
-    private static final String DIRECTIONS_API = "https://maps.googleapis.com/maps/api/directions/json";
-    private static final String PLACES_API = "https://maps.googleapis.com/maps/api/place/nearbysearch/json";
+    @Value("${google.maps.cache.geocode-ttl-minutes:1440}")
+    private long geocodeTtlMinutes;
 
-    @Override
-    public Map<String, Double> geocodeAddress(String address) {
-        try {
-            String url = String.format("%s?address=%s&key=%s",
-                    GEOCODING_API,
-                    address.replace(" ", "+"),
-                    apiKey);
+    @Value("${google.maps.cache.directions-ttl-minutes:30}")
+    private long directionsTtlMinutes;
 
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+    private static final String GEOCODING_API = "/maps/api/geocode/json";
+    private static final String DIRECTIONS_API = "/maps/api/directions/json";
+    private static final String DISTANCE_MATRIX_API = "/maps/api/distancematrix/json";
+    private static final String PLACES_API = "/maps/api/place/nearbysearch/json";
 
-            if (response != null && "OK".equals(response.get("status"))) {
-                Map<String, Object> results = (Map<String, Object>) ((java.util.List<?>) response.get("results")).get(0);
-                Map<String, Object> geometry = (Map<String, Object>) results.get("geometry");
-                Map<String, Double> location = (Map<String, Double>) geometry.get("location");
+    // Distance Matrix : 100 éléments maximum par requête
+    private static final int MATRIX_BLOCK_SIZE = 10;
 
-                Map<String, Double> coords = new HashMap<>();
-                coords.put("latitude", location.get("lat"));
-                coords.put("longitude", location.get("lng"));
+    // Arrondis des clés de cache : ~1 m pour le reverse géocodage, ~10 m pour les trajets
+    private static final double REVERSE_GEOCODE_PRECISION = 1e5;
+    private static final double ROUTE_PRECISION = 1e4;
 
-                log.info("Géocodage réussi pour: {} → {}", address, coords);
-                return coords;
-            }
+    private record CoordinateKey(long lat, long lon) {
+        static CoordinateKey of(double latitude, double longitude, double precision) {
+            return new CoordinateKey(Math.round(latitude * precision), Math.round(longitude * precision));
+        }
+    }
 
-            log.warn("Échec géocodage pour: {}", address);
-            return null;
+    private record LegKey(CoordinateKey origin, CoordinateKey destination) {
+    }
 
+    private record Leg(double distanceKm, int durationMinutes) {
+    }
+
+    private ExpiringCache<String, Map<String, Double>> geocodeCache;
+    private ExpiringCache<CoordinateKey, String> reverseGeocodeCache;
+    private ExpiringCache<LegKey, Map<String, Object>> directionsCache;
+    private ExpiringCache<LegKey, Leg> legCache;
+
+    @PostConstruct
+    void initCaches() {
+        long geocodeTtl = TimeUnit.MINUTES.toMillis(geocodeTtlMinutes);
+        long directionsTtl = TimeUnit.MINUTES.toMillis(directionsTtlMinutes);
+        geocodeCache = new ExpiringCache<>(geocodeTtl, cacheMaxEntries);
+        reverseGeocodeCache = new ExpiringCache<>(geocodeTtl, cacheMaxEntries);
+        directionsCache = new ExpiringCache<>(directionsTtl, cacheMaxEntries);
+        legCache = new ExpiringCache<>(directionsTtl, cacheMaxEntries * 10);
+    }
+
+    @Override
+    public Map<String, Double> geocodeAddress(String address) {
+        if (address == null || address.isBlank()) {
+            return null;
+        }
+        try {
+            Map<String, Double> coords = geocodeCache.get(normalizeAddress(address), () -> fetchGeocode(address));
+            return coords != null ? new HashMap<>(coords) : null;
         } catch (Exception e) {
             log.error("Erreur géocodage: {}", e.getMessage());
             return null;
         }
     }
 
-    @Override
-    public String reverseGeocode(Double latitude, Double longitude) {
-        try {
-            String url = String.format("%s?latlng=%f,%f&key=%s",
-                    GEOCODING_API,
-                    latitude,
-                    longitude,
-                    apiKey);
+    private Map<String, Double> fetchGeocode(String address) {
+        Map<String, Object> response = mapsClient.get(GEOCODING_API, Map.of("address", address));
 
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+        if (response != null && "OK".equals(response.get("status"))) {
+            Map<String, Object> results = (Map<String, Object>) ((List<?>) response.get("results")).get(0);
+            Map<String, Object> geometry = (Map<String, Object>) results.get("geometry");
+            Map<String, Object> location = (Map<String, Object>) geometry.get("location");
 
-            if (response != null && "OK".equals(response.get("status"))) {
-                Map<String, Object> results = (Map<String, Object>) ((java.util.List<?>) response.get("results")).get(0);
-                String formattedAddress = (String) results.get("formatted_address");
+            Map<String, Double> coords = Map.of(
+                    "latitude", ((Number) location.get("lat")).doubleValue(),
+                    "longitude", ((Number) location.get("lng")).doubleValue());
 
-                log.info("Reverse géocodage réussi: {},{} → {}", latitude, longitude, formattedAddress);
-                return formattedAddress;
-            }
+            log.info("Géocodage réussi pour: {} → {}", address, coords);
+            return coords;
+        }
 
-            log.warn("Échec reverse géocodage pour: {},{}", latitude, longitude);
-            return null;
+        log.warn("Échec géocodage pour: {}", address);
+        return null;
+    }
 
+    @Override
+    public String reverseGeocode(Double latitude, Double longitude) {
+        try {
+            CoordinateKey key = CoordinateKey.of(latitude, longitude, REVERSE_GEOCODE_PRECISION);
+            return reverseGeocodeCache.get(key, () -> fetchReverseGeocode(latitude, longitude));
         } catch (Exception e) {
             log.error("Erreur reverse géocodage: {}", e.getMessage());
             return null;
         }
     }
 
-    @Override
-    public Double calculateDistance(Double lat1, Double lon1, Double lat2, Double lon2) {
-        // Utilise la formule de Haversine (distance à vol d'oiseau)
-        final int EARTH_RADIUS = 6371; // Rayon de la Terre en km
+    private String fetchReverseGeocode(Double latitude, Double longitude) {
+        Map<String, Object> response = mapsClient.get(GEOCODING_API, Map.of("latlng", latLng(latitude, longitude)));
 
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
+        if (response != null && "OK".equals(response.get("status"))) {
+            Map<String, Object> results = (Map<String, Object>) ((List<?>) response.get("results")).get(0);
+            String formattedAddress = (String) results.get("formatted_address");
 
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+            log.info("Reverse géocodage réussi: {},{} → {}", latitude, longitude, formattedAddress);
+            return formattedAddress;
+        }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        log.warn("Échec reverse géocodage pour: {},{}", latitude, longitude);
+        return null;
+    }
 
-        return EARTH_RADIUS * c;
+    @Override
+    public Double calculateDistance(Double lat1, Double lon1, Double lat2, Double lon2) {
+        // Utilise la formule de Haversine (distance à vol d'oiseau)
+        return GeoUtils.haversineDistance(lat1, lon1, lat2, lon2);
     }
 
     @Override
     public Map<String, Object> getDirections(Double originLat, Double originLon, Double destLat, Double destLon) {
         try {
-            String url = String.format("%s?origin=%f,%f&destination=%f,%f&key=%s",
-                    DIRECTIONS_API,
-                    originLat, originLon,
-                    destLat, destLon,
-                    apiKey);
+            LegKey key = new LegKey(
+                    CoordinateKey.of(originLat, originLon, ROUTE_PRECISION),
+                    CoordinateKey.of(destLat, destLon, ROUTE_PRECISION));
+            Map<String, Object> directions = directionsCache.get(key,
+                    () -> fetchDirections(originLat, originLon, destLat, destLon));
+            return directions != null ? new HashMap<>(directions) : null;
+        } catch (Exception e) {
+            log.error("Erreur calcul itinéraire: {}", e.getMessage());
+            return null;
+        }
+    }
 
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+    private Map<String, Object> fetchDirections(Double originLat, Double originLon, Double destLat, Double destLon) {
+        Map<String, Object> response = mapsClient.get(DIRECTIONS_API, Map.of(
+                "origin", latLng(originLat, originLon),
+                "destination", latLng(destLat, destLon)));
 
-            if (response != null && "OK".equals(response.get("status"))) {
-                Map<String, Object> route = (Map<String, Object>) ((java.util.List<?>) response.get("routes")).get(0);
-                Map<String, Object> leg = (Map<String, Object>) ((java.util.List<?>) route.get("legs")).get(0);
+        if (response != null && "OK".equals(response.get("status"))) {
+            Map<String, Object> route = (Map<String, Object>) ((List<?>) response.get("routes")).get(0);
+            Map<String, Object> leg = (Map<String, Object>) ((List<?>) route.get("legs")).get(0);
+
+            Map<String, Object> distance = (Map<String, Object>) leg.get("distance");
+            Map<String, Object> duration = (Map<String, Object>) leg.get("duration");
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("distanceKm", ((Number) distance.get("value")).doubleValue() / 1000.0);
+            result.put("distanceText", distance.get("text"));
+            result.put("durationMinutes", ((Number) duration.get("value")).intValue() / 60);
+            result.put("durationText", duration.get("text"));
+
+            log.info("Calcul itinéraire réussi: {} km, {} min", result.get("distanceKm"), result.get("durationMinutes"));
+            return Map.copyOf(result);
+        }
 
-                Map<String, Object> distance = (Map<String, Object>) leg.get("distance");
-                Map<String, Object> duration = (Map<String, Object>) leg.get("duration");
+        log.warn("Échec calcul itinéraire");
+        return null;
+    }
 
-                Map<String, Object> result = new HashMap<>();
-                result.put("distanceKm", ((Number) distance.get("value")).doubleValue() / 1000.0);
-                result.put("distanceText", distance.get("text"));
-                result.put("durationMinutes", ((Number) duration.get("value")).intValue() / 60);
-                result.put("durationText", duration.get("text"));
+    @Override
+    public TravelMatrix getTravelMatrix(double[] latitudes, double[] longitudes) {
+        int n = latitudes.length;
+        double[][] distanceKm = new double[n][n];
+        int[][] durationMinutes = new int[n][n];
+        CoordinateKey[] keys = new CoordinateKey[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = CoordinateKey.of(latitudes[i], longitudes[i], ROUTE_PRECISION);
+            Arrays.fill(distanceKm[i], Double.NaN);
+            Arrays.fill(durationMinutes[i], -1);
+        }
 
-                log.info("Calcul itinéraire réussi: {} km, {} min", result.get("distanceKm"), result.get("durationMinutes"));
-                return result;
+        // Un appel par bloc origines × destinations, seulement si un trajet du bloc manque en cache
+        int calls = 0;
+        for (int originStart = 0; originStart < n; originStart += MATRIX_BLOCK_SIZE) {
+            for (int destStart = 0; destStart < n; destStart += MATRIX_BLOCK_SIZE) {
+                int originEnd = Math.min(originStart + MATRIX_BLOCK_SIZE, n);
+                int destEnd = Math.min(destStart + MATRIX_BLOCK_SIZE, n);
+                if (!fillFromCache(keys, originStart, originEnd, destStart, destEnd, distanceKm, durationMinutes)) {
+                    fetchMatrixBlock(latitudes, longitudes, keys, originStart, originEnd, destStart, destEnd,
+                            distanceKm, durationMinutes);
+                    calls++;
+                }
             }
+        }
 
-            log.warn("Échec calcul itinéraire");
-            return null;
+        log.info("Matrice de trajets {}x{} calculée avec {} appel(s) Distance Matrix", n, n, calls);
+        return new TravelMatrix(distanceKm, durationMinutes);
+    }
 
-        } catch (Exception e) {
-            log.error("Erreur calcul itinéraire: {}", e.getMessage());
-            return null;
+    private boolean fillFromCache(CoordinateKey[] keys, int originStart, int originEnd, int destStart, int destEnd,
+                                  double[][] distanceKm, int[][] durationMinutes) {
+        boolean complete = true;
+        for (int i = originStart; i < originEnd; i++) {
+            for (int j = destStart; j < destEnd; j++) {
+                if (keys[i].equals(keys[j])) {
+                    distanceKm[i][j] = 0;
+                    durationMinutes[i][j] = 0;
+                    continue;
+                }
+                Leg leg = legCache.getIfPresent(new LegKey(keys[i], keys[j]));
+                if (leg == null) {
+                    complete = false;
+                } else {
+                    distanceKm[i][j] = leg.distanceKm();
+                    durationMinutes[i][j] = leg.durationMinutes();
+                }
+            }
+        }
+        return complete;
+    }
+
+    private void fetchMatrixBlock(double[] latitudes, double[] longitudes, CoordinateKey[] keys,
+                                  int originStart, int originEnd, int destStart, int destEnd,
+                                  double[][] distanceKm, int[][] durationMinutes) {
+        Map<String, Object> response = mapsClient.get(DISTANCE_MATRIX_API, Map.of(
+                "origins", latLngList(latitudes, longitudes, originStart, originEnd),
+                "destinations", latLngList(latitudes, longitudes, destStart, destEnd)));
+
+        if (response == null || !"OK".equals(response.get("status"))) {
+            log.warn("Échec Distance Matrix pour le bloc [{}-{}] x [{}-{}]", originStart, originEnd, destStart, destEnd);
+            return;
+        }
+
+        List<?> rows = (List<?>) response.get("rows");
+        for (int i = originStart; i < originEnd; i++) {
+            List<?> elements = (List<?>) ((Map<String, Object>) rows.get(i - originStart)).get("elements");
+            for (int j = destStart; j < destEnd; j++) {
+                Map<String, Object> element = (Map<String, Object>) elements.get(j - destStart);
+                if (!"OK".equals(element.get("status")) || keys[i].equals(keys[j])) {
+                    continue;
+                }
+                Map<String, Object> distance = (Map<String, Object>) element.get("distance");
+                Map<String, Object> duration = (Map<String, Object>) element.get("duration");
+                Leg leg = new Leg(((Number) distance.get("value")).doubleValue() / 1000.0,
+                        ((Number) duration.get("value")).intValue() / 60);
+
+                legCache.put(new LegKey(keys[i], keys[j]), leg);
+                distanceKm[i][j] = leg.distanceKm();
+                durationMinutes[i][j] = leg.durationMinutes();
+            }
         }
     }
 
     @Override
     public Map<String, Object> getNearbyPlaces(Double latitude, Double longitude, int radius, String type) {
         try {
-            String url = String.format("%s?location=%f,%f&radius=%d&type=%s&key=%s",
-                    PLACES_API,
-                    latitude, longitude,
-                    radius,
-                    type,
-                    apiKey);
-
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = mapsClient.get(PLACES_API, Map.of(
+                    "location", latLng(latitude, longitude),
+                    "radius", String.valueOf(radius),
+                    "type", type));
 
             if (response != null && "OK".equals(response.get("status"))) {
                 log.info("Lieux à proximité trouvés");
@@ -164,7 +289,27 @@ public class GoogleMapsServiceImpl implements GoogleMapsService {
 
     @Override
     public boolean validateAddress(String address) {
+        // Partage le cache de géocodage : pas de second appel pour une adresse déjà résolue
         Map<String, Double> coords = geocodeAddress(address);
         return coords != null && coords.containsKey("latitude") && coords.containsKey("longitude");
     }
+
+    // ========== Utilitaires ==========
+
+    private static String normalizeAddress(String address) {
+        return address.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // Indépendant de la locale (String.format("%f") produit une virgule en français)
+    private static String latLng(double latitude, double longitude) {
+        return latitude + "," + longitude;
+    }
+
+    private static String latLngList(double[] latitudes, double[] longitudes, int start, int end) {
+        StringJoiner joiner = new StringJoiner("|");
+        for (int i = start; i < end; i++) {
+            joiner.add(latLng(latitudes[i], longitudes[i]));
+        }
+        return joiner.toString();
+    }
 }
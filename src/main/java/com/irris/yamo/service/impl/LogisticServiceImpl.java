@@ -1,6 +1,7 @@
 package com.irris.yamo.service.impl;
 
 import com.irris.yamo.dtos.LogisticTaskDto;
+import com.irris.yamo.dtos.creation.DriverPositionPingDto;
 import com.irris.yamo.dtos.creation.LogisticTaskCreationDto;
 import com.irris.yamo.entities.*;
 import com.irris.yamo.entities.enums.TaskStatus;
@@ -10,14 +11,34 @@ import com.irris.yamo.exception.ResourceNotFoundException;
 import com.irris.yamo.mapper.LogisticTaskMapper;
 import com.irris.yamo.repositories.*;
 import com.irris.yamo.service.LogisticService;
+import com.irris.yamo.service.events.WorkflowEvent;
+import com.irris.yamo.service.events.WorkflowEventBus;
+import com.irris.yamo.service.geo.GeoGridIndex;
+import com.irris.yamo.service.geo.SpatialIndexService;
+import com.irris.yamo.service.routing.DispatchPlan;
+import com.irris.yamo.service.routing.DispatchProblem;
+import com.irris.yamo.service.routing.DistanceMatrix;
+import com.irris.yamo.service.routing.DistanceMatrixService;
+import com.irris.yamo.service.routing.FleetDispatcher;
+import com.irris.yamo.service.routing.RouteOptimizer;
+import com.irris.yamo.service.routing.RoutePlan;
+import com.irris.yamo.service.routing.RoutingProblem;
+import com.irris.yamo.service.tracking.DriverLocation;
+import com.irris.yamo.service.tracking.DriverPositionStore;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +53,31 @@ public class LogisticServiceImpl implements LogisticService {
     private final ArticleInstanceRepository articleInstanceRepository;
     private final LogisticTaskMapper logisticTaskMapper;
     private final com.irris.yamo.service.GoogleMapsService googleMapsService;
+    private final RouteOptimizer routeOptimizer;
+    private final FleetDispatcher fleetDispatcher;
+    private final DistanceMatrixService distanceMatrixService;
+    private final SpatialIndexService spatialIndexService;
+    private final DriverPositionStore driverPositionStore;
+    private final WorkflowEventBus workflowEventBus;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final double AVERAGE_SPEED_KMH = 30.0; // Vitesse moyenne en ville
+    private static final int STOP_SERVICE_MINUTES = 15;   // Temps d'arrêt moyen par tâche
+    private static final int END_OF_DAY_MINUTES = 24 * 60;
+    private static final double WORKLOAD_PENALTY_KM = 2.0; // 2km par tâche déjà assignée
+
+    @Value("${routing.dispatch.max-tasks-per-driver:10}")
+    private int maxTasksPerDriver;
+
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
 
     @Override
     @Transactional
@@ -101,16 +147,12 @@ public class LogisticServiceImpl implements LogisticService {
         task.setDriver(driver);
         logisticTaskRepository.save(task);
         
-        // Réoptimisation automatique de la tournée du chauffeur
+        // Réoptimisation de la tournée et notification du chauffeur après commit (DriverRouteConsumer)
         LocalDate taskDate = task.getScheduledDate() != null 
             ? task.getScheduledDate() 
             : LocalDate.now();
         
-        List<LogisticTask> optimizedRoute = optimizeDriverRoute(driverId, taskDate);
-        updateTaskSequence(optimizedRoute);
-        
-        // Notifier le chauffeur de la mise à jour
-        notifyDriverRouteUpdate(driverId, optimizedRoute);
+        workflowEventBus.publish(new WorkflowEvent.TaskAssigned(taskId, driverId, taskDate));
     }
 
     @Override
@@ -296,49 +338,60 @@ public class LogisticServiceImpl implements LogisticService {
         );
     }
 
+    /**
+     * Enregistrer un lot de positions GPS envoyé par l'application chauffeur
+     */
+    public int recordDriverPositions(Long driverId, List<DriverPositionPingDto> pings) {
+        if (pings == null || pings.isEmpty()) {
+            return 0;
+        }
+        return driverPositionStore.ingest(driverId, pings);
+    }
+
+    /**
+     * Dernière position connue d'un chauffeur
+     */
+    public java.util.Map<String, Object> getDriverCurrentPosition(Long driverId) {
+        DriverLocation location = driverPositionStore.getCurrentLocation(driverId)
+                .orElseThrow(() -> new ResourceNotFoundException("Aucune position récente pour le chauffeur: " + driverId));
+
+        java.util.Map<String, Object> result = new java.util.HashMap<>();
+        result.put("driverId", driverId);
+        result.put("latitude", location.latitude());
+        result.put("longitude", location.longitude());
+        result.put("speedKmh", location.speedKmh());
+        result.put("heading", location.heading());
+        result.put("recordedAt", location.recordedAt());
+        return result;
+    }
+
     /**
      * Trouver le chauffeur le plus proche d'une tâche
      */
     @Transactional(readOnly = true)
     public Driver findNearestDriver(Long taskId) {
         LogisticTask task = getLogisticTaskById(taskId);
-        List<Driver> availableDrivers = driverRepository.findAll().stream()
-                .filter(d -> d.getIsAvailable())
-                .collect(Collectors.toList());
+        Set<Long> availableDriverIds = new HashSet<>(driverRepository.findAvailableDriverIds());
 
-        if (availableDrivers.isEmpty()) {
+        if (availableDriverIds.isEmpty()) {
             throw new InvalidOperationException("Aucun chauffeur disponible");
         }
 
-        Driver nearest = null;
-        Double minDistance = Double.MAX_VALUE;
-
-        for (Driver driver : availableDrivers) {
-            // Utiliser position actuelle ou dernière position connue
-            // TODO: Implémenter tracking position temps réel
-            if (task.getAddress() != null && 
-                task.getAddress().getLatitude() != null && 
-                task.getAddress().getLongitude() != null) {
-                
-                // Distance à vol d'oiseau pour commencer
-                Double distance = task.getDistanceFromDriver(
-                    task.getAddress().getLatitude(), 
-                    task.getAddress().getLongitude()
-                );
-                
-                if (distance != null && distance < minDistance) {
-                    minDistance = distance;
-                    nearest = driver;
-                }
-            }
+        Adresse address = task.getAddress();
+        if (address == null || address.getLatitude() == null || address.getLongitude() == null) {
+            return null;
         }
 
-        return nearest;
+        // Distance à vol d'oiseau depuis la dernière position GPS (base à défaut)
+        List<GeoGridIndex.Hit> nearest = spatialIndexService.findNearestDrivers(
+                address.getLatitude(), address.getLongitude(), 1, availableDriverIds::contains);
+
+        return nearest.isEmpty() ? null : driverRepository.findById(nearest.get(0).id()).orElse(null);
     }
 
     /**
      * Optimiser l'ordre des tâches pour un chauffeur (tournée)
-     * Utilise l'algorithme Nearest Neighbor avec contraintes horaires
+     * Recherche locale (2-opt / Or-opt) avec fenêtres horaires, départ depuis la base du chauffeur
      */
     @Transactional(readOnly = true)
     public List<LogisticTask> optimizeDriverRoute(Long driverId, LocalDate date) {
@@ -348,7 +401,7 @@ public class LogisticServiceImpl implements LogisticService {
             return tasks;
         }
 
-        // Filtrer les tâches avec coordonnées GPS valides
+        // Filtrer les tâches avec coordonnées GPS valides (les autres attendent le géocodage de fond)
         List<LogisticTask> validTasks = tasks.stream()
                 .filter(t -> t.getAddress() != null && 
                            t.getAddress().getLatitude() != null && 
@@ -359,150 +412,66 @@ public class LogisticServiceImpl implements LogisticService {
             return validTasks;
         }
 
-        // Séparer par type et plages horaires strictes
-        List<LogisticTask> morningPickups = new java.util.ArrayList<>();
-        List<LogisticTask> afternoonDeliveries = new java.util.ArrayList<>();
-        List<LogisticTask> flexibleTasks = new java.util.ArrayList<>();
-
-        for (LogisticTask task : validTasks) {
-            if (task.getAvailableFrom() != null && task.getAvailableTo() != null) {
-                if (task.getType() == TaskType.PICKUP && 
-                    task.getAvailableFrom().isBefore(java.time.LocalTime.of(12, 0))) {
-                    morningPickups.add(task);
-                } else if (task.getType() == TaskType.DELIVERY && 
-                          task.getAvailableFrom().isAfter(java.time.LocalTime.of(12, 0))) {
-                    afternoonDeliveries.add(task);
-                } else {
-                    flexibleTasks.add(task);
-                }
-            } else {
-                flexibleTasks.add(task);
-            }
-        }
+        RoutingProblem problem = buildRoutingProblem(driverId, date, validTasks);
+        RoutePlan plan = routeOptimizer.optimize(problem);
 
-        // Optimiser chaque groupe séparément
-        List<LogisticTask> optimizedRoute = new java.util.ArrayList<>();
-        
-        if (!morningPickups.isEmpty()) {
-            optimizedRoute.addAll(optimizeTaskGroup(morningPickups));
-        }
-        
-        if (!flexibleTasks.isEmpty()) {
-            optimizedRoute.addAll(optimizeTaskGroup(flexibleTasks));
-        }
-        
-        if (!afternoonDeliveries.isEmpty()) {
-            optimizedRoute.addAll(optimizeTaskGroup(afternoonDeliveries));
+        List<LogisticTask> optimizedRoute = new java.util.ArrayList<>(validTasks.size());
+        for (int index : plan.sequence()) {
+            optimizedRoute.add(validTasks.get(index));
         }
 
         return optimizedRoute;
     }
 
     /**
-     * Optimise un groupe de tâches avec l'algorithme Nearest Neighbor
+     * Construit le problème de tournée : un arrêt par tâche (fenêtre horaire
+     * availableFrom/availableTo) et, si géolocalisée, la base du chauffeur comme dépôt
      */
-    private List<LogisticTask> optimizeTaskGroup(List<LogisticTask> tasks) {
-        if (tasks.size() <= 1) {
-            return new java.util.ArrayList<>(tasks);
+    private RoutingProblem buildRoutingProblem(Long driverId, LocalDate date, List<LogisticTask> tasks) {
+        Adresse base = driverRepository.findById(driverId)
+                .map(Driver::getBaseLocation)
+                .filter(a -> a.getLatitude() != null && a.getLongitude() != null)
+                .orElse(null);
+
+        int n = tasks.size();
+        int size = base != null ? n + 1 : n;
+        List<Adresse> points = new java.util.ArrayList<>(size);
+        int[] earliest = new int[size];
+        int[] latest = new int[size];
+
+        for (int i = 0; i < n; i++) {
+            LogisticTask task = tasks.get(i);
+            points.add(task.getAddress());
+            earliest[i] = task.getAvailableFrom() != null ? task.getAvailableFrom().toSecondOfDay() / 60 : 0;
+            latest[i] = task.getAvailableTo() != null ? task.getAvailableTo().toSecondOfDay() / 60 : END_OF_DAY_MINUTES;
         }
 
-        List<LogisticTask> remaining = new java.util.ArrayList<>(tasks);
-        List<LogisticTask> optimized = new java.util.ArrayList<>();
-
-        // Commencer par la tâche la plus proche du pressing (ou première tâche)
-        // Pour simplifier, on commence par la première tâche par ordre horaire
-        LogisticTask current = remaining.stream()
-                .min((t1, t2) -> {
-                    if (t1.getAvailableFrom() == null) return 1;
-                    if (t2.getAvailableFrom() == null) return -1;
-                    return t1.getAvailableFrom().compareTo(t2.getAvailableFrom());
-                })
-                .orElse(remaining.get(0));
-
-        optimized.add(current);
-        remaining.remove(current);
-
-        // Algorithme Nearest Neighbor
-        while (!remaining.isEmpty()) {
-            LogisticTask finalCurrent = current;
-            
-            // Trouver la tâche la plus proche de la tâche actuelle
-            LogisticTask nearest = null;
-            double minDistance = Double.MAX_VALUE;
-
-            for (LogisticTask task : remaining) {
-                // Vérifier contraintes horaires
-                if (!canVisitAfter(finalCurrent, task)) {
-                    continue;
-                }
-
-                double distance = calculateDistance(
-                    finalCurrent.getAddress().getLatitude(),
-                    finalCurrent.getAddress().getLongitude(),
-                    task.getAddress().getLatitude(),
-                    task.getAddress().getLongitude()
-                );
-
-                if (distance < minDistance) {
-                    minDistance = distance;
-                    nearest = task;
-                }
-            }
-
-            // Si aucune tâche compatible trouvée, prendre la première restante
-            if (nearest == null && !remaining.isEmpty()) {
-                nearest = remaining.get(0);
-            }
-
-            if (nearest != null) {
-                optimized.add(nearest);
-                remaining.remove(nearest);
-                current = nearest;
-            } else {
-                break;
-            }
+        if (base != null) {
+            points.add(base);
+            latest[n] = END_OF_DAY_MINUTES;
         }
 
-        // Ajouter les tâches restantes (si contraintes non satisfaites)
-        optimized.addAll(remaining);
-
-        return optimized;
-    }
-
-    /**
-     * Vérifie si on peut visiter task2 après task1 (contraintes horaires)
-     */
-    private boolean canVisitAfter(LogisticTask task1, LogisticTask task2) {
-        if (task1.getAvailableTo() == null || task2.getAvailableFrom() == null) {
-            return true; // Pas de contrainte
-        }
+        DistanceMatrix byAddress = distanceMatrixService.forDriverDay(driverId, date, points);
 
-        // La fenêtre de task2 doit commencer après ou pendant la fin de task1
-        // + temps de trajet estimé
-        return task2.getAvailableFrom().isAfter(task1.getAvailableTo().minusMinutes(30)) ||
-               task2.getAvailableFrom().equals(task1.getAvailableTo());
+        return new RoutingProblem(
+                matrixFor(byAddress, points),
+                base != null ? n : RoutingProblem.NO_DEPOT,
+                earliest,
+                latest,
+                STOP_SERVICE_MINUTES,
+                AVERAGE_SPEED_KMH);
     }
 
     /**
-     * Calcule la distance entre deux points (Haversine)
+     * Matrice des points donnés (une même adresse peut apparaître plusieurs fois),
+     * extraite d'une matrice indexée par id d'adresse
      */
-    private double calculateDistance(Double lat1, Double lon1, Double lat2, Double lon2) {
-        if (lat1 == null || lon1 == null || lat2 == null || lon2 == null) {
-            return Double.MAX_VALUE;
+    private static DistanceMatrix matrixFor(DistanceMatrix byAddress, List<Adresse> points) {
+        int[] indices = new int[points.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = byAddress.indexOf(points.get(i).getId());
         }
-
-        final int EARTH_RADIUS = 6371; // km
-
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return EARTH_RADIUS * c;
+        return byAddress.subMatrix(indices);
     }
 
     /**
@@ -531,6 +500,17 @@ public class LogisticServiceImpl implements LogisticService {
      */
     @Transactional(readOnly = true)
     public Integer calculateEstimatedTravelTime(Long taskId, Double driverLat, Double driverLon) {
+        if (driverLat == null || driverLon == null) {
+            // Position non fournie : dernière position connue du chauffeur assigné
+            LogisticTask task = getLogisticTaskById(taskId);
+            if (task.getDriver() == null) {
+                throw new InvalidOperationException("Aucun chauffeur assigné à cette tâche");
+            }
+            DriverLocation location = driverPositionStore.getCurrentLocation(task.getDriver().getId())
+                    .orElseThrow(() -> new InvalidOperationException("Position du chauffeur inconnue"));
+            driverLat = location.latitude();
+            driverLon = location.longitude();
+        }
         java.util.Map<String, Object> route = calculateRouteToTask(taskId, driverLat, driverLon);
         
         if (route != null && route.containsKey("durationMinutes")) {
@@ -548,16 +528,17 @@ public class LogisticServiceImpl implements LogisticService {
     @Transactional
     public void updateTaskSequence(List<LogisticTask> orderedTasks) {
         for (int i = 0; i < orderedTasks.size(); i++) {
-            LogisticTask task = orderedTasks.get(i);
-            task.setSequenceOrder(i + 1);
-            logisticTaskRepository.save(task);
+            orderedTasks.get(i).setSequenceOrder(i + 1);
         }
+        // Un seul lot d'UPDATE (hibernate.jdbc.batch_size)
+        logisticTaskRepository.saveAll(orderedTasks);
     }
 
     /**
      * Réoptimise la tournée d'un chauffeur pour une date donnée
      * (peut être appelé manuellement)
      */
+    @Override
     @Transactional
     public List<LogisticTask> reoptimizeDriverRoute(Long driverId, LocalDate date) {
         List<LogisticTask> optimizedRoute = optimizeDriverRoute(driverId, date);
@@ -580,7 +561,7 @@ public class LogisticServiceImpl implements LogisticService {
             throw new InvalidOperationException("Aucun chauffeur disponible pour cette tâche");
         }
         
-        // Assigner (réoptimisation automatique dans assignTaskToDriver)
+        // Assigner (réoptimisation de la tournée en arrière-plan, après commit)
         assignTaskToDriver(taskId, bestDriver.getId());
         
         // Récupérer la tournée mise à jour
@@ -595,7 +576,7 @@ public class LogisticServiceImpl implements LogisticService {
         result.put("assignedDriverId", bestDriver.getId());
         result.put("driverName", bestDriver.getFullName());
         result.put("optimizedRouteSize", newRoute.size());
-        result.put("message", "Tâche assignée et tournée réoptimisée automatiquement");
+        result.put("message", "Tâche assignée, tournée en cours de réoptimisation");
         
         return result;
     }
@@ -616,9 +597,7 @@ public class LogisticServiceImpl implements LogisticService {
             throw new InvalidOperationException("La tâche n'a pas d'adresse géolocalisée");
         }
         
-        List<Driver> availableDrivers = driverRepository.findAll().stream()
-                .filter(Driver::getIsAvailable)
-                .collect(Collectors.toList());
+        List<Driver> availableDrivers = driverRepository.findAvailableDriversWithBaseLocation();
         
         if (availableDrivers.isEmpty()) {
             return null;
@@ -636,8 +615,8 @@ public class LogisticServiceImpl implements LogisticService {
             List<LogisticTask> driverTasks = logisticTaskRepository.findDriverTasksForDay(driver.getId(), taskDate);
             int taskCount = driverTasks.size();
             
-            // Si le chauffeur a déjà trop de tâches (>10), passer
-            if (taskCount > 10) {
+            // Si le chauffeur a déjà trop de tâches, passer
+            if (taskCount > maxTasksPerDriver) {
                 continue;
             }
             
@@ -649,19 +628,11 @@ public class LogisticServiceImpl implements LogisticService {
                 LogisticTask lastTask = driverTasks.get(driverTasks.size() - 1);
                 if (lastTask.getAddress() != null && 
                     lastTask.getAddress().getLatitude() != null) {
-                    distance = calculateDistance(
-                        lastTask.getAddress().getLatitude(),
-                        lastTask.getAddress().getLongitude(),
-                        task.getAddress().getLatitude(),
-                        task.getAddress().getLongitude()
-                    );
+                    distance = distanceMatrixService.distance(lastTask.getAddress(), task.getAddress());
                 }
             } else {
                 // Distance depuis la position actuelle (ou pressing)
-                Double distanceFromDriver = task.getDistanceFromDriver(
-                    task.getAddress().getLatitude(),
-                    task.getAddress().getLongitude()
-                );
+                Double distanceFromDriver = distanceFromDriverPosition(driver, task.getAddress());
                 if (distanceFromDriver != null) {
                     distance = distanceFromDriver;
                 } else {
@@ -670,7 +641,7 @@ public class LogisticServiceImpl implements LogisticService {
             }
             
             // Score = distance + pénalité pour charge de travail
-            double score = distance + (taskCount * 2.0); // 2km par tâche déjà assignée
+            double score = distance + (taskCount * WORKLOAD_PENALTY_KM);
             
             if (score < bestScore) {
                 bestScore = score;
@@ -681,6 +652,254 @@ public class LogisticServiceImpl implements LogisticService {
         return bestDriver;
     }
 
+    /**
+     * Distance à vol d'oiseau entre la dernière position GPS du chauffeur
+     * (ou sa base à défaut) et une adresse
+     */
+    private Double distanceFromDriverPosition(Driver driver, Adresse target) {
+        java.util.Optional<DriverLocation> location = driverPositionStore.getCurrentLocation(driver.getId());
+        if (location.isPresent()) {
+            return GeoUtils.haversineDistance(location.get().latitude(), location.get().longitude(),
+                    target.getLatitude(), target.getLongitude());
+        }
+        Adresse base = driver.getBaseLocation();
+        if (base == null || base.getLatitude() == null || base.getLongitude() == null) {
+            return null;
+        }
+        return distanceMatrixService.distance(base, target);
+    }
+
+    /**
+     * Répartit toutes les tâches en attente d'une journée entre les chauffeurs
+     * disponibles (capacité, fenêtres horaires, équilibrage de charge) et
+     * enregistre chauffeurs et ordres de passage en un seul lot.
+     *
+     * Le calcul (parallèle) se fait hors transaction : lecture, puis écriture
+     * dans une seconde transaction qui ignore les tâches modifiées entre-temps
+     * (démarrées, réaffectées, déplacées). Les ordres de passage continuent
+     * après ceux des tâches déjà engagées ; chaque chauffeur dont la tournée
+     * change est notifié après commit.
+     */
+    @Override
+    public java.util.Map<String, Object> dispatchDay(LocalDate date) {
+        DispatchSnapshot snapshot = readTransaction.execute(status -> loadDispatch(date));
+
+        if (snapshot.drivers().isEmpty()) {
+            throw new InvalidOperationException("Aucun chauffeur disponible");
+        }
+
+        DispatchProblem problem = buildDispatchProblem(snapshot.tasks(), snapshot.drivers(), snapshot.committedByDriver());
+        DispatchPlan plan = fleetDispatcher.dispatch(problem);
+
+        return writeTransaction.execute(status -> applyDispatch(date, snapshot, plan));
+    }
+
+    /**
+     * Tâches en attente et chauffeurs disponibles lus avant le calcul (détachés ensuite)
+     * @param previousDrivers chauffeur de chaque tâche au moment de la lecture (absent si aucun)
+     */
+    private record DispatchSnapshot(List<LogisticTask> tasks, List<Long> skippedTaskIds, List<Driver> drivers,
+                                    java.util.Map<Long, Long> committedByDriver,
+                                    java.util.Map<Long, Long> previousDrivers) {
+    }
+
+    private DispatchSnapshot loadDispatch(LocalDate date) {
+        List<LogisticTask> pendingTasks = logisticTaskRepository.findPendingTasksForDayWithAddress(date);
+        List<Driver> drivers = driverRepository.findAvailableDriversWithBaseLocation();
+
+        // Adresses sans coordonnées : tâches ignorées jusqu'au passage du géocodage de fond
+        List<LogisticTask> tasks = new java.util.ArrayList<>();
+        List<Long> skippedTaskIds = new java.util.ArrayList<>();
+        java.util.Map<Long, Long> previousDrivers = new java.util.HashMap<>();
+        for (LogisticTask task : pendingTasks) {
+            if (task.getDriver() != null) {
+                previousDrivers.put(task.getId(), task.getDriver().getId());
+            }
+            if (task.getAddress() != null && 
+                task.getAddress().getLatitude() != null && 
+                task.getAddress().getLongitude() != null) {
+                tasks.add(task);
+            } else {
+                skippedTaskIds.add(task.getId());
+            }
+        }
+
+        // Tâches déjà engagées (en cours, terminées...) qui consomment la capacité
+        java.util.Map<Long, Long> committedByDriver = new java.util.HashMap<>();
+        for (Object[] row : logisticTaskRepository.countCommittedTasksByDriverForDay(date)) {
+            committedByDriver.put((Long) row[0], (Long) row[1]);
+        }
+
+        return new DispatchSnapshot(tasks, skippedTaskIds, drivers, committedByDriver, previousDrivers);
+    }
+
+    private java.util.Map<String, Object> applyDispatch(LocalDate date, DispatchSnapshot snapshot, DispatchPlan plan) {
+        List<LogisticTask> tasks = snapshot.tasks();
+        List<Driver> drivers = snapshot.drivers();
+
+        List<Long> taskIds = new java.util.ArrayList<>(snapshot.skippedTaskIds());
+        tasks.forEach(task -> taskIds.add(task.getId()));
+        java.util.Map<Long, LogisticTask> current = new java.util.HashMap<>();
+        for (LogisticTask task : logisticTaskRepository.findAllById(taskIds)) {
+            current.put(task.getId(), task);
+        }
+
+        // Dernier ordre de passage engagé par chauffeur, relu dans cette transaction
+        java.util.Map<Long, Integer> lastSequence = new java.util.HashMap<>();
+        for (Object[] row : logisticTaskRepository.countCommittedTasksByDriverForDay(date)) {
+            lastSequence.put((Long) row[0], ((Number) row[2]).intValue());
+        }
+
+        List<LogisticTask> changed = new java.util.ArrayList<>();
+        Set<Long> notifiedDriverIds = new java.util.LinkedHashSet<>();
+        List<Long> conflictTaskIds = new java.util.ArrayList<>();
+
+        int driversUsed = 0;
+        int tasksDispatched = 0;
+        for (int k = 0; k < drivers.size(); k++) {
+            int[] route = plan.routes()[k];
+            if (route.length > 0) {
+                driversUsed++;
+            }
+            Long driverId = drivers.get(k).getId();
+            for (int index : route) {
+                LogisticTask task = unchangedTask(current, snapshot, tasks.get(index).getId(), date);
+                if (task == null) {
+                    conflictTaskIds.add(tasks.get(index).getId());
+                    continue;
+                }
+                assignInRoute(task, driverId, lastSequence, changed, notifiedDriverIds);
+                tasksDispatched++;
+            }
+        }
+
+        // Tâches non placées : affectation existante (éventuellement manuelle) conservée,
+        // renumérotée après la tournée calculée du chauffeur
+        List<Long> unassignedTaskIds = new java.util.ArrayList<>();
+        for (int index : plan.unassigned()) {
+            unassignedTaskIds.add(tasks.get(index).getId());
+        }
+        List<LogisticTask> kept = new java.util.ArrayList<>();
+        for (Long taskId : concat(unassignedTaskIds, snapshot.skippedTaskIds())) {
+            LogisticTask task = unchangedTask(current, snapshot, taskId, date);
+            if (task == null) {
+                conflictTaskIds.add(taskId);
+            } else if (task.getDriver() != null) {
+                kept.add(task);
+            }
+        }
+        kept.sort(java.util.Comparator.comparing(LogisticTask::getSequenceOrder,
+                java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder())));
+        for (LogisticTask task : kept) {
+            assignInRoute(task, task.getDriver().getId(), lastSequence, changed, notifiedDriverIds);
+        }
+
+        // Un seul lot d'UPDATE pour toute la journée
+        logisticTaskRepository.saveAll(changed);
+        for (Long driverId : notifiedDriverIds) {
+            workflowEventBus.publish(new WorkflowEvent.RouteDispatched(driverId, date));
+        }
+
+        java.util.Map<String, Object> result = new java.util.HashMap<>();
+        result.put("date", date);
+        result.put("tasksDispatched", tasksDispatched);
+        result.put("driversUsed", driversUsed);
+        result.put("unassignedTaskIds", unassignedTaskIds);
+        result.put("skippedTaskIds", snapshot.skippedTaskIds());
+        result.put("conflictTaskIds", conflictTaskIds);
+        result.put("totalDistanceKm", Math.round(plan.distanceKm() * 100.0) / 100.0);
+        result.put("lateMinutes", Math.round(plan.lateMinutes()));
+
+        return result;
+    }
+
+    /**
+     * Tâche relue, ou null si elle a changé depuis la lecture (statut, date, chauffeur)
+     */
+    private static LogisticTask unchangedTask(java.util.Map<Long, LogisticTask> current, DispatchSnapshot snapshot,
+                                              Long taskId, LocalDate date) {
+        LogisticTask task = current.get(taskId);
+        if (task == null || task.getStatus() != TaskStatus.PENDING || !date.equals(task.getScheduledDate())) {
+            return null;
+        }
+        Long driverId = task.getDriver() != null ? task.getDriver().getId() : null;
+        return java.util.Objects.equals(driverId, snapshot.previousDrivers().get(taskId)) ? task : null;
+    }
+
+    /**
+     * Place la tâche à la suite de la tournée du chauffeur ; les chauffeurs dont
+     * la tournée change (ancien et nouveau) sont à notifier
+     */
+    private void assignInRoute(LogisticTask task, Long driverId, java.util.Map<Long, Integer> lastSequence,
+                               List<LogisticTask> changed, Set<Long> notifiedDriverIds) {
+        int sequence = lastSequence.merge(driverId, 1, Integer::sum);
+        Long previousDriverId = task.getDriver() != null ? task.getDriver().getId() : null;
+        if (driverId.equals(previousDriverId) && Integer.valueOf(sequence).equals(task.getSequenceOrder())) {
+            return;
+        }
+        if (previousDriverId != null) {
+            notifiedDriverIds.add(previousDriverId);
+        }
+        notifiedDriverIds.add(driverId);
+        task.setDriver(driverRepository.getReferenceById(driverId));
+        task.setSequenceOrder(sequence);
+        changed.add(task);
+    }
+
+    private static List<Long> concat(List<Long> first, List<Long> second) {
+        List<Long> all = new java.util.ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    private DispatchProblem buildDispatchProblem(List<LogisticTask> tasks, List<Driver> drivers,
+                                                 java.util.Map<Long, Long> committedByDriver) {
+        int n = tasks.size();
+        List<Adresse> points = new java.util.ArrayList<>(n + drivers.size());
+        for (LogisticTask task : tasks) {
+            points.add(task.getAddress());
+        }
+
+        int[] driverDepots = new int[drivers.size()];
+        int[] capacities = new int[drivers.size()];
+        for (int k = 0; k < drivers.size(); k++) {
+            Driver driver = drivers.get(k);
+            Adresse base = driver.getBaseLocation();
+            if (base != null && base.getLatitude() != null && base.getLongitude() != null) {
+                driverDepots[k] = points.size();
+                points.add(base);
+            } else {
+                driverDepots[k] = RoutingProblem.NO_DEPOT;
+            }
+            long committed = committedByDriver.getOrDefault(driver.getId(), 0L);
+            capacities[k] = (int) Math.max(0, maxTasksPerDriver - committed);
+        }
+
+        int[] earliest = new int[points.size()];
+        int[] latest = new int[points.size()];
+        java.util.Arrays.fill(latest, END_OF_DAY_MINUTES);
+        for (int i = 0; i < n; i++) {
+            LogisticTask task = tasks.get(i);
+            if (task.getAvailableFrom() != null) {
+                earliest[i] = task.getAvailableFrom().toSecondOfDay() / 60;
+            }
+            if (task.getAvailableTo() != null) {
+                latest[i] = task.getAvailableTo().toSecondOfDay() / 60;
+            }
+        }
+
+        return new DispatchProblem(
+                matrixFor(distanceMatrixService.forAddresses(points), points),
+                n,
+                driverDepots,
+                capacities,
+                earliest,
+                latest,
+                STOP_SERVICE_MINUTES,
+                AVERAGE_SPEED_KMH,
+                WORKLOAD_PENALTY_KM);
+    }
+
     /**
      * Obtient la tournée actuelle d'un chauffeur avec ordre de séquence
      */
@@ -719,30 +938,28 @@ public class LogisticServiceImpl implements LogisticService {
         double totalDistance = 0.0;
         int totalDuration = 0;
         
+        // Matrice partagée avec l'optimisation de la tournée (cache chauffeur/jour)
+        DistanceMatrix matrix = distanceMatrixService.forDriverDay(driverId, date, route.stream()
+                .map(LogisticTask::getAddress)
+                .collect(Collectors.toList()));
+        
         // Calculer distance et durée entre chaque tâche consécutive
         for (int i = 0; i < route.size() - 1; i++) {
-            LogisticTask current = route.get(i);
-            LogisticTask next = route.get(i + 1);
+            int from = route.get(i).getAddress() != null ? matrix.indexOf(route.get(i).getAddress().getId()) : -1;
+            int to = route.get(i + 1).getAddress() != null ? matrix.indexOf(route.get(i + 1).getAddress().getId()) : -1;
             
-            if (current.getAddress() != null && next.getAddress() != null &&
-                current.getAddress().getLatitude() != null && next.getAddress().getLatitude() != null) {
-                
-                double distance = calculateDistance(
-                    current.getAddress().getLatitude(),
-                    current.getAddress().getLongitude(),
-                    next.getAddress().getLatitude(),
-                    next.getAddress().getLongitude()
-                );
+            if (from >= 0 && to >= 0) {
+                double distance = matrix.get(from, to);
                 
                 totalDistance += distance;
                 
-                // Estimer durée (vitesse moyenne 30 km/h en ville)
-                totalDuration += (int) (distance / 30.0 * 60); // minutes
+                // Estimer durée (vitesse moyenne en ville)
+                totalDuration += (int) (distance / AVERAGE_SPEED_KMH * 60); // minutes
             }
         }
         
-        // Ajouter temps d'arrêt moyen par tâche (15 min)
-        totalDuration += route.size() * 15;
+        // Ajouter temps d'arrêt moyen par tâche
+        totalDuration += route.size() * STOP_SERVICE_MINUTES;
         
         java.util.Map<String, Object> metrics = new java.util.HashMap<>();
         metrics.put("driverId", driverId);
@@ -759,6 +976,7 @@ public class LogisticServiceImpl implements LogisticService {
      * Notifie un chauffeur de sa tournée mise à jour
      * (à connecter avec NotificationService)
      */
+    @Override
     @Transactional
     public void notifyDriverRouteUpdate(Long driverId, List<LogisticTask> newRoute) {
         // TODO: Intégrer avec NotificationService
@@ -1,10 +1,13 @@
 package com.irris.yamo.service.impl;
 
 import com.irris.yamo.entities.*;
+import com.irris.yamo.entities.enums.NotificationChannel;
 import com.irris.yamo.exception.InvalidOperationException;
 import com.irris.yamo.exception.ResourceNotFoundException;
 import com.irris.yamo.repositories.*;
 import com.irris.yamo.service.NotificationService;
+import com.irris.yamo.service.notification.NotificationOutbox;
+import com.irris.yamo.service.notification.template.NotificationTemplateEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,6 +27,8 @@ public class NotificationServiceImpl implements NotificationService {
     private final PaymentRepository paymentRepository;
     private final LogisticTaskRepository logisticTaskRepository;
     private final UserRepository userRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final NotificationTemplateEngine templates;
 
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
     private static final Pattern PHONE_PATTERN = Pattern.compile("^\\+?[1-9]\\d{1,14}$");
@@ -36,103 +41,57 @@ public class NotificationServiceImpl implements NotificationService {
             throw new InvalidOperationException("Email invalide: " + to);
         }
 
-        log.info("=== ENVOI EMAIL ===");
-        log.info("À: {}", to);
-        log.info("Sujet: {}", subject);
-        log.info("Message: {}", body);
-        log.info("==================");
-
-        // TODO: Intégrer service d'email (SendGrid, AWS SES, etc.)
-        /*
-        SendGridEmail email = new SendGridEmail();
-        email.setTo(to);
-        email.setSubject(subject);
-        email.setContent(body);
-        sendGridClient.send(email);
-        */
+        // Envoi différé : NotificationDispatcher, après commit de l'appelant
+        notificationOutbox.enqueue(NotificationChannel.EMAIL, to, subject, body);
     }
 
     @Override
     public void sendTemplateEmail(String to, String templateName, Map<String, Object> variables) {
-        String body = renderTemplate(templateName, variables);
-        sendEmail(to, "Notification Yamo", body);
+        String body = templates.render(templateName + ".email", variables);
+        String subject = templates.find(templateName + ".subject", null)
+                .map(template -> template.render(variables))
+                .orElse("Notification Yamo");
+        sendEmail(to, subject, body);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void sendOrderConfirmationEmail(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Commande non trouvée"));
 
-        String customerEmail = order.getCustomer().getEmail();
-        String subject = "Confirmation de votre commande " + order.getReference();
-        String body = String.format("""
-                Bonjour %s,
-                
-                Votre commande %s a bien été enregistrée.
-                
-                Montant total: %s €
-                Date estimée de livraison: %s
-                
-                Merci de votre confiance !
-                
-                L'équipe Yamo
-                """,
-                order.getCustomer().getFullName(),
-                order.getReference(),
-                order.getTotalAmount(),
-                order.getRequiredCompletionDate());
-
-        sendEmail(customerEmail, subject, body);
+        Map<String, Object> variables = orderVariables(order);
+        sendEmail(order.getCustomer().getEmail(),
+                templates.render("order-confirmation.subject", variables),
+                templates.render("order-confirmation.email", variables));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void sendDeliveryNotificationEmail(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Commande non trouvée"));
 
-        String subject = "Votre commande " + order.getReference() + " est en livraison";
-        String body = String.format("""
-                Bonjour %s,
-                
-                Votre commande %s est en cours de livraison.
-                Notre chauffeur arrivera bientôt à votre adresse.
-                
-                Montant à payer: %s €
-                
-                Merci !
-                """,
-                order.getCustomer().getFullName(),
-                order.getReference(),
-                order.getRemainingAmount());
-
-        sendEmail(order.getCustomer().getEmail(), subject, body);
+        Map<String, Object> variables = orderVariables(order);
+        variables.put("remainingAmount", order.getRemainingAmount());
+        sendEmail(order.getCustomer().getEmail(),
+                templates.render("delivery-notification.subject", variables),
+                templates.render("delivery-notification.email", variables));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void sendInvoiceEmail(Long invoiceId) {
         Invoice invoice = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Facture non trouvée"));
 
-        String subject = "Votre facture " + invoice.getInvoiceNumber();
-        String body = String.format("""
-                Bonjour,
-                
-                Veuillez trouver ci-joint votre facture N° %s.
-                
-                Montant total: %s €
-                Date d'échéance: %s
-                
-                Cordialement,
-                L'équipe Yamo
-                """,
-                invoice.getInvoiceNumber(),
-                invoice.getTotalAmount(),
-                invoice.getDueDate());
-
-        sendEmail(invoice.getCustomerEmail(), subject, body);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("invoiceNumber", invoice.getInvoiceNumber());
+        variables.put("totalAmount", invoice.getTotalAmount());
+        variables.put("dueDate", invoice.getDueDate());
+        sendEmail(invoice.getCustomerEmail(),
+                templates.render("invoice.subject", variables),
+                templates.render("invoice.email", variables));
     }
 
     // ========== Notifications SMS ==========
@@ -143,163 +102,115 @@ public class NotificationServiceImpl implements NotificationService {
             throw new InvalidOperationException("Numéro de téléphone invalide: " + phoneNumber);
         }
 
-        log.info("=== ENVOI SMS ===");
-        log.info("À: {}", phoneNumber);
-        log.info("Message: {}", message);
-        log.info("=================");
-
-        // TODO: Intégrer service SMS (Twilio, Vonage, etc.)
-        /*
-        twilioClient.messages.create(
-            new Message.Builder()
-                .to(phoneNumber)
-                .from(twilioPhoneNumber)
-                .body(message)
-                .build()
-        );
-        */
+        notificationOutbox.enqueue(NotificationChannel.SMS, phoneNumber, null, message);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void sendOrderConfirmationSms(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Commande non trouvée"));
 
-        String message = String.format(
-                "Yamo: Votre commande %s est confirmée. Montant: %s €. Merci !",
-                order.getReference(),
-                order.getTotalAmount()
-        );
-
-        sendSms(order.getCustomer().getPhoneNumber(), message);
+        sendSms(order.getCustomer().getPhoneNumber(),
+                templates.render("order-confirmation.sms", orderVariables(order)));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void sendPickupScheduledSms(Long taskId) {
         LogisticTask task = logisticTaskRepository.findById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tâche non trouvée"));
 
-        String message = String.format(
-                "Yamo: Ramassage programmé pour le %s entre %s et %s. À bientôt !",
-                task.getScheduledDate(),
-                task.getAvailableFrom(),
-                task.getAvailableTo()
-        );
-
-        sendSms(task.getContactPhone(), message);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("date", task.getScheduledDate());
+        variables.put("from", task.getAvailableFrom());
+        variables.put("to", task.getAvailableTo());
+        sendSms(task.getContactPhone(), templates.render("pickup-scheduled.sms", variables));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void sendDeliveryInProgressSms(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Commande non trouvée"));
 
-        String message = String.format(
-                "Yamo: Votre commande %s est en livraison. Notre chauffeur arrive bientôt !",
-                order.getReference()
-        );
-
-        sendSms(order.getCustomer().getPhoneNumber(), message);
+        sendSms(order.getCustomer().getPhoneNumber(),
+                templates.render("delivery-in-progress.sms", orderVariables(order)));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void sendDeliveryCompletedSms(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Commande non trouvée"));
 
-        String message = String.format(
-                "Yamo: Votre commande %s a été livrée. Merci et à bientôt !",
-                order.getReference()
-        );
-
-        sendSms(order.getCustomer().getPhoneNumber(), message);
+        sendSms(order.getCustomer().getPhoneNumber(),
+                templates.render("delivery-completed.sms", orderVariables(order)));
     }
 
     // ========== Notifications Push ==========
 
     @Override
     public void sendPushNotification(Long userId, String title, String message) {
-        log.info("=== NOTIFICATION PUSH ===");
-        log.info("Utilisateur ID: {}", userId);
-        log.info("Titre: {}", title);
-        log.info("Message: {}", message);
-        log.info("========================");
-
-        // TODO: Intégrer Firebase Cloud Messaging ou autre service push
-        /*
-        Message pushMessage = Message.builder()
-            .setToken(userDeviceToken)
-            .setNotification(Notification.builder()
-                .setTitle(title)
-                .setBody(message)
-                .build())
-            .build();
-        
-        FirebaseMessaging.getInstance().send(pushMessage);
-        */
+        notificationOutbox.enqueue(NotificationChannel.PUSH, String.valueOf(userId), title, message);
     }
 
     // ========== Notifications Multi-canal ==========
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void sendMultiChannelNotification(Long userId, String subject, String message) {
         UserYamo user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
 
-        Map<String, Boolean> preferences = getUserNotificationPreferences(userId);
+        Map<String, Boolean> preferences = preferencesOf(user);
 
-        if (preferences.getOrDefault("email", true)) {
+        if (preferences.get("email") && isValidEmail(user.getEmail())) {
             sendEmail(user.getEmail(), subject, message);
         }
 
-        if (preferences.getOrDefault("sms", true)) {
+        if (preferences.get("sms") && isValidPhoneNumber(user.getPhoneNumber())) {
             sendSms(user.getPhoneNumber(), message);
         }
 
-        if (preferences.getOrDefault("push", false)) {
+        if (preferences.get("push")) {
             sendPushNotification(userId, subject, message);
         }
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void notifyOrderCreated(Long orderId) {
         sendOrderConfirmationEmail(orderId);
         sendOrderConfirmationSms(orderId);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void notifyOrderReady(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Commande non trouvée"));
 
-        String message = "Votre commande " + order.getReference() + " est prête ! Vous pouvez venir la récupérer.";
-
-        sendEmail(order.getCustomer().getEmail(), "Commande prête", message);
-        sendSms(order.getCustomer().getPhoneNumber(), "Yamo: " + message);
+        Map<String, Object> variables = orderVariables(order);
+        sendEmail(order.getCustomer().getEmail(),
+                templates.render("order-ready.subject", variables),
+                templates.render("order-ready.email", variables));
+        sendSms(order.getCustomer().getPhoneNumber(), templates.render("order-ready.sms", variables));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void notifyPaymentReceived(Long paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Paiement non trouvé"));
 
         Order order = payment.getOrder();
-        String message = String.format(
-                "Paiement de %s € reçu pour votre commande %s. Merci !",
-                payment.getAmount(),
-                order.getReference()
-        );
-
-        sendEmail(order.getCustomer().getEmail(), "Paiement confirmé", message);
-        sendSms(order.getCustomer().getPhoneNumber(), "Yamo: " + message);
+        Map<String, Object> variables = orderVariables(order);
+        variables.put("amount", payment.getAmount());
+        sendEmail(order.getCustomer().getEmail(),
+                templates.render("payment-received.subject", variables),
+                templates.render("payment-received.email", variables));
+        sendSms(order.getCustomer().getPhoneNumber(), templates.render("payment-received.sms", variables));
     }
 
     // ========== Utilitaires ==========
@@ -315,20 +226,36 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Boolean> getUserNotificationPreferences(Long userId) {
-        // TODO: Récupérer les vraies préférences depuis la base de données
-        Map<String, Boolean> preferences = new HashMap<>();
-        preferences.put("email", true);
-        preferences.put("sms", true);
-        preferences.put("push", false);
-        return preferences;
+        UserYamo user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
+        return preferencesOf(user);
     }
 
     // ========== Méthodes Privées ==========
 
-    private String renderTemplate(String templateName, Map<String, Object> variables) {
-        // TODO: Utiliser un moteur de template (Thymeleaf, Freemarker)
-        // Pour l'instant, retour simple
-        return "Template: " + templateName + " - Variables: " + variables;
+    private static Map<String, Object> orderVariables(Order order) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("reference", order.getReference());
+        variables.put("customerName", order.getCustomer().getFullName());
+        variables.put("totalAmount", order.getTotalAmount());
+        variables.put("dueDate", order.getRequiredCompletionDate());
+        return variables;
+    }
+
+    // Préférences du client ; valeurs par défaut pour les autres utilisateurs (personnel)
+    private static Map<String, Boolean> preferencesOf(UserYamo user) {
+        Map<String, Boolean> preferences = new HashMap<>();
+        if (user instanceof Customer customer) {
+            preferences.put("email", Boolean.TRUE.equals(customer.getEmailNotifications()));
+            preferences.put("sms", Boolean.TRUE.equals(customer.getSmsNotifications()));
+            preferences.put("push", Boolean.TRUE.equals(customer.getPushNotifications()));
+        } else {
+            preferences.put("email", true);
+            preferences.put("sms", true);
+            preferences.put("push", false);
+        }
+        return preferences;
     }
 }
@@ -23,13 +23,10 @@ public class OrderDeliveryServiceImpl implements OrderDeliveryService {
     @Override
     @Transactional(readOnly = true)
     public List<OrderDto> getReadyToDeliverOrders() {
-        // Récupérer les commandes prêtes à livrer
-        List<Order> orders = orderRepository.findOrdersReadyForDelivery();
-        
-        // Filtrer celles qui sont payées et emballées
+        // Commandes prêtes à livrer, emballées et payées (filtrées en SQL sur fully_paid)
+        List<Order> orders = orderRepository.findPaidPackagedReadyForDelivery();
+
         return orders.stream()
-                .filter(Order::isWasPackaged)
-                .filter(Order::isFullyPaid)
                 .map(orderMapper::toDto)
                 .collect(Collectors.toList());
     }
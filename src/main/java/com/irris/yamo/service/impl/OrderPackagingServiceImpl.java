@@ -8,6 +8,8 @@ import com.irris.yamo.exception.ResourceNotFoundException;
 import com.irris.yamo.mapper.OrderMapper;
 import com.irris.yamo.repositories.OrderRepository;
 import com.irris.yamo.service.OrderPackagingService;
+import com.irris.yamo.service.events.WorkflowEvent;
+import com.irris.yamo.service.events.WorkflowEventBus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,16 +24,15 @@ public class OrderPackagingServiceImpl implements OrderPackagingService {
 
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
+    private final WorkflowEventBus workflowEventBus;
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderDto> getReadyToPackageOrders() {
         // Récupérer les commandes traitées mais pas encore emballées
-        List<Order> orders = orderRepository.findAll();
+        List<Order> orders = orderRepository.findReadyToPackage();
         
         return orders.stream()
-                .filter(Order::isWasProcessed)
-                .filter(order -> !order.isWasPackaged())
                 .map(orderMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -65,6 +66,7 @@ public class OrderPackagingServiceImpl implements OrderPackagingService {
         }
 
         orderRepository.save(order);
+        workflowEventBus.publish(new WorkflowEvent.OrderPackaged(orderId));
     }
 
     @Override
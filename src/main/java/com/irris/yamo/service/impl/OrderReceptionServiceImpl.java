@@ -9,6 +9,8 @@ import com.irris.yamo.exception.ResourceNotFoundException;
 import com.irris.yamo.mapper.OrderMapper;
 import com.irris.yamo.repositories.OrderRepository;
 import com.irris.yamo.service.OrderReceptionService;
+import com.irris.yamo.service.events.WorkflowEvent;
+import com.irris.yamo.service.events.WorkflowEventBus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +25,7 @@ public class OrderReceptionServiceImpl implements OrderReceptionService {
 
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
+    private final WorkflowEventBus workflowEventBus;
 
     @Override
     @Transactional
@@ -52,7 +55,9 @@ public class OrderReceptionServiceImpl implements OrderReceptionService {
             order.setStatus(OrderStatus.RECEIVED);
         }
 
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        workflowEventBus.publish(new WorkflowEvent.OrderReceived(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -77,11 +82,9 @@ public class OrderReceptionServiceImpl implements OrderReceptionService {
     @Transactional(readOnly = true)
     public List<OrderDto> getPendingOrders() {
         // Récupérer les commandes créées mais pas encore reçues
-        List<Order> orders = orderRepository.findByStatus(OrderStatus.CREATED);
+        List<Order> orders = orderRepository.findByStatusAndWasReceivedFalse(OrderStatus.CREATED);
         
-        // Filtrer celles qui ne sont pas marquées comme reçues
         return orders.stream()
-                .filter(order -> !order.isWasReceived())
                 .map(orderMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -2,6 +2,7 @@ package com.irris.yamo.service.impl;
 
 import com.irris.yamo.dtos.ArticleDto;
 import com.irris.yamo.dtos.ArticleInstanceDto;
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.OrderDto;
 import com.irris.yamo.dtos.creation.ArticleCreationDto;
 import com.irris.yamo.dtos.creation.OrderCreationRequest;
@@ -14,6 +15,8 @@ import com.irris.yamo.mapper.OrderMapper;
 import com.irris.yamo.repositories.*;
 import com.irris.yamo.service.BillingService;
 import com.irris.yamo.service.OrderService;
+import com.irris.yamo.service.pagination.KeysetPageRequest;
+import com.irris.yamo.service.pagination.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -42,6 +45,7 @@ public class OrderServiceImpl implements OrderService {
     private final ArticleInstanceMapper articleInstanceMapper;
     
     private final BillingService billingService;
+    private final KeysetPagination keysetPagination;
 
     @Override
     @Transactional
@@ -119,11 +123,10 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderDto> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        return orders.stream()
-                .map(orderMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<OrderDto> getAllOrders(String cursor, Integer size) {
+        KeysetPageRequest page = keysetPagination.request(cursor, size);
+        List<Order> rows = orderRepository.findPageBefore(page.beforeId(), page.limit());
+        return keysetPagination.page(rows, page, Order::getId, orderMapper::toDto);
     }
 
     @Override
@@ -222,11 +225,10 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ArticleDto> getAllArticles() {
-        List<Article> articles = articleRepository.findAll();
-        return articles.stream()
-                .map(articleMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<ArticleDto> getAllArticles(String cursor, Integer size) {
+        KeysetPageRequest page = keysetPagination.request(cursor, size);
+        List<Article> rows = articleRepository.findPageBefore(page.beforeId(), page.limit());
+        return keysetPagination.page(rows, page, Article::getId, articleMapper::toDto);
     }
 
     @Override
@@ -1,15 +1,15 @@
 package com.irris.yamo.service.impl;
 
 import com.irris.yamo.entities.ArticleInstance;
-import com.irris.yamo.entities.Order;
 import com.irris.yamo.entities.ProcessStepTracking;
 import com.irris.yamo.entities.enums.ProcessingStatus;
 import com.irris.yamo.exception.InvalidOperationException;
 import com.irris.yamo.exception.ResourceNotFoundException;
 import com.irris.yamo.repositories.ArticleInstanceRepository;
-import com.irris.yamo.repositories.OrderRepository;
 import com.irris.yamo.repositories.ProcessStepTrackingRepository;
 import com.irris.yamo.service.ProcessingService;
+import com.irris.yamo.service.events.WorkflowEvent;
+import com.irris.yamo.service.events.WorkflowEventBus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,7 +24,7 @@ public class ProcessingServiceImpl implements ProcessingService {
 
     private final ArticleInstanceRepository articleInstanceRepository;
     private final ProcessStepTrackingRepository processStepTrackingRepository;
-    private final OrderRepository orderRepository;
+    private final WorkflowEventBus workflowEventBus;
 
     @Override
     @Transactional(readOnly = true)
@@ -62,9 +62,11 @@ public class ProcessingServiceImpl implements ProcessingService {
         // Marquer l'instance et son article comme traités
         if (instance.getArticle() != null) {
             instance.getArticle().setWasProcessed(true);
-            
-            // Vérifier si toutes les instances de l'article sont complétées
-            updateArticleProcessingStatus(instance.getArticle().getId());
+
+            // Statut de traitement de la commande mis à jour après commit (OrderProcessingConsumer)
+            Long orderId = instance.getArticle().getOrder() != null ? instance.getArticle().getOrder().getId() : null;
+            workflowEventBus.publish(new WorkflowEvent.InstanceProcessed(
+                    instance.getId(), instance.getArticle().getId(), orderId));
         }
 
         articleInstanceRepository.save(instance);
@@ -81,24 +83,4 @@ public class ProcessingServiceImpl implements ProcessingService {
             }
         }
     }
-
-    /**
-     * Met à jour le statut de traitement de l'article et de la commande
-     */
-    private void updateArticleProcessingStatus(Long articleId) {
-        articleInstanceRepository.findById(articleId).ifPresent(instance -> {
-            if (instance.getArticle() != null && instance.getArticle().getOrder() != null) {
-                Order order = instance.getArticle().getOrder();
-                
-                // Vérifier si tous les articles de la commande sont traités
-                boolean allProcessed = order.getArticles().stream()
-                        .allMatch(article -> article.isWasProcessed());
-                
-                if (allProcessed) {
-                    order.setWasProcessed(true);
-                    orderRepository.save(order);
-                }
-            }
-        });
-    }
 }
@@ -0,0 +1,49 @@
+package com.irris.yamo.service.impl;
+
+import com.irris.yamo.entities.Promotion;
+import com.irris.yamo.exception.InvalidOperationException;
+import com.irris.yamo.repositories.PromotionRepository;
+import com.irris.yamo.service.PromoCodeService;
+import com.irris.yamo.service.promotion.PromoCodeIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class PromoCodeServiceImpl implements PromoCodeService {
+
+    private final PromoCodeIndex promoCodeIndex;
+    private final PromotionRepository promotionRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> checkCode(String code, Long userId) {
+        Long promotionId = promoCodeIndex.resolve(code, userId);
+        Promotion promotion = promotionRepository.findById(promotionId)
+                .orElseThrow(() -> new InvalidOperationException("Code promo invalide"));
+
+        // Les conditions liées au client et à la commande sont vérifiées à l'application
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("code", code);
+        response.put("valid", promotion.isValid() && promotion.isCodeRequired());
+        response.put("promotionId", promotion.getId());
+        response.put("title", promotion.getTitle());
+        response.put("endDate", promotion.getEndDate());
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> getIndexStats() {
+        return promoCodeIndex.stats();
+    }
+
+    @Override
+    public Map<String, Object> refreshIndex() {
+        promoCodeIndex.refresh();
+        return promoCodeIndex.stats();
+    }
+}
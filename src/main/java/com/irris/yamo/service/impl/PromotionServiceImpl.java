@@ -8,8 +8,16 @@ import com.irris.yamo.entities.enums.PromotionType;
 import com.irris.yamo.exception.InvalidOperationException;
 import com.irris.yamo.exception.ResourceNotFoundException;
 import com.irris.yamo.repositories.*;
+import com.irris.yamo.security.JwtUserPrincipal;
 import com.irris.yamo.service.PromotionService;
+import com.irris.yamo.service.promotion.PromoCodeIndex;
+import com.irris.yamo.service.promotion.PromotionRuleEngine;
+import com.irris.yamo.service.promotion.PromotionUsageCounters;
+import com.irris.yamo.service.promotion.PromotionUsageCounters.Outcome;
+import com.irris.yamo.service.promotion.PromotionUsageCounters.Reservation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +36,9 @@ public class PromotionServiceImpl implements PromotionService {
     private final PromotionUsageRepository promotionUsageRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
+    private final PromotionRuleEngine promotionRuleEngine;
+    private final PromotionUsageCounters usageCounters;
+    private final PromoCodeIndex promoCodeIndex;
 
     @Override
     @Transactional
@@ -154,10 +165,7 @@ public class PromotionServiceImpl implements PromotionService {
     @Override
     @Transactional(readOnly = true)
     public List<PromotionDto> getApplicablePromotions(Order order) {
-        List<Promotion> autoApplyPromotions = promotionRepository.findAutoApplyPromotions(LocalDateTime.now());
-        
-        return autoApplyPromotions.stream()
-                .filter(promo -> isPromotionApplicable(promo, order))
+        return promotionRuleEngine.applicablePromotions(order, order.getTotalAmount()).stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
@@ -182,7 +190,7 @@ public class PromotionServiceImpl implements PromotionService {
         if (!promo.isValid()) return false;
         
         // Vérifier usage maximum
-        if (promo.hasReachedMaxUsage()) return false;
+        if (usageCounters.exhausted(promo)) return false;
         
         // Vérifier montant minimum
         if (promo.getMinimumOrderAmount() != null && 
@@ -224,12 +232,30 @@ public class PromotionServiceImpl implements PromotionService {
     @Override
     @Transactional(readOnly = true)
     public PromotionDto validatePromoCode(String code, Long customerId) {
-        Promotion promotion = promotionRepository.findByPromoCode(code)
-                .orElseThrow(() -> new InvalidOperationException("Code promo invalide"));
+        Promotion promotion = findByPromoCode(code, customerId);
 
         UserYamo customer = userRepository.findById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Client non trouvé"));
 
+        checkPromoCode(promotion, customer);
+        return toDto(promotion);
+    }
+
+    /**
+     * Promotion portant ce code, résolu par l'index en mémoire (essais limités
+     * par utilisateur authentifié, à défaut par client hors requête HTTP)
+     */
+    private Promotion findByPromoCode(String code, Long customerId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = authentication != null && authentication.getPrincipal() instanceof JwtUserPrincipal principal
+                ? principal.id()
+                : customerId;
+        Long promotionId = promoCodeIndex.resolve(code, userId);
+        return promotionRepository.findById(promotionId)
+                .orElseThrow(() -> new InvalidOperationException("Code promo invalide"));
+    }
+
+    private void checkPromoCode(Promotion promotion, UserYamo customer) {
         // Vérifier validité
         if (!promotion.isValid()) {
             throw new InvalidOperationException("Ce code promo n'est plus valide");
@@ -241,13 +267,13 @@ public class PromotionServiceImpl implements PromotionService {
         }
 
         // Vérifier usage maximum global
-        if (promotion.hasReachedMaxUsage()) {
+        if (usageCounters.exhausted(promotion)) {
             throw new InvalidOperationException("Ce code promo a atteint sa limite d'utilisation");
         }
 
         // Vérifier usage par client
         if (promotion.getMaxUsagePerCustomer() != null) {
-            long customerUsage = promotionUsageRepository.countByPromotionAndCustomer(promotion, customer);
+            int customerUsage = usageCounters.customerUsage(promotion, customer.getId());
             if (customerUsage >= promotion.getMaxUsagePerCustomer()) {
                 throw new InvalidOperationException("Vous avez déjà utilisé ce code le nombre maximum de fois");
             }
@@ -275,8 +301,6 @@ public class PromotionServiceImpl implements PromotionService {
         if (!promotion.isEligible(customer)) {
             throw new InvalidOperationException("Vous n'êtes pas éligible pour ce code promo");
         }
-
-        return toDto(promotion);
     }
 
     @Override
@@ -285,17 +309,25 @@ public class PromotionServiceImpl implements PromotionService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Commande non trouvée"));
 
-        Promotion promotion = promotionRepository.findByPromoCode(code)
-                .orElseThrow(() -> new InvalidOperationException("Code promo invalide"));
+        Promotion promotion = findByPromoCode(code, order.getCustomer().getId());
 
         // Valider le code pour ce client
-        validatePromoCode(code, order.getCustomer().getId());
+        checkPromoCode(promotion, order.getCustomer());
 
         // Vérifier si applicable à cette commande
         if (!isPromotionApplicable(promotion, order)) {
             throw new InvalidOperationException("Cette promotion n'est pas applicable à cette commande");
         }
 
+        // Réserver l'utilisation : validée au commit, libérée si la transaction échoue
+        Reservation reservation = usageCounters.reserve(promotion, order.getCustomer().getId());
+        if (reservation.outcome() == Outcome.CUSTOMER_LIMIT_REACHED) {
+            throw new InvalidOperationException("Vous avez déjà utilisé ce code le nombre maximum de fois");
+        }
+        if (!reservation.granted()) {
+            throw new InvalidOperationException("Ce code promo a atteint sa limite d'utilisation");
+        }
+
         // Calculer la réduction
         BigDecimal discount = calculateDiscountForPromotion(order, toDto(promotion));
 
@@ -313,10 +345,6 @@ public class PromotionServiceImpl implements PromotionService {
                 .build();
         promotionUsageRepository.save(usage);
 
-        // Incrémenter le compteur d'utilisation
-        promotion.incrementUsage();
-        promotionRepository.save(promotion);
-
         return discount;
     }
 
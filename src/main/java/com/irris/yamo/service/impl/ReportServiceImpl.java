@@ -1,20 +1,34 @@
 package com.irris.yamo.service.impl;
 
+import com.irris.yamo.dtos.SalesReportDto;
 import com.irris.yamo.entities.*;
 import com.irris.yamo.exception.ResourceNotFoundException;
 import com.irris.yamo.repositories.*;
+import com.irris.yamo.repositories.projection.OrderListRow;
 import com.irris.yamo.service.ReportService;
+import com.irris.yamo.service.pdf.PdfRenderer;
+import com.irris.yamo.service.pdf.PdfReportWriter;
+import com.irris.yamo.service.pdf.PdfTableTemplate;
+import com.irris.yamo.service.pdf.PdfTableTemplate.Column;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -26,72 +40,82 @@ public class ReportServiceImpl implements ReportService {
     private final DriverRepository driverRepository;
     private final CustomerRepository customerRepository;
     private final PaymentRepository paymentRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // Modèle compilé une fois : largeurs de colonnes et en-tête déjà encodés
+    private static final PdfTableTemplate ORDER_LIST_TABLE = new PdfTableTemplate(PdfReportWriter.MARGIN,
+            Column.left("Référence", 110),
+            Column.left("Client", 160),
+            Column.left("Date", 90),
+            Column.right("Montant", 80),
+            Column.left("Statut", PdfReportWriter.CONTENT_WIDTH - 440));
 
     // ========== Génération PDF ==========
 
     @Override
     @Transactional(readOnly = true)
-    public byte[] generateOrderReportPdf(Long orderId) {
+    public PdfRenderer generateOrderReportPdf(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Commande non trouvée"));
 
-        String html = generateOrderHtml(order);
-        return generatePdfFromHtml(html);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("Client", order.getCustomer().getFullName());
+        fields.put("Date", formatDateTime(order.getCreatedAt()));
+        fields.put("Montant Total", formatAmount(order.getTotalAmount()));
+        fields.put("Statut", order.getStatus());
+        return fieldsDocument("Rapport de Commande", "Référence: " + order.getReference(), fields);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public byte[] generateInvoicePdf(Long invoiceId) {
+    public PdfRenderer generateInvoicePdf(Long invoiceId) {
         Invoice invoice = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Facture non trouvée"));
 
-        String html = generateInvoiceHtml(invoice);
-        return generatePdfFromHtml(html);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("Date d'émission", formatDateTime(invoice.getIssueDate()));
+        fields.put("Montant HT", formatAmount(invoice.getSubtotal()));
+        fields.put("TVA", formatAmount(invoice.getTaxAmount()));
+        fields.put("Remise", formatAmount(invoice.getDiscountAmount()));
+        fields.put("TOTAL TTC", formatAmount(invoice.getTotalAmount()));
+        return fieldsDocument("FACTURE", "N° " + invoice.getInvoiceNumber(), fields);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public byte[] generateReceiptPdf(Long receiptId) {
+    public PdfRenderer generateReceiptPdf(Long receiptId) {
         Receipt receipt = receiptRepository.findById(receiptId)
                 .orElseThrow(() -> new ResourceNotFoundException("Reçu non trouvé"));
 
-        String html = generateReceiptHtml(receipt);
-        return generatePdfFromHtml(html);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("Date", formatDateTime(receipt.getIssueDate()));
+        fields.put("Montant", formatAmount(receipt.getAmount()));
+        fields.put("Méthode", receipt.getPaymentMethod());
+        return fieldsDocument("REÇU", "N° " + receipt.getReceiptNumber(), fields);
     }
 
     // ========== Rapports de Statistiques ==========
 
     @Override
     @Transactional(readOnly = true)
-    public Map<String, Object> getDailySalesReport(LocalDate date) {
+    public SalesReportDto getDailySalesReport(LocalDate date) {
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
 
-        List<Order> orders = orderRepository.findAll().stream()
-                .filter(o -> o.getCreatedAt() != null &&
-                        o.getCreatedAt().isAfter(startOfDay) &&
-                        o.getCreatedAt().isBefore(endOfDay))
-                .collect(Collectors.toList());
-
-        return buildSalesReport(orders, date.toString());
+        return SalesReportDto.of(date.toString(),
+                orderRepository.aggregateSalesBetween(startOfDay, endOfDay));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Map<String, Object> getMonthlySalesReport(int year, int month) {
+    public SalesReportDto getMonthlySalesReport(int year, int month) {
         LocalDate startDate = LocalDate.of(year, month, 1);
         LocalDate endDate = startDate.plusMonths(1);
 
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atStartOfDay();
-
-        List<Order> orders = orderRepository.findAll().stream()
-                .filter(o -> o.getCreatedAt() != null &&
-                        o.getCreatedAt().isAfter(start) &&
-                        o.getCreatedAt().isBefore(end))
-                .collect(Collectors.toList());
-
-        return buildSalesReport(orders, year + "-" + String.format("%02d", month));
+        return SalesReportDto.of(year + "-" + String.format("%02d", month),
+                orderRepository.aggregateSalesBetween(startDate.atStartOfDay(), endDate.atStartOfDay()));
     }
 
     @Override
@@ -140,11 +164,7 @@ public class ReportServiceImpl implements ReportService {
     @Transactional(readOnly = true)
     public Map<String, Object> getLateOrdersReport() {
         LocalDateTime now = LocalDateTime.now();
-        List<Order> lateOrders = orderRepository.findAll().stream()
-                .filter(o -> o.getRequiredCompletionDate() != null &&
-                        o.getRequiredCompletionDate().isBefore(now) &&
-                        !o.isFullyProcessed())
-                .collect(Collectors.toList());
+        List<Order> lateOrders = orderRepository.findLateUnprocessed(now);
 
         Map<String, Object> report = new HashMap<>();
         report.put("totalLateOrders", lateOrders.size());
@@ -166,224 +186,86 @@ public class ReportServiceImpl implements ReportService {
     // ========== Export PDF Rapports ==========
 
     @Override
-    public byte[] exportDailyReportPdf(LocalDate date) {
-        Map<String, Object> report = getDailySalesReport(date);
-        String html = generateReportHtml("Rapport Journalier", report);
-        return generatePdfFromHtml(html);
+    public PdfRenderer exportDailyReportPdf(LocalDate date) {
+        SalesReportDto report = getDailySalesReport(date);
+        return fieldsDocument("Rapport Journalier", null, report.toMap());
     }
 
     @Override
-    public byte[] exportMonthlyReportPdf(int year, int month) {
-        Map<String, Object> report = getMonthlySalesReport(year, month);
-        String html = generateReportHtml("Rapport Mensuel", report);
-        return generatePdfFromHtml(html);
+    public PdfRenderer exportMonthlyReportPdf(int year, int month) {
+        SalesReportDto report = getMonthlySalesReport(year, month);
+        return fieldsDocument("Rapport Mensuel", null, report.toMap());
     }
 
     @Override
-    public byte[] exportDriverReportPdf(Long driverId, LocalDate startDate, LocalDate endDate) {
+    public PdfRenderer exportDriverReportPdf(Long driverId, LocalDate startDate, LocalDate endDate) {
         Map<String, Object> report = getDriverPerformanceReport(driverId, startDate, endDate);
-        String html = generateReportHtml("Rapport Chauffeur", report);
-        return generatePdfFromHtml(html);
+        return fieldsDocument("Rapport Chauffeur", null, report);
     }
 
+    /**
+     * Les commandes sont lues par curseur et chaque page est écrite dans la
+     * réponse dès qu'elle est pleine : la mémoire ne dépend pas du nombre de lignes
+     */
     @Override
-    public byte[] generateOrderListPdf(LocalDate startDate, LocalDate endDate) {
+    public PdfRenderer generateOrderListPdf(LocalDate startDate, LocalDate endDate) {
         LocalDateTime start = startDate.atStartOfDay();
         LocalDateTime end = endDate.plusDays(1).atStartOfDay();
 
-        List<Order> orders = orderRepository.findAll().stream()
-                .filter(o -> o.getCreatedAt() != null &&
-                        o.getCreatedAt().isAfter(start) &&
-                        o.getCreatedAt().isBefore(end))
-                .collect(Collectors.toList());
-
-        String html = generateOrderListHtml(orders, startDate, endDate);
-        return generatePdfFromHtml(html);
-    }
-
-    // ========== Méthodes Privées de Génération HTML ==========
-
-    private Map<String, Object> buildSalesReport(List<Order> orders, String period) {
-        Map<String, Object> report = new HashMap<>();
-
-        BigDecimal totalRevenue = orders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalDiscount = orders.stream()
-                .map(o -> o.getDiscountAmount() != null ? o.getDiscountAmount() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        report.put("period", period);
-        report.put("totalOrders", orders.size());
-        report.put("totalRevenue", totalRevenue);
-        report.put("totalDiscount", totalDiscount);
-        report.put("averageOrderValue", orders.isEmpty() ? BigDecimal.ZERO :
-                totalRevenue.divide(BigDecimal.valueOf(orders.size()), 2, java.math.RoundingMode.HALF_UP));
-
-        return report;
-    }
-
-    private String generateOrderHtml(Order order) {
-        return String.format("""
-                <html>
-                <head>
-                    <style>
-                        body { font-family: Arial, sans-serif; }
-                        .header { text-align: center; margin-bottom: 30px; }
-                        .info { margin: 20px 0; }
-                        table { width: 100%%; border-collapse: collapse; }
-                        th, td { border: 1px solid #ddd; padding: 8px; text-align: left; }
-                        th { background-color: #4CAF50; color: white; }
-                    </style>
-                </head>
-                <body>
-                    <div class="header">
-                        <h1>Rapport de Commande</h1>
-                        <p>Référence: %s</p>
-                    </div>
-                    <div class="info">
-                        <p><strong>Client:</strong> %s</p>
-                        <p><strong>Date:</strong> %s</p>
-                        <p><strong>Montant Total:</strong> %s €</p>
-                        <p><strong>Statut:</strong> %s</p>
-                    </div>
-                </body>
-                </html>
-                """,
-                order.getReference(),
-                order.getCustomer().getFullName(),
-                order.getCreatedAt(),
-                order.getTotalAmount(),
-                order.getStatus());
-    }
-
-    private String generateInvoiceHtml(Invoice invoice) {
-        return String.format("""
-                <html>
-                <head>
-                    <style>
-                        body { font-family: Arial, sans-serif; }
-                        .header { text-align: center; margin-bottom: 30px; }
-                        .total { font-size: 20px; font-weight: bold; margin-top: 20px; }
-                    </style>
-                </head>
-                <body>
-                    <div class="header">
-                        <h1>FACTURE</h1>
-                        <p>N° %s</p>
-                    </div>
-                    <p><strong>Date d'émission:</strong> %s</p>
-                    <p><strong>Montant HT:</strong> %s €</p>
-                    <p><strong>TVA:</strong> %s €</p>
-                    <p><strong>Remise:</strong> %s €</p>
-                    <div class="total">
-                        <p>TOTAL TTC: %s €</p>
-                    </div>
-                </body>
-                </html>
-                """,
-                invoice.getInvoiceNumber(),
-                invoice.getIssueDate(),
-                invoice.getSubtotal(),
-                invoice.getTaxAmount(),
-                invoice.getDiscountAmount(),
-                invoice.getTotalAmount());
-    }
-
-    private String generateReceiptHtml(Receipt receipt) {
-        return String.format("""
-                <html>
-                <head>
-                    <style>
-                        body { font-family: Arial, sans-serif; }
-                        .header { text-align: center; margin-bottom: 20px; }
-                    </style>
-                </head>
-                <body>
-                    <div class="header">
-                        <h2>REÇU</h2>
-                        <p>N° %s</p>
-                    </div>
-                    <p><strong>Date:</strong> %s</p>
-                    <p><strong>Montant:</strong> %s €</p>
-                    <p><strong>Méthode:</strong> %s</p>
-                </body>
-                </html>
-                """,
-                receipt.getReceiptNumber(),
-                receipt.getIssueDate(),
-                receipt.getAmount(),
-                receipt.getPaymentMethod());
+        // Exécuté pendant l'écriture de la réponse, hors de la transaction de l'appelant
+        return out -> readOnlyTransaction().executeWithoutResult(status -> {
+            try (Stream<OrderListRow> rows = orderRepository.streamOrderListRows(start, end);
+                 PdfReportWriter writer = new PdfReportWriter(out)) {
+                writer.title("Liste des Commandes")
+                        .text("Période: " + startDate + " - " + endDate)
+                        .space()
+                        .beginTable(ORDER_LIST_TABLE);
+
+                Iterator<OrderListRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    OrderListRow row = iterator.next();
+                    writer.row(row.reference(),
+                            row.customerName(),
+                            formatDateTime(row.createdAt()),
+                            formatAmount(row.totalAmount()),
+                            row.status() != null ? row.status().name() : null);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
-    private String generateReportHtml(String title, Map<String, Object> data) {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><style>");
-        html.append("body { font-family: Arial, sans-serif; }");
-        html.append(".header { text-align: center; margin-bottom: 30px; }");
-        html.append("table { width: 100%; border-collapse: collapse; }");
-        html.append("th, td { border: 1px solid #ddd; padding: 8px; }");
-        html.append("</style></head><body>");
-        html.append("<div class='header'><h1>").append(title).append("</h1></div>");
-        html.append("<table>");
-
-        for (Map.Entry<String, Object> entry : data.entrySet()) {
-            if (!(entry.getValue() instanceof List)) {
-                html.append("<tr><th>").append(entry.getKey()).append("</th>");
-                html.append("<td>").append(entry.getValue()).append("</td></tr>");
+    // ========== Rendu PDF ==========
+
+    private PdfRenderer fieldsDocument(String title, String subtitle, Map<String, Object> fields) {
+        return out -> {
+            try (PdfReportWriter writer = new PdfReportWriter(out)) {
+                writer.title(title);
+                if (subtitle != null) {
+                    writer.text(subtitle);
+                }
+                writer.space();
+                for (Map.Entry<String, Object> entry : fields.entrySet()) {
+                    if (!(entry.getValue() instanceof List)) {
+                        writer.field(entry.getKey(), entry.getValue());
+                    }
+                }
             }
-        }
+        };
+    }
 
-        html.append("</table></body></html>");
-        return html.toString();
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
     }
 
-    private String generateOrderListHtml(List<Order> orders, LocalDate startDate, LocalDate endDate) {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><style>");
-        html.append("body { font-family: Arial, sans-serif; }");
-        html.append("table { width: 100%; border-collapse: collapse; margin-top: 20px; }");
-        html.append("th, td { border: 1px solid #ddd; padding: 8px; text-align: left; }");
-        html.append("th { background-color: #4CAF50; color: white; }");
-        html.append("</style></head><body>");
-        html.append("<h1>Liste des Commandes</h1>");
-        html.append("<p>Période: ").append(startDate).append(" - ").append(endDate).append("</p>");
-        html.append("<table><tr><th>Référence</th><th>Client</th><th>Date</th><th>Montant</th><th>Statut</th></tr>");
-
-        for (Order order : orders) {
-            html.append("<tr>");
-            html.append("<td>").append(order.getReference()).append("</td>");
-            html.append("<td>").append(order.getCustomer().getFullName()).append("</td>");
-            html.append("<td>").append(order.getCreatedAt()).append("</td>");
-            html.append("<td>").append(order.getTotalAmount()).append(" €</td>");
-            html.append("<td>").append(order.getStatus()).append("</td>");
-            html.append("</tr>");
-        }
-
-        html.append("</table></body></html>");
-        return html.toString();
+    private static String formatDateTime(LocalDateTime dateTime) {
+        return dateTime != null ? DATE_TIME_FORMAT.format(dateTime) : null;
     }
 
-    @Override
-    public byte[] generatePdfFromHtml(String html) {
-        // TODO: Implémenter avec une bibliothèque PDF (iText, Flying Saucer, etc.)
-        // Pour l'instant, retourne le HTML en bytes comme placeholder
-        // En production, utiliser: iText 7, OpenPDF, ou Flying Saucer
-        
-        /* Exemple avec Flying Saucer:
-        try {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            ITextRenderer renderer = new ITextRenderer();
-            renderer.setDocumentFromString(html);
-            renderer.layout();
-            renderer.createPDF(outputStream);
-            return outputStream.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Erreur génération PDF", e);
-        }
-        */
-        
-        return html.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    private static String formatAmount(BigDecimal amount) {
+        return amount != null ? amount.toPlainString() + " €" : null;
     }
 }
@@ -1,5 +1,6 @@
 package com.irris.yamo.service.impl;
 
+import com.irris.yamo.dtos.CursorPageDto;
 import com.irris.yamo.dtos.CustomerDto;
 import com.irris.yamo.dtos.DriverDto;
 import com.irris.yamo.entities.Customer;
@@ -14,7 +15,11 @@ import com.irris.yamo.repositories.CustomerRepository;
 import com.irris.yamo.repositories.DriverRepository;
 import com.irris.yamo.repositories.LogisticTaskRepository;
 import com.irris.yamo.repositories.UserRepository;
+import com.irris.yamo.security.TokenRevocationStore;
+import com.irris.yamo.security.UserPrincipalCache;
 import com.irris.yamo.service.UserManagementService;
+import com.irris.yamo.service.pagination.KeysetPageRequest;
+import com.irris.yamo.service.pagination.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,6 +40,9 @@ public class UserManagementServiceImpl implements UserManagementService {
     private final LogisticTaskRepository logisticTaskRepository;
     private final CustomerMapper customerMapper;
     private final DriverMapper driverMapper;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final KeysetPagination keysetPagination;
 
     // ========== CRUD Utilisateurs ==========
 
@@ -46,8 +55,10 @@ public class UserManagementServiceImpl implements UserManagementService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserYamo> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPageDto<UserYamo> getAllUsers(String cursor, Integer size) {
+        KeysetPageRequest page = keysetPagination.request(cursor, size);
+        List<UserYamo> rows = userRepository.findPageBefore(page.beforeId(), page.limit());
+        return keysetPagination.page(rows, page, UserYamo::getId, Function.identity());
     }
 
     @Override
@@ -84,6 +95,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         UserYamo user = getUserById(userId);
         user.setIsActive(true);
         userRepository.save(user);
+        userPrincipalCache.invalidate(userId);
     }
 
     @Override
@@ -92,6 +104,8 @@ public class UserManagementServiceImpl implements UserManagementService {
         UserYamo user = getUserById(userId);
         user.setIsActive(false);
         userRepository.save(user);
+        userPrincipalCache.invalidate(userId);
+        tokenRevocationStore.revokeUser(userId);
     }
 
     @Override
@@ -102,16 +116,18 @@ public class UserManagementServiceImpl implements UserManagementService {
         // Soft delete
         user.setIsActive(false);
         userRepository.save(user);
+        userPrincipalCache.invalidate(userId);
+        tokenRevocationStore.revokeUser(userId);
     }
 
     // ========== Gestion Drivers ==========
 
     @Override
     @Transactional(readOnly = true)
-    public List<DriverDto> getAllDrivers() {
-        return driverRepository.findAll().stream()
-                .map(driverMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<DriverDto> getAllDrivers(String cursor, Integer size) {
+        KeysetPageRequest page = keysetPagination.request(cursor, size);
+        List<Driver> rows = driverRepository.findPageBefore(page.beforeId(), page.limit());
+        return keysetPagination.page(rows, page, Driver::getId, driverMapper::toDto);
     }
 
     @Override
@@ -150,10 +166,10 @@ public class UserManagementServiceImpl implements UserManagementService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<CustomerDto> getAllCustomers() {
-        return customerRepository.findAll().stream()
-                .map(customerMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<CustomerDto> getAllCustomers(String cursor, Integer size) {
+        KeysetPageRequest page = keysetPagination.request(cursor, size);
+        List<Customer> rows = customerRepository.findPageBefore(page.beforeId(), page.limit());
+        return keysetPagination.page(rows, page, Customer::getId, customerMapper::toDto);
     }
 
     @Override
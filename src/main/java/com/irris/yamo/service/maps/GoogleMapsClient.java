@@ -0,0 +1,105 @@
+package com.irris.yamo.service.maps;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Accès HTTP aux API Google Maps : connexions réutilisées, délais de connexion
+ * et de lecture, limitation de débit et nouvelles tentatives sur les erreurs
+ * transitoires (réseau, 5xx, OVER_QUERY_LIMIT).
+ *
+ * L'URL de base est configurable (google.maps.base-url) pour viser un serveur
+ * bouchon en local.
+ */
+@Slf4j
+@Component
+public class GoogleMapsClient {
+
+    private static final long RETRY_BACKOFF_MS = 200;
+
+    private final RestTemplate restTemplate;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final String baseUrl;
+    private final String apiKey;
+    private final int maxRetries;
+    private final long acquireTimeoutMs;
+
+    public GoogleMapsClient(
+            @Value("${google.maps.base-url:https://maps.googleapis.com}") String baseUrl,
+            @Value("${google.maps.api-key:}") String apiKey,
+            @Value("${google.maps.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${google.maps.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${google.maps.rate-limit-per-second:10}") double permitsPerSecond,
+            @Value("${google.maps.max-retries:2}") int maxRetries,
+            @Value("${google.maps.rate-limit-wait-ms:2000}") long acquireTimeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.rateLimiter = new TokenBucketRateLimiter(permitsPerSecond, (int) Math.max(1, Math.ceil(permitsPerSecond)));
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.maxRetries = maxRetries;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    /**
+     * Appelle une API JSON Google Maps
+     * @param path ex. /maps/api/geocode/json
+     * @return Réponse décodée, ou null si l'appel a échoué après les tentatives
+     */
+    public Map<String, Object> get(String path, Map<String, String> params) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl).path(path);
+        params.forEach(builder::queryParam);
+        builder.queryParam("key", apiKey);
+        URI uri = builder.encode().build().toUri();
+
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0) {
+                sleep(RETRY_BACKOFF_MS << (attempt - 1));
+            }
+            if (!rateLimiter.acquire(acquireTimeoutMs)) {
+                log.warn("Limite de débit Google Maps atteinte, appel abandonné: {}", path);
+                return null;
+            }
+            try {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> response = restTemplate.getForObject(uri, Map.class);
+                if (response != null && "OVER_QUERY_LIMIT".equals(response.get("status"))) {
+                    log.warn("Quota Google Maps dépassé (tentative {}): {}", attempt + 1, path);
+                    continue;
+                }
+                return response;
+            } catch (HttpClientErrorException e) {
+                log.error("Requête Google Maps refusée ({}): {}", e.getStatusCode(), path);
+                return null;
+            } catch (RestClientException e) {
+                log.warn("Erreur appel Google Maps (tentative {}): {}", attempt + 1, e.getMessage());
+            }
+        }
+        log.error("Échec appel Google Maps après {} tentatives: {}", maxRetries + 1, path);
+        return null;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
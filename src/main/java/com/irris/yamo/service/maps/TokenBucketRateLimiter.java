@@ -0,0 +1,65 @@
+package com.irris.yamo.service.maps;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limiteur de débit à seau de jetons : rafales jusqu'à la capacité, puis
+ * au plus permitsPerSecond appels par seconde. Les appelants réservent leur
+ * jeton sous verrou et attendent hors verrou.
+ */
+public class TokenBucketRateLimiter {
+
+    private final double permitsPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Débit et capacité doivent être positifs");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Attend un jeton au plus timeoutMillis
+     * @return false si le délai d'attente aurait été dépassé (aucun jeton consommé)
+     */
+    public boolean acquire(long timeoutMillis) {
+        long waitNanos = reserve(TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        if (waitNanos < 0) {
+            return false;
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized long reserve(long timeoutNanos) {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        long waitNanos = (long) Math.ceil((1 - tokens) / permitsPerNano);
+        if (waitNanos > timeoutNanos) {
+            return -1;
+        }
+        // Jeton emprunté sur le remplissage à venir
+        tokens -= 1;
+        return waitNanos;
+    }
+}
@@ -0,0 +1,12 @@
+package com.irris.yamo.service.maps;
+
+/**
+ * Distances et durées routières entre tous les couples de points.
+ * Un trajet non calculable vaut Double.NaN (distance) et -1 (durée).
+ */
+public record TravelMatrix(double[][] distanceKm, int[][] durationMinutes) {
+
+    public boolean isAvailable(int from, int to) {
+        return durationMinutes[from][to] >= 0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.irris.yamo.service.notification;
+
+import com.irris.yamo.entities.enums.NotificationChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fournisseur local : journalise les messages et garde les derniers envois en
+ * mémoire. Utilisé tant qu'aucun fournisseur réel n'est déclaré pour un canal ;
+ * notifications.fake.failure-rate permet de simuler des pannes en test.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class LoggingNotificationProvider implements NotificationChannelAdapter {
+
+    private static final int MAX_RECORDED = 1000;
+
+    @Value("${notifications.fake.failure-rate:0}")
+    private double failureRate;
+
+    // Clé d'idempotence -> message, dans l'ordre d'envoi
+    private final Map<String, OutboundMessage> sent = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, OutboundMessage> eldest) {
+            return size() > MAX_RECORDED;
+        }
+    };
+
+    @Override
+    public Set<NotificationChannel> channels() {
+        return EnumSet.allOf(NotificationChannel.class);
+    }
+
+    @Override
+    public void send(NotificationChannel channel, OutboundMessage message) {
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Panne simulée du fournisseur " + channel);
+        }
+        synchronized (sent) {
+            if (sent.putIfAbsent(message.idempotencyKey(), message) != null) {
+                log.info("Notification {} déjà envoyée, ignorée", message.idempotencyKey());
+                return;
+            }
+        }
+        log.info("=== ENVOI {} === À: {} | Sujet: {} | Message: {}",
+                channel, message.recipient(), message.subject(), message.body());
+    }
+
+    /**
+     * Derniers messages envoyés, du plus ancien au plus récent
+     */
+    public List<OutboundMessage> recent() {
+        synchronized (sent) {
+            return new ArrayList<>(sent.values());
+        }
+    }
+}
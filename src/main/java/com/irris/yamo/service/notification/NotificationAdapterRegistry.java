@@ -0,0 +1,41 @@
+package com.irris.yamo.service.notification;
+
+import com.irris.yamo.entities.enums.NotificationChannel;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Fournisseur retenu pour chaque canal : le premier adaptateur déclaré pour
+ * ce canal, par ordre de priorité (@Order)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationAdapterRegistry {
+
+    private final ObjectProvider<NotificationChannelAdapter> adapterProvider;
+
+    private final Map<NotificationChannel, NotificationChannelAdapter> adapters = new EnumMap<>(NotificationChannel.class);
+
+    @PostConstruct
+    void init() {
+        adapterProvider.orderedStream().forEach(adapter -> {
+            for (NotificationChannel channel : adapter.channels()) {
+                adapters.putIfAbsent(channel, adapter);
+            }
+        });
+        adapters.forEach((channel, adapter) ->
+                log.info("Canal {} : {}", channel, adapter.getClass().getSimpleName()));
+    }
+
+    public Optional<NotificationChannelAdapter> adapterFor(NotificationChannel channel) {
+        return Optional.ofNullable(adapters.get(channel));
+    }
+}
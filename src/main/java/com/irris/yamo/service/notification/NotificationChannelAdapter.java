@@ -0,0 +1,17 @@
+package com.irris.yamo.service.notification;
+
+import com.irris.yamo.entities.enums.NotificationChannel;
+
+import java.util.Set;
+
+/**
+ * Fournisseur d'envoi pour un ou plusieurs canaux (SendGrid, Twilio, FCM...).
+ * Pour un canal donné, {@link NotificationAdapterRegistry} retient l'adaptateur de
+ * plus haute priorité (@Order) ; toute exception déclenche un nouvel essai.
+ */
+public interface NotificationChannelAdapter {
+
+    Set<NotificationChannel> channels();
+
+    void send(NotificationChannel channel, OutboundMessage message);
+}
@@ -0,0 +1,216 @@
+package com.irris.yamo.service.notification;
+
+import com.irris.yamo.entities.OutboxNotification;
+import com.irris.yamo.entities.enums.NotificationChannel;
+import com.irris.yamo.entities.enums.OutboxStatus;
+import com.irris.yamo.repositories.OutboxNotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribue la table d'outbox par lots.
+ *
+ * Un lot est réservé en base (SKIP LOCKED, statut SENDING avec bail) puis
+ * envoyé hors transaction : chaque message sur un thread virtuel, dans la
+ * limite de concurrence de son canal. Les résultats sont écrits en une
+ * transaction ; un échec est retenté avec un délai exponentiel jusqu'à
+ * max-attempts. Un bail expiré (arrêt pendant l'envoi) remet le message en
+ * file ; la clé d'idempotence évite le doublon côté fournisseur.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private final OutboxNotificationRepository outboxRepository;
+    private final NotificationAdapterRegistry adapterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${notifications.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notifications.outbox.backoff-initial-seconds:30}")
+    private long backoffInitialSeconds;
+
+    @Value("${notifications.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${notifications.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${notifications.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${notifications.outbox.concurrency.email:4}")
+    private int emailConcurrency;
+
+    @Value("${notifications.outbox.concurrency.sms:2}")
+    private int smsConcurrency;
+
+    @Value("${notifications.outbox.concurrency.push:8}")
+    private int pushConcurrency;
+
+    private TransactionTemplate transaction;
+    private ExecutorService senders;
+    private final Map<NotificationChannel, Semaphore> channelPermits = new EnumMap<>(NotificationChannel.class);
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("notification-sender-", 0).factory());
+        channelPermits.put(NotificationChannel.EMAIL, new Semaphore(emailConcurrency));
+        channelPermits.put(NotificationChannel.SMS, new Semaphore(smsConcurrency));
+        channelPermits.put(NotificationChannel.PUSH, new Semaphore(pushConcurrency));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Les messages en cours restent SENDING et seront repris à l'expiration du bail
+        senders.shutdownNow();
+    }
+
+    // ========== Distribution ==========
+
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        List<OutboxNotification> batch;
+        do {
+            batch = claim();
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+        } while (batch.size() == batchSize && !Thread.currentThread().isInterrupted());
+    }
+
+    private List<OutboxNotification> claim() {
+        return transaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxNotification> due = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            for (OutboxNotification notification : due) {
+                notification.setStatus(OutboxStatus.SENDING);
+                notification.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            }
+            return due;
+        });
+    }
+
+    private void deliver(List<OutboxNotification> batch) {
+        // Id -> erreur (vide si envoyé)
+        Map<Long, String> results = new ConcurrentHashMap<>();
+        List<Future<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxNotification notification : batch) {
+            sends.add(senders.submit(() -> send(notification, results)));
+        }
+        for (Future<?> send : sends) {
+            try {
+                send.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("Envoi de notification interrompu: {}", e.getCause().getMessage());
+            }
+        }
+        record(results);
+    }
+
+    private void send(OutboxNotification notification, Map<Long, String> results) {
+        NotificationChannelAdapter adapter = adapterRegistry.adapterFor(notification.getChannel()).orElse(null);
+        if (adapter == null) {
+            results.put(notification.getId(), "Aucun fournisseur pour le canal " + notification.getChannel());
+            return;
+        }
+        Semaphore permits = channelPermits.get(notification.getChannel());
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            // Non enregistré : repris à l'expiration du bail
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            adapter.send(notification.getChannel(), new OutboundMessage(notification.getIdempotencyKey(),
+                    notification.getRecipient(), notification.getSubject(), notification.getBody()));
+            results.put(notification.getId(), "");
+        } catch (RuntimeException e) {
+            results.put(notification.getId(), e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void record(Map<Long, String> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        transaction.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxNotification> notifications = outboxRepository.findAllById(results.keySet());
+            for (OutboxNotification notification : notifications) {
+                String error = results.get(notification.getId());
+                notification.setAttempts(notification.getAttempts() + 1);
+                if (error.isEmpty()) {
+                    notification.setStatus(OutboxStatus.SENT);
+                    notification.setSentAt(now);
+                    notification.setLastError(null);
+                } else if (notification.getAttempts() >= maxAttempts) {
+                    notification.setStatus(OutboxStatus.FAILED);
+                    notification.setLastError(truncate(error));
+                    log.warn("Notification {} abandonnée après {} essais: {}",
+                            notification.getId(), notification.getAttempts(), error);
+                } else {
+                    notification.setStatus(OutboxStatus.PENDING);
+                    notification.setNextAttemptAt(now.plusSeconds(backoffSeconds(notification.getAttempts())));
+                    notification.setLastError(truncate(error));
+                }
+            }
+            // Un seul lot d'UPDATE (hibernate.jdbc.batch_size)
+            outboxRepository.saveAll(notifications);
+        });
+    }
+
+    // Délai exponentiel plafonné, avec un aléa de 20 % pour étaler les reprises
+    private long backoffSeconds(int attempts) {
+        long delay = Math.min(backoffMaxSeconds, backoffInitialSeconds << Math.min(attempts - 1, 20));
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private static String truncate(String error) {
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    // ========== Purge ==========
+
+    @Scheduled(fixedDelayString = "${notifications.outbox.cleanup-interval-ms:3600000}")
+    public void purgeSent() {
+        Integer deleted = transaction.execute(status -> outboxRepository.deleteByStatusAndCreatedAtBefore(
+                OutboxStatus.SENT, LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("{} notification(s) envoyée(s) purgée(s)", deleted);
+        }
+    }
+}
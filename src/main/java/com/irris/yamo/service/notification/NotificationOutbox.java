@@ -0,0 +1,53 @@
+package com.irris.yamo.service.notification;
+
+import com.irris.yamo.entities.OutboxNotification;
+import com.irris.yamo.entities.enums.NotificationChannel;
+import com.irris.yamo.entities.enums.OutboxStatus;
+import com.irris.yamo.repositories.OutboxNotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Écriture des notifications dans la table d'outbox, dans la transaction de
+ * l'appelant : le message n'existe que si l'opération métier est validée
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+    private final OutboxNotificationRepository outboxRepository;
+
+    @Transactional
+    public void enqueue(NotificationChannel channel, String recipient, String subject, String body) {
+        enqueue(channel, recipient, subject, body, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Ajoute un message, ignoré si la clé d'idempotence a déjà été enregistrée
+     */
+    @Transactional
+    public void enqueue(NotificationChannel channel, String recipient, String subject, String body,
+                        String idempotencyKey) {
+        if (outboxRepository.existsByIdempotencyKey(idempotencyKey)) {
+            log.debug("Notification {} déjà en file, ignorée", idempotencyKey);
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        OutboxNotification notification = new OutboxNotification();
+        notification.setChannel(channel);
+        notification.setRecipient(recipient);
+        notification.setSubject(subject);
+        notification.setBody(body);
+        notification.setIdempotencyKey(idempotencyKey);
+        notification.setStatus(OutboxStatus.PENDING);
+        notification.setNextAttemptAt(now);
+        notification.setCreatedAt(now);
+        outboxRepository.save(notification);
+    }
+}
@@ -0,0 +1,7 @@
+package com.irris.yamo.service.notification;
+
+/**
+ * Message remis à un fournisseur ; la clé d'idempotence est identique à chaque essai
+ */
+public record OutboundMessage(String idempotencyKey, String recipient, String subject, String body) {
+}
@@ -0,0 +1,100 @@
+package com.irris.yamo.service.notification.template;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modèle analysé une seule fois : alternance de textes fixes et de variables
+ * {{nom}}. Le rendu se limite à des append, sans ré-analyse du format.
+ * Immuable et partageable entre threads.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int VARIABLE_LENGTH_ESTIMATE = 16;
+
+    private final String name;
+    // literals.length == variables.length + 1
+    private final String[] literals;
+    private final String[] variables;
+    private final int estimatedLength;
+
+    private CompiledTemplate(String name, String[] literals, String[] variables) {
+        this.name = name;
+        this.literals = literals;
+        this.variables = variables;
+        int length = variables.length * VARIABLE_LENGTH_ESTIMATE;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.estimatedLength = length;
+    }
+
+    public static CompiledTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Modèle " + name + " : '{{' non fermé à la position " + open);
+            }
+            String variable = source.substring(open + OPEN.length(), close).trim();
+            if (variable.isEmpty()) {
+                throw new IllegalArgumentException("Modèle " + name + " : variable vide à la position " + open);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(variable);
+            position = close + CLOSE.length();
+        }
+        return new CompiledTemplate(name, literals.toArray(String[]::new), variables.toArray(String[]::new));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<String> variables() {
+        return List.of(variables);
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(estimatedLength);
+        renderTo(values, out);
+        return out.toString();
+    }
+
+    /**
+     * Ajoute le rendu au tampon fourni (réutilisable d'un message à l'autre) ;
+     * une variable absente ou nulle produit une chaîne vide
+     */
+    public void renderTo(Map<String, ?> values, StringBuilder out) {
+        out.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            appendValue(out, values.get(variables[i]));
+            out.append(literals[i + 1]);
+        }
+    }
+
+    private static void appendValue(StringBuilder out, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof CharSequence text) {
+            out.append(text);
+        } else if (value instanceof BigDecimal amount) {
+            // Montants sans notation scientifique (1E+3)
+            out.append(amount.toPlainString());
+        } else {
+            out.append(value);
+        }
+    }
+}
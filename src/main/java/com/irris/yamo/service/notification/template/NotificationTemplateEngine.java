@@ -0,0 +1,99 @@
+package com.irris.yamo.service.notification.template;
+
+import com.irris.yamo.exception.InvalidOperationException;
+import com.irris.yamo.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Modèles de notification (emails, SMS, push) lus dans
+ * {@code <location>/<nom>_<langue>.txt}, à défaut {@code <nom>.txt}, compilés
+ * au premier usage puis conservés en cache par nom et langue.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationTemplateEngine {
+
+    private static final Pattern TEMPLATE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${notifications.templates.location:classpath:templates/notifications/}")
+    private String location;
+
+    @Value("${notifications.templates.default-locale:fr}")
+    private Locale defaultLocale;
+
+    private final Map<String, CompiledTemplate> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Modèle compilé, chargé au premier appel
+     */
+    public CompiledTemplate get(String name, Locale locale) {
+        return find(name, locale)
+                .orElseThrow(() -> new ResourceNotFoundException("Modèle de notification introuvable: " + name));
+    }
+
+    public Optional<CompiledTemplate> find(String name, Locale locale) {
+        if (name == null || !TEMPLATE_NAME.matcher(name).matches() || name.contains("..")) {
+            throw new InvalidOperationException("Nom de modèle invalide: " + name);
+        }
+        String language = (locale != null ? locale : defaultLocale).getLanguage();
+        // Un modèle absent n'est pas mis en cache (computeIfAbsent ignore null)
+        return Optional.ofNullable(cache.computeIfAbsent(name + "_" + language, key -> load(name, language)));
+    }
+
+    public String render(String name, Map<String, ?> values) {
+        return get(name, defaultLocale).render(values);
+    }
+
+    public String render(String name, Locale locale, Map<String, ?> values) {
+        return get(name, locale).render(values);
+    }
+
+    /**
+     * Vide le cache (modèles modifiés sans redémarrage)
+     */
+    public void evictAll() {
+        cache.clear();
+    }
+
+    private CompiledTemplate load(String name, String language) {
+        for (String candidate : new String[]{name + "_" + language + ".txt", name + ".txt"}) {
+            Resource resource = resourceLoader.getResource(location + candidate);
+            if (resource.exists()) {
+                String source = read(resource);
+                // Retour à la ligne final du fichier ignoré
+                if (source.endsWith("\n")) {
+                    source = source.substring(0, source.length() - 1);
+                }
+                log.debug("Modèle de notification {} compilé depuis {}", name, candidate);
+                return CompiledTemplate.compile(name, source);
+            }
+        }
+        return null;
+    }
+
+    private static String read(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture du modèle " + resource.getDescription() + " impossible", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.irris.yamo.service.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Page demandée : ids strictement inférieurs à beforeId, par id décroissant
+ */
+public record KeysetPageRequest(long beforeId, int size) {
+
+    /**
+     * Limite de la requête : une ligne de plus que la page pour savoir s'il en reste
+     */
+    public Pageable limit() {
+        return PageRequest.of(0, size + 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.irris.yamo.service.pagination;
+
+import com.irris.yamo.dtos.CursorPageDto;
+import com.irris.yamo.exception.InvalidOperationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pagination par clé (seek) des listes : chaque page reprend après le dernier
+ * id renvoyé (WHERE id < :beforeId ORDER BY id DESC) au lieu d'un OFFSET, le
+ * coût d'une page reste constant quelle que soit sa position dans la table.
+ *
+ * Le curseur transmis au client est opaque (id encodé en base64url).
+ */
+@Component
+public class KeysetPagination {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public KeysetPagination(@Value("${pagination.default-size:50}") int defaultSize,
+                            @Value("${pagination.max-size:200}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Page demandée à partir du curseur (null pour la première page) et de la taille
+     */
+    public KeysetPageRequest request(String cursor, Integer size) {
+        int pageSize = size == null ? defaultSize : size;
+        if (pageSize < 1) {
+            throw new InvalidOperationException("La taille de page doit être positive");
+        }
+        pageSize = Math.min(pageSize, maxSize);
+        long beforeId = cursor == null || cursor.isBlank() ? Long.MAX_VALUE : decode(cursor);
+        return new KeysetPageRequest(beforeId, pageSize);
+    }
+
+    /**
+     * Construit la page à partir des lignes lues avec request.limit()
+     */
+    public <E, D> CursorPageDto<D> page(List<E> rows, KeysetPageRequest request,
+                                        Function<E, Long> idOf, Function<E, D> mapper) {
+        boolean hasMore = rows.size() > request.size();
+        List<E> pageRows = hasMore ? rows.subList(0, request.size()) : rows;
+        String nextCursor = hasMore ? encode(idOf.apply(pageRows.get(pageRows.size() - 1))) : null;
+
+        List<D> items = pageRows.stream().map(mapper).toList();
+        return CursorPageDto.<D>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(items.size())
+                .build();
+    }
+
+    private static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException(value);
+            }
+            return Long.parseLong(value.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException("Curseur de pagination invalide");
+        }
+    }
+}
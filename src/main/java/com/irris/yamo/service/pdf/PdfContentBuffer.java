@@ -0,0 +1,110 @@
+package com.irris.yamo.service.pdf;
+
+import java.util.Arrays;
+
+/**
+ * Flux de contenu d'une page (opérateurs PDF), réutilisé d'une page à l'autre
+ */
+final class PdfContentBuffer {
+
+    private byte[] bytes = new byte[16 * 1024];
+    private int length = 0;
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    int length() {
+        return length;
+    }
+
+    void reset() {
+        length = 0;
+    }
+
+    PdfContentBuffer append(byte[] data) {
+        ensureCapacity(data.length);
+        System.arraycopy(data, 0, bytes, length, data.length);
+        length += data.length;
+        return this;
+    }
+
+    PdfContentBuffer append(String ascii) {
+        ensureCapacity(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            bytes[length++] = (byte) ascii.charAt(i);
+        }
+        return this;
+    }
+
+    PdfContentBuffer append(char c) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) c;
+        return this;
+    }
+
+    /**
+     * Nombre avec au plus deux décimales, indépendant de la locale
+     */
+    PdfContentBuffer number(double value) {
+        long hundredths = Math.round(value * 100);
+        if (hundredths < 0) {
+            append('-');
+            hundredths = -hundredths;
+        }
+        append(Long.toString(hundredths / 100));
+        long fraction = hundredths % 100;
+        if (fraction != 0) {
+            append('.');
+            if (fraction < 10) {
+                append('0');
+            }
+            append(Long.toString(fraction % 10 == 0 ? fraction / 10 : fraction));
+        }
+        return append(' ');
+    }
+
+    /**
+     * Chaîne littérale PDF encodée WinAnsi, avec échappement de ( ) et \
+     */
+    PdfContentBuffer literal(byte[] encoded, int count) {
+        ensureCapacity(count * 2 + 2);
+        bytes[length++] = '(';
+        for (int i = 0; i < count; i++) {
+            byte b = encoded[i];
+            if (b == '(' || b == ')' || b == '\\') {
+                bytes[length++] = '\\';
+            }
+            bytes[length++] = b;
+        }
+        bytes[length++] = ')';
+        return this;
+    }
+
+    /**
+     * Texte positionné : BT /F size Tf x y Td (texte) Tj ET
+     */
+    PdfContentBuffer text(PdfFont font, double size, double x, double y, byte[] encoded, int count) {
+        append("BT /").append(font.getResourceName()).append(' ').number(size).append("Tf ");
+        number(x).number(y).append("Td ");
+        return literal(encoded, count).append(" Tj ET\n");
+    }
+
+    /**
+     * Insère un fragment précompilé décalé verticalement de dy
+     */
+    PdfContentBuffer translated(double dy, byte[] snippet) {
+        append("q 1 0 0 1 0 ").number(dy).append("cm\n");
+        return append(snippet).append("Q\n");
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+}
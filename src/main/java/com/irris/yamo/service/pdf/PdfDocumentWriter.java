@@ -0,0 +1,174 @@
+package com.irris.yamo.service.pdf;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Écriture d'un document PDF au fil de l'eau.
+ *
+ * Chaque page est compressée puis écrite dès qu'elle est terminée : seule la
+ * page courante est en mémoire, plus la table des positions des objets
+ * (quelques octets par page). L'arbre des pages, les polices et la table de
+ * références croisées sont écrits à la fermeture.
+ */
+public class PdfDocumentWriter implements Closeable {
+
+    public static final double A4_WIDTH = 595.28;
+    public static final double A4_HEIGHT = 841.89;
+
+    // Objets réservés, les pages suivent
+    private static final int CATALOG_ID = 1;
+    private static final int PAGES_ID = 2;
+    private static final int FIRST_FONT_ID = 3;
+
+    private static final String PAGE_DICTIONARY_PREFIX = "<< /Type /Page /Parent " + PAGES_ID + " 0 R"
+            + " /MediaBox [0 0 " + A4_WIDTH + " " + A4_HEIGHT + "]"
+            + " /Resources << /Font " + fontDictionary() + " >> /Contents ";
+
+    private final CountingOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    private long[] offsets = new long[64];
+    private int nextObjectId = FIRST_FONT_ID + PdfFont.values().length;
+    private int[] pageIds = new int[16];
+    private int pageCount = 0;
+    private boolean closed = false;
+
+    public PdfDocumentWriter(OutputStream target) throws IOException {
+        this.out = new CountingOutputStream(new BufferedOutputStream(target, 64 * 1024));
+        write("%PDF-1.4\n%âãÏÓ\n");
+    }
+
+    /**
+     * Écrit une page à partir de son flux de contenu (opérateurs PDF)
+     */
+    public void addPage(byte[] content, int length) throws IOException {
+        int contentId = nextObjectId++;
+        int pageId = nextObjectId++;
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(256, length / 3));
+        deflater.reset();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, deflater, 8192)) {
+            deflate.write(content, 0, length);
+        }
+
+        beginObject(contentId);
+        write("<< /Length " + compressed.size() + " /Filter /FlateDecode >>\nstream\n");
+        compressed.writeTo(out);
+        write("\nendstream\nendobj\n");
+
+        beginObject(pageId);
+        write(PAGE_DICTIONARY_PREFIX + contentId + " 0 R >>\nendobj\n");
+
+        if (pageCount == pageIds.length) {
+            pageIds = Arrays.copyOf(pageIds, pageCount * 2);
+        }
+        pageIds[pageCount++] = pageId;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Termine le document (arbre des pages, catalogue, xref) et vide le flux
+     * sans fermer la sortie sous-jacente
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        deflater.end();
+
+        PdfFont[] fonts = PdfFont.values();
+        for (int i = 0; i < fonts.length; i++) {
+            beginObject(FIRST_FONT_ID + i);
+            write("<< /Type /Font /Subtype /Type1 /BaseFont /" + fonts[i].getBaseFont()
+                    + " /Encoding /WinAnsiEncoding >>\nendobj\n");
+        }
+
+        beginObject(PAGES_ID);
+        StringBuilder kids = new StringBuilder("<< /Type /Pages /Count ").append(pageCount).append(" /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            kids.append(pageIds[i]).append(" 0 R ");
+        }
+        write(kids.append("] >>\nendobj\n").toString());
+
+        beginObject(CATALOG_ID);
+        write("<< /Type /Catalog /Pages " + PAGES_ID + " 0 R >>\nendobj\n");
+
+        long xrefOffset = out.getCount();
+        int size = nextObjectId;
+        StringBuilder xref = new StringBuilder("xref\n0 ").append(size).append("\n0000000000 65535 f \n");
+        for (int id = 1; id < size; id++) {
+            xref.append(String.format("%010d 00000 n \n", offsets[id]));
+        }
+        xref.append("trailer\n<< /Size ").append(size).append(" /Root ").append(CATALOG_ID).append(" 0 R >>\n")
+                .append("startxref\n").append(xrefOffset).append("\n%%EOF\n");
+        write(xref.toString());
+        out.flush();
+    }
+
+    private void beginObject(int id) throws IOException {
+        if (id >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(id + 1, offsets.length * 2));
+        }
+        offsets[id] = out.getCount();
+        write(id + " 0 obj\n");
+    }
+
+    private static String fontDictionary() {
+        StringBuilder fonts = new StringBuilder("<<");
+        PdfFont[] values = PdfFont.values();
+        for (int i = 0; i < values.length; i++) {
+            fonts.append(" /").append(values[i].getResourceName()).append(' ').append(FIRST_FONT_ID + i).append(" 0 R");
+        }
+        return fonts.append(" >>").toString();
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Compte les octets écrits pour la table de références croisées
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.irris.yamo.service.pdf;
+
+import java.nio.charset.Charset;
+import java.text.Normalizer;
+
+/**
+ * Polices standard PDF (non embarquées) en encodage WinAnsi.
+ *
+ * Les tables de chasse sont calculées une seule fois au chargement de la
+ * classe : la mesure d'un texte (troncature, alignement) ne fait qu'une
+ * addition par caractère.
+ */
+public enum PdfFont {
+
+    HELVETICA("F1", "Helvetica", new int[]{
+            278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+            1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+            333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+            556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584}),
+
+    HELVETICA_BOLD("F2", "Helvetica-Bold", new int[]{
+            278, 333, 474, 556, 556, 889, 722, 238, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 333, 333, 584, 584, 584, 611,
+            975, 722, 722, 722, 722, 667, 611, 778, 722, 278, 556, 722, 611, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 333, 278, 333, 584, 556,
+            333, 556, 611, 556, 611, 556, 333, 611, 611, 278, 278, 556, 278, 889, 611, 611,
+            611, 611, 389, 556, 333, 611, 556, 778, 556, 556, 500, 389, 280, 389, 584});
+
+    static final Charset WIN_ANSI = Charset.forName("windows-1252");
+
+    private static final int DEFAULT_WIDTH = 556;
+
+    private final String resourceName;
+    private final String baseFont;
+    private final int[] widths = new int[256];
+
+    PdfFont(String resourceName, String baseFont, int[] asciiWidths) {
+        this.resourceName = resourceName;
+        this.baseFont = baseFont;
+
+        for (int code = 0; code < 256; code++) {
+            widths[code] = DEFAULT_WIDTH;
+        }
+        System.arraycopy(asciiWidths, 0, widths, 32, asciiWidths.length);
+
+        // Lettres accentuées : même chasse que la lettre de base (é → e, Ç → C)
+        // Constante statique de l'enum inaccessible depuis son constructeur
+        Charset winAnsi = Charset.forName("windows-1252");
+        byte[] single = new byte[1];
+        for (int code = 0xC0; code <= 0xFF; code++) {
+            single[0] = (byte) code;
+            String decomposed = Normalizer.normalize(new String(single, winAnsi), Normalizer.Form.NFD);
+            char base = decomposed.charAt(0);
+            if (base >= 32 && base < 127) {
+                widths[code] = widths[base];
+            }
+        }
+    }
+
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    String getBaseFont() {
+        return baseFont;
+    }
+
+    /**
+     * Largeur en points d'un texte déjà encodé en WinAnsi
+     */
+    public double width(byte[] encoded, double size) {
+        long units = 0;
+        for (byte b : encoded) {
+            units += widths[b & 0xFF];
+        }
+        return units * size / 1000.0;
+    }
+
+    public double width(String text, double size) {
+        return width(encode(text), size);
+    }
+
+    public static byte[] encode(String text) {
+        return text == null ? new byte[0] : text.getBytes(WIN_ANSI);
+    }
+
+    int charWidth(byte b) {
+        return widths[b & 0xFF];
+    }
+}
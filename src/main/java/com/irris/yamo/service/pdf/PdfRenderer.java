@@ -0,0 +1,13 @@
+package com.irris.yamo.service.pdf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Document PDF prêt à être écrit dans un flux (typiquement la réponse HTTP)
+ */
+@FunctionalInterface
+public interface PdfRenderer {
+
+    void writeTo(OutputStream out) throws IOException;
+}
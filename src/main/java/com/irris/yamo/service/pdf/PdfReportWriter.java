@@ -0,0 +1,136 @@
+package com.irris.yamo.service.pdf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Mise en page simple de rapports A4 (titre, champs libellé/valeur, tableaux)
+ * avec saut de page automatique et répétition de l'en-tête de tableau.
+ * Les pages sont écrites dans le flux de sortie au fur et à mesure.
+ */
+public class PdfReportWriter implements Closeable {
+
+    public static final double MARGIN = 40;
+    public static final double CONTENT_WIDTH = PdfDocumentWriter.A4_WIDTH - 2 * MARGIN;
+
+    private static final double TITLE_SIZE = 16;
+    private static final double TEXT_SIZE = 10;
+    private static final double LINE_HEIGHT = 15;
+    private static final double FOOTER_Y = 20;
+
+    private final PdfDocumentWriter document;
+    private final PdfContentBuffer page = new PdfContentBuffer();
+
+    private double y;
+    private boolean pageOpen = false;
+    private PdfTableTemplate table;
+
+    public PdfReportWriter(OutputStream out) throws IOException {
+        this.document = new PdfDocumentWriter(out);
+    }
+
+    public PdfReportWriter title(String text) throws IOException {
+        ensureSpace(TITLE_SIZE + LINE_HEIGHT);
+        byte[] encoded = PdfFont.encode(text);
+        double x = MARGIN + (CONTENT_WIDTH - PdfFont.HELVETICA_BOLD.width(encoded, TITLE_SIZE)) / 2;
+        y -= TITLE_SIZE;
+        page.text(PdfFont.HELVETICA_BOLD, TITLE_SIZE, x, y, encoded, encoded.length);
+        y -= LINE_HEIGHT;
+        return this;
+    }
+
+    public PdfReportWriter text(String text) throws IOException {
+        ensureSpace(LINE_HEIGHT);
+        y -= LINE_HEIGHT;
+        byte[] encoded = PdfFont.encode(text);
+        page.text(PdfFont.HELVETICA, TEXT_SIZE, MARGIN, y, encoded, encoded.length);
+        return this;
+    }
+
+    /**
+     * Ligne « Libellé : valeur », libellé en gras
+     */
+    public PdfReportWriter field(String label, Object value) throws IOException {
+        ensureSpace(LINE_HEIGHT);
+        y -= LINE_HEIGHT;
+        byte[] encodedLabel = PdfFont.encode(label + " : ");
+        page.text(PdfFont.HELVETICA_BOLD, TEXT_SIZE, MARGIN, y, encodedLabel, encodedLabel.length);
+        byte[] encodedValue = PdfFont.encode(value != null ? value.toString() : "-");
+        double x = MARGIN + PdfFont.HELVETICA_BOLD.width(encodedLabel, TEXT_SIZE);
+        page.text(PdfFont.HELVETICA, TEXT_SIZE, x, y, encodedValue, encodedValue.length);
+        return this;
+    }
+
+    public PdfReportWriter space() throws IOException {
+        ensureSpace(LINE_HEIGHT);
+        y -= LINE_HEIGHT;
+        return this;
+    }
+
+    /**
+     * Démarre un tableau : l'en-tête est répété en haut de chaque nouvelle page
+     */
+    public PdfReportWriter beginTable(PdfTableTemplate template) throws IOException {
+        table = template;
+        ensureSpace(2 * PdfTableTemplate.ROW_HEIGHT);
+        writeTableHeader();
+        return this;
+    }
+
+    public PdfReportWriter row(String... cells) throws IOException {
+        if (y - PdfTableTemplate.ROW_HEIGHT < MARGIN) {
+            newPage();
+            writeTableHeader();
+        }
+        table.writeRow(page, y, cells);
+        y -= PdfTableTemplate.ROW_HEIGHT;
+        return this;
+    }
+
+    public PdfReportWriter endTable() {
+        table = null;
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!pageOpen) {
+            openPage();
+        }
+        flushPage();
+        document.close();
+    }
+
+    private void writeTableHeader() {
+        table.writeHeader(page, y);
+        y -= PdfTableTemplate.ROW_HEIGHT;
+    }
+
+    private void ensureSpace(double height) throws IOException {
+        if (!pageOpen) {
+            openPage();
+        } else if (y - height < MARGIN) {
+            newPage();
+        }
+    }
+
+    private void newPage() throws IOException {
+        flushPage();
+        openPage();
+    }
+
+    private void openPage() {
+        page.reset();
+        y = PdfDocumentWriter.A4_HEIGHT - MARGIN;
+        pageOpen = true;
+    }
+
+    private void flushPage() throws IOException {
+        byte[] footer = PdfFont.encode("Page " + (document.getPageCount() + 1));
+        page.text(PdfFont.HELVETICA, 8, PdfDocumentWriter.A4_WIDTH - MARGIN - PdfFont.HELVETICA.width(footer, 8),
+                FOOTER_Y, footer, footer.length);
+        document.addPage(page.bytes(), page.length());
+        pageOpen = false;
+    }
+}
@@ -0,0 +1,130 @@
+package com.irris.yamo.service.pdf;
+
+/**
+ * Modèle de tableau précompilé : positions des colonnes et en-tête déjà
+ * encodés en opérateurs PDF. Immuable, un modèle est créé une fois par type
+ * de rapport et partagé entre tous les rendus.
+ */
+public final class PdfTableTemplate {
+
+    public enum Align { LEFT, RIGHT }
+
+    public record Column(String header, double width, Align align) {
+
+        public static Column left(String header, double width) {
+            return new Column(header, width, Align.LEFT);
+        }
+
+        public static Column right(String header, double width) {
+            return new Column(header, width, Align.RIGHT);
+        }
+    }
+
+    static final double ROW_HEIGHT = 16;
+    static final double FONT_SIZE = 9;
+
+    private static final double PADDING = 4;
+    private static final double BASELINE_OFFSET = 5;
+    private static final byte[] ELLIPSIS = PdfFont.encode("...");
+
+    private final Column[] columns;
+    private final double[] columnX;
+    private final double left;
+    private final double width;
+    private final byte[] headerSnippet;
+    private final byte[] rowRuleSnippet;
+
+    public PdfTableTemplate(double left, Column... columns) {
+        this.left = left;
+        this.columns = columns.clone();
+        this.columnX = new double[columns.length];
+
+        double x = left;
+        for (int i = 0; i < columns.length; i++) {
+            columnX[i] = x;
+            x += columns[i].width();
+        }
+        this.width = x - left;
+
+        // En-tête : bandeau vert, libellés blancs en gras, dessiné sous y = 0
+        PdfContentBuffer header = new PdfContentBuffer();
+        header.append("0.298 0.686 0.314 rg ").number(left).number(-ROW_HEIGHT).number(width).number(ROW_HEIGHT)
+                .append("re f\n1 g\n");
+        for (int i = 0; i < columns.length; i++) {
+            writeCell(header, PdfFont.HELVETICA_BOLD, i, -ROW_HEIGHT + BASELINE_OFFSET, columns[i].header());
+        }
+        header.append("0 g\n");
+        this.headerSnippet = header.toByteArray();
+
+        // Filet gris sous chaque ligne
+        PdfContentBuffer rule = new PdfContentBuffer();
+        rule.append("0.85 G 0.5 w ").number(left).number(-ROW_HEIGHT).append("m ")
+                .number(left + width).number(-ROW_HEIGHT).append("l S 0 G\n");
+        this.rowRuleSnippet = rule.toByteArray();
+    }
+
+    public int columnCount() {
+        return columns.length;
+    }
+
+    void writeHeader(PdfContentBuffer page, double top) {
+        page.translated(top, headerSnippet);
+    }
+
+    void writeRow(PdfContentBuffer page, double top, String[] cells) {
+        for (int i = 0; i < columns.length && i < cells.length; i++) {
+            writeCell(page, PdfFont.HELVETICA, i, top - ROW_HEIGHT + BASELINE_OFFSET, cells[i]);
+        }
+        page.translated(top, rowRuleSnippet);
+    }
+
+    private void writeCell(PdfContentBuffer page, PdfFont font, int column, double baseline, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        byte[] encoded = PdfFont.encode(value);
+        double available = columns[column].width() - 2 * PADDING;
+        int count = fit(font, encoded, available);
+
+        double textWidth;
+        if (count < encoded.length) {
+            // Texte tronqué suivi de "..."
+            byte[] truncated = new byte[count + ELLIPSIS.length];
+            System.arraycopy(encoded, 0, truncated, 0, count);
+            System.arraycopy(ELLIPSIS, 0, truncated, count, ELLIPSIS.length);
+            encoded = truncated;
+            count = truncated.length;
+        }
+        textWidth = font.width(encoded, FONT_SIZE);
+
+        double x = columns[column].align() == Align.RIGHT
+                ? columnX[column] + columns[column].width() - PADDING - textWidth
+                : columnX[column] + PADDING;
+        page.text(font, FONT_SIZE, x, baseline, encoded, count);
+    }
+
+    /**
+     * Nombre d'octets affichables dans la largeur disponible (points de suspension compris si tronqué)
+     */
+    private static int fit(PdfFont font, byte[] encoded, double available) {
+        double limit = available * 1000 / FONT_SIZE;
+        long units = 0;
+        for (byte b : encoded) {
+            units += font.charWidth(b);
+        }
+        if (units <= limit) {
+            return encoded.length;
+        }
+        long ellipsisUnits = 0;
+        for (byte b : ELLIPSIS) {
+            ellipsisUnits += font.charWidth(b);
+        }
+        units = ellipsisUnits;
+        int count = 0;
+        while (count < encoded.length && units + font.charWidth(encoded[count]) <= limit) {
+            units += font.charWidth(encoded[count]);
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,26 @@
+package com.irris.yamo.service.pricing;
+
+import com.irris.yamo.entities.LaundryService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA qui fait recompiler la grille tarifaire quand un service change
+ */
+@Component
+@RequiredArgsConstructor
+public class LaundryServicePriceListener {
+
+    private final ObjectProvider<PricingEngine> pricingEngine;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(LaundryService service) {
+        pricingEngine.getObject().onServiceChanged();
+    }
+}
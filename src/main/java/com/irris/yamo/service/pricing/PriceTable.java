@@ -0,0 +1,181 @@
+package com.irris.yamo.service.pricing;
+
+import com.irris.yamo.entities.Article;
+import com.irris.yamo.entities.LaundryService;
+import com.irris.yamo.entities.enums.BillingMode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Grille tarifaire compilée : prix et remises des services en centimes
+ * (entiers), rangés dans des tableaux triés par id de service.
+ *
+ * Immuable et partageable entre threads ; une nouvelle version remplace la
+ * précédente d'un bloc lorsque les services changent. Le calcul d'un article
+ * reproduit exactement l'arithmétique décimale historique : le montant au
+ * poids est tenu en centimes × grammes (échelle 5), la remise d'un service est
+ * arrondie au centime, le total de l'article est arrondi au centime.
+ */
+public final class PriceTable {
+
+    private static final long GRAMS_PER_KG = 1000;
+    private static final long BASIS_POINTS = 10_000;
+
+    private final long version;
+    private final long[] serviceIds;
+    // Prix à la pièce et au kg en centimes, -1 si non défini
+    private final long[] pieceCents;
+    private final long[] kgCents;
+    // Remise en centièmes de pour cent (12,50 % = 1250)
+    private final long[] discountBasisPoints;
+
+    private PriceTable(long version, long[] serviceIds, long[] pieceCents, long[] kgCents,
+                       long[] discountBasisPoints) {
+        this.version = version;
+        this.serviceIds = serviceIds;
+        this.pieceCents = pieceCents;
+        this.kgCents = kgCents;
+        this.discountBasisPoints = discountBasisPoints;
+    }
+
+    public static PriceTable compile(long version, Collection<LaundryService> services) {
+        List<LaundryService> sorted = services.stream()
+                .filter(service -> service.getId() != null)
+                .sorted(Comparator.comparing(LaundryService::getId))
+                .toList();
+        int size = sorted.size();
+        long[] ids = new long[size];
+        long[] piece = new long[size];
+        long[] kg = new long[size];
+        long[] discount = new long[size];
+        for (int i = 0; i < size; i++) {
+            LaundryService service = sorted.get(i);
+            ids[i] = service.getId();
+            piece[i] = rate(service.getPricePerPiece());
+            kg[i] = rate(service.getPricePerKg());
+            discount[i] = basisPoints(service.getDiscountPercentage());
+        }
+        return new PriceTable(version, ids, piece, kg, discount);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return serviceIds.length;
+    }
+
+    // ========== Calcul ==========
+
+    /**
+     * Prix d'un article en centimes selon ses services et son mode de
+     * facturation (sans tenir compte d'un prix déjà fixé sur l'article)
+     */
+    public long articleCents(Article article) {
+        Set<LaundryService> services = article.getLaundryServices();
+        if (services == null || services.isEmpty()) {
+            return 0;
+        }
+        BillingMode mode = article.getEffectiveBillingMode();
+        long quantity = article.getQuantity() != null ? article.getQuantity() : 1;
+        long grams = mode == BillingMode.KG || mode == BillingMode.PAR_KG ? billedGrams(article) : 0;
+
+        // Centimes × grammes : exact pour la facturation au poids
+        long total = 0;
+        for (LaundryService service : services) {
+            int index = service.getId() != null ? Arrays.binarySearch(serviceIds, service.getId()) : -1;
+            long piece;
+            long kg;
+            long discount;
+            if (index >= 0) {
+                piece = pieceCents[index];
+                kg = kgCents[index];
+                discount = discountBasisPoints[index];
+            } else {
+                // Service créé après la compilation de cette version
+                piece = rate(service.getPricePerPiece());
+                kg = rate(service.getPricePerKg());
+                discount = basisPoints(service.getDiscountPercentage());
+            }
+            total += servicePrice(mode, piece, kg, discount, quantity, grams);
+        }
+        return divideHalfUp(total, GRAMS_PER_KG);
+    }
+
+    private static long servicePrice(BillingMode mode, long piece, long kg, long discount, long quantity, long grams) {
+        long price = 0;
+        switch (mode) {
+            case PIECE, PAR_PIECE -> {
+                if (piece >= 0) {
+                    price = piece * quantity * GRAMS_PER_KG;
+                }
+            }
+            case KG, PAR_KG -> {
+                if (kg >= 0 && grams > 0) {
+                    price = kg * grams;
+                }
+            }
+            case FLAT_RATE -> {
+                if (piece >= 0) {
+                    price = piece * GRAMS_PER_KG;
+                }
+            }
+        }
+        if (discount > 0 && price != 0) {
+            // Remise arrondie au centime puis ramenée à l'échelle du calcul
+            price -= divideHalfUp(price * discount, BASIS_POINTS * GRAMS_PER_KG) * GRAMS_PER_KG;
+        }
+        return price;
+    }
+
+    // Poids réel s'il est connu, sinon estimé, en grammes
+    private static long billedGrams(Article article) {
+        BigDecimal weight = article.getActualWeight() != null && article.getActualWeight().signum() > 0
+                ? article.getActualWeight()
+                : article.getEstimatedWeight();
+        if (weight == null || weight.signum() <= 0) {
+            return 0;
+        }
+        return weight.movePointRight(3).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // ========== Conversions ==========
+
+    /**
+     * Montant arrondi au centime ; zéro si absent
+     */
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static long rate(BigDecimal price) {
+        return price != null ? toCents(price) : -1;
+    }
+
+    private static long basisPoints(BigDecimal percentage) {
+        if (percentage == null || percentage.signum() <= 0) {
+            return 0;
+        }
+        return percentage.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // Division arrondie au plus proche, moitié vers l'infini (RoundingMode.HALF_UP)
+    private static long divideHalfUp(long value, long divisor) {
+        long half = divisor / 2;
+        return value >= 0 ? (value + half) / divisor : -((-value + half) / divisor);
+    }
+}
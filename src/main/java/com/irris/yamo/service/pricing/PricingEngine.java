@@ -0,0 +1,141 @@
+package com.irris.yamo.service.pricing;
+
+import com.irris.yamo.entities.Article;
+import com.irris.yamo.repositories.LaundryServiceRepository;
+import com.irris.yamo.service.cache.RefreshQueue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul des prix à partir de la grille tarifaire compilée.
+ *
+ * La grille courante est recompilée après le commit de toute transaction
+ * modifiant un service ({@link LaundryServicePriceListener}), par un thread de
+ * fond, puis publiée d'un bloc ; un calcul de commande utilise une seule
+ * version du début à la fin, sans accès à la base. Une recompilation
+ * périodique reprend les changements faits sur une autre instance ou
+ * directement en SQL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PricingEngine {
+
+    private final LaundryServiceRepository laundryServiceRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${pricing.table.shutdown-timeout-seconds:5}")
+    private long shutdownTimeoutSeconds;
+
+    private TransactionTemplate readTransaction;
+    private RefreshQueue<Boolean> refreshQueue;
+    private volatile PriceTable table;
+    private long nextVersion = 1;
+
+    @PostConstruct
+    void init() {
+        // Rejoint la transaction appelante s'il y en a une (aucune seconde connexion)
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        // Une seule clé : les demandes en attente donnent une seule recompilation
+        refreshQueue = new RefreshQueue<>("price-table", requests -> rebuild());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        refreshQueue.close(shutdownTimeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${pricing.table.refresh-interval-ms:300000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    // ========== Calcul ==========
+
+    /**
+     * Grille courante, compilée au premier appel si nécessaire
+     */
+    public PriceTable current() {
+        PriceTable current = table;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * Prix d'un article en centimes : prix déjà fixé s'il est positif, sinon
+     * calculé selon ses services
+     */
+    public long articleCents(PriceTable table, Article article) {
+        if (article.getPrice() != null && article.getPrice().signum() > 0) {
+            return PriceTable.toCents(article.getPrice());
+        }
+        return table.articleCents(article);
+    }
+
+    // ========== Compilation ==========
+
+    /**
+     * Demande une recompilation après le commit de la transaction courante
+     * (une seule par transaction)
+     */
+    void onServiceChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refreshQueue.submit(Set.of(Boolean.TRUE));
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PricingEngine.this);
+            }
+        });
+    }
+
+    // Sérialisé : une compilation plus récente lit toujours des données plus récentes
+    private synchronized PriceTable rebuild() {
+        try {
+            PriceTable compiled = readTransaction.execute(status ->
+                    PriceTable.compile(nextVersion, laundryServiceRepository.findAll()));
+            nextVersion++;
+            table = compiled;
+            log.info("Grille tarifaire v{} compilée: {} services", compiled.version(), compiled.size());
+            return compiled;
+        } catch (RuntimeException e) {
+            log.error("Compilation de la grille tarifaire impossible: {}", e.getMessage());
+            if (table == null) {
+                throw e;
+            }
+            // Grille précédente conservée jusqu'à la prochaine compilation réussie ;
+            // seuls les services créés depuis sont calculés depuis l'entité
+            return table;
+        }
+    }
+}
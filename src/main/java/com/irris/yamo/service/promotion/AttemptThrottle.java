@@ -0,0 +1,79 @@
+package com.irris.yamo.service.promotion;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compte les échecs par client sur une fenêtre fixe. Au-delà de maxFailures
+ * échecs dans la fenêtre, le client est bloqué jusqu'à la fin de celle-ci.
+ */
+final class AttemptThrottle {
+
+    private final int maxFailures;
+    private final long windowNanos;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private static final class Window {
+        final long start;
+        int failures;
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+
+    AttemptThrottle(int maxFailures, long windowNanos) {
+        if (maxFailures <= 0 || windowNanos <= 0) {
+            throw new IllegalArgumentException("Nombre d'échecs et fenêtre doivent être positifs");
+        }
+        this.maxFailures = maxFailures;
+        this.windowNanos = windowNanos;
+    }
+
+    /**
+     * Nanosecondes avant la fin du blocage du client, 0 s'il n'est pas bloqué
+     */
+    long blockedFor(String client, long now) {
+        Window window = windows.get(client);
+        if (window == null) {
+            return 0;
+        }
+        synchronized (window) {
+            long remaining = window.start + windowNanos - now;
+            return remaining > 0 && window.failures >= maxFailures ? remaining : 0;
+        }
+    }
+
+    void recordFailure(String client, long now) {
+        windows.compute(client, (key, window) -> {
+            if (window == null || now - window.start >= windowNanos) {
+                window = new Window(now);
+            }
+            synchronized (window) {
+                window.failures++;
+            }
+            return window;
+        });
+    }
+
+    /**
+     * Retire les fenêtres expirées
+     */
+    void purge(long now) {
+        windows.values().removeIf(window -> now - window.start >= windowNanos);
+    }
+
+    int size() {
+        return windows.size();
+    }
+
+    int blockedCount(long now) {
+        int blocked = 0;
+        for (String client : windows.keySet()) {
+            if (blockedFor(client, now) > 0) {
+                blocked++;
+            }
+        }
+        return blocked;
+    }
+}
@@ -0,0 +1,54 @@
+package com.irris.yamo.service.promotion;
+
+import com.irris.yamo.entities.Customer;
+import com.irris.yamo.entities.Order;
+import com.irris.yamo.entities.UserYamo;
+import com.irris.yamo.entities.enums.CustomerSegment;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Faits client d'une évaluation. Le nombre de commandes n'est demandé à la
+ * base qu'à la première règle qui en a besoin, puis réutilisé.
+ */
+public final class CustomerFacts {
+
+    private final Long customerId;
+    private final boolean vip;
+    private final LongSupplier previousOrderCount;
+    private long previousOrders = -1;
+
+    CustomerFacts(Long customerId, boolean vip, LongSupplier previousOrderCount) {
+        this.customerId = customerId;
+        this.vip = vip;
+        this.previousOrderCount = previousOrderCount;
+    }
+
+    /**
+     * @param orderCount nombre total de commandes du client, la commande évaluée comprise si elle est enregistrée
+     */
+    static CustomerFacts of(Order order, LongSupplier orderCount) {
+        UserYamo customer = order.getCustomer();
+        if (customer == null) {
+            return new CustomerFacts(null, false, () -> 0);
+        }
+        boolean vip = customer instanceof Customer c && CustomerSegment.VIP.equals(c.getCustomerSegment());
+        long current = order.getId() != null ? 1 : 0;
+        return new CustomerFacts(customer.getId(), vip, () -> Math.max(orderCount.getAsLong() - current, 0));
+    }
+
+    public Long customerId() {
+        return customerId;
+    }
+
+    public boolean vip() {
+        return vip;
+    }
+
+    public boolean newCustomer() {
+        if (previousOrders < 0) {
+            previousOrders = previousOrderCount.getAsLong();
+        }
+        return previousOrders == 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.irris.yamo.service.promotion;
+
+/**
+ * Utilisations d'une promotion par client (validées + réservées), réparties
+ * en segments verrouillés séparément selon l'id client
+ */
+final class CustomerUsage {
+
+    private static final int SEGMENTS = 16;
+
+    private final LongIntMap[] segments = new LongIntMap[SEGMENTS];
+
+    CustomerUsage(int expectedCustomers) {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new LongIntMap(expectedCustomers / SEGMENTS);
+        }
+    }
+
+    /**
+     * Réserve une utilisation si le client n'a pas atteint la limite
+     */
+    boolean tryAcquire(long customerId, int limit) {
+        LongIntMap segment = segment(customerId);
+        synchronized (segment) {
+            if (segment.get(customerId) >= limit) {
+                return false;
+            }
+            segment.add(customerId, 1);
+            return true;
+        }
+    }
+
+    void release(long customerId) {
+        LongIntMap segment = segment(customerId);
+        synchronized (segment) {
+            if (segment.get(customerId) > 0) {
+                segment.add(customerId, -1);
+            }
+        }
+    }
+
+    void load(long customerId, int count) {
+        LongIntMap segment = segment(customerId);
+        synchronized (segment) {
+            segment.add(customerId, count);
+        }
+    }
+
+    int get(long customerId) {
+        LongIntMap segment = segment(customerId);
+        synchronized (segment) {
+            return segment.get(customerId);
+        }
+    }
+
+    private LongIntMap segment(long customerId) {
+        return segments[(int) (customerId ^ (customerId >>> 32)) & (SEGMENTS - 1)];
+    }
+}
@@ -0,0 +1,37 @@
+package com.irris.yamo.service.promotion;
+
+import com.irris.yamo.entities.Article;
+import com.irris.yamo.entities.LaundryService;
+import com.irris.yamo.entities.Order;
+import com.irris.yamo.service.pricing.PriceTable;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Caractéristiques d'une commande utiles à la sélection des promotions,
+ * extraites une seule fois par évaluation
+ */
+public record OrderFacts(long amountCents, int itemCount, Set<Long> serviceIds, Set<Long> categoryIds) {
+
+    public static OrderFacts of(Order order, BigDecimal amount) {
+        Set<Long> services = new HashSet<>();
+        Set<Long> categories = new HashSet<>();
+        int items = 0;
+        if (order.getArticles() != null) {
+            items = order.getArticles().size();
+            for (Article article : order.getArticles()) {
+                if (article.getCategory() != null) {
+                    categories.add(article.getCategory().getId());
+                }
+                if (article.getLaundryServices() != null) {
+                    for (LaundryService service : article.getLaundryServices()) {
+                        services.add(service.getId());
+                    }
+                }
+            }
+        }
+        return new OrderFacts(PriceTable.toCents(amount), items, services, categories);
+    }
+}
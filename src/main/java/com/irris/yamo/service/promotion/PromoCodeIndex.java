@@ -0,0 +1,219 @@
+package com.irris.yamo.service.promotion;
+
+import com.irris.yamo.exception.InvalidOperationException;
+import com.irris.yamo.repositories.PromotionRepository;
+import com.irris.yamo.repositories.projection.PromoCodeEntry;
+import com.irris.yamo.service.cache.RefreshQueue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Index en mémoire des codes promo : code -> id de promotion.
+ *
+ * L'index contient tous les codes existants ; un code inconnu est donc
+ * refusé sans requête. Chaque code inconnu compte comme un échec pour le
+ * client, qui est bloqué après promotions.codes.max-failures échecs dans la
+ * fenêtre. Les promotions modifiées sont relues après le commit de leur
+ * transaction, par un thread de fond, et l'index est rechargé périodiquement
+ * (écritures hors JPA).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PromoCodeIndex {
+
+    private final PromotionRepository promotionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${promotions.codes.max-failures:10}")
+    private int maxFailures;
+
+    @Value("${promotions.codes.failure-window-seconds:300}")
+    private long failureWindowSeconds;
+
+    @Value("${promotions.codes.shutdown-timeout-seconds:5}")
+    private long shutdownTimeoutSeconds;
+
+    private TransactionTemplate readTransaction;
+    private RefreshQueue<Long> refreshQueue;
+    private AttemptThrottle throttle;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile LocalDateTime loadedAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    /**
+     * Version immuable de l'index, remplacée d'un bloc
+     */
+    private record Snapshot(Map<String, Long> byCode, Map<Long, String> byId) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of());
+    }
+
+    @PostConstruct
+    void init() {
+        // Rejoint la transaction appelante s'il y en a une (aucune seconde connexion)
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        refreshQueue = new RefreshQueue<>("promo-codes", this::reload);
+        throttle = new AttemptThrottle(maxFailures, TimeUnit.SECONDS.toNanos(failureWindowSeconds));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        refreshQueue.close(shutdownTimeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    // ========== Recherche ==========
+
+    /**
+     * Id de la promotion portant ce code
+     *
+     * @param userId utilisateur authentifié, dont les essais sont limités
+     *               quel que soit le point d'entrée ; null si anonyme
+     * @throws InvalidOperationException si le client est bloqué ou si le code est inconnu
+     */
+    public Long resolve(String code, Long userId) {
+        String client = userId != null ? "user-" + userId : "anonymous";
+        long now = System.nanoTime();
+        long blockedFor = throttle.blockedFor(client, now);
+        if (blockedFor > 0) {
+            throttled.increment();
+            throw new InvalidOperationException("Trop de codes promo invalides, réessayez dans "
+                    + Math.max(1, TimeUnit.NANOSECONDS.toSeconds(blockedFor)) + " s");
+        }
+        Long promotionId = code != null ? snapshot.byCode().get(code) : null;
+        if (promotionId == null) {
+            misses.increment();
+            throttle.recordFailure(client, now);
+            throw new InvalidOperationException("Code promo invalide");
+        }
+        hits.increment();
+        return promotionId;
+    }
+
+    public boolean contains(String code) {
+        return code != null && snapshot.byCode().containsKey(code);
+    }
+
+    // ========== Mise à jour ==========
+
+    /**
+     * Relit le code de la promotion après le commit de la transaction courante,
+     * hors du thread appelant
+     */
+    void onPromotionChanged(Long promotionId) {
+        if (promotionId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload(Set.of(promotionId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refreshQueue.submit(Set.of(promotionId));
+            }
+        });
+    }
+
+    private void reload(Set<Long> promotionIds) {
+        try {
+            Map<Long, String> codes = readTransaction.execute(status -> {
+                // Valeur null : promotion supprimée ou sans code
+                Map<Long, String> found = new HashMap<>();
+                for (Long promotionId : promotionIds) {
+                    found.put(promotionId, promotionRepository.findPromoCodeById(promotionId).orElse(null));
+                }
+                return found;
+            });
+            if (codes != null) {
+                codes.forEach(this::update);
+            }
+        } catch (RuntimeException e) {
+            // Corrigé au prochain rechargement complet
+            log.warn("Codes promo des promotions {} non relus: {}", promotionIds, e.getMessage());
+        }
+    }
+
+    private synchronized void update(Long promotionId, String code) {
+        Snapshot current = snapshot;
+        String previous = current.byId().get(promotionId);
+        if (code == null ? previous == null : code.equals(previous)) {
+            return;
+        }
+        Map<String, Long> byCode = new HashMap<>(current.byCode());
+        Map<Long, String> byId = new HashMap<>(current.byId());
+        if (previous != null) {
+            byCode.remove(previous, promotionId);
+            byId.remove(promotionId);
+        }
+        if (code != null) {
+            byCode.put(code, promotionId);
+            byId.put(promotionId, code);
+        }
+        snapshot = new Snapshot(Map.copyOf(byCode), Map.copyOf(byId));
+    }
+
+    @Scheduled(fixedDelayString = "${promotions.codes.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        List<PromoCodeEntry> entries = readTransaction.execute(status -> promotionRepository.findPromoCodeEntries());
+        Map<String, Long> byCode = new HashMap<>();
+        Map<Long, String> byId = new HashMap<>();
+        if (entries != null) {
+            for (PromoCodeEntry entry : entries) {
+                byCode.put(entry.promoCode(), entry.id());
+                byId.put(entry.id(), entry.promoCode());
+            }
+        }
+        snapshot = new Snapshot(Map.copyOf(byCode), Map.copyOf(byId));
+        loadedAt = LocalDateTime.now();
+        log.debug("Index des codes promo chargé: {} code(s)", byCode.size());
+    }
+
+    @Scheduled(fixedDelayString = "${promotions.codes.purge-interval-ms:60000}")
+    public void purgeAttempts() {
+        throttle.purge(System.nanoTime());
+    }
+
+    // ========== Consultation ==========
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("codes", snapshot.byCode().size());
+        stats.put("loadedAt", loadedAt);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("throttled", throttled.sum());
+        stats.put("trackedClients", throttle.size());
+        stats.put("blockedClients", throttle.blockedCount(System.nanoTime()));
+        return stats;
+    }
+}
@@ -0,0 +1,31 @@
+package com.irris.yamo.service.promotion;
+
+import com.irris.yamo.entities.Promotion;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA qui signale les promotions modifiées à l'index des règles, aux
+ * compteurs d'utilisation et à l'index des codes promo
+ */
+@Component
+@RequiredArgsConstructor
+public class PromotionChangeListener {
+
+    private final ObjectProvider<PromotionRuleEngine> ruleEngine;
+    private final ObjectProvider<PromotionUsageCounters> usageCounters;
+    private final ObjectProvider<PromoCodeIndex> promoCodeIndex;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Promotion promotion) {
+        ruleEngine.getObject().onPromotionChanged(promotion.getId());
+        usageCounters.getObject().onPromotionChanged(promotion.getId());
+        promoCodeIndex.getObject().onPromotionChanged(promotion.getId());
+    }
+}
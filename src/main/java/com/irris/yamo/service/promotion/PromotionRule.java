@@ -0,0 +1,73 @@
+package com.irris.yamo.service.promotion;
+
+import com.irris.yamo.entities.ArticleCategory;
+import com.irris.yamo.entities.LaundryService;
+import com.irris.yamo.entities.Promotion;
+import com.irris.yamo.entities.UserYamo;
+import com.irris.yamo.entities.enums.PromotionTarget;
+import com.irris.yamo.service.pricing.PriceTable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Conditions d'application d'une promotion automatique, figées au moment de
+ * l'indexation. Le compteur d'utilisation n'en fait pas partie : il est
+ * vérifié sur la promotion elle-même au moment de l'application.
+ *
+ * @param minimumOrderCents   0 si aucun montant minimum
+ * @param serviceIds          non vide : au moins un article avec l'un de ces services
+ * @param categoryIds         non vide : au moins un article de l'une de ces catégories
+ * @param eligibleCustomerIds non vide : réservée à ces clients
+ */
+public record PromotionRule(long id, int priority, LocalDateTime startDate, LocalDateTime endDate,
+                            long minimumOrderCents, int minimumItems, boolean newCustomersOnly, boolean vipOnly,
+                            Set<Long> serviceIds, Set<Long> categoryIds, Set<Long> eligibleCustomerIds) {
+
+    /**
+     * Règle d'une promotion automatique active, vide sinon (à lire en transaction)
+     */
+    public static PromotionRule of(Promotion promotion) {
+        PromotionTarget target = promotion.getTarget() != null ? promotion.getTarget() : PromotionTarget.ALL_ORDERS;
+        return new PromotionRule(
+                promotion.getId(),
+                promotion.getPriority() != null ? promotion.getPriority() : 0,
+                promotion.getStartDate(),
+                promotion.getEndDate(),
+                Math.max(PriceTable.toCents(promotion.getMinimumOrderAmount()), 0),
+                promotion.getMinimumItems() != null ? promotion.getMinimumItems() : 0,
+                Boolean.TRUE.equals(promotion.getIsForNewCustomersOnly()) || target == PromotionTarget.FIRST_ORDER,
+                Boolean.TRUE.equals(promotion.getIsForVipCustomersOnly()),
+                target == PromotionTarget.SPECIFIC_SERVICE
+                        ? ids(promotion.getApplicableServices(), LaundryService::getId) : Set.of(),
+                target == PromotionTarget.SPECIFIC_CATEGORY
+                        ? ids(promotion.getApplicableCategories(), ArticleCategory::getId) : Set.of(),
+                ids(promotion.getEligibleCustomers(), UserYamo::getId));
+    }
+
+    public static boolean indexable(Promotion promotion) {
+        return Boolean.TRUE.equals(promotion.getIsActive()) && Boolean.TRUE.equals(promotion.getAutoApply());
+    }
+
+    /**
+     * Même règle que Promotion.isValid() pour la période
+     */
+    boolean activeAt(LocalDateTime now) {
+        return (startDate == null || now.isAfter(startDate)) && (endDate == null || now.isBefore(endDate));
+    }
+
+    boolean eligible(Long customerId) {
+        return eligibleCustomerIds.isEmpty() || eligibleCustomerIds.contains(customerId);
+    }
+
+    private static <T> Set<Long> ids(Collection<T> entities, Function<T, Long> id) {
+        if (entities == null || entities.isEmpty()) {
+            return Set.of();
+        }
+        return entities.stream().map(id).filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,234 @@
+package com.irris.yamo.service.promotion;
+
+import com.irris.yamo.entities.Order;
+import com.irris.yamo.entities.Promotion;
+import com.irris.yamo.repositories.OrderRepository;
+import com.irris.yamo.repositories.PromotionRepository;
+import com.irris.yamo.service.cache.RefreshQueue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sélection des promotions automatiques applicables à une commande.
+ *
+ * Les règles sont tenues en mémoire dans un {@link PromotionRuleIndex}. Les
+ * promotions modifiées par une transaction sont relues après son commit, par
+ * un thread de fond ; une nouvelle version de l'index n'est publiée que si
+ * leurs règles ont changé (un simple incrément du compteur d'utilisation ne la
+ * remplace pas). Une relecture complète périodique rattrape les relectures
+ * échouées et les changements faits sur une autre instance ou en SQL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PromotionRuleEngine {
+
+    private final PromotionRepository promotionRepository;
+    private final OrderRepository orderRepository;
+    private final PromotionUsageCounters usageCounters;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${promotions.rules.shutdown-timeout-seconds:5}")
+    private long shutdownTimeoutSeconds;
+
+    private TransactionTemplate readTransaction;
+    private RefreshQueue<Long> refreshQueue;
+    private volatile PromotionRuleIndex index;
+    private long nextVersion = 1;
+
+    @PostConstruct
+    void init() {
+        // Rejoint la transaction appelante s'il y en a une (aucune seconde connexion)
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        refreshQueue = new RefreshQueue<>("promotion-rules", this::refresh);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        refreshQueue.close(shutdownTimeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Relecture complète : ne publie une nouvelle version que si des règles ont changé
+     */
+    @Scheduled(fixedDelayString = "${promotions.rules.refresh-interval-ms:300000}")
+    public synchronized void reload() {
+        PromotionRuleIndex current = index;
+        if (current == null) {
+            rebuild();
+            return;
+        }
+        try {
+            List<PromotionRule> rules = readTransaction.execute(status ->
+                    promotionRepository.findByIsActiveTrueAndAutoApplyTrue().stream().map(PromotionRule::of).toList());
+            Map<Long, PromotionRule> loaded = new HashMap<>();
+            if (rules != null) {
+                rules.forEach(rule -> loaded.put(rule.id(), rule));
+            }
+            Map<Long, PromotionRule> changes = new HashMap<>();
+            loaded.forEach((id, rule) -> {
+                if (!rule.equals(current.rule(id))) {
+                    changes.put(id, rule);
+                }
+            });
+            for (Long id : current.ids()) {
+                if (!loaded.containsKey(id)) {
+                    changes.put(id, null);
+                }
+            }
+            publish(current, changes);
+        } catch (RuntimeException e) {
+            log.error("Relecture complète des promotions impossible: {}", e.getMessage());
+        }
+    }
+
+    // ========== Évaluation ==========
+
+    /**
+     * Promotions automatiques applicables, par priorité décroissante. Seules les
+     * candidates retenues par l'index sont chargées, puis revérifiées (période
+     * en base, limite d'utilisation globale sur les compteurs).
+     *
+     * @param amount montant de référence pour les minimums de commande
+     */
+    public List<Promotion> applicablePromotions(Order order, BigDecimal amount) {
+        LocalDateTime now = LocalDateTime.now();
+        CustomerFacts customer = CustomerFacts.of(order,
+                () -> orderRepository.countByCustomer(order.getCustomer()));
+        List<PromotionRule> candidates = current().candidates(OrderFacts.of(order, amount), customer, now);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            rank.put(candidates.get(i).id(), i);
+        }
+        return promotionRepository.findAllById(rank.keySet()).stream()
+                .filter(promotion -> promotion.isValid() && !usageCounters.exhausted(promotion))
+                .sorted(Comparator.comparing(promotion -> rank.get(promotion.getId())))
+                .toList();
+    }
+
+    PromotionRuleIndex current() {
+        PromotionRuleIndex current = index;
+        return current != null ? current : rebuild();
+    }
+
+    // ========== Mise à jour ==========
+
+    /**
+     * Relit la promotion après le commit de la transaction courante, hors du
+     * thread appelant
+     */
+    void onPromotionChanged(Long promotionId) {
+        if (promotionId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(Set.of(promotionId));
+            return;
+        }
+        pending().add(promotionId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> pending() {
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> created = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshQueue.submit(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PromotionRuleEngine.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    // Sérialisé : une version plus récente part toujours de la précédente
+    private synchronized void refresh(Set<Long> promotionIds) {
+        PromotionRuleIndex current = index;
+        if (current == null) {
+            rebuild();
+            return;
+        }
+        try {
+            Map<Long, PromotionRule> changes = readTransaction.execute(status -> {
+                Map<Long, PromotionRule> changed = new HashMap<>();
+                Map<Long, Promotion> found = new HashMap<>();
+                promotionRepository.findAllById(promotionIds).forEach(p -> found.put(p.getId(), p));
+                for (Long id : promotionIds) {
+                    Promotion promotion = found.get(id);
+                    PromotionRule rule = promotion != null && PromotionRule.indexable(promotion)
+                            ? PromotionRule.of(promotion) : null;
+                    if (!Objects.equals(rule, current.rule(id))) {
+                        changed.put(id, rule);
+                    }
+                }
+                return changed;
+            });
+            if (changes != null) {
+                publish(current, changes);
+            }
+        } catch (RuntimeException e) {
+            // Index conservé jusqu'à la prochaine relecture complète ; les candidates sont revérifiées en base
+            log.error("Mise à jour de l'index des promotions {} impossible: {}", promotionIds, e.getMessage());
+        }
+    }
+
+    private void publish(PromotionRuleIndex current, Map<Long, PromotionRule> changes) {
+        if (!changes.isEmpty()) {
+            index = current.with(nextVersion++, changes);
+            log.info("Index des promotions v{}: {} règle(s) modifiée(s)", index.version(), changes.size());
+        }
+    }
+
+    private synchronized PromotionRuleIndex rebuild() {
+        if (index != null) {
+            return index;
+        }
+        PromotionRuleIndex built = readTransaction.execute(status -> PromotionRuleIndex.build(nextVersion,
+                promotionRepository.findByIsActiveTrueAndAutoApplyTrue().stream().map(PromotionRule::of).toList()));
+        nextVersion++;
+        index = built;
+        log.info("Index des promotions v{} construit: {} règles", built.version(), built.size());
+        return built;
+    }
+}
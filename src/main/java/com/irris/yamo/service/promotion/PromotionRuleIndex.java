@@ -0,0 +1,205 @@
+package com.irris.yamo.service.promotion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index immuable des promotions automatiques.
+ *
+ * Les règles sont réparties par cible (toutes commandes, service, catégorie)
+ * et par segment (ouvertes à tous ou réservées aux VIP). Dans chaque groupe
+ * elles sont triées par montant minimum croissant : une commande ne parcourt
+ * que les groupes de ses services et catégories, et dans chacun seulement les
+ * règles dont le minimum est atteint.
+ */
+public final class PromotionRuleIndex {
+
+    static final Comparator<PromotionRule> BY_PRIORITY =
+            Comparator.comparingInt(PromotionRule::priority).reversed().thenComparingLong(PromotionRule::id);
+
+    private final long version;
+    private final Map<Long, PromotionRule> rules;
+    private final Partition open;
+    private final Partition vipOnly;
+
+    private PromotionRuleIndex(long version, Map<Long, PromotionRule> rules) {
+        this.version = version;
+        this.rules = rules;
+        List<PromotionRule> openRules = new ArrayList<>();
+        List<PromotionRule> vipRules = new ArrayList<>();
+        for (PromotionRule rule : rules.values()) {
+            (rule.vipOnly() ? vipRules : openRules).add(rule);
+        }
+        this.open = new Partition(openRules);
+        this.vipOnly = new Partition(vipRules);
+    }
+
+    public static PromotionRuleIndex build(long version, Collection<PromotionRule> rules) {
+        Map<Long, PromotionRule> byId = new HashMap<>();
+        for (PromotionRule rule : rules) {
+            byId.put(rule.id(), rule);
+        }
+        return new PromotionRuleIndex(version, Map.copyOf(byId));
+    }
+
+    /**
+     * Nouvelle version où les règles données remplacent les anciennes ; un id
+     * associé à null retire la règle
+     */
+    public PromotionRuleIndex with(long version, Map<Long, PromotionRule> changes) {
+        Map<Long, PromotionRule> updated = new HashMap<>(rules);
+        changes.forEach((id, rule) -> {
+            if (rule == null) {
+                updated.remove(id);
+            } else {
+                updated.put(id, rule);
+            }
+        });
+        return new PromotionRuleIndex(version, Map.copyOf(updated));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    public PromotionRule rule(long id) {
+        return rules.get(id);
+    }
+
+    public Set<Long> ids() {
+        return rules.keySet();
+    }
+
+    // ========== Évaluation ==========
+
+    /**
+     * Règles satisfaites par la commande, par priorité décroissante
+     */
+    public List<PromotionRule> candidates(OrderFacts order, CustomerFacts customer, LocalDateTime now) {
+        // Une règle peut figurer dans plusieurs groupes (plusieurs services de la commande)
+        Set<PromotionRule> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        open.collect(order, customer, now, matched);
+        if (customer.vip()) {
+            vipOnly.collect(order, customer, now, matched);
+        }
+        List<PromotionRule> result = new ArrayList<>(matched);
+        result.sort(BY_PRIORITY);
+        return result;
+    }
+
+    /**
+     * Règles d'un segment, réparties par cible
+     */
+    private static final class Partition {
+        private final Bucket general;
+        private final Map<Long, Bucket> byService;
+        private final Map<Long, Bucket> byCategory;
+
+        Partition(List<PromotionRule> rules) {
+            List<PromotionRule> general = new ArrayList<>();
+            Map<Long, List<PromotionRule>> byService = new HashMap<>();
+            Map<Long, List<PromotionRule>> byCategory = new HashMap<>();
+            for (PromotionRule rule : rules) {
+                if (!rule.serviceIds().isEmpty()) {
+                    rule.serviceIds().forEach(id -> byService.computeIfAbsent(id, k -> new ArrayList<>()).add(rule));
+                } else if (!rule.categoryIds().isEmpty()) {
+                    rule.categoryIds().forEach(id -> byCategory.computeIfAbsent(id, k -> new ArrayList<>()).add(rule));
+                } else {
+                    general.add(rule);
+                }
+            }
+            this.general = new Bucket(general);
+            this.byService = buckets(byService);
+            this.byCategory = buckets(byCategory);
+        }
+
+        void collect(OrderFacts order, CustomerFacts customer, LocalDateTime now, Set<PromotionRule> matched) {
+            general.collect(order, customer, now, matched);
+            if (!byService.isEmpty()) {
+                for (Long serviceId : order.serviceIds()) {
+                    Bucket bucket = byService.get(serviceId);
+                    if (bucket != null) {
+                        bucket.collect(order, customer, now, matched);
+                    }
+                }
+            }
+            if (!byCategory.isEmpty()) {
+                for (Long categoryId : order.categoryIds()) {
+                    Bucket bucket = byCategory.get(categoryId);
+                    if (bucket != null) {
+                        bucket.collect(order, customer, now, matched);
+                    }
+                }
+            }
+        }
+
+        private static Map<Long, Bucket> buckets(Map<Long, List<PromotionRule>> rules) {
+            Map<Long, Bucket> buckets = new HashMap<>();
+            rules.forEach((id, list) -> buckets.put(id, new Bucket(list)));
+            return Map.copyOf(buckets);
+        }
+    }
+
+    /**
+     * Règles triées par montant minimum croissant
+     */
+    private static final class Bucket {
+        private final PromotionRule[] rules;
+        private final long[] minimums;
+
+        Bucket(List<PromotionRule> rules) {
+            this.rules = rules.stream()
+                    .sorted(Comparator.comparingLong(PromotionRule::minimumOrderCents))
+                    .toArray(PromotionRule[]::new);
+            this.minimums = new long[this.rules.length];
+            for (int i = 0; i < this.rules.length; i++) {
+                minimums[i] = this.rules[i].minimumOrderCents();
+            }
+        }
+
+        void collect(OrderFacts order, CustomerFacts customer, LocalDateTime now, Set<PromotionRule> matched) {
+            int end = upperBound(order.amountCents());
+            for (int i = 0; i < end; i++) {
+                PromotionRule rule = rules[i];
+                if (matched.contains(rule)
+                        || order.itemCount() < rule.minimumItems()
+                        || !rule.activeAt(now)
+                        || !rule.eligible(customer.customerId())) {
+                    continue;
+                }
+                // Seule condition qui interroge la base : évaluée en dernier
+                if (rule.newCustomersOnly() && !customer.newCustomer()) {
+                    continue;
+                }
+                matched.add(rule);
+            }
+        }
+
+        // Nombre de règles dont le minimum est atteint
+        private int upperBound(long amountCents) {
+            int low = 0;
+            int high = minimums.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (minimums[middle] <= amountCents) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.irris.yamo.service.promotion;
+
+import com.irris.yamo.entities.Promotion;
+import com.irris.yamo.repositories.PromotionRepository;
+import com.irris.yamo.repositories.PromotionUsageRepository;
+import com.irris.yamo.repositories.projection.CustomerUsageCount;
+import com.irris.yamo.repositories.projection.PromotionUsageState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compteurs d'utilisation des promotions, en mémoire.
+ *
+ * Une utilisation est d'abord réservée (limite globale et limite par client
+ * vérifiées sans verrou de ligne), puis validée au commit de la transaction
+ * appelante ou libérée en cas de rollback. Les utilisations validées sont
+ * ajoutées périodiquement à promotion.current_usage_count ; l'historique
+ * PromotionUsage, écrit dans la transaction métier, fait foi au chargement.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PromotionUsageCounters {
+
+    private final PromotionRepository promotionRepository;
+    private final PromotionUsageRepository promotionUsageRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${promotions.usage.stripes:0}")
+    private int configuredStripes;
+
+    private int stripes;
+    private TransactionTemplate writeTransaction;
+    private final Map<Long, UsageCounter> counters = new ConcurrentHashMap<>();
+
+    // Promotions modifiées dont les limites sont à relire
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+
+    public enum Outcome {
+        GRANTED,
+        TOTAL_LIMIT_REACHED,
+        CUSTOMER_LIMIT_REACHED
+    }
+
+    /**
+     * Résultat d'une réservation ; validée ou libérée automatiquement à la fin
+     * de la transaction qui l'a obtenue
+     */
+    public record Reservation(Outcome outcome, long promotionId) {
+        public boolean granted() {
+            return outcome == Outcome.GRANTED;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        stripes = configuredStripes > 0 ? configuredStripes : Runtime.getRuntime().availableProcessors();
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    // ========== Réservation ==========
+
+    /**
+     * Réserve une utilisation de la promotion pour le client. Dans une
+     * transaction, la réservation est validée au commit et libérée au rollback ;
+     * hors transaction elle est validée immédiatement.
+     */
+    public Reservation reserve(Promotion promotion, Long customerId) {
+        UsageCounter counter = counter(promotion.getId());
+
+        Integer customerLimit = counter.customerLimit();
+        CustomerUsage customers = customerId != null && customerLimit != null ? customers(counter) : null;
+        if (customers != null && !customers.tryAcquire(customerId, customerLimit)) {
+            return new Reservation(Outcome.CUSTOMER_LIMIT_REACHED, counter.promotionId);
+        }
+        int stripe = counter.tryReserve();
+        if (stripe == -2) {
+            if (customers != null) {
+                customers.release(customerId);
+            }
+            return new Reservation(Outcome.TOTAL_LIMIT_REACHED, counter.promotionId);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        counter.commit();
+                    } else {
+                        counter.release(stripe);
+                        if (customers != null) {
+                            customers.release(customerId);
+                        }
+                    }
+                }
+            });
+        } else {
+            counter.commit();
+        }
+        return new Reservation(Outcome.GRANTED, counter.promotionId);
+    }
+
+    /**
+     * Vrai si plus aucune utilisation ne peut être réservée
+     */
+    public boolean exhausted(Promotion promotion) {
+        return counter(promotion.getId()).exhausted();
+    }
+
+    /**
+     * Utilisations (validées ou en cours) du client pour la promotion
+     */
+    public int customerUsage(Promotion promotion, Long customerId) {
+        UsageCounter counter = counter(promotion.getId());
+        return customerId != null ? customers(counter).get(customerId) : 0;
+    }
+
+    // ========== Chargement ==========
+
+    private UsageCounter counter(Long promotionId) {
+        UsageCounter counter = counters.get(promotionId);
+        if (counter != null) {
+            return counter;
+        }
+        // Chargé hors de la map : pas d'accès base sous le verrou de ConcurrentHashMap
+        PromotionUsageState state = promotionRepository.findUsageState(promotionId).orElse(null);
+        UsageCounter loaded = new UsageCounter(promotionId, stripes);
+        if (state != null) {
+            long stored = state.currentUsageCount() != null ? state.currentUsageCount() : 0;
+            long recorded = promotionUsageRepository.countByPromotionId(promotionId);
+            if (recorded > stored) {
+                loaded.recover(recorded - stored);
+            }
+            loaded.applyLimits(state.maxTotalUsage(), state.maxUsagePerCustomer(), stored);
+        }
+        UsageCounter existing = counters.putIfAbsent(promotionId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private CustomerUsage customers(UsageCounter counter) {
+        CustomerUsage customers = counter.customers();
+        if (customers == null) {
+            synchronized (counter) {
+                customers = counter.customers();
+                if (customers == null) {
+                    List<CustomerUsageCount> counts =
+                            promotionUsageRepository.countByCustomerForPromotion(counter.promotionId);
+                    customers = new CustomerUsage(counts.size());
+                    for (CustomerUsageCount count : counts) {
+                        customers.load(count.customerId(), Math.toIntExact(count.count()));
+                    }
+                    counter.customers(customers);
+                }
+            }
+        }
+        return customers;
+    }
+
+    /**
+     * Relit les limites de la promotion après le commit de la transaction courante
+     */
+    void onPromotionChanged(Long promotionId) {
+        if (promotionId == null || !counters.containsKey(promotionId)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stale.add(promotionId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stale.add(promotionId);
+            }
+        });
+    }
+
+    // ========== Écriture en base ==========
+
+    @Scheduled(fixedDelayString = "${promotions.usage.flush-interval-ms:1000}")
+    public void flush() {
+        for (UsageCounter counter : counters.values()) {
+            long delta = counter.unflushed();
+            if (delta <= 0) {
+                continue;
+            }
+            try {
+                Integer updated = writeTransaction.execute(status ->
+                        promotionRepository.addUsage(counter.promotionId, Math.toIntExact(delta)));
+                counter.flushed(delta);
+                if (updated == null || updated == 0) {
+                    // Promotion supprimée
+                    counters.remove(counter.promotionId, counter);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Compteur de la promotion {} non écrit ({} utilisations): {}",
+                        counter.promotionId, delta, e.getMessage());
+            }
+        }
+        reloadStale();
+    }
+
+    private void reloadStale() {
+        if (stale.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(stale);
+        stale.removeAll(ids);
+        for (Long id : ids) {
+            UsageCounter counter = counters.get(id);
+            if (counter == null) {
+                continue;
+            }
+            Optional<PromotionUsageState> state = promotionRepository.findUsageState(id);
+            if (state.isEmpty()) {
+                counters.remove(id, counter);
+                continue;
+            }
+            PromotionUsageState current = state.get();
+            counter.applyLimits(current.maxTotalUsage(), current.maxUsagePerCustomer(),
+                    current.currentUsageCount() != null ? current.currentUsageCount() : 0);
+        }
+    }
+}
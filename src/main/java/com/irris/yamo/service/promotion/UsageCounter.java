@@ -0,0 +1,188 @@
+package com.irris.yamo.service.promotion;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compteur d'utilisation d'une promotion.
+ *
+ * Le solde restant sous maxTotalUsage est réparti entre plusieurs bandes ;
+ * une réservation décrémente une bande tirée au hasard et ne passe aux
+ * suivantes que si elle est vide. Les réservations concurrentes touchent donc
+ * des cases mémoire différentes, et la somme des bandes ne devient jamais
+ * négative : la limite ne peut pas être dépassée.
+ *
+ * Un changement de limite recalcule le solde sous verrou exclusif ; les
+ * libérations, qui rendent une unité à une bande, attendent sa fin. Une
+ * réservation en cours pendant le recalcul peut seulement sous-estimer le
+ * solde, corrigé au changement suivant.
+ */
+final class UsageCounter {
+
+    // Une bande par ligne de cache (8 longs) pour éviter le faux partage
+    private static final int PADDING = 8;
+
+    final long promotionId;
+    private final int stripes;
+    private final AtomicLongArray budget;
+
+    // Réservations ni validées ni libérées
+    private final LongAdder outstanding = new LongAdder();
+    // Utilisations validées depuis le chargement, et part déjà écrite en base
+    private final LongAdder committed = new LongAdder();
+    private long flushed;
+
+    // Lecture : libérations (concurrentes entre elles) ; écriture : changement de limite
+    private final ReadWriteLock limitLock = new ReentrantReadWriteLock();
+
+    private volatile boolean limited;
+    private volatile Integer customerLimit;
+    private volatile CustomerUsage customers;
+    private Integer totalLimit;
+
+    UsageCounter(long promotionId, int stripes) {
+        this.promotionId = promotionId;
+        this.stripes = stripes;
+        this.budget = new AtomicLongArray(stripes * PADDING);
+    }
+
+    // ========== Réservation ==========
+
+    /**
+     * @return la bande débitée, -1 sans limite globale, -2 si la limite est atteinte
+     */
+    int tryReserve() {
+        // Compté avant la lecture du mode : visible par un changement de limite concurrent
+        outstanding.increment();
+        if (!limited) {
+            return -1;
+        }
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int stripe = (start + i) % stripes;
+            int slot = stripe * PADDING;
+            long available = budget.get(slot);
+            while (available > 0) {
+                if (budget.compareAndSet(slot, available, available - 1)) {
+                    return stripe;
+                }
+                available = budget.get(slot);
+            }
+        }
+        outstanding.decrement();
+        return -2;
+    }
+
+    void commit() {
+        committed.increment();
+        outstanding.decrement();
+    }
+
+    void release(int stripe) {
+        if (stripe < 0) {
+            outstanding.decrement();
+            return;
+        }
+        // Unité rendue et réservation retirée ensemble vis-à-vis d'un recalcul du solde
+        limitLock.readLock().lock();
+        try {
+            budget.getAndIncrement(stripe * PADDING);
+            outstanding.decrement();
+        } finally {
+            limitLock.readLock().unlock();
+        }
+    }
+
+    // ========== Limites ==========
+
+    /**
+     * Applique les limites lues en base ; storedUsage est le compteur en base,
+     * qui inclut déjà la part écrite de committed
+     */
+    synchronized void applyLimits(Integer maxTotal, Integer maxPerCustomer, long storedUsage) {
+        customerLimit = maxPerCustomer;
+        if (maxTotal == null) {
+            limited = false;
+            totalLimit = null;
+            return;
+        }
+        if (limited && maxTotal.equals(totalLimit)) {
+            return;
+        }
+        limitLock.writeLock().lock();
+        try {
+            // Bandes vidées avant d'activer la limite : aucune réservation ne peut passer entre les deux
+            drain();
+            limited = true;
+            totalLimit = maxTotal;
+            long remaining = maxTotal - storedUsage - (committed.sum() - flushed) - outstanding.sum();
+            if (remaining > 0) {
+                distribute(remaining);
+            }
+        } finally {
+            limitLock.writeLock().unlock();
+        }
+    }
+
+    private void drain() {
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            budget.getAndSet(stripe * PADDING, 0);
+        }
+    }
+
+    private void distribute(long amount) {
+        long share = amount / stripes;
+        long extra = amount % stripes;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            budget.getAndAdd(stripe * PADDING, share + (stripe < extra ? 1 : 0));
+        }
+    }
+
+    Integer customerLimit() {
+        return customerLimit;
+    }
+
+    CustomerUsage customers() {
+        return customers;
+    }
+
+    void customers(CustomerUsage customers) {
+        this.customers = customers;
+    }
+
+    boolean exhausted() {
+        if (!limited) {
+            return false;
+        }
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (budget.get(stripe * PADDING) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ========== Écriture en base ==========
+
+    /**
+     * Utilisations enregistrées (lignes d'historique) mais absentes du compteur
+     * en base, par exemple après un arrêt avant écriture : comptées comme à écrire
+     */
+    void recover(long missing) {
+        committed.add(missing);
+    }
+
+    /**
+     * Utilisations validées pas encore écrites en base
+     */
+    synchronized long unflushed() {
+        return committed.sum() - flushed;
+    }
+
+    synchronized void flushed(long delta) {
+        flushed += delta;
+    }
+}
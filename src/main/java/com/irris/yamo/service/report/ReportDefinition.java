@@ -0,0 +1,57 @@
+package com.irris.yamo.service.report;
+
+import com.irris.yamo.dtos.creation.ReportJobRequest;
+import com.irris.yamo.exception.InvalidOperationException;
+import com.irris.yamo.service.ReportService;
+import com.irris.yamo.service.pdf.PdfRenderer;
+
+import java.util.function.Supplier;
+
+/**
+ * Demande de rapport validée : clé de déduplication et production du PDF
+ */
+record ReportDefinition(String requestKey, Supplier<PdfRenderer> renderer) {
+
+    static ReportDefinition of(ReportJobRequest request, ReportService reportService) {
+        if (request == null || request.getType() == null) {
+            throw new InvalidOperationException("Le type de rapport est requis");
+        }
+        return switch (request.getType()) {
+            case DAILY_SALES -> {
+                require(request.getDate() != null, "La date est requise");
+                yield new ReportDefinition("DAILY_SALES:" + request.getDate(),
+                        () -> reportService.exportDailyReportPdf(request.getDate()));
+            }
+            case MONTHLY_SALES -> {
+                require(request.getYear() != null && request.getMonth() != null
+                        && request.getMonth() >= 1 && request.getMonth() <= 12, "Année et mois valides requis");
+                yield new ReportDefinition("MONTHLY_SALES:" + request.getYear() + "-" + request.getMonth(),
+                        () -> reportService.exportMonthlyReportPdf(request.getYear(), request.getMonth()));
+            }
+            case DRIVER_PERFORMANCE -> {
+                requirePeriod(request);
+                require(request.getDriverId() != null, "Le chauffeur est requis");
+                yield new ReportDefinition("DRIVER_PERFORMANCE:" + request.getDriverId() + ":"
+                        + request.getStartDate() + ":" + request.getEndDate(),
+                        () -> reportService.exportDriverReportPdf(
+                                request.getDriverId(), request.getStartDate(), request.getEndDate()));
+            }
+            case ORDER_LIST -> {
+                requirePeriod(request);
+                yield new ReportDefinition("ORDER_LIST:" + request.getStartDate() + ":" + request.getEndDate(),
+                        () -> reportService.generateOrderListPdf(request.getStartDate(), request.getEndDate()));
+            }
+        };
+    }
+
+    private static void requirePeriod(ReportJobRequest request) {
+        require(request.getStartDate() != null && request.getEndDate() != null
+                && !request.getEndDate().isBefore(request.getStartDate()), "Période valide requise");
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new InvalidOperationException(message);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.irris.yamo.service.report;
+
+import com.irris.yamo.service.pdf.PdfRenderer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stockage local des rapports générés. Le fichier est écrit sous un nom
+ * temporaire puis renommé : un téléchargement ne voit jamais un rapport partiel.
+ */
+@Slf4j
+@Component
+public class ReportFileStore {
+
+    private final Path directory;
+
+    public ReportFileStore(@Value("${reports.storage.directory:${java.io.tmpdir}/yamo-reports}") String directory) {
+        this.directory = Path.of(directory);
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible de créer le dossier des rapports: " + directory, e);
+        }
+    }
+
+    /**
+     * Écrit le rapport et retourne sa taille en octets
+     */
+    public long write(String fileName, PdfRenderer renderer) throws IOException {
+        Path target = resolve(fileName);
+        Path temporary = directory.resolve(fileName + ".part");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            renderer.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(target);
+    }
+
+    public boolean exists(String fileName) {
+        return fileName != null && Files.isRegularFile(resolve(fileName));
+    }
+
+    public Path resolve(String fileName) {
+        Path path = directory.resolve(fileName).normalize();
+        if (!path.startsWith(directory)) {
+            throw new IllegalArgumentException("Nom de fichier de rapport invalide: " + fileName);
+        }
+        return path;
+    }
+
+    public void delete(String fileName) {
+        if (fileName == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(resolve(fileName));
+        } catch (IOException e) {
+            log.warn("Suppression du rapport {} impossible: {}", fileName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.irris.yamo.service.report;
+
+import com.irris.yamo.dtos.creation.ReportJobRequest;
+import com.irris.yamo.entities.ReportJob;
+import com.irris.yamo.entities.enums.ReportJobStatus;
+import com.irris.yamo.exception.InvalidOperationException;
+import com.irris.yamo.exception.ResourceNotFoundException;
+import com.irris.yamo.repositories.ReportJobRepository;
+import com.irris.yamo.service.ReportService;
+import com.irris.yamo.service.pdf.PdfRenderer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * File de génération de rapports en arrière-plan.
+ *
+ * Une demande renvoie immédiatement un identifiant de job ; un pool borné de
+ * travailleurs produit le PDF dans le stockage local. Une demande identique à
+ * un job en cours, ou terminé depuis moins de reports.jobs.cache-ttl-minutes,
+ * renvoie ce job au lieu d'en créer un nouveau.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportJobService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportService reportService;
+    private final ReportFileStore fileStore;
+
+    @Value("${reports.jobs.workers:2}")
+    private int workers;
+
+    @Value("${reports.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${reports.jobs.cache-ttl-minutes:60}")
+    private long cacheTtlMinutes;
+
+    @Value("${reports.jobs.retention-hours:24}")
+    private long retentionHours;
+
+    private ThreadPoolExecutor executor;
+
+    // Jobs en attente ou en cours par clé de demande
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        // Jobs interrompus par un redémarrage
+        List<ReportJob> interrupted = reportJobRepository.findByStatusIn(
+                EnumSet.of(ReportJobStatus.PENDING, ReportJobStatus.RUNNING));
+        for (ReportJob job : interrupted) {
+            job.setStatus(ReportJobStatus.FAILED);
+            job.setError("Interrompu par un redémarrage du serveur");
+            job.setCompletedAt(LocalDateTime.now());
+        }
+        reportJobRepository.saveAll(interrupted);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ========== Soumission ==========
+
+    public ReportJob submit(ReportJobRequest request, String requestedBy) {
+        ReportDefinition definition = ReportDefinition.of(request, reportService);
+
+        Optional<ReportJob> cached = reportJobRepository
+                .findFirstByRequestKeyAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+                        definition.requestKey(), ReportJobStatus.COMPLETED,
+                        LocalDateTime.now().minusMinutes(cacheTtlMinutes))
+                .filter(job -> fileStore.exists(job.getFileName()));
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        ReportJob job = new ReportJob();
+        job.setId(UUID.randomUUID().toString());
+
+        // Réserve la clé : un seul job par demande identique en cours
+        String existingId = inFlight.putIfAbsent(definition.requestKey(), job.getId());
+        if (existingId != null) {
+            Optional<ReportJob> existing = reportJobRepository.findById(existingId);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            // Job en cours pas encore enregistré par l'autre appelant
+            return placeholder(existingId, definition);
+        }
+
+        try {
+            job.setType(request.getType());
+            job.setRequestKey(definition.requestKey());
+            job.setStatus(ReportJobStatus.PENDING);
+            job.setRequestedBy(requestedBy);
+            job.setCreatedAt(LocalDateTime.now());
+            job = reportJobRepository.save(job);
+
+            String jobId = job.getId();
+            executor.execute(() -> run(jobId, definition));
+            return job;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(definition.requestKey(), job.getId());
+            reportJobRepository.deleteById(job.getId());
+            throw new InvalidOperationException("Trop de rapports en attente, réessayez plus tard");
+        } catch (RuntimeException e) {
+            inFlight.remove(definition.requestKey(), job.getId());
+            throw e;
+        }
+    }
+
+    private void run(String jobId, ReportDefinition definition) {
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            inFlight.remove(definition.requestKey(), jobId);
+            return;
+        }
+        try {
+            job.setStatus(ReportJobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job = reportJobRepository.save(job);
+
+            String fileName = jobId + ".pdf";
+            PdfRenderer renderer = definition.renderer().get();
+            long size = fileStore.write(fileName, renderer);
+
+            job.setFileName(fileName);
+            job.setFileSize(size);
+            job.setStatus(ReportJobStatus.COMPLETED);
+            log.info("Rapport {} ({}) généré: {} octets", jobId, definition.requestKey(), size);
+        } catch (Exception e) {
+            job.setStatus(ReportJobStatus.FAILED);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.setError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            log.error("Échec du rapport {} ({}): {}", jobId, definition.requestKey(), message, e);
+        } finally {
+            job.setCompletedAt(LocalDateTime.now());
+            reportJobRepository.save(job);
+            inFlight.remove(definition.requestKey(), jobId);
+        }
+    }
+
+    // ========== Consultation ==========
+
+    public ReportJob getJob(String jobId) {
+        return reportJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Rapport non trouvé: " + jobId));
+    }
+
+    /**
+     * Fichier du rapport, uniquement si la génération est terminée
+     */
+    public Path getResultFile(String jobId) {
+        ReportJob job = getJob(jobId);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new InvalidOperationException("Le rapport n'est pas prêt (statut: " + job.getStatus() + ")");
+        }
+        if (!fileStore.exists(job.getFileName())) {
+            throw new ResourceNotFoundException("Le fichier du rapport a expiré: " + jobId);
+        }
+        return fileStore.resolve(job.getFileName());
+    }
+
+    public static Map<String, Object> toMap(ReportJob job) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("jobId", job.getId());
+        map.put("type", job.getType());
+        map.put("status", job.getStatus());
+        map.put("createdAt", job.getCreatedAt());
+        map.put("startedAt", job.getStartedAt());
+        map.put("completedAt", job.getCompletedAt());
+        map.put("fileSize", job.getFileSize());
+        if (job.getError() != null) {
+            map.put("error", job.getError());
+        }
+        return map;
+    }
+
+    // ========== Purge ==========
+
+    @Scheduled(fixedDelayString = "${reports.jobs.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        List<ReportJob> expired = reportJobRepository.findByCreatedAtBefore(
+                LocalDateTime.now().minusHours(retentionHours));
+        expired.removeIf(job -> inFlight.containsValue(job.getId()));
+        for (ReportJob job : expired) {
+            fileStore.delete(job.getFileName());
+        }
+        reportJobRepository.deleteAll(expired);
+        if (!expired.isEmpty()) {
+            log.info("{} rapport(s) expiré(s) supprimé(s)", expired.size());
+        }
+    }
+
+    private ReportJob placeholder(String jobId, ReportDefinition definition) {
+        ReportJob job = new ReportJob();
+        job.setId(jobId);
+        job.setRequestKey(definition.requestKey());
+        job.setStatus(ReportJobStatus.PENDING);
+        return job;
+    }
+}
@@ -0,0 +1,12 @@
+package com.irris.yamo.service.routing;
+
+/**
+ * Résultat d'une répartition multi-chauffeurs.
+ *
+ * @param routes      pour chaque chauffeur, les indices de tâches dans l'ordre de visite
+ * @param unassigned  tâches n'ayant pu être assignées (capacité atteinte)
+ * @param distanceKm  distance totale de toutes les tournées
+ * @param lateMinutes cumul des retards sur les fenêtres horaires
+ */
+public record DispatchPlan(int[][] routes, int[] unassigned, double distanceKm, double lateMinutes) {
+}
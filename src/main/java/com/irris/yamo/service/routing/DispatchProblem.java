@@ -0,0 +1,29 @@
+package com.irris.yamo.service.routing;
+
+/**
+ * Répartition d'une journée de tâches entre plusieurs chauffeurs.
+ *
+ * La matrice contient d'abord les {@code taskCount} tâches, puis les dépôts
+ * (bases) des chauffeurs. Les fenêtres horaires sont indexées comme la matrice
+ * et exprimées en minutes depuis minuit.
+ *
+ * @param driverDepots      index du dépôt de chaque chauffeur, ou {@link RoutingProblem#NO_DEPOT}
+ * @param driverCapacities  nombre maximum de tâches supplémentaires par chauffeur
+ * @param workloadPenaltyKm pénalité (en km) par tâche déjà assignée, pour équilibrer la charge
+ */
+public record DispatchProblem(
+        DistanceMatrix matrix,
+        int taskCount,
+        int[] driverDepots,
+        int[] driverCapacities,
+        int[] earliest,
+        int[] latest,
+        int serviceMinutes,
+        double averageSpeedKmh,
+        double workloadPenaltyKm
+) {
+
+    public int driverCount() {
+        return driverDepots.length;
+    }
+}
@@ -0,0 +1,113 @@
+package com.irris.yamo.service.routing;
+
+import com.irris.yamo.entities.GeoUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Matrice de distances (km) entre points, stockée à plat en ligne par ligne.
+ *
+ * Les points peuvent être identifiés par une clé (id d'adresse) pour retrouver
+ * leur ligne via {@link #indexOf(long)}.
+ */
+public final class DistanceMatrix {
+
+    // Au-delà, les lignes de la matrice sont calculées en parallèle
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private final int size;
+    private final double[] distances;
+    private final Map<Long, Integer> indexByKey;
+
+    public DistanceMatrix(int size, double[] distances) {
+        this(size, distances, null);
+    }
+
+    private DistanceMatrix(int size, double[] distances, long[] keys) {
+        if (distances.length != size * size) {
+            throw new IllegalArgumentException("Matrice de taille invalide: " + distances.length);
+        }
+        this.size = size;
+        this.distances = distances;
+        this.indexByKey = new HashMap<>();
+        if (keys != null) {
+            for (int i = 0; i < keys.length; i++) {
+                indexByKey.put(keys[i], i);
+            }
+        }
+    }
+
+    /**
+     * Construit la matrice à vol d'oiseau (Haversine) à partir des coordonnées en degrés
+     */
+    public static DistanceMatrix fromCoordinates(double[] latitudes, double[] longitudes) {
+        return fromCoordinates(null, latitudes, longitudes);
+    }
+
+    /**
+     * Construit la matrice à vol d'oiseau en associant chaque point à une clé.
+     * Radians et cosinus des latitudes sont précalculés une fois par point.
+     */
+    public static DistanceMatrix fromCoordinates(long[] keys, double[] latitudes, double[] longitudes) {
+        int n = latitudes.length;
+        double[] latRad = new double[n];
+        double[] lonRad = new double[n];
+        double[] cosLat = new double[n];
+        for (int i = 0; i < n; i++) {
+            latRad[i] = Math.toRadians(latitudes[i]);
+            lonRad[i] = Math.toRadians(longitudes[i]);
+            cosLat[i] = Math.cos(latRad[i]);
+        }
+
+        // Chaque ligne i écrit les cases (i, j) et (j, i) pour j > i : pas de recouvrement entre lignes
+        double[] distances = new double[n * n];
+        IntStream rows = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(i -> {
+            for (int j = i + 1; j < n; j++) {
+                double d = GeoUtils.haversineRadians(
+                        latRad[i], lonRad[i], cosLat[i],
+                        latRad[j], lonRad[j], cosLat[j]);
+                distances[i * n + j] = d;
+                distances[j * n + i] = d;
+            }
+        });
+
+        return new DistanceMatrix(n, distances, keys);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double get(int from, int to) {
+        return distances[from * size + to];
+    }
+
+    /**
+     * Index du point associé à la clé, ou -1 s'il est absent
+     */
+    public int indexOf(long key) {
+        Integer index = indexByKey.get(key);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Extrait la sous-matrice des points donnés (dans l'ordre fourni, doublons permis)
+     */
+    public DistanceMatrix subMatrix(int[] points) {
+        int n = points.length;
+        double[] sub = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            int row = points[i] * size;
+            for (int j = 0; j < n; j++) {
+                sub[i * n + j] = distances[row + points[j]];
+            }
+        }
+        return new DistanceMatrix(n, sub);
+    }
+}
@@ -0,0 +1,140 @@
+package com.irris.yamo.service.routing;
+
+import com.irris.yamo.entities.Adresse;
+import com.irris.yamo.entities.GeoUtils;
+import com.irris.yamo.service.cache.ExpiringCache;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matrices de distances partagées par l'optimisation de tournée, les métriques
+ * de tournée et le scoring des chauffeurs.
+ *
+ * Les matrices sont mises en cache par chauffeur, jour et ensemble d'adresses
+ * (une tournée avec et sans le point de départ du chauffeur donne deux
+ * entrées distinctes), les coordonnées précalculées (radians, cosinus) par id
+ * d'adresse. Toute modification d'une
+ * {@link Adresse} invalide les entrées qui la contiennent
+ * (voir {@link com.irris.yamo.service.geo.AddressChangeListener}).
+ */
+@Component
+public class DistanceMatrixService {
+
+    private static final int MAX_CACHED_MATRICES = 512;
+    private static final int MAX_CACHED_POINTS = 4_096;
+    private static final long POINT_TTL_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final Map<RouteKey, DistanceMatrix> matrices = new ConcurrentHashMap<>();
+    // Précalculs par adresse, bornés (LRU) comme les matrices
+    private final ExpiringCache<Long, double[]> pointsByAddress =
+            new ExpiringCache<>(POINT_TTL_MILLIS, MAX_CACHED_POINTS);
+
+    /**
+     * Matrice couvrant les adresses (géolocalisées) d'une tournée, depuis le cache si possible.
+     * Chaque adresse est retrouvée par {@link DistanceMatrix#indexOf(long)} avec son id.
+     */
+    public DistanceMatrix forDriverDay(Long driverId, LocalDate date, Collection<Adresse> addresses) {
+        Map<Long, Adresse> distinct = distinctLocated(addresses);
+        RouteKey key = new RouteKey(driverId, date, Set.copyOf(distinct.keySet()));
+        DistanceMatrix cached = matrices.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        DistanceMatrix matrix = toMatrix(distinct);
+        if (matrices.size() >= MAX_CACHED_MATRICES) {
+            evictStaleEntries();
+        }
+        matrices.put(key, matrix);
+        return matrix;
+    }
+
+    /**
+     * Matrice (non mise en cache) couvrant des adresses géolocalisées distinctes
+     */
+    public DistanceMatrix forAddresses(Collection<Adresse> addresses) {
+        return toMatrix(distinctLocated(addresses));
+    }
+
+    private static Map<Long, Adresse> distinctLocated(Collection<Adresse> addresses) {
+        Map<Long, Adresse> distinct = new LinkedHashMap<>();
+        for (Adresse address : addresses) {
+            if (address != null && address.getId() != null && hasCoordinates(address)) {
+                distinct.putIfAbsent(address.getId(), address);
+            }
+        }
+        return distinct;
+    }
+
+    private static DistanceMatrix toMatrix(Map<Long, Adresse> distinct) {
+        int n = distinct.size();
+        long[] keys = new long[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        int i = 0;
+        for (Adresse address : distinct.values()) {
+            keys[i] = address.getId();
+            latitudes[i] = address.getLatitude();
+            longitudes[i] = address.getLongitude();
+            i++;
+        }
+
+        return DistanceMatrix.fromCoordinates(keys, latitudes, longitudes);
+    }
+
+    /**
+     * Distance à vol d'oiseau entre deux adresses, avec précalculs mis en cache par id
+     */
+    public double distance(Adresse from, Adresse to) {
+        if (!hasCoordinates(from) || !hasCoordinates(to)) {
+            return Double.MAX_VALUE;
+        }
+        double[] a = point(from);
+        double[] b = point(to);
+        return GeoUtils.haversineRadians(a[0], a[1], a[2], b[0], b[1], b[2]);
+    }
+
+    /**
+     * Oublie toutes les données calculées à partir de l'adresse
+     */
+    public void invalidateAddress(Long addressId) {
+        if (addressId == null) {
+            return;
+        }
+        pointsByAddress.invalidate(addressId);
+        matrices.values().removeIf(matrix -> matrix.indexOf(addressId) >= 0);
+    }
+
+    private double[] point(Adresse address) {
+        if (address.getId() == null) {
+            return toPoint(address);
+        }
+        return pointsByAddress.get(address.getId(), () -> toPoint(address));
+    }
+
+    private static double[] toPoint(Adresse address) {
+        double latRad = Math.toRadians(address.getLatitude());
+        return new double[]{latRad, Math.toRadians(address.getLongitude()), Math.cos(latRad)};
+    }
+
+    private static boolean hasCoordinates(Adresse address) {
+        return address != null && address.getLatitude() != null && address.getLongitude() != null;
+    }
+
+    private void evictStaleEntries() {
+        LocalDate today = LocalDate.now();
+        matrices.keySet().removeIf(key -> key.date() == null || key.date().isBefore(today));
+        if (matrices.size() >= MAX_CACHED_MATRICES) {
+            matrices.clear();
+        }
+    }
+
+    private record RouteKey(Long driverId, LocalDate date, Set<Long> addressIds) {
+    }
+}
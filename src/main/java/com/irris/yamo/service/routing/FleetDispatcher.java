@@ -0,0 +1,248 @@
+package com.irris.yamo.service.routing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.irris.yamo.service.routing.LocalSearchRouteOptimizer.LATENESS_PENALTY_PER_MINUTE;
+
+/**
+ * Répartition conjointe des tâches d'une journée entre les chauffeurs disponibles.
+ *
+ * Plusieurs constructions par insertion au moindre coût (ordres d'insertion
+ * différents) sont lancées en parallèle sur les cœurs disponibles ; la
+ * meilleure est retenue puis chaque tournée est améliorée par le
+ * {@link RouteOptimizer}. Le coût d'insertion combine la distance ajoutée,
+ * les retards sur fenêtres horaires et une pénalité de charge par tâche déjà
+ * assignée au chauffeur, dans la limite de sa capacité.
+ */
+@Component
+@RequiredArgsConstructor
+public class FleetDispatcher {
+
+    private static final double UNASSIGNED_PENALTY = 1_000_000.0;
+
+    private final RouteOptimizer routeOptimizer;
+
+    @Value("${routing.dispatch.construction-runs:0}") // 0 = nombre de cœurs
+    private int constructionRuns;
+
+    public DispatchPlan dispatch(DispatchProblem problem) {
+        int runs = constructionRuns > 0 ? constructionRuns : Runtime.getRuntime().availableProcessors();
+
+        Construction best = IntStream.range(0, Math.max(runs, 1))
+                .parallel()
+                .mapToObj(seed -> construct(problem, seed))
+                .min(Comparator.comparingDouble(Construction::cost))
+                .orElseThrow();
+
+        int[][] routes = IntStream.range(0, problem.driverCount())
+                .parallel()
+                .mapToObj(k -> improveRoute(problem, k, best.routes()[k]))
+                .toArray(int[][]::new);
+
+        double distance = 0;
+        double late = 0;
+        for (int k = 0; k < routes.length; k++) {
+            if (routes[k].length == 0) {
+                continue;
+            }
+            SubRoute sub = SubRoute.of(problem, k, routes[k]);
+            RoutePlan plan = routeOptimizer.evaluate(sub.problem(), sub.identity());
+            distance += plan.distanceKm();
+            late += plan.lateMinutes();
+        }
+
+        return new DispatchPlan(routes, best.unassigned(), distance, late);
+    }
+
+    // ========== Construction ==========
+
+    private Construction construct(DispatchProblem problem, int seed) {
+        int m = problem.driverCount();
+        int[][] routes = new int[m][];
+        int[] lengths = new int[m];
+        double[] costs = new double[m];
+        for (int k = 0; k < m; k++) {
+            routes[k] = new int[Math.max(problem.driverCapacities()[k], 0)];
+        }
+
+        int[] unassigned = new int[problem.taskCount()];
+        int unassignedCount = 0;
+        int[] buffer = new int[problem.taskCount()];
+
+        for (int task : insertionOrder(problem, seed)) {
+            int bestDriver = -1;
+            int bestPosition = -1;
+            double bestDelta = Double.MAX_VALUE;
+            double bestCost = 0;
+
+            for (int k = 0; k < m; k++) {
+                if (lengths[k] >= routes[k].length) {
+                    continue;
+                }
+                for (int position = 0; position <= lengths[k]; position++) {
+                    insert(routes[k], lengths[k], task, position, buffer);
+                    double cost = routeCost(problem, problem.driverDepots()[k], buffer, lengths[k] + 1);
+                    double delta = cost - costs[k] + problem.workloadPenaltyKm() * lengths[k];
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestDriver = k;
+                        bestPosition = position;
+                        bestCost = cost;
+                    }
+                }
+            }
+
+            if (bestDriver < 0) {
+                unassigned[unassignedCount++] = task;
+                continue;
+            }
+
+            insert(routes[bestDriver], lengths[bestDriver], task, bestPosition, buffer);
+            System.arraycopy(buffer, 0, routes[bestDriver], 0, lengths[bestDriver] + 1);
+            lengths[bestDriver]++;
+            costs[bestDriver] = bestCost;
+        }
+
+        double total = unassignedCount * UNASSIGNED_PENALTY;
+        for (int k = 0; k < m; k++) {
+            routes[k] = Arrays.copyOf(routes[k], lengths[k]);
+            total += costs[k] + problem.workloadPenaltyKm() * lengths[k] * (lengths[k] - 1) / 2.0;
+        }
+
+        return new Construction(routes, Arrays.copyOf(unassigned, unassignedCount), total);
+    }
+
+    /**
+     * Ordre d'insertion propre à chaque construction : fermeture de fenêtre,
+     * ouverture de fenêtre, puis ordres aléatoires reproductibles
+     */
+    private int[] insertionOrder(DispatchProblem problem, int seed) {
+        int[] earliest = problem.earliest();
+        int[] latest = problem.latest();
+        IntStream tasks = IntStream.range(0, problem.taskCount());
+
+        return switch (seed) {
+            case 0 -> tasks.boxed()
+                    .sorted(Comparator.<Integer>comparingInt(t -> latest[t]).thenComparingInt(t -> earliest[t]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            case 1 -> tasks.boxed()
+                    .sorted(Comparator.<Integer>comparingInt(t -> earliest[t]).thenComparingInt(t -> latest[t]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            default -> {
+                int[] order = tasks.toArray();
+                Random random = new Random(seed);
+                for (int i = order.length - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                }
+                yield order;
+            }
+        };
+    }
+
+    private static void insert(int[] route, int length, int task, int position, int[] target) {
+        System.arraycopy(route, 0, target, 0, position);
+        target[position] = task;
+        System.arraycopy(route, position, target, position + 1, length - position);
+    }
+
+    /**
+     * Coût d'une tournée (distance + retards pénalisés), départ à l'ouverture
+     * de la première fenêtre de ses tâches
+     */
+    private static double routeCost(DispatchProblem problem, int depot, int[] route, int length) {
+        DistanceMatrix matrix = problem.matrix();
+        int[] earliest = problem.earliest();
+        int[] latest = problem.latest();
+        double minutesPerKm = 60.0 / problem.averageSpeedKmh();
+
+        double time = Double.MAX_VALUE;
+        for (int i = 0; i < length; i++) {
+            time = Math.min(time, earliest[route[i]]);
+        }
+
+        double distance = 0;
+        double late = 0;
+        int previous = depot;
+        for (int i = 0; i < length; i++) {
+            int stop = route[i];
+            if (previous != RoutingProblem.NO_DEPOT) {
+                double d = matrix.get(previous, stop);
+                distance += d;
+                time += d * minutesPerKm;
+            }
+            if (time < earliest[stop]) {
+                time = earliest[stop];
+            } else if (time > latest[stop]) {
+                late += time - latest[stop];
+            }
+            time += problem.serviceMinutes();
+            previous = stop;
+        }
+
+        return distance + LATENESS_PENALTY_PER_MINUTE * late;
+    }
+
+    // ========== Amélioration ==========
+
+    private int[] improveRoute(DispatchProblem problem, int driver, int[] route) {
+        if (route.length <= 2) {
+            return route;
+        }
+        SubRoute sub = SubRoute.of(problem, driver, route);
+        // Part de la tournée d'insertion : le résultat n'est jamais plus coûteux
+        RoutePlan plan = routeOptimizer.improve(sub.problem(), sub.identity());
+
+        int[] improved = new int[route.length];
+        for (int i = 0; i < route.length; i++) {
+            improved[i] = route[plan.sequence()[i]];
+        }
+        return improved;
+    }
+
+    private record Construction(int[][] routes, int[] unassigned, double cost) {
+    }
+
+    /**
+     * Tournée d'un chauffeur exprimée comme un {@link RoutingProblem} indépendant :
+     * les tâches sont réindexées de 0 à n-1, le dépôt éventuel vaut n.
+     */
+    private record SubRoute(RoutingProblem problem, int[] identity) {
+
+        static SubRoute of(DispatchProblem problem, int driver, int[] route) {
+            int depot = problem.driverDepots()[driver];
+            int n = route.length;
+            int[] points = Arrays.copyOf(route, depot != RoutingProblem.NO_DEPOT ? n + 1 : n);
+            if (depot != RoutingProblem.NO_DEPOT) {
+                points[n] = depot;
+            }
+
+            int[] earliest = new int[points.length];
+            int[] latest = new int[points.length];
+            for (int i = 0; i < points.length; i++) {
+                earliest[i] = problem.earliest()[points[i]];
+                latest[i] = problem.latest()[points[i]];
+            }
+
+            RoutingProblem sub = new RoutingProblem(
+                    problem.matrix().subMatrix(points),
+                    depot != RoutingProblem.NO_DEPOT ? n : RoutingProblem.NO_DEPOT,
+                    earliest,
+                    latest,
+                    problem.serviceMinutes(),
+                    problem.averageSpeedKmh());
+            return new SubRoute(sub, IntStream.range(0, n).toArray());
+        }
+    }
+}
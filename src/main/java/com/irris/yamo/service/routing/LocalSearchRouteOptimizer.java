@@ -0,0 +1,267 @@
+package com.irris.yamo.service.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Optimiseur de tournée par recherche locale (VRPTW à un véhicule).
+ *
+ * Construction initiale par plus proche voisin tenant compte des fenêtres
+ * horaires (ou tri par fermeture de fenêtre si meilleur), puis amélioration
+ * par 2-opt et Or-opt (déplacement de segments de 1 à 3 arrêts) jusqu'à
+ * convergence ou épuisement du budget de temps.
+ * Le coût minimisé est la distance, les retards sur fenêtres étant pénalisés
+ * de façon à toujours primer sur la distance.
+ */
+@Component
+public class LocalSearchRouteOptimizer implements RouteOptimizer {
+
+    static final double LATENESS_PENALTY_PER_MINUTE = 1_000.0;
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_OR_OPT_SEGMENT = 3;
+
+    @Value("${routing.optimizer.time-budget-ms:200}")
+    private long timeBudgetMs;
+
+    public LocalSearchRouteOptimizer() {
+    }
+
+    LocalSearchRouteOptimizer(long timeBudgetMs) {
+        this.timeBudgetMs = timeBudgetMs;
+    }
+
+    @Override
+    public RoutePlan optimize(RoutingProblem problem) {
+        int[] route = construct(problem);
+        int[] byDeadline = constructByDeadline(problem);
+        if (cost(problem, byDeadline) < cost(problem, route)) {
+            route = byDeadline;
+        }
+        return improve(problem, route);
+    }
+
+    @Override
+    public RoutePlan improve(RoutingProblem problem, int[] initial) {
+        int[] route = initial.clone();
+        requirePermutation(problem, route);
+        // Deux arrêts suffisent : avec un départ ou des fenêtres, l'ordre compte
+        if (route.length >= 2) {
+            improve(problem, route, System.nanoTime() + timeBudgetMs * 1_000_000L);
+        }
+        return evaluate(problem, route);
+    }
+
+    @Override
+    public RoutePlan evaluate(RoutingProblem problem, int[] sequence) {
+        double[] totals = new double[3];
+        walk(problem, sequence, totals);
+        return new RoutePlan(sequence.clone(), totals[0], totals[1], totals[2]);
+    }
+
+    // ========== Construction ==========
+
+    /**
+     * Plus proche voisin temporel : à chaque étape, l'arrêt pouvant être servi
+     * le plus tôt (attente comprise), en évitant les arrêts déjà en retard.
+     */
+    private int[] construct(RoutingProblem problem) {
+        int[] stops = problem.stops();
+        int n = stops.length;
+        int[] route = new int[n];
+        boolean[] used = new boolean[n];
+
+        int previous = problem.depot();
+        double time = problem.startMinute();
+
+        for (int k = 0; k < n; k++) {
+            int best = -1;
+            double bestKey = Double.MAX_VALUE;
+            double bestBegin = 0;
+
+            for (int s = 0; s < n; s++) {
+                if (used[s]) {
+                    continue;
+                }
+                int stop = stops[s];
+                double arrival = previous == RoutingProblem.NO_DEPOT
+                        ? time
+                        : time + problem.travelMinutes(previous, stop);
+                double begin = Math.max(arrival, problem.earliest()[stop]);
+                double key = begin;
+                if (begin > problem.latest()[stop]) {
+                    key += LATENESS_PENALTY_PER_MINUTE * (begin - problem.latest()[stop]);
+                }
+                if (key < bestKey) {
+                    bestKey = key;
+                    best = s;
+                    bestBegin = begin;
+                }
+            }
+
+            used[best] = true;
+            route[k] = stops[best];
+            previous = stops[best];
+            time = bestBegin + problem.serviceMinutes();
+        }
+
+        return route;
+    }
+
+    /**
+     * Tri par fermeture de fenêtre (EDD), plus robuste quand les fenêtres sont serrées
+     */
+    private int[] constructByDeadline(RoutingProblem problem) {
+        int[] latest = problem.latest();
+        int[] earliest = problem.earliest();
+        return Arrays.stream(problem.stops())
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(s -> latest[s])
+                        .thenComparingInt(s -> earliest[s]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // ========== Recherche locale ==========
+
+    private void improve(RoutingProblem problem, int[] route, long deadline) {
+        int[] candidate = new int[route.length];
+        double cost = cost(problem, route);
+        boolean improved = true;
+
+        while (improved && System.nanoTime() < deadline) {
+            double before = cost;
+            cost = twoOpt(problem, route, candidate, cost, deadline);
+            cost = orOpt(problem, route, candidate, cost, deadline);
+            improved = cost < before - EPSILON;
+        }
+    }
+
+    /**
+     * 2-opt : inverse le segment [i, j] lorsque cela réduit le coût
+     */
+    private double twoOpt(RoutingProblem problem, int[] route, int[] candidate, double cost, long deadline) {
+        int n = route.length;
+        for (int i = 0; i < n - 1; i++) {
+            if (System.nanoTime() >= deadline) {
+                return cost;
+            }
+            for (int j = i + 1; j < n; j++) {
+                System.arraycopy(route, 0, candidate, 0, n);
+                for (int a = i, b = j; a < b; a++, b--) {
+                    int tmp = candidate[a];
+                    candidate[a] = candidate[b];
+                    candidate[b] = tmp;
+                }
+                double candidateCost = cost(problem, candidate);
+                if (candidateCost < cost - EPSILON) {
+                    System.arraycopy(candidate, 0, route, 0, n);
+                    cost = candidateCost;
+                }
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Or-opt : déplace un segment de 1 à 3 arrêts consécutifs à une autre position
+     */
+    private double orOpt(RoutingProblem problem, int[] route, int[] candidate, double cost, long deadline) {
+        int n = route.length;
+        for (int length = 1; length <= MAX_OR_OPT_SEGMENT && length < n; length++) {
+            for (int i = 0; i + length <= n; i++) {
+                if (System.nanoTime() >= deadline) {
+                    return cost;
+                }
+                for (int position = 0; position <= n - length; position++) {
+                    if (position == i) {
+                        continue;
+                    }
+                    moveSegment(route, candidate, i, length, position);
+                    double candidateCost = cost(problem, candidate);
+                    if (candidateCost < cost - EPSILON) {
+                        System.arraycopy(candidate, 0, route, 0, n);
+                        cost = candidateCost;
+                    }
+                }
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Copie {@code route} dans {@code target} en déplaçant le segment
+     * [start, start + length[ à l'index {@code position} de la tournée restante.
+     */
+    private static void moveSegment(int[] route, int[] target, int start, int length, int position) {
+        int n = route.length;
+        int k = 0;
+        int remainderIndex = 0;
+        for (int i = 0; i < n; i++) {
+            if (i >= start && i < start + length) {
+                continue;
+            }
+            if (remainderIndex == position) {
+                System.arraycopy(route, start, target, k, length);
+                k += length;
+            }
+            target[k++] = route[i];
+            remainderIndex++;
+        }
+        if (remainderIndex == position) {
+            System.arraycopy(route, start, target, k, length);
+        }
+    }
+
+    private static double cost(RoutingProblem problem, int[] sequence) {
+        return walk(problem, sequence, null);
+    }
+
+    /**
+     * Parcourt la tournée et renvoie son coût (distance + retards pénalisés).
+     * Si {@code totals} est fourni, y écrit distance, retard cumulé et heure de fin.
+     */
+    private static double walk(RoutingProblem problem, int[] sequence, double[] totals) {
+        DistanceMatrix matrix = problem.matrix();
+        int[] earliest = problem.earliest();
+        int[] latest = problem.latest();
+        double minutesPerKm = 60.0 / problem.averageSpeedKmh();
+        double time = problem.startMinute();
+        double distance = 0;
+        double late = 0;
+        int previous = problem.depot();
+
+        for (int stop : sequence) {
+            if (previous != RoutingProblem.NO_DEPOT) {
+                double d = matrix.get(previous, stop);
+                distance += d;
+                time += d * minutesPerKm;
+            }
+            if (time < earliest[stop]) {
+                time = earliest[stop];
+            } else if (time > latest[stop]) {
+                late += time - latest[stop];
+            }
+            time += problem.serviceMinutes();
+            previous = stop;
+        }
+
+        if (totals != null) {
+            totals[0] = distance;
+            totals[1] = late;
+            totals[2] = time;
+        }
+        return distance + LATENESS_PENALTY_PER_MINUTE * late;
+    }
+
+    private static void requirePermutation(RoutingProblem problem, int[] route) {
+        int[] expected = problem.stops();
+        int[] actual = route.clone();
+        Arrays.sort(actual);
+        if (!Arrays.equals(expected, actual)) {
+            throw new IllegalArgumentException("L'ordre initial doit contenir chaque arrêt exactement une fois");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.irris.yamo.service.routing;
+
+/**
+ * Moteur d'optimisation de tournée d'un chauffeur
+ */
+public interface RouteOptimizer {
+
+    /**
+     * Calcule un ordre de visite respectant au mieux les fenêtres horaires
+     * et minimisant la distance parcourue.
+     */
+    RoutePlan optimize(RoutingProblem problem);
+
+    /**
+     * Améliore un ordre de visite existant (chaque arrêt exactement une fois) ;
+     * le plan renvoyé ne coûte jamais plus que l'ordre fourni.
+     */
+    RoutePlan improve(RoutingProblem problem, int[] initial);
+
+    /**
+     * Évalue un ordre de visite donné (distance, retards, heure de fin)
+     */
+    RoutePlan evaluate(RoutingProblem problem, int[] sequence);
+}
@@ -0,0 +1,16 @@
+package com.irris.yamo.service.routing;
+
+/**
+ * Résultat d'une optimisation : ordre de visite et métriques associées.
+ *
+ * @param sequence    indices des arrêts dans l'ordre de visite (hors dépôt)
+ * @param distanceKm  distance totale parcourue
+ * @param lateMinutes cumul des retards sur les fenêtres horaires (0 si réalisable)
+ * @param endMinute   heure de fin du dernier arrêt, en minutes depuis minuit
+ */
+public record RoutePlan(int[] sequence, double distanceKm, double lateMinutes, double endMinute) {
+
+    public boolean isFeasible() {
+        return lateMinutes <= 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.irris.yamo.service.routing;
+
+/**
+ * Tournée à optimiser : arrêts avec fenêtres horaires (VRPTW à un véhicule).
+ *
+ * Les indices d'arrêts correspondent aux lignes de la matrice de distances.
+ * Si {@code depot} vaut {@link #NO_DEPOT}, la tournée démarre au premier arrêt ;
+ * sinon le dépôt est un point de la matrice qui n'est pas un arrêt.
+ * Les fenêtres horaires sont exprimées en minutes depuis minuit.
+ */
+public record RoutingProblem(
+        DistanceMatrix matrix,
+        int depot,
+        int[] earliest,
+        int[] latest,
+        int serviceMinutes,
+        double averageSpeedKmh
+) {
+
+    public static final int NO_DEPOT = -1;
+
+    /**
+     * Nombre d'arrêts à visiter (hors dépôt)
+     */
+    public int stopCount() {
+        return depot == NO_DEPOT ? matrix.size() : matrix.size() - 1;
+    }
+
+    /**
+     * Indices des arrêts à visiter (hors dépôt)
+     */
+    public int[] stops() {
+        int[] stops = new int[stopCount()];
+        int k = 0;
+        for (int i = 0; i < matrix.size(); i++) {
+            if (i != depot) {
+                stops[k++] = i;
+            }
+        }
+        return stops;
+    }
+
+    public double travelMinutes(int from, int to) {
+        return matrix.get(from, to) / averageSpeedKmh * 60.0;
+    }
+
+    /**
+     * Heure de départ de la tournée : ouverture de la fenêtre la plus tôt
+     */
+    public int startMinute() {
+        int start = Integer.MAX_VALUE;
+        for (int i = 0; i < earliest.length; i++) {
+            if (i != depot) {
+                start = Math.min(start, earliest[i]);
+            }
+        }
+        return start == Integer.MAX_VALUE ? 0 : start;
+    }
+}
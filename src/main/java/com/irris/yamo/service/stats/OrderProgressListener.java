@@ -0,0 +1,65 @@
+package com.irris.yamo.service.stats;
+
+import com.irris.yamo.entities.Article;
+import com.irris.yamo.entities.ArticleInstance;
+import com.irris.yamo.entities.Order;
+import com.irris.yamo.entities.Payment;
+import com.irris.yamo.entities.ProcessStepTracking;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA qui signale à {@link OrderProgressUpdater} les commandes dont
+ * le paiement ou l'avancement a pu changer (commande, paiement, instance,
+ * étape de suivi). Aucune requête n'est faite ici : la commande est retrouvée
+ * par les associations déjà chargées, sinon par identifiant après commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderProgressListener {
+
+    private final ObjectProvider<OrderProgressUpdater> progressUpdater;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        OrderProgressUpdater updater = progressUpdater.getObject();
+        if (entity instanceof Order order) {
+            updater.markOrder(order.getId());
+        } else if (entity instanceof Payment payment) {
+            if (payment.getOrder() != null) {
+                updater.markOrder(payment.getOrder().getId());
+            }
+        } else if (entity instanceof ArticleInstance instance) {
+            Long orderId = orderIdOf(instance);
+            if (orderId != null) {
+                updater.markOrder(orderId);
+            } else {
+                updater.markInstance(instance.getId());
+            }
+        } else if (entity instanceof ProcessStepTracking tracking) {
+            ArticleInstance instance = tracking.getArticleInstance();
+            Long orderId = instance != null && Hibernate.isInitialized(instance) ? orderIdOf(instance) : null;
+            if (orderId != null) {
+                updater.markOrder(orderId);
+            } else {
+                updater.markTracking(tracking.getId());
+            }
+        }
+    }
+
+    // Sans initialiser de proxy : le chargement paresseux est interdit pendant le flush
+    private static Long orderIdOf(ArticleInstance instance) {
+        Article article = instance.getArticle();
+        if (article == null || !Hibernate.isInitialized(article) || article.getOrder() == null) {
+            return null;
+        }
+        return article.getOrder().getId();
+    }
+}
@@ -0,0 +1,273 @@
+package com.irris.yamo.service.stats;
+
+import com.irris.yamo.repositories.OrderRepository;
+import com.irris.yamo.repositories.projection.InstanceProgress;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Maintient les colonnes dénormalisées de paiement et d'avancement des commandes
+ * (paid_amount, instance_count, processed_instance_count, progress_percentage,
+ * fully_paid, fully_processed).
+ *
+ * Les commandes touchées par une transaction sont collectées par
+ * {@link OrderProgressListener} puis recalculées une seule fois après commit,
+ * par requêtes d'agrégat limitées à ces commandes. Le recalcul est confié à
+ * un unique thread de fond qui regroupe les transactions en attente : le
+ * thread d'origine ne demande jamais une seconde connexion au pool pendant
+ * qu'il détient encore la sienne. Les lignes encore non calculées (colonnes
+ * nulles) sont rattrapées au démarrage.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderProgressUpdater {
+
+    private final OrderRepository orderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${orders.progress.backfill-chunk-size:500}")
+    private int backfillChunkSize;
+
+    @Value("${orders.progress.shutdown-timeout-seconds:10}")
+    private long shutdownTimeoutSeconds;
+
+    private TransactionTemplate writeTransaction;
+    private ExecutorService worker;
+
+    // Transactions validées dont le recalcul n'a pas encore été fait
+    private final Queue<PendingRefresh> committed = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    @PostConstruct
+    void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-progress-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Termine les recalculs déjà validés avant la fermeture du pool
+        worker.shutdown();
+        if (!worker.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+            log.warn("Recalcul de l'état des commandes interrompu: {} transactions en attente", committed.size());
+            worker.shutdownNow();
+        }
+    }
+
+    /**
+     * Commandes, instances et étapes de suivi modifiées par la transaction courante
+     */
+    private static final class PendingRefresh {
+        final Set<Long> orderIds = new HashSet<>();
+        final Set<Long> instanceIds = new HashSet<>();
+        final Set<Long> trackingIds = new HashSet<>();
+
+        void addAll(PendingRefresh other) {
+            orderIds.addAll(other.orderIds);
+            instanceIds.addAll(other.instanceIds);
+            trackingIds.addAll(other.trackingIds);
+        }
+    }
+
+    // ========== Collecte ==========
+
+    void markOrder(Long orderId) {
+        if (orderId != null) {
+            mark(pending -> pending.orderIds.add(orderId));
+        }
+    }
+
+    void markInstance(Long instanceId) {
+        if (instanceId != null) {
+            mark(pending -> pending.instanceIds.add(instanceId));
+        }
+    }
+
+    void markTracking(Long trackingId) {
+        if (trackingId != null) {
+            mark(pending -> pending.trackingIds.add(trackingId));
+        }
+    }
+
+    private void mark(Consumer<PendingRefresh> entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Hors transaction : aucune connexion détenue, recalcul immédiat
+            PendingRefresh immediate = new PendingRefresh();
+            entry.accept(immediate);
+            refresh(immediate);
+            return;
+        }
+        entry.accept(pending());
+    }
+
+    private PendingRefresh pending() {
+        PendingRefresh pending = (PendingRefresh) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            PendingRefresh created = new PendingRefresh();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderProgressUpdater.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    // ========== Recalcul ==========
+
+    private void enqueue(PendingRefresh pending) {
+        committed.add(pending);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            worker.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Arrêt en cours ; l'écart sera corrigé à la prochaine modification des commandes
+            draining.set(false);
+            log.warn("Recalcul de l'état des commandes abandonné: arrêt en cours, {} transactions en attente",
+                    committed.size());
+        }
+    }
+
+    /**
+     * Recalcule par lots tout ce qui a été validé depuis le dernier passage
+     */
+    private void drain() {
+        try {
+            while (!committed.isEmpty()) {
+                PendingRefresh batch = new PendingRefresh();
+                PendingRefresh next;
+                while ((next = committed.poll()) != null) {
+                    batch.addAll(next);
+                }
+                refresh(batch);
+            }
+        } finally {
+            draining.set(false);
+            // Transaction validée entre la dernière lecture de la file et la libération
+            if (!committed.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private void refresh(PendingRefresh pending) {
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                Set<Long> orderIds = new HashSet<>(pending.orderIds);
+                if (!pending.instanceIds.isEmpty()) {
+                    orderIds.addAll(orderRepository.findOrderIdsByInstanceIds(pending.instanceIds));
+                }
+                if (!pending.trackingIds.isEmpty()) {
+                    orderIds.addAll(orderRepository.findOrderIdsByTrackingIds(pending.trackingIds));
+                }
+                recompute(orderIds);
+            });
+        } catch (RuntimeException e) {
+            // Les données métier sont déjà validées ; l'écart sera corrigé à la prochaine modification de la commande
+            log.warn("Recalcul de l'état des commandes {} impossible: {}", pending.orderIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcule l'état dénormalisé des commandes données (transaction requise)
+     */
+    void recompute(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        orderRepository.refreshAmountPaid(orderIds);
+        orderRepository.refreshPaymentComplete(orderIds);
+
+        // Moyenne des avancements par instance, comme Order.getOverallProgress()
+        Map<Long, int[]> counts = new HashMap<>();
+        Map<Long, Double> progressSums = new HashMap<>();
+        for (InstanceProgress row : orderRepository.findInstanceProgress(orderIds)) {
+            int[] count = counts.computeIfAbsent(row.orderId(), id -> new int[2]);
+            count[0]++;
+            double progress = 0.0;
+            if (row.steps() > 0) {
+                progress = (double) row.completedSteps() / row.steps() * 100;
+                if (row.completedSteps().equals(row.steps())) {
+                    count[1]++;
+                }
+            }
+            progressSums.merge(row.orderId(), progress, Double::sum);
+        }
+
+        for (Long orderId : orderIds) {
+            int[] count = counts.getOrDefault(orderId, new int[2]);
+            double progress = count[0] == 0 ? 0.0 : progressSums.get(orderId) / count[0];
+            orderRepository.updateProgress(orderId, count[0], count[1], progress, count[1] == count[0]);
+        }
+    }
+
+    // ========== Rattrapage ==========
+
+    /**
+     * Calcule les commandes dont l'état dénormalisé n'a jamais été renseigné
+     * (commandes antérieures aux colonnes ou dont le premier calcul a échoué)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long afterId = 0;
+        int total = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Long> ids = orderRepository.findIdsWithoutProgress(cursor, PageRequest.of(0, backfillChunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            writeTransaction.executeWithoutResult(status -> recompute(ids));
+            afterId = ids.get(ids.size() - 1);
+            total += ids.size();
+        }
+        if (total > 0) {
+            log.info("État de paiement et d'avancement calculé pour {} commandes", total);
+        }
+    }
+}
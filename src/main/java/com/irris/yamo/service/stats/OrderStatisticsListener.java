@@ -0,0 +1,46 @@
+package com.irris.yamo.service.stats;
+
+import com.irris.yamo.entities.Order;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA qui répercute les transitions d'état des commandes
+ * sur {@link OrderStatisticsStore}. Le store est résolu à l'usage pour éviter
+ * un cycle avec l'EntityManagerFactory au démarrage.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatisticsListener {
+
+    private final ObjectProvider<OrderStatisticsStore> statisticsStore;
+
+    @PostLoad
+    public void onLoad(Order order) {
+        order.setPersistedStatsState(OrderStatsState.of(order));
+    }
+
+    @PostPersist
+    public void onPersist(Order order) {
+        OrderStatsState state = OrderStatsState.of(order);
+        statisticsStore.getObject().onCreated(state);
+        order.setPersistedStatsState(state);
+    }
+
+    @PostUpdate
+    public void onUpdate(Order order) {
+        OrderStatsState state = OrderStatsState.of(order);
+        statisticsStore.getObject().onUpdated(order.getPersistedStatsState(), state);
+        order.setPersistedStatsState(state);
+    }
+
+    @PostRemove
+    public void onRemove(Order order) {
+        statisticsStore.getObject().onRemoved(order.getPersistedStatsState());
+    }
+}
@@ -0,0 +1,283 @@
+package com.irris.yamo.service.stats;
+
+import com.irris.yamo.entities.enums.OrderStatus;
+import com.irris.yamo.repositories.OrderRepository;
+import com.irris.yamo.repositories.projection.StatusCount;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compteurs matérialisés des commandes servant les tableaux de bord.
+ *
+ * Les compteurs par statut sont mis à jour de façon incrémentale par
+ * {@link OrderStatisticsListener} après commit de chaque transition. Une
+ * réconciliation périodique recalcule l'ensemble depuis la base pour corriger
+ * les dérives (mises à jour en masse, transactions concurrentes, etc.) ainsi
+ * que les compteurs dépendant des paiements (fully_paid est recalculé hors de
+ * l'entité).
+ *
+ * Une transaction qui modifie des commandes détient le verrou de lecture de
+ * sa première modification comptée jusqu'à sa fin (commit et application des
+ * incréments compris) ; la réconciliation prend le verrou d'écriture. La
+ * lecture de la base voit donc soit le commit et son incrément déjà appliqué,
+ * soit ni l'un ni l'autre : une commande n'est jamais comptée deux fois.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStatisticsStore {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final OrderRepository orderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${dashboard.statistics.reconcile-lock-timeout-ms:10000}")
+    private long reconcileLockTimeoutMs;
+
+    private TransactionTemplate readTransaction;
+
+    private final AtomicLongArray countsByStatus = new AtomicLongArray(STATUSES.length);
+    private final AtomicLong totalOrders = new AtomicLong();
+    private final AtomicLong pendingReception = new AtomicLong();
+    private final AtomicLong readyForDelivery = new AtomicLong();
+    private final AtomicLong incompletePayment = new AtomicLong();
+
+    private volatile boolean initialized = false;
+
+    // Lecture : transactions modifiant des commandes (concurrentes entre elles) ; écriture : réconciliation
+    private final ReentrantReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    void init() {
+        // Rejoint la transaction appelante s'il y en a une (aucune seconde connexion)
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    // ========== Lecture O(1) ==========
+
+    public long getTotalOrders() {
+        ensureInitialized();
+        return totalOrders.get();
+    }
+
+    public long getCount(OrderStatus status) {
+        ensureInitialized();
+        return countsByStatus.get(status.ordinal());
+    }
+
+    public Map<String, Long> getCountsByStatus() {
+        ensureInitialized();
+        Map<String, Long> stats = new HashMap<>();
+        for (OrderStatus status : STATUSES) {
+            stats.put(status.name(), countsByStatus.get(status.ordinal()));
+        }
+        return stats;
+    }
+
+    public long getPendingReceptionCount() {
+        ensureInitialized();
+        return pendingReception.get();
+    }
+
+    public long getReadyForDeliveryCount() {
+        ensureInitialized();
+        return readyForDelivery.get();
+    }
+
+    /**
+     * Nombre de commandes non soldées, rafraîchi à chaque réconciliation
+     */
+    public long getIncompletePaymentCount() {
+        ensureInitialized();
+        return incompletePayment.get();
+    }
+
+    // ========== Mises à jour incrémentales ==========
+
+    void onCreated(OrderStatsState state) {
+        afterCommit(() -> apply(state, 1));
+    }
+
+    void onUpdated(OrderStatsState previous, OrderStatsState current) {
+        if (previous == null || previous.equals(current)) {
+            return;
+        }
+        afterCommit(() -> {
+            apply(previous, -1);
+            apply(current, 1);
+        });
+    }
+
+    void onRemoved(OrderStatsState state) {
+        if (state == null) {
+            return;
+        }
+        afterCommit(() -> apply(state, -1));
+    }
+
+    /**
+     * Transition de statut faite par une requête ciblée, sans passer par l'entité.
+     * Réservé aux statuts qui n'entrent pas dans les compteurs « à réceptionner »
+     * et « prêtes à livrer ».
+     */
+    public void onStatusChanged(OrderStatus previous, OrderStatus current) {
+        if (previous == current) {
+            return;
+        }
+        afterCommit(() -> {
+            countsByStatus.addAndGet(previous.ordinal(), -1);
+            countsByStatus.addAndGet(current.ordinal(), 1);
+        });
+    }
+
+    private void apply(OrderStatsState state, int delta) {
+        totalOrders.addAndGet(delta);
+        if (state.status() != null) {
+            countsByStatus.addAndGet(state.status().ordinal(), delta);
+        }
+        if (state.pendingReception()) {
+            pendingReception.addAndGet(delta);
+        }
+        if (state.readyForDelivery()) {
+            readyForDelivery.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Applique la mise à jour après le commit de la transaction courante ; le
+     * verrou de lecture est pris dès maintenant et rendu à la fin de la transaction
+     */
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lockForUpdate();
+            try {
+                update.run();
+            } finally {
+                reconcileLock.readLock().unlock();
+            }
+            return;
+        }
+        PendingUpdates pending = (PendingUpdates) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            lockForUpdate();
+            pending = new PendingUpdates();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.updates.add(update);
+    }
+
+    /**
+     * Verrou de lecture sans file d'attente derrière une réconciliation en
+     * attente : la transaction peut détenir des verrous de ligne attendus par
+     * une autre transaction, elle-même déjà comptée
+     */
+    private void lockForUpdate() {
+        while (!reconcileLock.readLock().tryLock()) {
+            // Réconciliation en cours (lectures seules) : attendre sa fin
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    /**
+     * Mises à jour d'une transaction, appliquées ensemble après son commit
+     */
+    private final class PendingUpdates implements TransactionSynchronization {
+
+        private final List<Runnable> updates = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            updates.forEach(Runnable::run);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OrderStatisticsStore.this);
+            reconcileLock.readLock().unlock();
+        }
+    }
+
+    // ========== Réconciliation ==========
+
+    /**
+     * Recalcule tous les compteurs depuis la base (agrégats uniquement)
+     */
+    @Scheduled(fixedDelayString = "${dashboard.statistics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (reconcileLock.getReadHoldCount() > 0) {
+            // Transaction courante avec des incréments en attente : pas de montée de verrou
+            return;
+        }
+        try {
+            if (!reconcileLock.writeLock().tryLock(reconcileLockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Réconciliation des compteurs de commandes reportée: transactions en cours");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            readTransaction.executeWithoutResult(status -> reconcileLocked());
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    private void reconcileLocked() {
+        long[] counts = new long[STATUSES.length];
+        long total = 0;
+        List<StatusCount> rows = orderRepository.countGroupByStatus();
+        for (StatusCount row : rows) {
+            total += row.count();
+            if (row.status() != null) {
+                counts[row.status().ordinal()] = row.count();
+            }
+        }
+
+        Map<OrderStatus, Long> drift = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : STATUSES) {
+            long previous = countsByStatus.getAndSet(status.ordinal(), counts[status.ordinal()]);
+            if (initialized && previous != counts[status.ordinal()]) {
+                drift.put(status, counts[status.ordinal()] - previous);
+            }
+        }
+        totalOrders.set(total);
+        pendingReception.set(orderRepository.countByStatusAndWasReceivedFalse(OrderStatus.CREATED));
+        readyForDelivery.set(orderRepository.countPackagedReadyForDelivery());
+        incompletePayment.set(orderRepository.countNotFullyPaid());
+
+        if (!drift.isEmpty()) {
+            log.warn("Dérive des compteurs de commandes corrigée: {}", drift);
+        }
+        initialized = true;
+    }
+
+    private void ensureInitialized() {
+        if (!initialized) {
+            reconcile();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.irris.yamo.service.stats;
+
+import com.irris.yamo.entities.Order;
+import com.irris.yamo.entities.enums.OrderStatus;
+
+/**
+ * État d'une commande tel que compté par {@link OrderStatisticsStore}.
+ * Une commande est prête à livrer lorsqu'elle est emballée et soldée
+ * (colonne fully_paid).
+ */
+public record OrderStatsState(OrderStatus status, boolean pendingReception, boolean readyForDelivery) {
+
+    static OrderStatsState of(Order order) {
+        OrderStatus status = order.getStatus();
+        return new OrderStatsState(
+                status,
+                status == OrderStatus.CREATED && !order.isWasReceived(),
+                (status == OrderStatus.READY || status == OrderStatus.DELIVERY_SCHEDULED) && order.isWasPackaged()
+                        && Boolean.TRUE.equals(order.getPaymentComplete()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.irris.yamo.service.tracking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dernière position connue d'un chauffeur
+ */
+public record DriverLocation(Long driverId, double latitude, double longitude,
+                             Double speedKmh, Double heading, LocalDateTime recordedAt) {
+
+    public boolean isNewerThan(DriverLocation other) {
+        return other == null || recordedAt.isAfter(other.recordedAt());
+    }
+}
@@ -0,0 +1,241 @@
+package com.irris.yamo.service.tracking;
+
+import com.irris.yamo.dtos.creation.DriverPositionPingDto;
+import com.irris.yamo.entities.DriverPosition;
+import com.irris.yamo.entities.GeoUtils;
+import com.irris.yamo.exception.ResourceNotFoundException;
+import com.irris.yamo.repositories.DriverPositionRepository;
+import com.irris.yamo.repositories.DriverRepository;
+import com.irris.yamo.service.geo.SpatialIndexService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Positions GPS des chauffeurs en temps réel.
+ *
+ * Chaque relevé met à jour la dernière position du chauffeur en mémoire, et
+ * la plus récente d'un lot l'index spatial, sans accès base. Seule une trajectoire sous-échantillonnée
+ * (distance ou délai minimal depuis le dernier point conservé) est mise en
+ * file puis insérée par lots de façon périodique. L'horodatage client est
+ * ramené à l'heure du serveur s'il est dans le futur ; si un lot échoue (ex.
+ * chauffeur supprimé entre-temps), les points sont réinsérés chauffeur par
+ * chauffeur et seuls ceux du chauffeur en cause sont perdus.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DriverPositionStore {
+
+    private final DriverRepository driverRepository;
+    private final DriverPositionRepository driverPositionRepository;
+    private final SpatialIndexService spatialIndexService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${tracking.positions.min-distance-m:50}")
+    private double minDistanceMeters;
+
+    @Value("${tracking.positions.min-interval-s:60}")
+    private long minIntervalSeconds;
+
+    @Value("${tracking.positions.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${tracking.positions.max-pending:100000}")
+    private int maxPending;
+
+    @Value("${tracking.positions.known-driver-ttl-s:600}")
+    private long knownDriverTtlSeconds;
+
+    private TransactionTemplate writeTransaction;
+
+    private final Map<Long, DriverLocation> latest = new ConcurrentHashMap<>();
+    private final Map<Long, DriverLocation> lastPersisted = new ConcurrentHashMap<>();
+    // Chauffeur -> fin de validité (nanoTime) de la vérification d'existence
+    private final Map<Long, Long> knownDrivers = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<DriverLocation> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // ========== Ingestion ==========
+
+    /**
+     * Enregistre un lot de relevés d'un chauffeur
+     * @return Nombre de relevés acceptés (coordonnées valides)
+     */
+    public int ingest(Long driverId, List<DriverPositionPingDto> pings) {
+        ensureKnownDriver(driverId);
+
+        int accepted = 0;
+        DriverLocation newest = null;
+        for (DriverPositionPingDto ping : pings) {
+            if (!isValid(ping)) {
+                continue;
+            }
+            // Un horodatage futur figerait la position (isNewerThan) : borné à l'heure serveur
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime recordedAt = ping.getRecordedAt() != null && ping.getRecordedAt().isBefore(now)
+                    ? ping.getRecordedAt()
+                    : now;
+            DriverLocation location = new DriverLocation(driverId, ping.getLatitude(), ping.getLongitude(),
+                    ping.getSpeedKmh(), ping.getHeading(), recordedAt);
+
+            DriverLocation current = latest.merge(driverId, location,
+                    (previous, candidate) -> candidate.isNewerThan(previous) ? candidate : previous);
+            if (current == location) {
+                newest = location;
+            }
+            sample(location);
+            accepted++;
+        }
+        if (newest != null) {
+            // Une écriture par lot ; l'index compare lui aussi les horodatages (lots concurrents)
+            spatialIndexService.updateDriverPosition(driverId, newest.latitude(), newest.longitude(), newest.recordedAt());
+        }
+        return accepted;
+    }
+
+    /**
+     * Position récente du chauffeur, vide si inconnue ou trop ancienne
+     */
+    public Optional<DriverLocation> getCurrentLocation(Long driverId) {
+        DriverLocation location = latest.get(driverId);
+        if (location == null || location.recordedAt().isBefore(LocalDateTime.now().minusMinutes(maxAgeMinutes))) {
+            return Optional.empty();
+        }
+        return Optional.of(location);
+    }
+
+    private void sample(DriverLocation location) {
+        DriverLocation kept = lastPersisted.compute(location.driverId(),
+                (id, previous) -> shouldPersist(previous, location) ? location : previous);
+        if (kept != location) {
+            return;
+        }
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            log.warn("File des positions pleine, point ignoré pour le chauffeur {}", location.driverId());
+            return;
+        }
+        pending.add(location);
+    }
+
+    private boolean shouldPersist(DriverLocation previous, DriverLocation location) {
+        if (previous == null) {
+            return true;
+        }
+        if (!location.isNewerThan(previous)) {
+            return false;
+        }
+        if (Duration.between(previous.recordedAt(), location.recordedAt()).getSeconds() >= minIntervalSeconds) {
+            return true;
+        }
+        double movedKm = GeoUtils.haversineDistance(previous.latitude(), previous.longitude(),
+                location.latitude(), location.longitude());
+        return movedKm * 1000 >= minDistanceMeters;
+    }
+
+    private boolean isValid(DriverPositionPingDto ping) {
+        return ping != null
+                && ping.getLatitude() != null && ping.getLongitude() != null
+                && Math.abs(ping.getLatitude()) <= 90 && Math.abs(ping.getLongitude()) <= 180;
+    }
+
+    private void ensureKnownDriver(Long driverId) {
+        Long validUntil = knownDrivers.get(driverId);
+        long now = System.nanoTime();
+        if (validUntil != null && validUntil - now > 0) {
+            return;
+        }
+        if (!driverRepository.existsById(driverId)) {
+            knownDrivers.remove(driverId);
+            throw new ResourceNotFoundException("Chauffeur non trouvé avec l'ID: " + driverId);
+        }
+        knownDrivers.put(driverId, now + TimeUnit.SECONDS.toNanos(knownDriverTtlSeconds));
+    }
+
+    // ========== Persistance ==========
+
+    /**
+     * Insère par lots les points de trajectoire en attente
+     */
+    @Scheduled(fixedDelayString = "${tracking.positions.flush-interval-ms:5000}")
+    public void flush() {
+        List<DriverLocation> batch = new ArrayList<>();
+        DriverLocation location;
+        while ((location = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(location);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            persist(batch);
+            log.debug("{} points de trajectoire enregistrés", batch.size());
+        } catch (RuntimeException e) {
+            // Un chauffeur supprimé fait échouer le lot : reprise chauffeur par chauffeur
+            log.warn("Lot de {} points de trajectoire rejeté, reprise par chauffeur: {}", batch.size(), e.getMessage());
+            Map<Long, List<DriverLocation>> byDriver = new LinkedHashMap<>();
+            for (DriverLocation point : batch) {
+                byDriver.computeIfAbsent(point.driverId(), id -> new ArrayList<>()).add(point);
+            }
+            byDriver.forEach((driverId, points) -> {
+                try {
+                    persist(points);
+                } catch (RuntimeException driverError) {
+                    knownDrivers.remove(driverId);
+                    log.warn("{} points du chauffeur {} abandonnés: {}",
+                            points.size(), driverId, driverError.getMessage());
+                }
+            });
+        }
+    }
+
+    private void persist(List<DriverLocation> locations) {
+        writeTransaction.executeWithoutResult(status -> {
+            List<DriverPosition> positions = new ArrayList<>(locations.size());
+            for (DriverLocation location : locations) {
+                DriverPosition position = new DriverPosition();
+                position.setDriver(driverRepository.getReferenceById(location.driverId()));
+                position.setLatitude(location.latitude());
+                position.setLongitude(location.longitude());
+                position.setSpeedKmh(location.speedKmh());
+                position.setHeading(location.heading());
+                position.setRecordedAt(location.recordedAt());
+                positions.add(position);
+            }
+            driverPositionRepository.saveAll(positions);
+            // Contraintes vérifiées ici, dans la transaction, pour que l'échec reste attribuable au lot
+            driverPositionRepository.flush();
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,109 @@
+package com.irris.yamo.security;
+
+import com.irris.yamo.entities.UserYamo;
+import com.irris.yamo.entities.enums.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtTokenProvider tokenProvider;
+    private UserPrincipalCache principalCache;
+    private TokenRevocationStore revocationStore;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "CleDeTestSuffisammentLonguePourHS256AuMoins256Bits!!");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(tokenProvider, "jwtRefreshExpiration", 86_400_000L);
+        tokenProvider.init();
+
+        principalCache = mock(UserPrincipalCache.class);
+        revocationStore = mock(TokenRevocationStore.class);
+        filter = new JwtAuthenticationFilter(tokenProvider, principalCache, revocationStore);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void grantedAuthorityIsTheRoleClaim() throws Exception {
+        for (Role role : Role.values()) {
+            SecurityContextHolder.clearContext();
+            UserYamo user = user(7L, role);
+            when(principalCache.get(7L)).thenReturn(new JwtUserPrincipal(7L, "utilisateur", role, true));
+
+            Authentication authentication = authenticate(tokenProvider.generateToken(user));
+
+            assertNotNull(authentication, "Non authentifié pour " + role);
+            // hasRole("ADMIN") attend exactement ROLE_ADMIN
+            assertEquals(List.of(role.name()), authorities(authentication));
+        }
+    }
+
+    @Test
+    void revokedTokenIsNotAuthenticated() throws Exception {
+        when(principalCache.get(7L)).thenReturn(new JwtUserPrincipal(7L, "utilisateur", Role.ROLE_ADMIN, true));
+        when(revocationStore.isRevoked(any(), eq(7L), anyLong())).thenReturn(true);
+
+        assertNull(authenticate(tokenProvider.generateToken(user(7L, Role.ROLE_ADMIN))));
+    }
+
+    @Test
+    void inactiveUserIsNotAuthenticated() throws Exception {
+        when(principalCache.get(7L)).thenReturn(new JwtUserPrincipal(7L, "utilisateur", Role.ROLE_ADMIN, false));
+
+        assertNull(authenticate(tokenProvider.generateToken(user(7L, Role.ROLE_ADMIN))));
+    }
+
+    @Test
+    void refreshTokenIsNotAccepted() throws Exception {
+        when(principalCache.get(7L)).thenReturn(new JwtUserPrincipal(7L, "utilisateur", Role.ROLE_ADMIN, true));
+
+        assertNull(authenticate(tokenProvider.generateRefreshToken(user(7L, Role.ROLE_ADMIN))));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // La chaîne continue dans tous les cas
+        assertNotNull(chain.getRequest());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static List<String> authorities(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    private static UserYamo user(Long id, Role role) {
+        UserYamo user = new UserYamo();
+        user.setId(id);
+        user.setUsername("utilisateur");
+        user.setEmail("utilisateur@example.com");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,157 @@
+package com.irris.yamo.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationTableTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void unknownKeyIsAbsent() {
+        RevocationTable table = new RevocationTable();
+
+        assertEquals(RevocationTable.ABSENT, table.get(1, 2, NOW));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void putThenGetUntilExpiry() {
+        RevocationTable table = new RevocationTable();
+        table.put(1, 2, 42, NOW + 100, NOW);
+
+        assertEquals(42, table.get(1, 2, NOW));
+        assertEquals(42, table.get(1, 2, NOW + 99));
+        assertEquals(RevocationTable.ABSENT, table.get(1, 2, NOW + 100));
+        // Les deux moitiés de la clé comptent
+        assertEquals(RevocationTable.ABSENT, table.get(2, 1, NOW));
+        assertEquals(RevocationTable.ABSENT, table.get(1, 3, NOW));
+    }
+
+    @Test
+    void putReportsWhetherKeyWasLive() {
+        RevocationTable table = new RevocationTable();
+
+        assertTrue(table.put(1, 2, 0, NOW + 100, NOW));
+        assertFalse(table.put(1, 2, 0, NOW + 100, NOW + 50));
+        // Entrée expirée : de nouveau une première révocation
+        assertTrue(table.put(1, 2, 0, NOW + 500, NOW + 100));
+    }
+
+    @Test
+    void putKeepsLargestValueAndExpiryOfLiveEntry() {
+        RevocationTable table = new RevocationTable();
+        table.put(7, 0, 50, NOW + 1_000, NOW);
+        table.put(7, 0, 10, NOW + 100, NOW);
+
+        assertEquals(50, table.get(7, 0, NOW + 500));
+        assertEquals(1, table.size());
+
+        table.put(7, 0, 80, NOW + 200, NOW);
+        assertEquals(80, table.get(7, 0, NOW + 500));
+    }
+
+    @Test
+    void putReplacesExpiredEntry() {
+        RevocationTable table = new RevocationTable();
+        table.put(7, 0, 50, NOW + 100, NOW);
+        table.put(7, 0, 10, NOW + 1_000, NOW + 200);
+
+        assertEquals(10, table.get(7, 0, NOW + 500));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void purgeDropsOnlyExpiredEntries() {
+        RevocationTable table = new RevocationTable();
+        for (long key = 0; key < 100; key++) {
+            table.put(key, key, key, key % 2 == 0 ? NOW + 10 : NOW + 1_000, NOW);
+        }
+
+        assertEquals(50, table.purge(NOW + 10));
+        assertEquals(50, table.size());
+        for (long key = 0; key < 100; key++) {
+            assertEquals(key % 2 == 0 ? RevocationTable.ABSENT : key, table.get(key, key, NOW + 10));
+        }
+    }
+
+    @Test
+    void growthRebuildKeepsEveryLiveEntry() {
+        RevocationTable table = new RevocationTable();
+        Map<Long, Long> expected = new HashMap<>();
+        // Bien au-delà de la capacité initiale : plusieurs reconstructions
+        for (long key = 1; key <= 10_000; key++) {
+            long high = key * 0x1000_0000_0001L;
+            table.put(high, -key, key, NOW + 1_000, NOW);
+            expected.put(key, high);
+        }
+
+        assertEquals(10_000, table.size());
+        expected.forEach((key, high) -> assertEquals((long) key, table.get(high, -key, NOW)));
+    }
+
+    @Test
+    void rebuildDuringGrowthDropsExpiredEntries() {
+        RevocationTable table = new RevocationTable();
+        for (long key = 0; key < 500; key++) {
+            table.put(key, 0, key, NOW + 10, NOW);
+        }
+        // La reconstruction déclenchée par la croissance élimine les entrées expirées
+        for (long key = 500; key < 1_000; key++) {
+            table.put(key, 0, key, NOW + 1_000, NOW + 20);
+        }
+
+        assertEquals(500, table.size());
+        assertEquals(RevocationTable.ABSENT, table.get(0, 0, NOW + 20));
+        assertEquals(999, table.get(999, 0, NOW + 20));
+    }
+
+    @Test
+    void forEachLiveVisitsUnexpiredEntries() {
+        RevocationTable table = new RevocationTable();
+        table.put(1, 10, 100, NOW + 50, NOW);
+        table.put(2, 20, 200, NOW + 500, NOW);
+
+        Map<Long, long[]> seen = new HashMap<>();
+        table.forEachLive(NOW + 100, entry -> seen.put(entry[0], entry));
+
+        assertEquals(1, seen.size());
+        assertArrayEquals(new long[]{2, 20, 200, NOW + 500}, seen.get(2L));
+    }
+
+    @Test
+    void concurrentReadersSeeCompleteEntries() throws Exception {
+        RevocationTable table = new RevocationTable();
+        int entries = 20_000;
+        Thread writer = new Thread(() -> {
+            for (long key = 1; key <= entries; key++) {
+                table.put(key, key, key, Long.MAX_VALUE, NOW);
+            }
+        });
+        boolean[] failed = {false};
+        Thread reader = new Thread(() -> {
+            while (writer.isAlive()) {
+                for (long key = 1; key <= entries; key += 97) {
+                    long value = table.get(key, key, NOW);
+                    // Soit absente, soit complète : jamais une autre valeur
+                    if (value != RevocationTable.ABSENT && value != key) {
+                        failed[0] = true;
+                    }
+                }
+            }
+        });
+        reader.start();
+        writer.start();
+        writer.join();
+        reader.join();
+
+        assertFalse(failed[0]);
+        for (long key = 1; key <= entries; key++) {
+            assertEquals(key, table.get(key, key, NOW));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.irris.yamo.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationStoreTest {
+
+    private static final int RECORD_SIZE = 33;
+    private static final long HOUR = 3_600_000L;
+
+    @TempDir
+    Path directory;
+
+    private final List<TokenRevocationStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() throws IOException {
+        for (TokenRevocationStore store : stores) {
+            store.close();
+        }
+    }
+
+    // ========== UUID ==========
+
+    @Test
+    void uuidBitsMatchJavaUuid() {
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = UUID.randomUUID();
+            String text = uuid.toString();
+
+            assertTrue(TokenRevocationStore.isUuid(text));
+            assertEquals(uuid.getMostSignificantBits(), TokenRevocationStore.uuidHigh(text));
+            assertEquals(uuid.getLeastSignificantBits(), TokenRevocationStore.uuidLow(text));
+            assertEquals(uuid.getMostSignificantBits(), TokenRevocationStore.uuidHigh(text.toUpperCase()));
+        }
+    }
+
+    @Test
+    void malformedUuidsAreRejected() {
+        assertFalse(TokenRevocationStore.isUuid(null));
+        assertFalse(TokenRevocationStore.isUuid(""));
+        assertFalse(TokenRevocationStore.isUuid("123e4567-e89b-12d3-a456-42661417400"));
+        assertFalse(TokenRevocationStore.isUuid("123e4567-e89b-12d3-a456-4266141740000"));
+        assertFalse(TokenRevocationStore.isUuid("123e4567Xe89b-12d3-a456-426614174000"));
+        assertFalse(TokenRevocationStore.isUuid("123e4567-e89b-12d3-a456-42661417400g"));
+        // Chiffres Unicode non ASCII (pleine chasse)
+        assertFalse(TokenRevocationStore.isUuid("123e4567-e89b-12d3-a456-42661417400０"));
+        assertTrue(TokenRevocationStore.isUuid("123e4567-e89b-12d3-a456-426614174000"));
+    }
+
+    // ========== Révocation ==========
+
+    @Test
+    void revokedTokenIsRejectedUntilExpiry() {
+        TokenRevocationStore store = open();
+        String jti = UUID.randomUUID().toString();
+        long issuedAt = System.currentTimeMillis();
+
+        assertFalse(store.isRevoked(jti, 1L, issuedAt));
+        store.revokeToken(jti, issuedAt + HOUR);
+
+        assertTrue(store.isRevoked(jti, 1L, issuedAt));
+        assertFalse(store.isRevoked(UUID.randomUUID().toString(), 1L, issuedAt));
+        assertFalse(store.isRevoked(null, 1L, issuedAt));
+    }
+
+    @Test
+    void onlyOneConcurrentRevocationWins() throws Exception {
+        TokenRevocationStore store = open();
+        long expiresAt = System.currentTimeMillis() + HOUR;
+
+        for (int round = 0; round < 50; round++) {
+            String jti = UUID.randomUUID().toString();
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger winners = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (store.revokeToken(jti, expiresAt)) {
+                        winners.incrementAndGet();
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(1, winners.get());
+        }
+        // Jti non révocable
+        assertFalse(store.revokeToken("pas-un-uuid", expiresAt));
+    }
+
+    @Test
+    void revokedUserInvalidatesOnlyEarlierTokens() {
+        TokenRevocationStore store = open();
+        long before = System.currentTimeMillis() - 1_000;
+
+        store.revokeUser(5L);
+
+        assertTrue(store.isRevoked(null, 5L, before));
+        assertFalse(store.isRevoked(null, 6L, before));
+        assertFalse(store.isRevoked(null, 5L, System.currentTimeMillis() + 1_000));
+    }
+
+    // ========== Journal ==========
+
+    @Test
+    void journalRoundTrip() throws Exception {
+        Path logFile = directory.resolve("revocations.log");
+        TokenRevocationStore store = open(logFile);
+        String jti = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        store.revokeToken(jti, now + HOUR);
+        store.revokeUser(9L);
+        store.close();
+
+        TokenRevocationStore restored = open(logFile);
+
+        assertTrue(restored.isRevoked(jti, 1L, now));
+        assertTrue(restored.isRevoked(null, 9L, now - 1_000));
+        assertFalse(restored.isRevoked(null, 8L, now - 1_000));
+        assertEquals(2 * RECORD_SIZE, Files.size(logFile));
+    }
+
+    @Test
+    void truncatedFinalRecordIsIgnored() throws Exception {
+        Path logFile = directory.resolve("revocations.log");
+        TokenRevocationStore store = open(logFile);
+        String first = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        store.revokeToken(first, now + HOUR);
+        store.close();
+
+        // Arrêt pendant l'écriture : dernier enregistrement incomplet
+        String partial = UUID.randomUUID().toString();
+        byte[] record = record((byte) 1, TokenRevocationStore.uuidHigh(partial),
+                TokenRevocationStore.uuidLow(partial), 0L, now + HOUR);
+        Files.write(logFile, Arrays.copyOf(record, 20), StandardOpenOption.APPEND);
+
+        TokenRevocationStore restored = open(logFile);
+        assertTrue(restored.isRevoked(first, 1L, now));
+        assertFalse(restored.isRevoked(partial, 1L, now));
+        // Journal compacté : enregistrements entiers uniquement
+        assertEquals(RECORD_SIZE, Files.size(logFile));
+
+        // Les ajouts suivants restent alignés
+        String next = UUID.randomUUID().toString();
+        restored.revokeToken(next, now + HOUR);
+        restored.close();
+        TokenRevocationStore reopened = open(logFile);
+        assertTrue(reopened.isRevoked(first, 1L, now));
+        assertTrue(reopened.isRevoked(next, 1L, now));
+    }
+
+    @Test
+    void expiredRecordsAreDroppedOnRecovery() throws Exception {
+        Path logFile = directory.resolve("revocations.log");
+        long now = System.currentTimeMillis();
+        String expired = UUID.randomUUID().toString();
+        String live = UUID.randomUUID().toString();
+        ByteBuffer journal = ByteBuffer.allocate(2 * RECORD_SIZE)
+                .put(record((byte) 1, TokenRevocationStore.uuidHigh(expired),
+                        TokenRevocationStore.uuidLow(expired), 0L, now - 1))
+                .put(record((byte) 1, TokenRevocationStore.uuidHigh(live),
+                        TokenRevocationStore.uuidLow(live), 0L, now + HOUR));
+        Files.write(logFile, journal.array());
+
+        TokenRevocationStore store = open(logFile);
+
+        assertFalse(store.isRevoked(expired, 1L, now));
+        assertTrue(store.isRevoked(live, 1L, now));
+        assertEquals(RECORD_SIZE, Files.size(logFile));
+    }
+
+    private TokenRevocationStore open() {
+        return open(directory.resolve("revocations.log"));
+    }
+
+    private TokenRevocationStore open(Path logFile) {
+        TokenRevocationStore store = new TokenRevocationStore(logFile.toString(), 24 * HOUR, HOUR);
+        store.recover();
+        stores.add(store);
+        return store;
+    }
+
+    private static byte[] record(byte type, long key1, long key2, long value, long expiresAt) {
+        return ByteBuffer.allocate(RECORD_SIZE)
+                .put(type).putLong(key1).putLong(key2).putLong(value).putLong(expiresAt)
+                .array();
+    }
+}
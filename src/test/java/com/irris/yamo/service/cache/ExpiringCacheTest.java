@@ -0,0 +1,117 @@
+package com.irris.yamo.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringCacheTest {
+
+    @Test
+    void concurrentLoadsOfOneKeyCallTheLoaderOnce() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(60_000, 10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("clé", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "valeur";
+                })));
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("valeur", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals("valeur", cache.getIfPresent("clé"));
+    }
+
+    @Test
+    void invalidateDuringLoadDropsTheStaleResult() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(60_000, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread loader = new Thread(() -> cache.get("clé", () -> {
+            started.countDown();
+            await(release);
+            return "ancienne";
+        }));
+        loader.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Donnée modifiée pendant le chargement : le résultat en cours est périmé
+        cache.invalidate("clé");
+        assertEquals("nouvelle", cache.get("clé", () -> "nouvelle"));
+        release.countDown();
+        loader.join(5_000);
+
+        assertEquals("nouvelle", cache.getIfPresent("clé"));
+
+        // Sans chargement concurrent : l'invalidation vide simplement l'entrée
+        cache.invalidate("clé");
+        assertNull(cache.getIfPresent("clé"));
+    }
+
+    @Test
+    void nullResultIsNotCachedAndFailureReachesCaller() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(60_000, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get("clé", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertThrows(IllegalStateException.class, () -> cache.get("clé", () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("Service indisponible");
+        }));
+        assertEquals("valeur", cache.get("clé", () -> {
+            loads.incrementAndGet();
+            return "valeur";
+        }));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void entriesExpireAndLeastRecentlyUsedIsEvicted() throws InterruptedException {
+        ExpiringCache<String, String> bounded = new ExpiringCache<>(60_000, 2);
+        bounded.put("a", "1");
+        bounded.put("b", "2");
+        bounded.getIfPresent("a");
+        bounded.put("c", "3");
+
+        assertEquals(2, bounded.size());
+        assertNull(bounded.getIfPresent("b"));
+        assertEquals("1", bounded.getIfPresent("a"));
+
+        ExpiringCache<String, String> expiring = new ExpiringCache<>(20, 10);
+        expiring.put("a", "1");
+        Thread.sleep(50);
+        assertNull(expiring.getIfPresent("a"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.irris.yamo.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshQueueTest {
+
+    @Test
+    void keysSubmittedDuringRefreshAreBatched() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+        RefreshQueue<Long> queue = new RefreshQueue<>("test", keys -> {
+            batches.add(keys);
+            firstStarted.countDown();
+            await(releaseFirst);
+        });
+
+        queue.submit(List.of(1L));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        // Relecture en cours : les soumissions suivantes attendent ensemble
+        queue.submit(List.of(2L, 3L));
+        queue.submit(List.of(3L, 4L));
+        releaseFirst.countDown();
+        queue.close(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(Set.of(1L), Set.of(2L, 3L, 4L)), batches);
+    }
+
+    @Test
+    void failedRefreshDoesNotStopLaterOnes() throws Exception {
+        List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch failed = new CountDownLatch(1);
+        RefreshQueue<Long> queue = new RefreshQueue<>("test", keys -> {
+            if (keys.contains(1L)) {
+                failed.countDown();
+                throw new IllegalStateException("Base indisponible");
+            }
+            batches.add(keys);
+        });
+
+        queue.submit(List.of(1L));
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        queue.submit(List.of(2L));
+        queue.close(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(Set.of(2L)), batches);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
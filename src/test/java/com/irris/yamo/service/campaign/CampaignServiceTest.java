@@ -0,0 +1,303 @@
+package com.irris.yamo.service.campaign;
+
+import com.irris.yamo.dtos.creation.CampaignRequest;
+import com.irris.yamo.entities.Campaign;
+import com.irris.yamo.entities.Customer;
+import com.irris.yamo.entities.OutboxNotification;
+import com.irris.yamo.entities.enums.CampaignStatus;
+import com.irris.yamo.entities.enums.NotificationChannel;
+import com.irris.yamo.entities.enums.OutboxStatus;
+import com.irris.yamo.entities.enums.Role;
+import com.irris.yamo.repositories.CampaignRepository;
+import com.irris.yamo.repositories.OutboxNotificationRepository;
+import com.irris.yamo.service.NotificationService;
+import com.irris.yamo.service.notification.NotificationAdapterRegistry;
+import com.irris.yamo.service.notification.NotificationChannelAdapter;
+import com.irris.yamo.service.notification.NotificationOutbox;
+import com.irris.yamo.service.notification.OutboundMessage;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Campagnes par pages contre un fournisseur factice : échecs mis en outbox
+ * avec leur clé d'idempotence, arrêt entre deux pages, reprise après le
+ * dernier client enregistré
+ */
+@DataJpaTest(properties = {"campaigns.page-size=2", "campaigns.workers=1"})
+@Import({CampaignService.class, ChannelBatchSender.class, NotificationAdapterRegistry.class, NotificationOutbox.class,
+        CampaignServiceTest.FakeProviderConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CampaignServiceTest {
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private CampaignService campaignService;
+    @Autowired
+    private FakeProvider provider;
+    @Autowired
+    private CampaignRepository campaignRepository;
+    @Autowired
+    private OutboxNotificationRepository outboxRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Partagé entre les tests : la base n'est pas remise à zéro
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        provider.reset();
+        when(notificationService.isValidEmail(any())).thenReturn(true);
+    }
+
+    @Test
+    void failedDeliveriesAreQueuedWithIdempotencyKeys() {
+        String tag = "campagne-" + SEQUENCE.incrementAndGet();
+        List<Customer> customers = createCustomers(tag, 3);
+        Customer unreachable = customers.get(1);
+        provider.failing.add(unreachable.getEmail());
+
+        Long campaignId = campaignService.create(request(tag), "admin").getId();
+
+        Campaign campaign = await(campaignId, c -> c.getStatus() == CampaignStatus.COMPLETED);
+        assertEquals(3, campaign.getTargetedCount());
+        assertEquals(2, campaign.getSentCount());
+        assertEquals(1, campaign.getDeferredCount());
+        assertEquals(customers.get(2).getId(), campaign.getLastCustomerId());
+
+        // Seul l'envoi en échec est confié à l'outbox, sous la clé utilisée pour le premier essai
+        List<OutboxNotification> queued = outbox(campaignId);
+        assertEquals(1, queued.size());
+        OutboxNotification deferred = queued.get(0);
+        String key = "campaign-" + campaignId + "-email-" + unreachable.getId();
+        assertEquals(key, deferred.getIdempotencyKey());
+        assertEquals(key, provider.sentTo(unreachable.getEmail()).get(0).idempotencyKey());
+        assertEquals(NotificationChannel.EMAIL, deferred.getChannel());
+        assertEquals(OutboxStatus.PENDING, deferred.getStatus());
+        assertEquals(unreachable.getEmail(), deferred.getRecipient());
+        assertEquals("Bonjour Client 1", deferred.getBody());
+    }
+
+    @Test
+    void cancelStopsBetweenPagesAndResumeContinuesAfterCheckpoint() {
+        String tag = "campagne-" + SEQUENCE.incrementAndGet();
+        List<Customer> customers = createCustomers(tag, 5);
+        provider.blocked = customers.get(0).getEmail();
+
+        Long campaignId = campaignService.create(request(tag), "admin").getId();
+        awaitTrue(() -> provider.blockedStarted.getCount() == 0, "Première page jamais envoyée");
+
+        // Annulation pendant l'envoi de la première page
+        assertEquals(CampaignStatus.CANCELLED, campaignService.cancel(campaignId).getStatus());
+        provider.release.countDown();
+        awaitTrue(() -> !inFlight().contains(campaignId), "Campagne " + campaignId + " jamais arrêtée");
+
+        // La page en cours est enregistrée, la suivante n'est pas envoyée
+        Campaign cancelled = campaignService.getCampaign(campaignId);
+        assertEquals(CampaignStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(customers.get(1).getId(), cancelled.getLastCustomerId());
+        assertEquals(2, cancelled.getSentCount());
+        assertEquals(List.of(customers.get(0).getEmail(), customers.get(1).getEmail()),
+                provider.recipients(tag).stream().sorted().toList());
+
+        campaignService.resume(campaignId);
+
+        Campaign completed = await(campaignId, c -> c.getStatus() == CampaignStatus.COMPLETED);
+        assertEquals(5, completed.getTargetedCount());
+        assertEquals(5, completed.getSentCount());
+        // Chaque client reçoit un seul message
+        assertEquals(customers.stream().map(Customer::getEmail).sorted().toList(),
+                provider.recipients(tag).stream().sorted().toList());
+    }
+
+    @Test
+    void interruptedCampaignResumesAfterLastCheckpoint() {
+        String tag = "campagne-" + SEQUENCE.incrementAndGet();
+        List<Customer> customers = createCustomers(tag, 4);
+        // Campagne interrompue après la première page enregistrée
+        Long campaignId = transaction.execute(status -> {
+            Campaign campaign = new Campaign();
+            campaign.setName("Campagne " + tag);
+            campaign.setTags(Set.of(tag));
+            campaign.setEmailChannel(true);
+            campaign.setSubject("Promotion");
+            campaign.setMessage("Bonjour {{firstName}}");
+            campaign.setStatus(CampaignStatus.FAILED);
+            campaign.setLastCustomerId(customers.get(1).getId());
+            campaign.setTargetedCount(2);
+            campaign.setSentCount(2);
+            campaign.setCreatedAt(LocalDateTime.now());
+            return campaignRepository.save(campaign).getId();
+        });
+
+        campaignService.resume(campaignId);
+
+        Campaign completed = await(campaignId, c -> c.getStatus() == CampaignStatus.COMPLETED);
+        assertEquals(4, completed.getTargetedCount());
+        assertEquals(4, completed.getSentCount());
+        assertNull(completed.getError());
+        assertEquals(List.of(customers.get(2).getEmail(), customers.get(3).getEmail()),
+                provider.recipients(tag).stream().sorted().toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> inFlight() {
+        return (Set<Long>) ReflectionTestUtils.getField(campaignService, "inFlight");
+    }
+
+    private List<OutboxNotification> outbox(Long campaignId) {
+        String prefix = "campaign-" + campaignId + "-";
+        return transaction.execute(status -> outboxRepository.findAll().stream()
+                .filter(n -> n.getIdempotencyKey().startsWith(prefix))
+                .toList());
+    }
+
+    // Attend la progression asynchrone de la campagne
+    private Campaign await(Long campaignId, Predicate<Campaign> reached) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        Campaign campaign = campaignService.getCampaign(campaignId);
+        while (!reached.test(campaign)) {
+            assertTrue(System.currentTimeMillis() < deadline,
+                    "Campagne " + campaignId + " bloquée au statut " + campaign.getStatus());
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+            campaign = campaignService.getCampaign(campaignId);
+        }
+        return campaign;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+    }
+
+    private static CampaignRequest request(String tag) {
+        return CampaignRequest.builder()
+                .name("Campagne " + tag)
+                .tags(Set.of(tag))
+                .email(true)
+                .subject("Promotion")
+                .message("Bonjour {{firstName}}")
+                .build();
+    }
+
+    /**
+     * Clients du tag donné, par id croissant, abonnés aux emails uniquement
+     */
+    private List<Customer> createCustomers(String tag, int count) {
+        return transaction.execute(status -> {
+            List<Customer> customers = new ArrayList<>();
+            for (int n = 0; n < count; n++) {
+                Customer customer = new Customer();
+                customer.setFirstName("Client " + n);
+                customer.setLastName("Test");
+                customer.setUsername(tag + "-" + n);
+                customer.setEmail(tag + "-" + n + "@example.com");
+                customer.setRole(Role.ROLE_CUSTOMER);
+                customer.setEmailNotifications(true);
+                customer.setPushNotifications(false);
+                customer.getTags().add(tag);
+                entityManager.persist(customer);
+                customers.add(customer);
+            }
+            return customers;
+        });
+    }
+
+    @TestConfiguration
+    static class FakeProviderConfig {
+
+        @Bean
+        FakeProvider fakeProvider() {
+            return new FakeProvider();
+        }
+    }
+
+    /**
+     * Fournisseur factice : enregistre chaque envoi, échoue ou bloque pour les destinataires choisis
+     */
+    static class FakeProvider implements NotificationChannelAdapter {
+
+        private final List<OutboundMessage> sent = new CopyOnWriteArrayList<>();
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+        private volatile CountDownLatch blockedStarted;
+        private volatile CountDownLatch release;
+        private volatile String blocked;
+
+        void reset() {
+            sent.clear();
+            failing.clear();
+            blocked = null;
+            blockedStarted = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public Set<NotificationChannel> channels() {
+            return Set.of(NotificationChannel.EMAIL, NotificationChannel.SMS, NotificationChannel.PUSH);
+        }
+
+        @Override
+        public void send(NotificationChannel channel, OutboundMessage message) {
+            sent.add(message);
+            if (message.recipient().equals(blocked)) {
+                blockedStarted.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failing.contains(message.recipient())) {
+                throw new IllegalStateException("Fournisseur indisponible");
+            }
+        }
+
+        List<OutboundMessage> sentTo(String recipient) {
+            return sent.stream().filter(message -> message.recipient().equals(recipient)).toList();
+        }
+
+        // Destinataires des clients du tag
+        List<String> recipients(String tag) {
+            return sent.stream().map(OutboundMessage::recipient).filter(r -> r.startsWith(tag + "-")).toList();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.irris.yamo.service.geo;
+
+import com.irris.yamo.entities.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adresses à moins de 2 km et 10 plus proches, parmi 1 000, 10 000 et 100 000
+ * points répartis sur une agglomération : grille contre parcours complet
+ * (haversine sur chaque point).
+ *
+ * Lancement : méthode main depuis l'IDE, après mvn test-compile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeoGridIndexBenchmark {
+
+    private static final double CELL_DEGREES = 0.01;
+    private static final double RADIUS_KM = 2;
+    private static final int NEAREST = 10;
+    private static final int QUERIES = 64;
+
+    @Param({"1000", "10000", "100000"})
+    public int points;
+
+    private GeoGridIndex index;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[][] queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(points);
+        index = new GeoGridIndex(CELL_DEGREES);
+        latitudes = new double[points];
+        longitudes = new double[points];
+        for (int id = 0; id < points; id++) {
+            latitudes[id] = 5.2 + random.nextDouble() * 0.4;
+            longitudes[id] = -4.2 + random.nextDouble() * 0.4;
+            index.put(id, latitudes[id], longitudes[id]);
+        }
+        queries = new double[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = new double[]{5.2 + random.nextDouble() * 0.4, -4.2 + random.nextDouble() * 0.4};
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int gridWithinRadius() {
+        int found = 0;
+        for (double[] query : queries) {
+            found += index.withinRadius(query[0], query[1], RADIUS_KM).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int scanWithinRadius() {
+        int found = 0;
+        for (double[] query : queries) {
+            found += scanWithin(query[0], query[1]).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public long gridNearest() {
+        long sum = 0;
+        for (double[] query : queries) {
+            for (GeoGridIndex.Hit hit : index.nearest(query[0], query[1], NEAREST, null)) {
+                sum += hit.id();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public long scanNearest() {
+        long sum = 0;
+        for (double[] query : queries) {
+            for (GeoGridIndex.Hit hit : scanNearest(query[0], query[1])) {
+                sum += hit.id();
+            }
+        }
+        return sum;
+    }
+
+    @TearDown(Level.Trial)
+    public void check() {
+        // La grille doit trouver les mêmes points que le parcours complet
+        if (gridWithinRadius() != scanWithinRadius() || gridNearest() != scanNearest()) {
+            throw new IllegalStateException("Résultats différents entre grille et parcours complet");
+        }
+    }
+
+    private List<GeoGridIndex.Hit> scanWithin(double latitude, double longitude) {
+        List<GeoGridIndex.Hit> hits = new ArrayList<>();
+        for (int id = 0; id < latitudes.length; id++) {
+            double distance = GeoUtils.haversineDistance(latitude, longitude, latitudes[id], longitudes[id]);
+            if (distance <= RADIUS_KM) {
+                hits.add(new GeoGridIndex.Hit(id, distance));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(GeoGridIndex.Hit::distanceKm));
+        return hits;
+    }
+
+    private List<GeoGridIndex.Hit> scanNearest(double latitude, double longitude) {
+        // Tas borné aux k meilleurs, le plus éloigné en tête
+        PriorityQueue<GeoGridIndex.Hit> best = new PriorityQueue<>(
+                Comparator.comparingDouble(GeoGridIndex.Hit::distanceKm).reversed());
+        for (int id = 0; id < latitudes.length; id++) {
+            double distance = GeoUtils.haversineDistance(latitude, longitude, latitudes[id], longitudes[id]);
+            if (best.size() < NEAREST) {
+                best.add(new GeoGridIndex.Hit(id, distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new GeoGridIndex.Hit(id, distance));
+            }
+        }
+        List<GeoGridIndex.Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(GeoGridIndex.Hit::distanceKm));
+        return hits;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeoGridIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,195 @@
+package com.irris.yamo.service.geo;
+
+import com.irris.yamo.entities.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridIndexTest {
+
+    private static final double CELL_DEGREES = 0.01;
+
+    @Test
+    void emptyIndexReturnsNothing() {
+        GeoGridIndex index = new GeoGridIndex(CELL_DEGREES);
+
+        assertEquals(0, index.size());
+        assertTrue(index.withinRadius(5.3, -4.0, 50).isEmpty());
+        assertTrue(index.nearest(5.3, -4.0, 3, null).isEmpty());
+    }
+
+    @Test
+    void withinRadiusMatchesBruteForce() {
+        Random random = new Random(3);
+        Map<Long, double[]> points = new HashMap<>();
+        GeoGridIndex index = new GeoGridIndex(CELL_DEGREES);
+        for (long id = 1; id <= 2_000; id++) {
+            double latitude = 5.2 + random.nextDouble() * 0.4;
+            double longitude = -4.2 + random.nextDouble() * 0.4;
+            index.put(id, latitude, longitude);
+            points.put(id, new double[]{latitude, longitude});
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double latitude = 5.2 + random.nextDouble() * 0.4;
+            double longitude = -4.2 + random.nextDouble() * 0.4;
+            double radiusKm = 0.5 + random.nextDouble() * 3;
+
+            assertEquals(bruteForceWithin(points, latitude, longitude, radiusKm),
+                    ids(index.withinRadius(latitude, longitude, radiusKm)));
+        }
+    }
+
+    @Test
+    void withinRadiusIsSortedByDistance() {
+        GeoGridIndex index = new GeoGridIndex(CELL_DEGREES);
+        index.put(1, 5.300, -4.000);
+        index.put(2, 5.320, -4.000);
+        index.put(3, 5.310, -4.000);
+
+        List<GeoGridIndex.Hit> hits = index.withinRadius(5.300, -4.000, 5);
+
+        assertEquals(List.of(1L, 3L, 2L), ids(hits));
+        assertEquals(0.0, hits.get(0).distanceKm(), 1e-9);
+    }
+
+    @Test
+    void nearestCrossesCellBoundaries() {
+        GeoGridIndex index = new GeoGridIndex(CELL_DEGREES);
+        // Requête au bord d'une cellule : le plus proche est dans la cellule voisine
+        index.put(1, 5.3001, -4.0001);
+        index.put(2, 5.3099, -4.0099);
+        index.put(3, 5.2999, -3.9999);
+
+        List<GeoGridIndex.Hit> hits = index.nearest(5.30005, -4.00005, 1, null);
+
+        assertEquals(List.of(1L), ids(hits));
+        assertEquals(List.of(1L, 3L), ids(index.nearest(5.30000, -4.00000, 2, null)));
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(11);
+        Map<Long, double[]> points = new HashMap<>();
+        GeoGridIndex index = new GeoGridIndex(CELL_DEGREES);
+        for (long id = 1; id <= 1_500; id++) {
+            double latitude = 5.2 + random.nextDouble() * 0.6;
+            double longitude = -4.3 + random.nextDouble() * 0.6;
+            index.put(id, latitude, longitude);
+            points.put(id, new double[]{latitude, longitude});
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double latitude = 5.0 + random.nextDouble();
+            double longitude = -4.5 + random.nextDouble();
+            int k = 1 + random.nextInt(5);
+
+            assertEquals(bruteForceNearest(points, latitude, longitude, k),
+                    ids(index.nearest(latitude, longitude, k, null)));
+        }
+    }
+
+    @Test
+    void nearestAppliesFilter() {
+        GeoGridIndex index = new GeoGridIndex(CELL_DEGREES);
+        index.put(1, 5.300, -4.000);
+        index.put(2, 5.301, -4.000);
+        index.put(3, 5.350, -4.000);
+
+        assertEquals(List.of(3L), ids(index.nearest(5.300, -4.000, 1, id -> id == 3)));
+    }
+
+    @Test
+    void queriesWrapAroundAntimeridian() {
+        GeoGridIndex index = withDistantFiller();
+        index.put(1, 10.0, 179.9995);
+        index.put(2, 10.0, -179.9995);
+        index.put(3, 10.0, 179.95);
+
+        // Les points 1 et 2 sont à ~110 m l'un de l'autre, de part et d'autre de l'antiméridien
+        assertEquals(List.of(2L, 1L), ids(index.withinRadius(10.0, -179.9999, 1)));
+        assertEquals(List.of(1L, 2L), ids(index.nearest(10.0, 179.9999, 2, id -> id <= 3)));
+        assertEquals(List.of(2L), ids(index.nearest(10.0, -179.9990, 1, id -> id <= 3)));
+    }
+
+    @Test
+    void queriesNearPolesCoverAllLongitudes() {
+        GeoGridIndex index = withDistantFiller();
+        index.put(1, 89.999, 0.0);
+        index.put(2, 89.999, 180.0);
+        index.put(3, 89.990, 90.0);
+        index.put(4, -89.999, 45.0);
+
+        // Près du pôle, des longitudes opposées sont à quelques centaines de mètres
+        List<Long> within = ids(index.withinRadius(89.9995, 90.0, 2));
+        assertEquals(3, within.size());
+        assertTrue(within.containsAll(List.of(1L, 2L, 3L)));
+
+        List<GeoGridIndex.Hit> nearest = index.nearest(89.9999, 180.0, 2, id -> id <= 4);
+        assertEquals(List.of(2L, 1L), ids(nearest));
+        assertEquals(List.of(4L), ids(index.nearest(-89.9999, -135.0, 1, id -> id <= 4)));
+    }
+
+    @Test
+    void putMovesAndRemoveDeletesPoint() {
+        GeoGridIndex index = new GeoGridIndex(CELL_DEGREES);
+        index.put(1, 5.300, -4.000);
+        index.put(1, 5.500, -4.000);
+
+        assertTrue(index.withinRadius(5.300, -4.000, 1).isEmpty());
+        assertEquals(List.of(1L), ids(index.withinRadius(5.500, -4.000, 1)));
+        assertEquals(1, index.size());
+
+        index.remove(1);
+        assertEquals(0, index.size());
+        assertTrue(index.nearest(5.500, -4.000, 1, null).isEmpty());
+    }
+
+    // ========== Outils ==========
+
+    /**
+     * Index contenant de nombreux points éloignés, pour que les requêtes
+     * parcourent la grille plutôt que l'ensemble des points
+     */
+    private static GeoGridIndex withDistantFiller() {
+        GeoGridIndex index = new GeoGridIndex(CELL_DEGREES);
+        Random random = new Random(5);
+        for (long id = 1_000; id < 6_000; id++) {
+            index.put(id, -40 + random.nextDouble() * 80, -170 + random.nextDouble() * 340);
+        }
+        return index;
+    }
+
+    private static List<Long> ids(List<GeoGridIndex.Hit> hits) {
+        return hits.stream().map(GeoGridIndex.Hit::id).toList();
+    }
+
+    private static List<Long> bruteForceWithin(Map<Long, double[]> points, double latitude, double longitude,
+                                               double radiusKm) {
+        return sortedByDistance(points, latitude, longitude).stream()
+                .filter(id -> distance(points.get(id), latitude, longitude) <= radiusKm)
+                .toList();
+    }
+
+    private static List<Long> bruteForceNearest(Map<Long, double[]> points, double latitude, double longitude, int k) {
+        List<Long> sorted = sortedByDistance(points, latitude, longitude);
+        return sorted.subList(0, Math.min(k, sorted.size()));
+    }
+
+    private static List<Long> sortedByDistance(Map<Long, double[]> points, double latitude, double longitude) {
+        List<Long> ids = new ArrayList<>(points.keySet());
+        ids.sort(Comparator.comparingDouble(id -> distance(points.get(id), latitude, longitude)));
+        return ids;
+    }
+
+    private static double distance(double[] point, double latitude, double longitude) {
+        return GeoUtils.haversineDistance(latitude, longitude, point[0], point[1]);
+    }
+}
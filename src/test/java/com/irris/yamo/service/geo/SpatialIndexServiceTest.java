@@ -0,0 +1,145 @@
+package com.irris.yamo.service.geo;
+
+import com.irris.yamo.repositories.AddressRepository;
+import com.irris.yamo.repositories.DriverRepository;
+import com.irris.yamo.repositories.projection.GeoPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SpatialIndexServiceTest {
+
+    private static final LocalDateTime RECORDED_AT = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    // « Base » : chauffeurs actifs et leur base
+    private final Map<Long, GeoPoint> activeDrivers = new ConcurrentHashMap<>();
+
+    private SpatialIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        AddressRepository addressRepository = mock(AddressRepository.class);
+        when(addressRepository.findAllGeoPoints()).thenReturn(List.of());
+
+        DriverRepository driverRepository = mock(DriverRepository.class);
+        when(driverRepository.findBaseLocationGeoPoints()).thenAnswer(invocation ->
+                List.copyOf(activeDrivers.values()));
+        when(driverRepository.findActiveGeoPoints(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(activeDrivers::get).filter(p -> p != null).toList();
+        });
+
+        service = new SpatialIndexService(addressRepository, driverRepository, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "shutdownTimeoutSeconds", 5L);
+        service.init();
+
+        activeDrivers.put(1L, new GeoPoint(1L, 5.30, -4.00));
+        service.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    void createdAndDeactivatedDriversReachTheIndex() {
+        activeDrivers.put(2L, new GeoPoint(2L, 5.31, -4.01));
+        service.onDriverChanged(2L);
+        await(() -> nearestDriverIds().contains(2L));
+
+        // Désactivation : le chauffeur ne doit plus être proposé
+        activeDrivers.remove(1L);
+        service.onDriverChanged(1L);
+        await(() -> !nearestDriverIds().contains(1L));
+        assertEquals(List.of(2L), nearestDriverIds());
+    }
+
+    @Test
+    void livePositionSurvivesRebuildAndChange() {
+        service.updateDriverPosition(1L, 5.50, -3.80, RECORDED_AT);
+
+        service.rebuild();
+        assertNearestIsAt(5.50, -3.80);
+
+        // Modification du chauffeur (ex. base) : la position GPS reste prioritaire
+        activeDrivers.put(1L, new GeoPoint(1L, 5.20, -4.10));
+        service.onDriverChanged(1L);
+        activeDrivers.put(3L, new GeoPoint(3L, 5.40, -4.00));
+        service.onDriverChanged(3L);
+        await(() -> nearestDriverIds().contains(3L));
+        assertNearestIsAt(5.50, -3.80);
+    }
+
+    @Test
+    void olderPositionDoesNotOverwriteNewerOne() {
+        service.updateDriverPosition(1L, 5.50, -3.80, RECORDED_AT);
+        // Lot plus ancien arrivé après coup
+        service.updateDriverPosition(1L, 5.10, -4.30, RECORDED_AT.minusSeconds(30));
+        assertNearestIsAt(5.50, -3.80);
+
+        service.updateDriverPosition(1L, 5.45, -3.85, RECORDED_AT.plusSeconds(30));
+        assertNearestIsAt(5.45, -3.85);
+    }
+
+    @Test
+    void concurrentDriversKeepTheirNewestPosition() throws InterruptedException {
+        int threads = 8;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long driverId = 100 + t;
+            workers[t] = new Thread(() -> {
+                // Horodatages dans le désordre : seul le plus récent (i = 99) doit rester
+                for (int i = 0; i < 100; i++) {
+                    int n = i % 2 == 0 ? i : 98 - i;
+                    service.updateDriverPosition(driverId, 5.0 + n * 0.001, -4.0, RECORDED_AT.plusSeconds(n));
+                }
+                service.updateDriverPosition(driverId, 5.2, -4.0 + driverId * 0.001, RECORDED_AT.plusSeconds(99));
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join(5_000);
+        }
+
+        for (long driverId = 100; driverId < 100 + threads; driverId++) {
+            GeoGridIndex.Hit hit = service.findNearestDrivers(5.2, -4.0 + driverId * 0.001, 1, null).get(0);
+            assertEquals(driverId, hit.id());
+            assertEquals(0, hit.distanceKm(), 1e-6);
+        }
+    }
+
+    private void assertNearestIsAt(double latitude, double longitude) {
+        GeoGridIndex.Hit hit = service.findNearestDrivers(latitude, longitude, 1, null).get(0);
+        assertEquals(1L, hit.id());
+        assertEquals(0, hit.distanceKm(), 1e-6);
+    }
+
+    private List<Long> nearestDriverIds() {
+        return service.findNearestDrivers(5.30, -4.00, 10, null).stream().map(GeoGridIndex.Hit::id).toList();
+    }
+
+    // Attend la relecture asynchrone
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Index jamais mis à jour");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.irris.yamo.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irris.yamo.service.maps.GoogleMapsClient;
+import com.irris.yamo.service.maps.TravelMatrix;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Client et service Google Maps face à un serveur HTTP bouchon : cache,
+ * fusion des appels concurrents, limitation de débit, nouvelles tentatives et
+ * découpage de la matrice de trajets en blocs de 10 × 10
+ */
+class GoogleMapsServiceImplTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    // Requêtes reçues : chemin et paramètres décodés
+    private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+    // Réponses à servir dans l'ordre, puis réponse par défaut
+    private final Queue<Response> scripted = new ConcurrentLinkedQueue<>();
+    private volatile Function<Request, Response> responder = request -> Response.ok(geocodeResult());
+
+    private record Request(String path, Map<String, String> params) {
+    }
+
+    private record Response(int status, Map<String, Object> body) {
+        static Response ok(Map<String, Object> body) {
+            return new Response(200, body);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverThreads);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void geocodeIsCachedPerNormalizedAddress() {
+        GoogleMapsServiceImpl service = service(client(100, 2, 1000));
+
+        Map<String, Double> first = service.geocodeAddress("Rue des Jardins, Cocody");
+        Map<String, Double> second = service.geocodeAddress("  rue des jardins,   COCODY ");
+
+        assertEquals(5.35, first.get("latitude"));
+        assertEquals(first, second);
+        assertEquals(1, requests.size());
+        assertEquals("test-key", requests.peek().params().get("key"));
+    }
+
+    @Test
+    void concurrentLookupsOfOneAddressAreCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        responder = request -> {
+            await(release);
+            return Response.ok(geocodeResult());
+        };
+        GoogleMapsServiceImpl service = service(client(100, 2, 1000));
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Map<String, Double>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> service.geocodeAddress("Rue des Jardins")));
+            }
+            // Laisse les appelants se fusionner derrière la requête en cours
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Map<String, Double>> result : results) {
+                assertEquals(5.35, result.get(5, TimeUnit.SECONDS).get("latitude"));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void transientErrorsAreRetriedButClientErrorsAreNot() {
+        scripted.add(new Response(503, Map.of()));
+        scripted.add(Response.ok(Map.of("status", "OVER_QUERY_LIMIT")));
+        GoogleMapsServiceImpl service = service(client(100, 2, 1000));
+
+        assertEquals(5.35, service.geocodeAddress("Rue des Jardins").get("latitude"));
+        assertEquals(3, requests.size());
+
+        requests.clear();
+        scripted.add(new Response(400, Map.of()));
+        assertNull(service.geocodeAddress("Adresse invalide"));
+        assertEquals(1, requests.size());
+
+        // Tentatives épuisées : échec non mis en cache, nouvel appel la fois suivante
+        requests.clear();
+        for (int i = 0; i < 3; i++) {
+            scripted.add(new Response(500, Map.of()));
+        }
+        assertNull(service.geocodeAddress("Autre adresse"));
+        assertEquals(3, requests.size());
+        assertNotNull(service.geocodeAddress("Autre adresse"));
+        assertEquals(4, requests.size());
+    }
+
+    @Test
+    void rateLimitDropsCallsThatWouldWaitTooLong() {
+        // Un appel par seconde, aucune attente tolérée
+        GoogleMapsServiceImpl service = service(client(1, 0, 0));
+
+        assertNotNull(service.geocodeAddress("Adresse 1"));
+        assertNull(service.geocodeAddress("Adresse 2"));
+        assertNull(service.geocodeAddress("Adresse 3"));
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void rateLimitSpacesCallsWhenWaitingIsAllowed() {
+        // Rafale de 5, puis un appel toutes les 200 ms
+        GoogleMapsServiceImpl service = service(client(5, 0, 2000));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 7; i++) {
+            assertNotNull(service.geocodeAddress("Adresse " + i));
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(7, requests.size());
+        assertTrue(elapsedMs >= 350, "7 appels en " + elapsedMs + " ms");
+    }
+
+    @Test
+    void travelMatrixIsFetchedInBlocksOfTenAndCached() {
+        responder = GoogleMapsServiceImplTest::distanceMatrixResult;
+        GoogleMapsServiceImpl service = service(client(100, 2, 1000));
+        int n = 15;
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = 5.30 + i * 0.01;
+            longitudes[i] = -4.00;
+        }
+
+        TravelMatrix matrix = service.getTravelMatrix(latitudes, longitudes);
+
+        // 15 points : blocs 10 et 5 en origines comme en destinations
+        assertEquals(4, requests.size());
+        for (Request request : requests) {
+            int origins = request.params().get("origins").split("\\|").length;
+            int destinations = request.params().get("destinations").split("\\|").length;
+            assertTrue(origins * destinations <= 100, origins + " x " + destinations + " éléments");
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertTrue(matrix.isAvailable(i, j));
+                // Bouchon : 1 km par écart de 0,01° de latitude, 2 min par km
+                assertEquals(Math.abs(i - j), matrix.distanceKm()[i][j], 1e-9);
+                assertEquals(2 * Math.abs(i - j), matrix.durationMinutes()[i][j]);
+            }
+        }
+
+        // Tous les trajets en cache : aucun nouvel appel, y compris pour un sous-ensemble
+        requests.clear();
+        service.getTravelMatrix(latitudes, longitudes);
+        service.getTravelMatrix(new double[]{latitudes[3], latitudes[12]}, new double[]{longitudes[3], longitudes[12]});
+        assertEquals(0, requests.size());
+    }
+
+    // ========== Serveur bouchon ==========
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Request request = new Request(exchange.getRequestURI().getPath(), params(exchange.getRequestURI().getRawQuery()));
+        requests.add(request);
+        Response response = scripted.poll();
+        if (response == null) {
+            response = responder.apply(request);
+        }
+        byte[] body = JSON.writeValueAsBytes(response.body());
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> params(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static Map<String, Object> geocodeResult() {
+        return Map.of("status", "OK", "results", List.of(
+                Map.of("geometry", Map.of("location", Map.of("lat", 5.35, "lng", -3.98)))));
+    }
+
+    private static Response distanceMatrixResult(Request request) {
+        List<Double> origins = latitudes(request.params().get("origins"));
+        List<Double> destinations = latitudes(request.params().get("destinations"));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (double origin : origins) {
+            List<Map<String, Object>> elements = new ArrayList<>();
+            for (double destination : destinations) {
+                long km = Math.round(Math.abs(origin - destination) * 100);
+                elements.add(Map.of("status", "OK",
+                        "distance", Map.of("value", km * 1000),
+                        "duration", Map.of("value", km * 120)));
+            }
+            rows.add(Map.of("elements", elements));
+        }
+        return Response.ok(Map.of("status", "OK", "rows", rows));
+    }
+
+    private static List<Double> latitudes(String points) {
+        List<Double> latitudes = new ArrayList<>();
+        for (String point : points.split("\\|")) {
+            latitudes.add(Double.parseDouble(point.split(",")[0]));
+        }
+        return latitudes;
+    }
+
+    // ========== Montage ==========
+
+    private GoogleMapsClient client(double permitsPerSecond, int maxRetries, long rateLimitWaitMs) {
+        return new GoogleMapsClient("http://127.0.0.1:" + server.getAddress().getPort(), "test-key",
+                1000, 2000, permitsPerSecond, maxRetries, rateLimitWaitMs);
+    }
+
+    private static GoogleMapsServiceImpl service(GoogleMapsClient client) {
+        GoogleMapsServiceImpl service = new GoogleMapsServiceImpl(client);
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", 1000);
+        ReflectionTestUtils.setField(service, "geocodeTtlMinutes", 60L);
+        ReflectionTestUtils.setField(service, "directionsTtlMinutes", 60L);
+        service.initCaches();
+        return service;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
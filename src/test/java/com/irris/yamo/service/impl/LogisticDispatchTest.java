@@ -0,0 +1,202 @@
+package com.irris.yamo.service.impl;
+
+import com.irris.yamo.entities.Adresse;
+import com.irris.yamo.entities.Driver;
+import com.irris.yamo.entities.LogisticTask;
+import com.irris.yamo.entities.enums.Role;
+import com.irris.yamo.entities.enums.TaskStatus;
+import com.irris.yamo.entities.enums.TaskType;
+import com.irris.yamo.exception.InvalidOperationException;
+import com.irris.yamo.mapper.LogisticTaskMapper;
+import com.irris.yamo.service.GoogleMapsService;
+import com.irris.yamo.service.events.WorkflowEvent;
+import com.irris.yamo.service.events.WorkflowEventBus;
+import com.irris.yamo.service.geo.SpatialIndexService;
+import com.irris.yamo.service.routing.DispatchProblem;
+import com.irris.yamo.service.routing.DistanceMatrixService;
+import com.irris.yamo.service.routing.FleetDispatcher;
+import com.irris.yamo.service.routing.LocalSearchRouteOptimizer;
+import com.irris.yamo.service.tracking.DriverPositionStore;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Répartition d'une journée : calcul hors transaction, ordres de passage à la
+ * suite des tâches engagées, notification des chauffeurs après commit
+ */
+@DataJpaTest
+@Import({LogisticServiceImpl.class, FleetDispatcher.class, LocalSearchRouteOptimizer.class, DistanceMatrixService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LogisticDispatchTest {
+
+    @MockitoBean
+    private LogisticTaskMapper logisticTaskMapper;
+    @MockitoBean
+    private GoogleMapsService googleMapsService;
+    @MockitoBean
+    private SpatialIndexService spatialIndexService;
+    @MockitoBean
+    private DriverPositionStore driverPositionStore;
+    @MockitoBean
+    private WorkflowEventBus workflowEventBus;
+    @MockitoSpyBean
+    private FleetDispatcher fleetDispatcher;
+
+    @Autowired
+    private LogisticServiceImpl logisticService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Partagé entre les tests : la base n'est pas remise à zéro
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private TransactionTemplate transaction;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        date = LocalDate.of(2024, 1, 1).plusDays(SEQUENCE.incrementAndGet());
+        // Chauffeurs des tests précédents hors répartition
+        transaction.executeWithoutResult(status ->
+                entityManager.createQuery("UPDATE Driver d SET d.isAvailable = false").executeUpdate());
+    }
+
+    @Test
+    void sequencesFollowCommittedTasksAndDriversAreNotified() {
+        Long[] ids = transaction.execute(status -> {
+            Driver north = driver(5.30, -4.00);
+            Driver south = driver(5.50, -3.80);
+            // Tâche démarrée du chauffeur nord, ordre de passage 2
+            task(north, 5.301, -4.001, TaskStatus.IN_PROGRESS, 2);
+            task(null, 5.302, -4.002, TaskStatus.PENDING, null);
+            task(null, 5.303, -4.003, TaskStatus.PENDING, null);
+            task(null, 5.501, -3.801, TaskStatus.PENDING, null);
+            // Adresse non géocodée, affectée à la main au chauffeur sud
+            task(south, null, null, TaskStatus.PENDING, 1);
+            return new Long[]{north.getId(), south.getId()};
+        });
+
+        Map<String, Object> result = logisticService.dispatchDay(date);
+
+        assertEquals(3, result.get("tasksDispatched"));
+        assertEquals(List.of(), result.get("conflictTaskIds"));
+        assertEquals(1, ((List<?>) result.get("skippedTaskIds")).size());
+
+        Map<Long, List<Integer>> sequences = sequencesByDriver();
+        assertEquals(List.of(2, 3, 4), sequences.get(ids[0]));
+        // Tâche non géocodée conservée, après la tournée calculée
+        assertEquals(List.of(1, 2), sequences.get(ids[1]));
+
+        verify(workflowEventBus).publish(new WorkflowEvent.RouteDispatched(ids[0], date));
+        verify(workflowEventBus).publish(new WorkflowEvent.RouteDispatched(ids[1], date));
+    }
+
+    @Test
+    void taskChangedDuringComputationIsLeftAlone() {
+        Long[] ids = transaction.execute(status -> {
+            Driver driver = driver(5.30, -4.00);
+            LogisticTask started = task(null, 5.301, -4.001, TaskStatus.PENDING, null);
+            LogisticTask other = task(null, 5.302, -4.002, TaskStatus.PENDING, null);
+            return new Long[]{driver.getId(), started.getId(), other.getId()};
+        });
+        // Tâche démarrée par une autre transaction pendant le calcul
+        doAnswer(invocation -> {
+            transaction.executeWithoutResult(status ->
+                    entityManager.find(LogisticTask.class, ids[1]).setStatus(TaskStatus.IN_PROGRESS));
+            return invocation.callRealMethod();
+        }).when(fleetDispatcher).dispatch(any(DispatchProblem.class));
+
+        Map<String, Object> result = logisticService.dispatchDay(date);
+
+        assertEquals(List.of(ids[1]), result.get("conflictTaskIds"));
+        assertEquals(1, result.get("tasksDispatched"));
+        LogisticTask started = transaction.execute(status -> entityManager.find(LogisticTask.class, ids[1]));
+        assertNull(started.getDriver());
+        assertNull(started.getSequenceOrder());
+        assertEquals(List.of(1), sequencesByDriver().get(ids[0]));
+    }
+
+    @Test
+    void noAvailableDriverIsRejected() {
+        transaction.executeWithoutResult(status -> task(null, 5.301, -4.001, TaskStatus.PENDING, null));
+
+        assertThrows(InvalidOperationException.class, () -> logisticService.dispatchDay(date));
+        verify(workflowEventBus, never()).publish(any());
+    }
+
+    /**
+     * Ordres de passage de la journée par chauffeur, triés
+     */
+    private Map<Long, List<Integer>> sequencesByDriver() {
+        List<Object[]> rows = transaction.execute(status -> entityManager.createQuery(
+                "SELECT lt.driver.id, lt.sequenceOrder FROM LogisticTask lt " +
+                "WHERE lt.scheduledDate = :date AND lt.driver IS NOT NULL ORDER BY lt.sequenceOrder", Object[].class)
+                .setParameter("date", date)
+                .getResultList());
+        Map<Long, List<Integer>> sequences = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (Object[] row : rows) {
+            assertTrue(seen.add(row[0] + ":" + row[1]), "ordre de passage en double: " + row[1]);
+            sequences.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Integer) row[1]);
+        }
+        return sequences;
+    }
+
+    private Driver driver(double latitude, double longitude) {
+        int number = SEQUENCE.incrementAndGet();
+        Driver driver = new Driver();
+        driver.setFirstName("Chauffeur");
+        driver.setLastName("Test");
+        driver.setUsername("chauffeur-dispatch-" + number);
+        driver.setRole(Role.ROLE_DRIVER);
+        driver.setBaseLocation(address(latitude, longitude));
+        entityManager.persist(driver);
+        return driver;
+    }
+
+    private LogisticTask task(Driver driver, Double latitude, Double longitude, TaskStatus status, Integer sequence) {
+        LogisticTask task = new LogisticTask();
+        task.setType(TaskType.PICKUP);
+        task.setStatus(status);
+        task.setScheduledDate(date);
+        task.setDriver(driver);
+        task.setSequenceOrder(sequence);
+        task.setAddress(address(latitude, longitude));
+        entityManager.persist(task);
+        return task;
+    }
+
+    private Adresse address(Double latitude, Double longitude) {
+        Adresse address = new Adresse();
+        address.setLatitude(latitude);
+        address.setLongitude(longitude);
+        entityManager.persist(address);
+        return address;
+    }
+}
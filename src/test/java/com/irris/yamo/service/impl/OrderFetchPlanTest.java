@@ -0,0 +1,261 @@
+package com.irris.yamo.service.impl;
+
+import com.irris.yamo.dtos.OrderDto;
+import com.irris.yamo.entities.Article;
+import com.irris.yamo.entities.ArticleCategory;
+import com.irris.yamo.entities.ArticleInstance;
+import com.irris.yamo.entities.Customer;
+import com.irris.yamo.entities.LaundryService;
+import com.irris.yamo.entities.Order;
+import com.irris.yamo.entities.Payment;
+import com.irris.yamo.entities.ProcessStep;
+import com.irris.yamo.entities.ProcessStepTracking;
+import com.irris.yamo.entities.enums.OrderStatus;
+import com.irris.yamo.entities.enums.PaymentStatus;
+import com.irris.yamo.entities.enums.Role;
+import com.irris.yamo.mapper.ArticleCategoryMapper;
+import com.irris.yamo.mapper.ArticleInstanceMapper;
+import com.irris.yamo.mapper.ArticleMapper;
+import com.irris.yamo.mapper.OrderMapper;
+import com.irris.yamo.repositories.OrderRepository;
+import com.irris.yamo.service.BillingService;
+import com.irris.yamo.service.DashboardService;
+import com.irris.yamo.service.OrderDeliveryService;
+import com.irris.yamo.service.OrderService;
+import com.irris.yamo.service.pagination.KeysetPagination;
+import com.irris.yamo.service.pricing.PricingEngine;
+import com.irris.yamo.service.stats.OrderProgressUpdater;
+import com.irris.yamo.service.stats.OrderStatisticsStore;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nombre de requêtes SQL par cas d'usage de lecture des commandes : il doit
+ * rester constant quel que soit le nombre de commandes renvoyées (plans de
+ * chargement Order.summary / Order.detail et chargement par lots).
+ */
+@DataJpaTest(properties = {
+        // Comme application-prod.yml
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=50",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({OrderServiceImpl.class, DashboardServiceImpl.class, OrderDeliveryServiceImpl.class,
+        OrderMapper.class, ArticleMapper.class, ArticleInstanceMapper.class, ArticleCategoryMapper.class,
+        KeysetPagination.class})
+class OrderFetchPlanTest {
+
+    // Commandes, puis par lots : articles, services, instances, suivis
+    private static final long LIST_STATEMENTS = 5;
+    // Existence du client, commandes avec articles, puis services, instances, suivis
+    private static final long DETAIL_STATEMENTS = 5;
+    // Trois compteurs logistiques, puis comme la liste
+    private static final long DASHBOARD_STATEMENTS = 8;
+    // Commandes avec articles, puis services, instances, suivis
+    private static final long DELIVERY_STATEMENTS = 4;
+
+    private static final int ARTICLES_PER_ORDER = 2;
+    private static final int INSTANCES_PER_ARTICLE = 2;
+
+    @MockitoBean
+    private BillingService billingService;
+    @MockitoBean
+    private OrderStatisticsStore orderStatisticsStore;
+    @MockitoBean
+    private OrderProgressUpdater orderProgressUpdater;
+    @MockitoBean
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private DashboardService dashboardService;
+    @Autowired
+    private OrderDeliveryService orderDeliveryService;
+
+    private Statistics statistics;
+    private Customer customer;
+    private LaundryService laundryService;
+    private ProcessStep processStep;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        customer = new Customer();
+        customer.setFirstName("Client");
+        customer.setLastName("Test");
+        customer.setUsername("client-fetch-plan");
+        customer.setRole(Role.ROLE_CUSTOMER);
+        entityManager.persist(customer);
+
+        laundryService = new LaundryService();
+        laundryService.setName("Lavage");
+        laundryService.setPricePerPiece(new BigDecimal("1000"));
+        entityManager.persist(laundryService);
+
+        processStep = new ProcessStep();
+        processStep.setName("Lavage");
+        processStep.setDescription("Lavage en machine");
+        processStep.setStepOrder(1);
+        entityManager.persist(processStep);
+    }
+
+    @Test
+    void listStatementCountDoesNotGrowWithOrders() {
+        createOrders(3);
+        long few = statements(() -> orderService.getAllOrders(null, null).getItems(), 3);
+
+        createOrders(5);
+        long more = statements(() -> orderService.getAllOrders(null, null).getItems(), 8);
+
+        assertEquals(few, more);
+        assertEquals(LIST_STATEMENTS, more, "Liste: " + more + " requêtes");
+    }
+
+    @Test
+    void detailStatementCountDoesNotGrowWithOrders() {
+        createOrders(3);
+        long few = statements(() -> orderService.getOrdersByCustomerId(customer.getId()), 3);
+
+        createOrders(5);
+        long more = statements(() -> orderService.getOrdersByCustomerId(customer.getId()), 8);
+
+        assertEquals(few, more);
+        assertEquals(DETAIL_STATEMENTS, more, "Détail: " + more + " requêtes");
+    }
+
+    @Test
+    void dashboardStatementCountDoesNotGrowWithOrders() {
+        createOrders(3);
+        long few = statements(() -> dashboardService.getOperatorDashboard().getRecentOrders(), 3);
+
+        createOrders(5);
+        long more = statements(() -> dashboardService.getOperatorDashboard().getRecentOrders(), 8);
+
+        assertEquals(few, more);
+        assertEquals(DASHBOARD_STATEMENTS, more, "Tableau de bord: " + more + " requêtes");
+    }
+
+    @Test
+    void deliveryStatementCountDoesNotGrowWithOrders() {
+        createOrders(3);
+        long few = statements(() -> orderDeliveryService.getReadyToDeliverOrders(), 3);
+
+        createOrders(5);
+        long more = statements(() -> orderDeliveryService.getReadyToDeliverOrders(), 8);
+
+        assertEquals(few, more);
+        assertEquals(DELIVERY_STATEMENTS, more, "Livraison: " + more + " requêtes");
+    }
+
+    /**
+     * Requêtes exécutées par l'appel, contexte de persistance vidé avant et après
+     */
+    private long statements(Supplier<List<OrderDto>> call, int expectedOrders) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<OrderDto> orders = call.get();
+
+        long count = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        // Le graphe complet a bien été parcouru
+        assertEquals(expectedOrders, orders.size());
+        for (OrderDto order : orders) {
+            assertEquals(ARTICLES_PER_ORDER, order.getArticles().size());
+            order.getArticles().forEach(article -> {
+                assertEquals(List.of(laundryService.getId()), article.getLaundryServiceIds());
+                assertEquals(INSTANCES_PER_ARTICLE, article.getInstances().size());
+                article.getInstances().forEach(instance ->
+                        assertEquals(1, instance.getProcessStepTrackings().size()));
+            });
+        }
+        return count;
+    }
+
+    /**
+     * Commandes prêtes, emballées et payées, avec articles, instances et suivis
+     */
+    private void createOrders(int count) {
+        // Références gérées : le contexte est vidé entre deux mesures
+        Customer owner = entityManager.find(Customer.class, customer.getId());
+        LaundryService service = entityManager.find(LaundryService.class, laundryService.getId());
+        ProcessStep step = entityManager.find(ProcessStep.class, processStep.getId());
+
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int number = ++sequence;
+            Order order = new Order();
+            order.setReference("CMD-TEST-" + number);
+            order.setCustomer(owner);
+            order.setTotalAmount(new BigDecimal("5000"));
+
+            for (int a = 0; a < ARTICLES_PER_ORDER; a++) {
+                ArticleCategory category = new ArticleCategory();
+                category.setName("Catégorie " + number + "-" + a);
+                entityManager.persist(category);
+
+                Article article = new Article();
+                article.setName("Chemise");
+                article.setQuantity(INSTANCES_PER_ARTICLE);
+                article.setCategory(category);
+                article.getLaundryServices().add(service);
+                for (int n = 0; n < INSTANCES_PER_ARTICLE; n++) {
+                    ArticleInstance instance = new ArticleInstance();
+                    instance.setCode("INS-" + number + "-" + a + "-" + n);
+                    instance.setArticle(article);
+
+                    ProcessStepTracking tracking = new ProcessStepTracking();
+                    tracking.setProcessStep(step);
+                    tracking.setArticleInstance(instance);
+                    instance.getTrackings().add(tracking);
+
+                    article.getInstances().add(instance);
+                }
+                order.addArticle(article);
+            }
+
+            Payment payment = new Payment();
+            payment.setAmount(new BigDecimal("5000"));
+            payment.setStatus(PaymentStatus.COMPLETED);
+            payment.setPaymentReference("PAY-TEST-" + number);
+            order.addPayment(payment);
+
+            entityManager.persist(order);
+            // Statut forcé à CREATED à la création
+            order.setStatus(OrderStatus.READY);
+            order.setWasPackaged(true);
+            orderIds.add(order.getId());
+        }
+        entityManager.flush();
+
+        // Colonnes dénormalisées, recalculées hors flush en production
+        orderRepository.refreshAmountPaid(orderIds);
+        orderRepository.refreshPaymentComplete(orderIds);
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,154 @@
+package com.irris.yamo.service.impl;
+
+import com.irris.yamo.YamoApplication;
+import com.irris.yamo.dtos.SalesReportDto;
+import com.irris.yamo.entities.Customer;
+import com.irris.yamo.entities.Order;
+import com.irris.yamo.entities.enums.OrderStatus;
+import com.irris.yamo.entities.enums.Role;
+import com.irris.yamo.repositories.CustomerRepository;
+import com.irris.yamo.repositories.OrderRepository;
+import com.irris.yamo.service.ReportService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rapports de ventes journalier et mensuel à 10 000, 100 000 et 1 000 000 de
+ * commandes (H2 en mémoire) : agrégats calculés en base contre l'ancien
+ * calcul, qui chargeait toute la table avant de filtrer en mémoire.
+ *
+ * L'ancien calcul à 1 000 000 de commandes demande plusieurs minutes par
+ * mesure et plusieurs Go de tas.
+ *
+ * Lancement : méthode main depuis l'IDE, après mvn test-compile.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class SalesReportBenchmark {
+
+    private static final LocalDate MONTH_START = LocalDate.of(2025, 3, 1);
+    private static final LocalDate DAY = MONTH_START.plusDays(14);
+    private static final int DAYS = 90;
+    private static final int BATCH_SIZE = 5_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int orders;
+
+    private ConfigurableApplicationContext context;
+    private ReportService reportService;
+    private OrderRepository orderRepository;
+    private TransactionTemplate readTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(YamoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run();
+        reportService = context.getBean(ReportService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        readTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readTransaction.setReadOnly(true);
+
+        Customer customer = new Customer();
+        customer.setFirstName("Client");
+        customer.setLastName("Benchmark");
+        customer.setUsername("client-benchmark");
+        customer.setRole(Role.ROLE_CUSTOMER);
+        Long customerId = context.getBean(CustomerRepository.class).save(customer).getId();
+
+        // Commandes réparties sur trois mois autour du mois mesuré
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Random random = new Random(orders);
+        LocalDateTime first = MONTH_START.minusDays(30).atStartOfDay();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < orders; i++) {
+            LocalDateTime createdAt = first.plusMinutes(random.nextInt(DAYS * 24 * 60));
+            batch.add(new Object[]{"CMD-BENCH-" + i, customerId, Timestamp.valueOf(createdAt),
+                    OrderStatus.DELIVERED.name(), BigDecimal.valueOf(1_000 + random.nextInt(50_000), 2),
+                    BigDecimal.valueOf(random.nextInt(500), 2)});
+            if (batch.size() == BATCH_SIZE || i == orders - 1) {
+                jdbc.batchUpdate("INSERT INTO orders (reference, customer_id, created_at, status, total_amount, "
+                        + "discount_amount, delivery_price, is_express, was_received, was_sorted, was_processed, "
+                        + "was_packaged) VALUES (?, ?, ?, ?, ?, ?, 0, FALSE, TRUE, TRUE, TRUE, TRUE)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // ========== Agrégats en base ==========
+
+    @Benchmark
+    public SalesReportDto dailyAggregate() {
+        return reportService.getDailySalesReport(DAY);
+    }
+
+    @Benchmark
+    public SalesReportDto monthlyAggregate() {
+        return reportService.getMonthlySalesReport(MONTH_START.getYear(), MONTH_START.getMonthValue());
+    }
+
+    // ========== Ancien calcul : toute la table en mémoire ==========
+
+    @Benchmark
+    public BigDecimal[] dailyInMemory() {
+        return inMemory(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Benchmark
+    public BigDecimal[] monthlyInMemory() {
+        return inMemory(MONTH_START.atStartOfDay(), MONTH_START.plusMonths(1).atStartOfDay());
+    }
+
+    private BigDecimal[] inMemory(LocalDateTime start, LocalDateTime end) {
+        return readTransaction.execute(status -> {
+            List<Order> selected = orderRepository.findAll().stream()
+                    .filter(o -> o.getCreatedAt() != null
+                            && o.getCreatedAt().isAfter(start)
+                            && o.getCreatedAt().isBefore(end))
+                    .toList();
+            BigDecimal revenue = selected.stream()
+                    .map(Order::getTotalAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal discount = selected.stream()
+                    .map(o -> o.getDiscountAmount() != null ? o.getDiscountAmount() : BigDecimal.ZERO)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal average = selected.isEmpty() ? BigDecimal.ZERO
+                    : revenue.divide(BigDecimal.valueOf(selected.size()), 2, RoundingMode.HALF_UP);
+            return new BigDecimal[]{BigDecimal.valueOf(selected.size()), revenue, discount, average};
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SalesReportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,244 @@
+package com.irris.yamo.service.notification;
+
+import com.irris.yamo.entities.OutboxNotification;
+import com.irris.yamo.entities.enums.NotificationChannel;
+import com.irris.yamo.entities.enums.OutboxStatus;
+import com.irris.yamo.repositories.OutboxNotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Distribution de l'outbox contre un fournisseur factice : réservation avec
+ * bail, reprises espacées, abandon après max-attempts, reprise d'un bail expiré
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationDispatcherTest {
+
+    private static final long BACKOFF_SECONDS = 30;
+    private static final long LEASE_SECONDS = 300;
+
+    @Autowired
+    private OutboxNotificationRepository outboxRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Partagé entre les tests : la base n'est pas remise à zéro
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final FakeProvider provider = new FakeProvider();
+    private NotificationDispatcher dispatcher;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        NotificationAdapterRegistry registry = new NotificationAdapterRegistry(
+                new StaticListableBeanFactory(Map.of("fake", provider)).getBeanProvider(NotificationChannelAdapter.class));
+        registry.init();
+
+        // Construit hors du contexte : aucune distribution planifiée en parallèle du test
+        dispatcher = new NotificationDispatcher(outboxRepository, registry, transactionManager);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialSeconds", BACKOFF_SECONDS);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxSeconds", 3600L);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", LEASE_SECONDS);
+        ReflectionTestUtils.setField(dispatcher, "emailConcurrency", 4);
+        ReflectionTestUtils.setField(dispatcher, "smsConcurrency", 2);
+        ReflectionTestUtils.setField(dispatcher, "pushConcurrency", 8);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.release.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void claimedMessageIsLeasedAndNotSentTwice() throws Exception {
+        String recipient = "bloque-" + SEQUENCE.incrementAndGet() + "@example.com";
+        Long id = enqueue(OutboxStatus.PENDING, recipient, LocalDateTime.now().minusSeconds(1));
+        provider.blocked = recipient;
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(dispatcher::drain);
+        assertTrue(provider.blockedStarted.await(5, TimeUnit.SECONDS));
+
+        // Envoi en cours : le message est réservé jusqu'à la fin du bail
+        OutboxNotification leased = find(id);
+        assertEquals(OutboxStatus.SENDING, leased.getStatus());
+        assertTrue(leased.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(LEASE_SECONDS - 10)));
+
+        // Une seconde distribution ne reprend pas un message réservé
+        dispatcher.drain();
+        assertEquals(1, provider.sentTo(recipient).size());
+
+        provider.release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        OutboxNotification sent = find(id);
+        assertEquals(OutboxStatus.SENT, sent.getStatus());
+        assertEquals(1, sent.getAttempts());
+        assertNotNull(sent.getSentAt());
+        assertEquals(1, provider.sentTo(recipient).size());
+    }
+
+    @Test
+    void failuresAreRetriedWithBackoffThenAbandoned() {
+        String recipient = "echec-" + SEQUENCE.incrementAndGet() + "@example.com";
+        Long id = enqueue(OutboxStatus.PENDING, recipient, LocalDateTime.now().minusSeconds(1));
+        provider.failing.add(recipient);
+
+        // 1er échec : délai initial (+ 20 % d'aléa au plus)
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.drain();
+        OutboxNotification retry = find(id);
+        assertEquals(OutboxStatus.PENDING, retry.getStatus());
+        assertEquals(1, retry.getAttempts());
+        assertEquals("Fournisseur indisponible", retry.getLastError());
+        assertDelay(before, retry.getNextAttemptAt(), BACKOFF_SECONDS);
+
+        // Pas de nouvel essai avant l'échéance
+        dispatcher.drain();
+        assertEquals(1, provider.sentTo(recipient).size());
+
+        // 2e échec : délai doublé
+        makeDue(id);
+        before = LocalDateTime.now();
+        dispatcher.drain();
+        retry = find(id);
+        assertEquals(2, retry.getAttempts());
+        assertDelay(before, retry.getNextAttemptAt(), 2 * BACKOFF_SECONDS);
+
+        // 3e échec : max-attempts atteint
+        makeDue(id);
+        dispatcher.drain();
+        OutboxNotification failed = find(id);
+        assertEquals(OutboxStatus.FAILED, failed.getStatus());
+        assertEquals(3, failed.getAttempts());
+        assertEquals("Fournisseur indisponible", failed.getLastError());
+
+        makeDue(id);
+        dispatcher.drain();
+        assertEquals(OutboxStatus.FAILED, find(id).getStatus());
+
+        // Même clé d'idempotence à chaque essai
+        List<OutboundMessage> attempts = provider.sentTo(recipient);
+        assertEquals(3, attempts.size());
+        assertEquals(1, attempts.stream().map(OutboundMessage::idempotencyKey).distinct().count());
+        assertEquals(failed.getIdempotencyKey(), attempts.get(0).idempotencyKey());
+    }
+
+    @Test
+    void expiredLeaseIsSentAgainWithSameKey() {
+        String expired = "expire-" + SEQUENCE.incrementAndGet() + "@example.com";
+        String leased = "reserve-" + SEQUENCE.incrementAndGet() + "@example.com";
+        // Instance arrêtée pendant l'envoi : message resté SENDING, bail échu ou non
+        Long expiredId = enqueue(OutboxStatus.SENDING, expired, LocalDateTime.now().minusSeconds(1));
+        Long leasedId = enqueue(OutboxStatus.SENDING, leased, LocalDateTime.now().plusSeconds(LEASE_SECONDS));
+
+        dispatcher.drain();
+
+        OutboxNotification sent = find(expiredId);
+        assertEquals(OutboxStatus.SENT, sent.getStatus());
+        List<OutboundMessage> messages = provider.sentTo(expired);
+        assertEquals(1, messages.size());
+        assertEquals(sent.getIdempotencyKey(), messages.get(0).idempotencyKey());
+
+        assertEquals(OutboxStatus.SENDING, find(leasedId).getStatus());
+        assertTrue(provider.sentTo(leased).isEmpty());
+    }
+
+    private static void assertDelay(LocalDateTime before, LocalDateTime nextAttemptAt, long seconds) {
+        assertFalse(nextAttemptAt.isBefore(before.plusSeconds(seconds)), "Reprise trop tôt: " + nextAttemptAt);
+        // Aléa de 20 % au plus, une seconde de marge pour la durée de l'essai
+        assertFalse(nextAttemptAt.isAfter(before.plusSeconds(seconds + seconds / 5 + 1)), "Reprise trop tard: " + nextAttemptAt);
+    }
+
+    private Long enqueue(OutboxStatus status, String recipient, LocalDateTime nextAttemptAt) {
+        return transaction.execute(tx -> {
+            OutboxNotification notification = new OutboxNotification();
+            notification.setChannel(NotificationChannel.EMAIL);
+            notification.setRecipient(recipient);
+            notification.setSubject("Votre commande");
+            notification.setBody("Votre commande est prête");
+            notification.setIdempotencyKey("test-" + SEQUENCE.incrementAndGet());
+            notification.setStatus(status);
+            notification.setNextAttemptAt(nextAttemptAt);
+            notification.setCreatedAt(LocalDateTime.now());
+            return outboxRepository.save(notification).getId();
+        });
+    }
+
+    // Simule l'écoulement du délai de reprise
+    private void makeDue(Long id) {
+        transaction.executeWithoutResult(tx -> {
+            OutboxNotification notification = outboxRepository.findById(id).orElseThrow();
+            notification.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        });
+    }
+
+    private OutboxNotification find(Long id) {
+        return transaction.execute(tx -> outboxRepository.findById(id).orElseThrow());
+    }
+
+    /**
+     * Fournisseur factice : enregistre chaque envoi, échoue ou bloque pour les destinataires choisis
+     */
+    private static class FakeProvider implements NotificationChannelAdapter {
+
+        private final List<OutboundMessage> sent = new CopyOnWriteArrayList<>();
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch blockedStarted = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile String blocked;
+
+        @Override
+        public Set<NotificationChannel> channels() {
+            return Set.of(NotificationChannel.EMAIL, NotificationChannel.SMS, NotificationChannel.PUSH);
+        }
+
+        @Override
+        public void send(NotificationChannel channel, OutboundMessage message) {
+            sent.add(message);
+            if (message.recipient().equals(blocked)) {
+                blockedStarted.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failing.contains(message.recipient())) {
+                throw new IllegalStateException("Fournisseur indisponible");
+            }
+        }
+
+        List<OutboundMessage> sentTo(String recipient) {
+            return sent.stream().filter(message -> message.recipient().equals(recipient)).toList();
+        }
+    }
+}
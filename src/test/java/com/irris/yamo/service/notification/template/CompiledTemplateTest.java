@@ -0,0 +1,80 @@
+package com.irris.yamo.service.notification.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTemplateTest {
+
+    @Test
+    void rendersLiteralsAndVariables() {
+        CompiledTemplate template = CompiledTemplate.compile("confirmation",
+                "Bonjour {{ customerName }}, commande {{orderCode}} reçue.");
+
+        assertEquals(List.of("customerName", "orderCode"), template.variables());
+        assertEquals("Bonjour Marie, commande CMD42 reçue.",
+                template.render(Map.of("customerName", "Marie", "orderCode", "CMD42")));
+    }
+
+    @Test
+    void handlesTemplatesWithoutLiteralsOrVariables() {
+        assertEquals("Texte fixe", CompiledTemplate.compile("fixe", "Texte fixe").render(Map.of()));
+        assertEquals("", CompiledTemplate.compile("vide", "").render(Map.of()));
+        assertEquals("ab", CompiledTemplate.compile("collees", "{{a}}{{b}}").render(Map.of("a", "a", "b", "b")));
+    }
+
+    @Test
+    void missingOrNullVariablesRenderEmpty() {
+        CompiledTemplate template = CompiledTemplate.compile("montant", "[{{a}}|{{b}}]");
+        Map<String, Object> values = new HashMap<>();
+        values.put("a", null);
+
+        assertEquals("[|]", template.render(values));
+        assertEquals("[|]", template.render(Map.of()));
+    }
+
+    @Test
+    void formatsValues() {
+        CompiledTemplate template = CompiledTemplate.compile("montant", "{{amount}} / {{count}}");
+
+        // Pas de notation scientifique pour les montants
+        assertEquals("1000 / 3", template.render(Map.of("amount", new BigDecimal("1E+3"), "count", 3)));
+    }
+
+    @Test
+    void renderToAppendsToExistingBuffer() {
+        CompiledTemplate template = CompiledTemplate.compile("sms", "Code {{code}}");
+        StringBuilder out = new StringBuilder("> ");
+
+        template.renderTo(Map.of("code", "1234"), out);
+
+        assertEquals("> Code 1234", out.toString());
+    }
+
+    @Test
+    void unclosedVariableIsRejected() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> CompiledTemplate.compile("casse", "Bonjour {{name"));
+
+        assertTrue(error.getMessage().contains("casse"));
+        assertTrue(error.getMessage().contains("position 8"));
+    }
+
+    @Test
+    void emptyVariableIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("vide", "Bonjour {{  }}"));
+    }
+
+    @Test
+    void singleBracesAreLiteral() {
+        CompiledTemplate template = CompiledTemplate.compile("accolades", "{x} }} {{y}}");
+
+        assertEquals(List.of("y"), template.variables());
+        assertEquals("{x} }} 1", template.render(Map.of("y", 1)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.irris.yamo.service.notification.template;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de rendu d'un message de campagne (modèle order-confirmation.email) :
+ * modèle compilé rendu dans un tampon réutilisé, modèle compilé rendu en
+ * chaîne, et ancien String.format sur bloc de texte.
+ *
+ * Lancement : méthode main depuis l'IDE, après mvn test-compile.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NotificationTemplateBenchmark {
+
+    private static final int RECIPIENTS = 1024;
+
+    private static final String FORMAT = """
+            Bonjour %s,
+
+            Votre commande %s a bien été enregistrée.
+
+            Montant total: %s €
+            Date estimée de livraison: %s
+
+            Merci de votre confiance !
+
+            L'équipe Yamo
+            """;
+
+    private CompiledTemplate template;
+    private String[] names;
+    private Map<String, Object> variables;
+    private StringBuilder buffer;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NotificationTemplateEngine engine = new NotificationTemplateEngine(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(engine, "location", "classpath:templates/notifications/");
+        ReflectionTestUtils.setField(engine, "defaultLocale", Locale.FRENCH);
+        template = engine.get("order-confirmation.email", Locale.FRENCH);
+
+        names = new String[RECIPIENTS];
+        for (int i = 0; i < RECIPIENTS; i++) {
+            names[i] = "Client " + i;
+        }
+        // Variables communes à la campagne, seul le destinataire change
+        variables = new HashMap<>();
+        variables.put("reference", "CMD-2025-000123");
+        variables.put("totalAmount", "12500.00");
+        variables.put("dueDate", "15/03/2025");
+        buffer = new StringBuilder();
+    }
+
+    private String recipient() {
+        next = (next + 1) & (RECIPIENTS - 1);
+        return names[next];
+    }
+
+    @Benchmark
+    public int compiledBuffer() {
+        variables.put("customerName", recipient());
+        buffer.setLength(0);
+        template.renderTo(variables, buffer);
+        return buffer.length();
+    }
+
+    @Benchmark
+    public String compiledString() {
+        variables.put("customerName", recipient());
+        return template.render(variables);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(FORMAT, recipient(), variables.get("reference"), variables.get("totalAmount"),
+                variables.get("dueDate"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NotificationTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
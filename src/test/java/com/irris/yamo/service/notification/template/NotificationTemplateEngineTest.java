@@ -0,0 +1,97 @@
+package com.irris.yamo.service.notification.template;
+
+import com.irris.yamo.exception.InvalidOperationException;
+import com.irris.yamo.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationTemplateEngineTest {
+
+    @TempDir
+    Path directory;
+
+    private NotificationTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(directory.resolve("greeting.txt"), "Bonjour {{name}}\n");
+        Files.writeString(directory.resolve("greeting_en.txt"), "Hello {{name}}\n");
+        Files.writeString(directory.resolve("farewell.txt"), "Au revoir {{name}}");
+
+        engine = new NotificationTemplateEngine(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(engine, "location", directory.toUri().toString());
+        ReflectionTestUtils.setField(engine, "defaultLocale", Locale.FRENCH);
+    }
+
+    @Test
+    void languageSpecificTemplateIsPreferred() {
+        assertEquals("Hello Ana", engine.render("greeting", Locale.ENGLISH, Map.of("name", "Ana")));
+        assertEquals("Hello Ana", engine.render("greeting", Locale.UK, Map.of("name", "Ana")));
+    }
+
+    @Test
+    void fallsBackToBaseTemplate() {
+        assertEquals("Bonjour Ana", engine.render("greeting", Locale.GERMAN, Map.of("name", "Ana")));
+        assertEquals("Au revoir Ana", engine.render("farewell", Locale.ENGLISH, Map.of("name", "Ana")));
+    }
+
+    @Test
+    void defaultLocaleIsUsedWithoutLocale() throws IOException {
+        Files.writeString(directory.resolve("greeting_fr.txt"), "Salut {{name}}");
+
+        assertEquals("Salut Ana", engine.render("greeting", Map.of("name", "Ana")));
+        assertEquals("Salut Ana", engine.render("greeting", null, Map.of("name", "Ana")));
+    }
+
+    @Test
+    void missingTemplateIsReported() {
+        assertTrue(engine.find("unknown", Locale.FRENCH).isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> engine.get("unknown", Locale.FRENCH));
+    }
+
+    @Test
+    void invalidNamesAreRejected() {
+        assertThrows(InvalidOperationException.class, () -> engine.find(null, Locale.FRENCH));
+        assertThrows(InvalidOperationException.class, () -> engine.find("../secret", Locale.FRENCH));
+        assertThrows(InvalidOperationException.class, () -> engine.find("a..b", Locale.FRENCH));
+        assertThrows(InvalidOperationException.class, () -> engine.find("dir/name", Locale.FRENCH));
+    }
+
+    @Test
+    void compiledTemplatesAreCachedUntilEvicted() throws IOException {
+        CompiledTemplate first = engine.get("greeting", Locale.ENGLISH);
+        Files.writeString(directory.resolve("greeting_en.txt"), "Hi {{name}}");
+
+        assertSame(first, engine.get("greeting", Locale.ENGLISH));
+
+        engine.evictAll();
+        assertEquals("Hi Ana", engine.render("greeting", Locale.ENGLISH, Map.of("name", "Ana")));
+    }
+
+    @Test
+    void bundledTemplatesCompile() {
+        NotificationTemplateEngine bundled = new NotificationTemplateEngine(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(bundled, "location", "classpath:templates/notifications/");
+        ReflectionTestUtils.setField(bundled, "defaultLocale", Locale.FRENCH);
+
+        for (String name : new String[]{"order-confirmation.email", "order-confirmation.sms",
+                "order-confirmation.subject", "order-ready.email", "order-ready.sms", "order-ready.subject",
+                "payment-received.email", "payment-received.sms", "payment-received.subject",
+                "invoice.email", "invoice.subject", "delivery-notification.email",
+                "delivery-notification.subject", "delivery-completed.sms", "delivery-in-progress.sms",
+                "pickup-scheduled.sms"}) {
+            assertFalse(bundled.get(name, Locale.FRENCH).render(Map.of()).isEmpty(), name);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.irris.yamo.service.pdf;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps de rendu et pic de tas de la liste des commandes à 1 000, 10 000 et
+ * 100 000 lignes : document écrit au fil de l'eau dans le flux de sortie
+ * (réponse HTTP, fichier) contre document entier gardé en mémoire avant
+ * envoi (ancien byte[] par point d'entrée).
+ *
+ * Le pic de tas (somme des pics des zones du tas, au-dessus du niveau mesuré
+ * après un GC) est affiché en fin d'essai. La jeune génération est limitée à
+ * 8 Mo pour que ce pic reflète la mémoire retenue et non les objets
+ * temporaires en attente de collecte.
+ *
+ * Lancement : méthode main depuis l'IDE, après mvn test-compile.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmn8m")
+@State(Scope.Benchmark)
+public class PdfReportBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+    private long baseline;
+    private long peak;
+
+    @Setup(Level.Invocation)
+    public void resetPeak() {
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        baseline = heapUsed();
+    }
+
+    @Benchmark
+    public void streamed() throws IOException {
+        render(OutputStream.nullOutputStream());
+        recordPeak();
+    }
+
+    @Benchmark
+    public byte[] buffered() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        render(out);
+        byte[] document = out.toByteArray();
+        recordPeak();
+        return document;
+    }
+
+    @TearDown(Level.Trial)
+    public void report(BenchmarkParams params) {
+        String method = params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1);
+        System.out.printf("%n%s, %d lignes : pic de tas %.1f Mo%n", method, rows, peak / (1024.0 * 1024.0));
+    }
+
+    private void render(OutputStream out) throws IOException {
+        try (PdfReportWriter writer = new PdfReportWriter(out)) {
+            writer.title("Liste des Commandes")
+                    .text("Période: 2025-01-01 - 2025-03-31")
+                    .space()
+                    .beginTable(PdfReportWriterTest.ORDER_TABLE);
+            for (int i = 1; i <= rows; i++) {
+                writer.row("CMD-" + i, "Client " + i, "01/01/2025 10:00", i + ",00 FCFA", "DELIVERED");
+            }
+            writer.endTable();
+        }
+    }
+
+    private void recordPeak() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            used += pool.getPeakUsage().getUsed();
+        }
+        peak = Math.max(peak, used - baseline);
+    }
+
+    private long heapUsed() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            used += pool.getUsage().getUsed();
+        }
+        return used;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PdfReportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,151 @@
+package com.irris.yamo.service.pdf;
+
+import com.irris.yamo.service.pdf.PdfTableTemplate.Column;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfReportWriterTest {
+
+    static final PdfTableTemplate ORDER_TABLE = new PdfTableTemplate(PdfReportWriter.MARGIN,
+            Column.left("Référence", 110),
+            Column.left("Client", 160),
+            Column.left("Date", 90),
+            Column.right("Montant", 80),
+            Column.left("Statut", PdfReportWriter.CONTENT_WIDTH - 440));
+
+    private static final Pattern STREAM = Pattern.compile("<< /Length (\\d+) /Filter /FlateDecode >>\nstream\n");
+    private static final Pattern XREF_ENTRY = Pattern.compile("(\\d{10}) 00000 n \n");
+
+    @Test
+    void xrefOffsetsPointAtTheirObjects() throws Exception {
+        String pdf = render(300);
+
+        Matcher startxref = Pattern.compile("startxref\n(\\d+)\n%%EOF\n$").matcher(pdf);
+        assertTrue(startxref.find(), "startxref manquant en fin de document");
+        int xrefOffset = Integer.parseInt(startxref.group(1));
+        assertTrue(pdf.startsWith("xref\n0 ", xrefOffset));
+
+        Matcher size = Pattern.compile("/Size (\\d+)").matcher(pdf);
+        assertTrue(size.find());
+        int objectCount = Integer.parseInt(size.group(1));
+
+        // Une entrée par objet, chacune pointant sur « <id> 0 obj »
+        Matcher entry = XREF_ENTRY.matcher(pdf);
+        entry.region(xrefOffset, pdf.length());
+        int id = 1;
+        while (entry.find()) {
+            int offset = Integer.parseInt(entry.group(1));
+            assertTrue(pdf.startsWith(id + " 0 obj\n", offset), "Position erronée pour l'objet " + id);
+            id++;
+        }
+        assertEquals(objectCount, id);
+    }
+
+    @Test
+    void multiPageListRepeatsHeaderAndNumbersPages() throws Exception {
+        int rows = 300;
+        String pdf = render(rows);
+        List<String> pages = pageContents(pdf);
+
+        assertTrue(pages.size() > 1, "La liste doit s'étendre sur plusieurs pages");
+        assertEquals(pages.size(), pageCount(pdf));
+        assertEquals(pages.size(), count(pdf, "/Type /Page /Parent"));
+
+        int rowsSeen = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            String page = pages.get(i);
+            // En-tête de tableau répété et pied de page numéroté sur chaque page
+            assertEquals(1, count(page, "(Référence)"), "En-tête absent de la page " + (i + 1));
+            assertEquals(1, count(page, "(Page " + (i + 1) + ")"));
+            rowsSeen += count(page, "(CMD-");
+        }
+        assertEquals(rows, rowsSeen);
+        assertEquals(1, count(pages.get(0), "(Liste des Commandes)"));
+    }
+
+    @Test
+    void shortListFitsOnOnePage() throws Exception {
+        String pdf = render(5);
+
+        assertEquals(1, pageCount(pdf));
+        assertEquals(5, count(pageContents(pdf).get(0), "(CMD-"));
+    }
+
+    @Test
+    void emptyReportStillHasOnePage() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PdfReportWriter(out).close();
+        String pdf = out.toString(StandardCharsets.ISO_8859_1);
+
+        assertTrue(pdf.startsWith("%PDF-1.4\n"));
+        assertEquals(1, pageCount(pdf));
+    }
+
+    private static String render(int rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PdfReportWriter writer = new PdfReportWriter(out)) {
+            writer.title("Liste des Commandes")
+                    .text("Période: 2025-01-01 - 2025-01-31")
+                    .space()
+                    .beginTable(ORDER_TABLE);
+            for (int i = 1; i <= rows; i++) {
+                writer.row(String.format("CMD-%04d", i), "Client " + i, "01/01/2025 10:00",
+                        i + ",00 FCFA", "DELIVERED");
+            }
+            writer.endTable();
+        }
+        return out.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static int pageCount(String pdf) {
+        Matcher matcher = Pattern.compile("/Type /Pages /Count (\\d+)").matcher(pdf);
+        assertTrue(matcher.find());
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    /**
+     * Flux de contenu décompressés, dans l'ordre des pages
+     */
+    private static List<String> pageContents(String pdf) throws DataFormatException {
+        List<String> pages = new ArrayList<>();
+        Matcher matcher = STREAM.matcher(pdf);
+        while (matcher.find()) {
+            int length = Integer.parseInt(matcher.group(1));
+            byte[] compressed = pdf.substring(matcher.end(), matcher.end() + length)
+                    .getBytes(StandardCharsets.ISO_8859_1);
+            assertTrue(pdf.startsWith("\nendstream", matcher.end() + length), "/Length incohérent");
+
+            Inflater inflater = new Inflater();
+            inflater.setInput(compressed);
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                assertFalse(n == 0 && inflater.needsInput(), "Flux tronqué");
+                content.write(buffer, 0, n);
+            }
+            inflater.end();
+            pages.add(content.toString(PdfFont.WIN_ANSI));
+        }
+        return pages;
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + token.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,186 @@
+package com.irris.yamo.service.pricing;
+
+import com.irris.yamo.entities.Article;
+import com.irris.yamo.entities.LaundryService;
+import com.irris.yamo.entities.enums.BillingMode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTableTest {
+
+    @Test
+    void piecePricingMatchesDecimalComputation() {
+        LaundryService washing = service(1L, "1500", null, null);
+        LaundryService ironing = service(2L, "733.33", null, "12.5");
+        PriceTable table = PriceTable.compile(1, List.of(washing, ironing));
+
+        assertSamePrice(table, article(BillingMode.PIECE, 3, null, null, washing, ironing));
+        assertSamePrice(table, article(BillingMode.PAR_PIECE, 7, null, null, ironing));
+        // Quantité absente : une pièce
+        assertSamePrice(table, article(BillingMode.PIECE, null, null, null, ironing));
+        // Mode absent : à la pièce
+        assertSamePrice(table, article(null, 2, null, null, washing, ironing));
+    }
+
+    @Test
+    void weightPricingMatchesDecimalComputation() {
+        LaundryService washing = service(1L, null, "1250.75", "7.25");
+        LaundryService drying = service(2L, "900", "333.33", null);
+        PriceTable table = PriceTable.compile(1, List.of(washing, drying));
+
+        assertSamePrice(table, article(BillingMode.KG, 1, "2.345", null, washing, drying));
+        // Poids réel prioritaire sur le poids estimé
+        assertSamePrice(table, article(BillingMode.PAR_KG, 1, "2.345", "3.017", washing));
+        assertSamePrice(table, article(BillingMode.KG, 1, "0.001", "0", drying));
+        // Sans poids : rien à facturer
+        assertSamePrice(table, article(BillingMode.KG, 1, null, null, washing, drying));
+    }
+
+    @Test
+    void flatRatePricingMatchesDecimalComputation() {
+        LaundryService cleaning = service(1L, "4999.99", "100", "33.33");
+        LaundryService stain = service(2L, null, "100", null);
+        PriceTable table = PriceTable.compile(1, List.of(cleaning, stain));
+
+        // Forfait : prix à la pièce, quantité ignorée
+        assertSamePrice(table, article(BillingMode.FLAT_RATE, 5, null, null, cleaning, stain));
+        assertSamePrice(table, article(BillingMode.FLAT_RATE, 1, "4.5", null, stain));
+    }
+
+    @Test
+    void articleWithoutServiceCostsNothing() {
+        PriceTable table = PriceTable.compile(1, List.of());
+
+        assertEquals(0, table.articleCents(article(BillingMode.PIECE, 2, null, null)));
+    }
+
+    @Test
+    void serviceMissingFromTableIsPricedFromEntity() {
+        LaundryService known = service(1L, "1000", null, null);
+        PriceTable table = PriceTable.compile(1, List.of(known));
+        // Créé après la compilation
+        LaundryService created = service(2L, "250.50", null, "10");
+
+        assertSamePrice(table, article(BillingMode.PIECE, 3, null, null, known, created));
+    }
+
+    @Test
+    void compiledPricesAreKeptUntilNextVersion() {
+        LaundryService washing = service(1L, "1000", null, null);
+        PriceTable table = PriceTable.compile(1, List.of(washing));
+        washing.setPricePerPiece(new BigDecimal("2000"));
+
+        assertEquals(100_000, table.articleCents(article(BillingMode.PIECE, 1, null, null, washing)));
+        assertEquals(200_000, PriceTable.compile(2, List.of(washing))
+                .articleCents(article(BillingMode.PIECE, 1, null, null, washing)));
+    }
+
+    @Test
+    void randomArticlesMatchDecimalComputation() {
+        Random random = new Random(42);
+        List<LaundryService> services = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            services.add(service(id,
+                    random.nextInt(5) == 0 ? null : amount(random, 2, 100_000),
+                    random.nextInt(5) == 0 ? null : amount(random, 2, 10_000),
+                    random.nextBoolean() ? null : amount(random, 2, 100)));
+        }
+        PriceTable table = PriceTable.compile(1, services);
+        BillingMode[] modes = BillingMode.values();
+
+        for (int i = 0; i < 10_000; i++) {
+            List<LaundryService> chosen = new ArrayList<>();
+            for (int n = random.nextInt(4); n >= 0; n--) {
+                chosen.add(services.get(random.nextInt(services.size())));
+            }
+            Article article = article(modes[random.nextInt(modes.length)], 1 + random.nextInt(50),
+                    random.nextInt(4) == 0 ? null : amount(random, 3, 50_000),
+                    random.nextBoolean() ? null : amount(random, 3, 50_000),
+                    chosen.toArray(LaundryService[]::new));
+            assertSamePrice(table, article);
+        }
+    }
+
+    private static void assertSamePrice(PriceTable table, Article article) {
+        assertEquals(decimalPrice(article), PriceTable.toAmount(table.articleCents(article)),
+                () -> "Écart pour " + article.getEffectiveBillingMode() + " × " + article.getQuantity());
+    }
+
+    /**
+     * Calcul décimal historique de BillingServiceImpl, service par service
+     */
+    static BigDecimal decimalPrice(Article article) {
+        BillingMode mode = article.getEffectiveBillingMode();
+        BigDecimal total = BigDecimal.ZERO;
+        for (LaundryService service : article.getLaundryServices()) {
+            BigDecimal price = BigDecimal.ZERO;
+            switch (mode) {
+                case PIECE, PAR_PIECE -> {
+                    if (service.getPricePerPiece() != null) {
+                        int quantity = article.getQuantity() != null ? article.getQuantity() : 1;
+                        price = service.getPricePerPiece().multiply(BigDecimal.valueOf(quantity));
+                    }
+                }
+                case KG, PAR_KG -> {
+                    if (service.getPricePerKg() != null) {
+                        BigDecimal weight = article.getActualWeight() != null
+                                && article.getActualWeight().compareTo(BigDecimal.ZERO) > 0
+                                ? article.getActualWeight()
+                                : article.getEstimatedWeight();
+                        if (weight != null && weight.compareTo(BigDecimal.ZERO) > 0) {
+                            price = service.getPricePerKg().multiply(weight);
+                        }
+                    }
+                }
+                case FLAT_RATE -> {
+                    if (service.getPricePerPiece() != null) {
+                        price = service.getPricePerPiece();
+                    }
+                }
+            }
+            if (service.getDiscountPercentage() != null
+                    && service.getDiscountPercentage().compareTo(BigDecimal.ZERO) > 0) {
+                BigDecimal discount = price.multiply(service.getDiscountPercentage())
+                        .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+                price = price.subtract(discount);
+            }
+            total = total.add(price);
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    static LaundryService service(Long id, String perPiece, String perKg, String discount) {
+        LaundryService service = new LaundryService();
+        service.setId(id);
+        service.setName("Service " + id);
+        service.setPricePerPiece(perPiece != null ? new BigDecimal(perPiece) : null);
+        service.setPricePerKg(perKg != null ? new BigDecimal(perKg) : null);
+        service.setDiscountPercentage(discount != null ? new BigDecimal(discount) : null);
+        return service;
+    }
+
+    static Article article(BillingMode mode, Integer quantity, String estimatedWeight, String actualWeight,
+                                   LaundryService... services) {
+        Article article = new Article();
+        article.setName("Article");
+        article.setBillingMode(mode);
+        article.setQuantity(quantity);
+        article.setEstimatedWeight(estimatedWeight != null ? new BigDecimal(estimatedWeight) : null);
+        article.setActualWeight(actualWeight != null ? new BigDecimal(actualWeight) : null);
+        article.getLaundryServices().addAll(List.of(services));
+        return article;
+    }
+
+    // Montant aléatoire à l'échelle donnée, inférieur à bound
+    static String amount(Random random, int scale, long bound) {
+        return BigDecimal.valueOf(random.nextLong(BigDecimal.valueOf(bound).movePointRight(scale).longValueExact()), scale)
+                .toPlainString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.irris.yamo.service.pricing;
+
+import com.irris.yamo.entities.Article;
+import com.irris.yamo.entities.LaundryService;
+import com.irris.yamo.entities.enums.BillingMode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prix d'une commande de 1, 50 et 500 articles (un à quatre services chacun,
+ * tous modes de facturation) : grille compilée en centimes contre l'ancien
+ * calcul BigDecimal service par service.
+ *
+ * Lancement : méthode main depuis l'IDE, après mvn test-compile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    private static final int SERVICES = 20;
+
+    @Param({"1", "50", "500"})
+    public int articles;
+
+    private PriceTable table;
+    private List<Article> order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(articles);
+        List<LaundryService> services = new ArrayList<>();
+        for (long id = 1; id <= SERVICES; id++) {
+            services.add(PriceTableTest.service(id,
+                    PriceTableTest.amount(random, 2, 100_000),
+                    PriceTableTest.amount(random, 2, 10_000),
+                    random.nextBoolean() ? null : PriceTableTest.amount(random, 2, 100)));
+        }
+        table = PriceTable.compile(1, services);
+
+        BillingMode[] modes = BillingMode.values();
+        order = new ArrayList<>();
+        for (int i = 0; i < articles; i++) {
+            List<LaundryService> chosen = new ArrayList<>();
+            for (int n = random.nextInt(4); n >= 0; n--) {
+                chosen.add(services.get(random.nextInt(SERVICES)));
+            }
+            order.add(PriceTableTest.article(modes[random.nextInt(modes.length)], 1 + random.nextInt(10),
+                    PriceTableTest.amount(random, 3, 20), random.nextBoolean() ? null : PriceTableTest.amount(random, 3, 20),
+                    chosen.toArray(LaundryService[]::new)));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal priceTable() {
+        long total = 0;
+        for (Article article : order) {
+            total += table.articleCents(article);
+        }
+        return PriceTable.toAmount(total);
+    }
+
+    @Benchmark
+    public BigDecimal decimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Article article : order) {
+            total = total.add(PriceTableTest.decimalPrice(article));
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @TearDown(Level.Trial)
+    public void check() {
+        // Les deux calculs doivent donner le même total
+        if (priceTable().compareTo(decimal()) != 0) {
+            throw new IllegalStateException("Totaux différents : " + priceTable() + " contre " + decimal());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PricingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,183 @@
+package com.irris.yamo.service.promotion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsageCounterTest {
+
+    private static final int STRIPES = 8;
+
+    @Test
+    void unlimitedCounterAlwaysReserves() {
+        UsageCounter counter = new UsageCounter(1L, STRIPES);
+        counter.applyLimits(null, null, 0);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(-1, counter.tryReserve());
+            counter.commit();
+        }
+        assertFalse(counter.exhausted());
+        assertEquals(1_000, counter.unflushed());
+    }
+
+    @Test
+    void limitIsNeverExceeded() {
+        UsageCounter counter = new UsageCounter(1L, STRIPES);
+        counter.applyLimits(10, null, 3);
+
+        assertEquals(7, reserveAll(counter));
+        assertTrue(counter.exhausted());
+        assertEquals(-2, counter.tryReserve());
+    }
+
+    @Test
+    void releaseReturnsUnitAndCommitConsumesIt() {
+        UsageCounter counter = new UsageCounter(1L, STRIPES);
+        counter.applyLimits(2, null, 0);
+
+        int first = counter.tryReserve();
+        int second = counter.tryReserve();
+        assertTrue(first >= 0 && second >= 0);
+        assertEquals(-2, counter.tryReserve());
+
+        counter.release(first);
+        int third = counter.tryReserve();
+        assertTrue(third >= 0);
+        counter.commit();
+        counter.commit();
+
+        assertEquals(-2, counter.tryReserve());
+        assertEquals(2, counter.unflushed());
+    }
+
+    @Test
+    void limitChangeAccountsForPendingAndCommittedUsage() {
+        UsageCounter counter = new UsageCounter(1L, STRIPES);
+        counter.applyLimits(10, null, 0);
+        int pending = counter.tryReserve();
+        counter.tryReserve();
+        counter.commit();
+
+        // Une validée, une en cours : 20 - 2 restantes
+        counter.applyLimits(20, null, 0);
+        assertEquals(18, reserveAll(counter));
+
+        // La réservation en cours libérée après le changement rend sa part
+        counter.release(pending);
+        assertEquals(1, reserveAll(counter));
+    }
+
+    @Test
+    void loweredLimitBelowUsageExhaustsCounter() {
+        UsageCounter counter = new UsageCounter(1L, STRIPES);
+        counter.applyLimits(10, null, 0);
+        for (int i = 0; i < 5; i++) {
+            counter.tryReserve();
+            counter.commit();
+        }
+
+        counter.applyLimits(3, null, 0);
+
+        assertTrue(counter.exhausted());
+        assertEquals(-2, counter.tryReserve());
+    }
+
+    @Test
+    void concurrentReleasesDuringLimitChangesNeverExceedLimit() throws Exception {
+        int limit = 1_000_000;
+        UsageCounter counter = new UsageCounter(1L, STRIPES);
+        counter.applyLimits(limit, null, 0);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            workers.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    int stripe = counter.tryReserve();
+                    if (stripe == -2) {
+                        continue;
+                    }
+                    // Surtout des libérations : elles croisent les changements de limite
+                    if (random.nextInt(10) == 0) {
+                        counter.commit();
+                    } else {
+                        counter.release(stripe);
+                    }
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+
+        // Limite modifiée en boucle pendant les réservations
+        int applied = limit;
+        for (int i = 0; i < 20_000; i++) {
+            applied = limit + (i % 2);
+            counter.applyLimits(applied, null, 0);
+        }
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Au repos : validées + solde restant jamais au-delà de la dernière limite
+        long committed = counter.unflushed();
+        assertTrue(committed < applied, "Trop peu de solde pour vérifier l'équilibre");
+        long reserved = reserveAll(counter);
+        assertTrue(committed + reserved <= applied, "Limite dépassée de " + (committed + reserved - applied));
+
+        // Recalcul sans activité concurrente : solde exact
+        counter.applyLimits(limit + 2, null, 0);
+        assertEquals(limit + 2 - committed - reserved, reserveAll(counter));
+    }
+
+    @Test
+    void releasesDuringLimitChangesKeepBudgetExact() throws Exception {
+        int limit = 1_000_000;
+        // Beaucoup de bandes : vidage plus long, fenêtre de course élargie
+        UsageCounter counter = new UsageCounter(1L, 256);
+        counter.applyLimits(limit, null, 0);
+
+        // Réservations prises avant : seules les libérations croisent les changements
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int[] stripes = new int[50_000];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = counter.tryReserve();
+            }
+            workers.add(new Thread(() -> {
+                for (int stripe : stripes) {
+                    counter.release(stripe);
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+
+        int applied = limit;
+        for (int i = 0; workers.stream().anyMatch(Thread::isAlive); i++) {
+            applied = limit + (i % 2);
+            counter.applyLimits(applied, null, 0);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Tout est libéré : le solde est exactement la dernière limite
+        assertEquals(applied, reserveAll(counter));
+    }
+
+    // Réserve jusqu'à épuisement et renvoie le nombre de réservations obtenues
+    private static long reserveAll(UsageCounter counter) {
+        long reserved = 0;
+        while (counter.tryReserve() >= 0) {
+            reserved++;
+        }
+        return reserved;
+    }
+}
@@ -0,0 +1,55 @@
+package com.irris.yamo.service.routing;
+
+import com.irris.yamo.entities.Adresse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceMatrixServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Test
+    void routeWithAndWithoutBaseLocationGetDistinctMatrices() {
+        DistanceMatrixService service = new DistanceMatrixService();
+        Adresse base = address(1L, 5.30, -4.00);
+        Adresse first = address(2L, 5.35, -4.02);
+        Adresse second = address(3L, 5.32, -3.98);
+
+        DistanceMatrix withBase = service.forDriverDay(7L, DAY, List.of(base, first, second));
+        DistanceMatrix withoutBase = service.forDriverDay(7L, DAY, List.of(first, second));
+
+        assertEquals(3, withBase.size());
+        assertEquals(2, withoutBase.size());
+        assertTrue(withoutBase.indexOf(1L) < 0);
+        // Chaque ensemble retrouve sa propre matrice
+        assertSame(withBase, service.forDriverDay(7L, DAY, List.of(second, base, first)));
+        assertSame(withoutBase, service.forDriverDay(7L, DAY, List.of(first, second)));
+    }
+
+    @Test
+    void addressChangeInvalidatesMatricesContainingIt() {
+        DistanceMatrixService service = new DistanceMatrixService();
+        Adresse first = address(2L, 5.35, -4.02);
+        Adresse second = address(3L, 5.32, -3.98);
+        DistanceMatrix before = service.forDriverDay(7L, DAY, List.of(first, second));
+
+        second.setLatitude(5.40);
+        service.invalidateAddress(3L);
+        DistanceMatrix after = service.forDriverDay(7L, DAY, List.of(first, second));
+
+        assertNotSame(before, after);
+        assertNotEquals(before.get(0, 1), after.get(after.indexOf(2L), after.indexOf(3L)));
+    }
+
+    private static Adresse address(Long id, double latitude, double longitude) {
+        Adresse address = new Adresse();
+        address.setId(id);
+        address.setLatitude(latitude);
+        address.setLongitude(longitude);
+        return address;
+    }
+}
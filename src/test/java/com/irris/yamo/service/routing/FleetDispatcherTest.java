@@ -0,0 +1,104 @@
+package com.irris.yamo.service.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetDispatcherTest {
+
+    private static final int SERVICE_MINUTES = 15;
+    private static final double SPEED_KMH = 30.0;
+    private static final double WORKLOAD_PENALTY_KM = 2.0;
+
+    private FleetDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new FleetDispatcher(new LocalSearchRouteOptimizer(50));
+        ReflectionTestUtils.setField(dispatcher, "constructionRuns", 4);
+    }
+
+    @Test
+    void eachTaskIsPlacedOnceWithinCapacity() {
+        int[] capacities = {10, 10, 10, 5};
+        DispatchProblem problem = randomProblem(new Random(5), 40, capacities);
+
+        DispatchPlan plan = dispatcher.dispatch(problem);
+
+        int[] placed = IntStream.concat(Arrays.stream(plan.routes()).flatMapToInt(Arrays::stream),
+                Arrays.stream(plan.unassigned())).sorted().toArray();
+        assertArrayEquals(IntStream.range(0, 40).toArray(), placed);
+        for (int k = 0; k < capacities.length; k++) {
+            assertTrue(plan.routes()[k].length <= capacities[k], "chauffeur " + k + " au-delà de sa capacité");
+        }
+        // 35 places pour 40 tâches
+        assertEquals(5, plan.unassigned().length);
+    }
+
+    @Test
+    void driverWithoutCapacityGetsNothing() {
+        DispatchProblem problem = randomProblem(new Random(9), 12, new int[]{0, 20});
+
+        DispatchPlan plan = dispatcher.dispatch(problem);
+
+        assertEquals(0, plan.routes()[0].length);
+        assertEquals(12, plan.routes()[1].length);
+        assertEquals(0, plan.unassigned().length);
+    }
+
+    @Test
+    void tasksGoToTheDriverBasedNearby() {
+        // Deux groupes de tâches à ~20 km l'un de l'autre, une base au centre de chacun
+        Random random = new Random(3);
+        int tasks = 10;
+        double[] latitudes = new double[tasks + 2];
+        double[] longitudes = new double[tasks + 2];
+        for (int i = 0; i < tasks; i++) {
+            double center = i < tasks / 2 ? 5.30 : 5.48;
+            latitudes[i] = center + random.nextDouble() * 0.01;
+            longitudes[i] = -4.00 + random.nextDouble() * 0.01;
+        }
+        latitudes[tasks] = 5.305;
+        longitudes[tasks] = -3.995;
+        latitudes[tasks + 1] = 5.485;
+        longitudes[tasks + 1] = -3.995;
+        DispatchProblem problem = problem(DistanceMatrix.fromCoordinates(latitudes, longitudes), tasks,
+                new int[]{tasks, tasks + 1}, new int[]{tasks, tasks});
+
+        DispatchPlan plan = dispatcher.dispatch(problem);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, Arrays.stream(plan.routes()[0]).sorted().toArray());
+        assertArrayEquals(new int[]{5, 6, 7, 8, 9}, Arrays.stream(plan.routes()[1]).sorted().toArray());
+        assertEquals(0, plan.lateMinutes());
+    }
+
+    /**
+     * Tâches sur une zone d'environ 30 km de côté, une base par chauffeur
+     */
+    private static DispatchProblem randomProblem(Random random, int tasks, int[] capacities) {
+        int points = tasks + capacities.length;
+        double[] latitudes = new double[points];
+        double[] longitudes = new double[points];
+        for (int i = 0; i < points; i++) {
+            latitudes[i] = 5.30 + random.nextDouble() * 0.25;
+            longitudes[i] = -4.10 + random.nextDouble() * 0.25;
+        }
+        int[] depots = IntStream.range(tasks, points).toArray();
+        return problem(DistanceMatrix.fromCoordinates(latitudes, longitudes), tasks, depots, capacities);
+    }
+
+    private static DispatchProblem problem(DistanceMatrix matrix, int tasks, int[] depots, int[] capacities) {
+        int[] earliest = new int[matrix.size()];
+        int[] latest = new int[matrix.size()];
+        Arrays.fill(earliest, 8 * 60);
+        Arrays.fill(latest, 24 * 60);
+        return new DispatchProblem(matrix, tasks, depots, capacities, earliest, latest,
+                SERVICE_MINUTES, SPEED_KMH, WORKLOAD_PENALTY_KM);
+    }
+}
@@ -0,0 +1,156 @@
+package com.irris.yamo.service.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSearchRouteOptimizerTest {
+
+    private static final int SERVICE_MINUTES = 15;
+    private static final double SPEED_KMH = 30.0;
+
+    @Test
+    void optimizeReturnsEachStopExactlyOnce() {
+        LocalSearchRouteOptimizer optimizer = new LocalSearchRouteOptimizer(50);
+        for (int size : new int[]{1, 2, 3, 10, 40}) {
+            for (boolean depot : new boolean[]{false, true}) {
+                RoutingProblem problem = randomProblem(new Random(size), size, depot);
+                RoutePlan plan = optimizer.optimize(problem);
+
+                int[] visited = plan.sequence().clone();
+                Arrays.sort(visited);
+                assertArrayEquals(problem.stops(), visited);
+            }
+        }
+    }
+
+    @Test
+    void improveNeverCostsMoreThanStartingRoute() {
+        LocalSearchRouteOptimizer optimizer = new LocalSearchRouteOptimizer(50);
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            RoutingProblem problem = randomProblem(random, 5 + random.nextInt(30), random.nextBoolean());
+            int[] initial = shuffled(problem.stops(), random);
+
+            RoutePlan start = optimizer.evaluate(problem, initial);
+            RoutePlan improved = optimizer.improve(problem, initial);
+
+            assertTrue(cost(improved) <= cost(start) + 1e-9,
+                    "coût " + cost(improved) + " > coût initial " + cost(start));
+            // Le tableau fourni n'est pas modifié
+            assertArrayEquals(start.sequence(), initial);
+        }
+    }
+
+    @Test
+    void improveRejectsIncompleteRoute() {
+        LocalSearchRouteOptimizer optimizer = new LocalSearchRouteOptimizer(50);
+        RoutingProblem problem = randomProblem(new Random(1), 5, false);
+
+        assertThrows(IllegalArgumentException.class, () -> optimizer.improve(problem, new int[]{0, 1, 2, 3}));
+        assertThrows(IllegalArgumentException.class, () -> optimizer.improve(problem, new int[]{0, 1, 2, 3, 3}));
+    }
+
+    @Test
+    void respectsTimeBudget() {
+        long budgetMs = 20;
+        LocalSearchRouteOptimizer optimizer = new LocalSearchRouteOptimizer(budgetMs);
+        RoutingProblem problem = randomProblem(new Random(7), 300, true);
+        int[] initial = shuffled(problem.stops(), new Random(7));
+
+        long start = System.nanoTime();
+        optimizer.improve(problem, initial);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Une itération interne au plus au-delà du budget
+        assertTrue(elapsedMs < budgetMs + 250, "durée " + elapsedMs + " ms pour un budget de " + budgetMs + " ms");
+    }
+
+    @Test
+    void servesTightWindowBeforeCloserStop() {
+        // Arrêts sur une ligne : 0 (départ), 1 à 1 km, 2 à 5 km dont la fenêtre ferme tôt
+        double[] distances = {
+                0, 1, 5,
+                1, 0, 4,
+                5, 4, 0
+        };
+        RoutingProblem problem = new RoutingProblem(new DistanceMatrix(3, distances), 0,
+                new int[]{480, 480, 480}, new int[]{1080, 1080, 500}, SERVICE_MINUTES, SPEED_KMH);
+
+        RoutePlan plan = new LocalSearchRouteOptimizer(50).optimize(problem);
+
+        assertArrayEquals(new int[]{2, 1}, plan.sequence());
+        assertTrue(plan.isFeasible());
+    }
+
+    @Test
+    void improveReordersTwoStopRouteFromDepot() {
+        // 0 (départ), 1 à 1 km, 2 à 5 km : partir vers l'arrêt le plus lointain coûte plus
+        double[] distances = {
+                0, 1, 5,
+                1, 0, 4,
+                5, 4, 0
+        };
+        RoutingProblem problem = new RoutingProblem(new DistanceMatrix(3, distances), 0,
+                new int[]{480, 480, 480}, new int[]{1080, 1080, 1080}, SERVICE_MINUTES, SPEED_KMH);
+
+        RoutePlan plan = new LocalSearchRouteOptimizer(50).improve(problem, new int[]{2, 1});
+
+        assertArrayEquals(new int[]{1, 2}, plan.sequence());
+        assertEquals(5.0, plan.distanceKm(), 1e-9);
+    }
+
+    @Test
+    void evaluateReportsDistanceLatenessAndEnd() {
+        double[] distances = {
+                0, 10,
+                10, 0
+        };
+        // 10 km à 30 km/h = 20 min ; l'arrêt 1 ferme 5 min après l'ouverture de l'arrêt 0
+        RoutingProblem problem = new RoutingProblem(new DistanceMatrix(2, distances), RoutingProblem.NO_DEPOT,
+                new int[]{600, 600}, new int[]{700, 620}, SERVICE_MINUTES, SPEED_KMH);
+
+        RoutePlan plan = new LocalSearchRouteOptimizer(50).evaluate(problem, new int[]{0, 1});
+
+        assertEquals(10.0, plan.distanceKm(), 1e-9);
+        assertEquals(15.0, plan.lateMinutes(), 1e-9);
+        assertEquals(600 + 15 + 20 + 15, plan.endMinute(), 1e-9);
+    }
+
+    // ========== Outils ==========
+
+    private static double cost(RoutePlan plan) {
+        return plan.distanceKm() + LocalSearchRouteOptimizer.LATENESS_PENALTY_PER_MINUTE * plan.lateMinutes();
+    }
+
+    static RoutingProblem randomProblem(Random random, int stops, boolean depot) {
+        int points = depot ? stops + 1 : stops;
+        double[] latitudes = new double[points];
+        double[] longitudes = new double[points];
+        int[] earliest = new int[points];
+        int[] latest = new int[points];
+        for (int i = 0; i < points; i++) {
+            // Zone d'environ 30 km de côté
+            latitudes[i] = 5.30 + random.nextDouble() * 0.25;
+            longitudes[i] = -4.10 + random.nextDouble() * 0.25;
+            earliest[i] = 8 * 60 + random.nextInt(4) * 60;
+            latest[i] = earliest[i] + 120 + random.nextInt(6) * 60;
+        }
+        return new RoutingProblem(DistanceMatrix.fromCoordinates(latitudes, longitudes),
+                depot ? 0 : RoutingProblem.NO_DEPOT, earliest, latest, SERVICE_MINUTES, SPEED_KMH);
+    }
+
+    private static int[] shuffled(int[] values, Random random) {
+        int[] copy = values.clone();
+        for (int i = copy.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = copy[i];
+            copy[i] = copy[j];
+            copy[j] = tmp;
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,77 @@
+package com.irris.yamo.service.routing;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps de résolution et longueur de tournée de {@link LocalSearchRouteOptimizer}
+ * à 10, 50 et 200 arrêts. La longueur obtenue est comparée, en fin d'essai, à
+ * celle du plus proche voisin sans fenêtres horaires (ancien algorithme).
+ *
+ * Lancement : méthode main depuis l'IDE, après mvn test-compile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteOptimizerBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int stops;
+
+    private LocalSearchRouteOptimizer optimizer;
+    private RoutingProblem problem;
+    private RoutePlan lastPlan;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        optimizer = new LocalSearchRouteOptimizer(200);
+        problem = LocalSearchRouteOptimizerTest.randomProblem(new Random(stops), stops, true);
+    }
+
+    @Benchmark
+    public RoutePlan optimize() {
+        lastPlan = optimizer.optimize(problem);
+        return lastPlan;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        RoutePlan greedy = optimizer.evaluate(problem, nearestNeighbour(problem));
+        System.out.printf("%n%d arrêts : %.1f km (retard %.0f min) contre %.1f km (retard %.0f min) au plus proche voisin%n",
+                stops, lastPlan.distanceKm(), lastPlan.lateMinutes(), greedy.distanceKm(), greedy.lateMinutes());
+    }
+
+    private static int[] nearestNeighbour(RoutingProblem problem) {
+        int[] stops = problem.stops();
+        boolean[] used = new boolean[stops.length];
+        int[] route = new int[stops.length];
+        int previous = problem.depot();
+        for (int k = 0; k < stops.length; k++) {
+            int best = -1;
+            for (int s = 0; s < stops.length; s++) {
+                if (!used[s] && (best < 0 || previous == RoutingProblem.NO_DEPOT
+                        || problem.matrix().get(previous, stops[s]) < problem.matrix().get(previous, stops[best]))) {
+                    best = s;
+                }
+            }
+            used[best] = true;
+            route[k] = stops[best];
+            previous = stops[best];
+        }
+        return route;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteOptimizerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,179 @@
+package com.irris.yamo.service.stats;
+
+import com.irris.yamo.entities.Article;
+import com.irris.yamo.entities.ArticleCategory;
+import com.irris.yamo.entities.ArticleInstance;
+import com.irris.yamo.entities.Customer;
+import com.irris.yamo.entities.Order;
+import com.irris.yamo.entities.Payment;
+import com.irris.yamo.entities.ProcessStep;
+import com.irris.yamo.entities.ProcessStepTracking;
+import com.irris.yamo.entities.enums.PaymentStatus;
+import com.irris.yamo.entities.enums.Role;
+import com.irris.yamo.service.pricing.PricingEngine;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Colonnes dénormalisées recalculées après commit par le thread de fond, à
+ * partir des seules données validées
+ */
+@DataJpaTest
+@Import(OrderProgressUpdater.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderProgressUpdaterTest {
+
+    @MockitoBean
+    private OrderStatisticsStore orderStatisticsStore;
+    @MockitoBean
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Partagé entre les tests : la base n'est pas remise à zéro
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void paymentAndProgressAreComputedAfterCommit() {
+        Long orderId = transaction.execute(status -> createOrder("3000", "1000"));
+
+        Order order = await(orderId, o -> o.getAmountPaid() != null && o.getProgressPercentage() != null);
+        assertEquals(0, new BigDecimal("1000").compareTo(order.getAmountPaid()));
+        assertFalse(order.getPaymentComplete());
+        assertEquals(2, order.getInstanceCount());
+        assertEquals(0, order.getProcessedInstanceCount());
+        assertEquals(0.0, order.getProgressPercentage());
+
+        // Paiement du solde et étape terminée dans une seconde transaction
+        transaction.executeWithoutResult(status -> {
+            Order managed = entityManager.find(Order.class, orderId);
+            managed.addPayment(payment("2000"));
+            ArticleInstance instance = managed.getArticles().iterator().next().getInstances().iterator().next();
+            instance.getTrackings().iterator().next().complete();
+        });
+
+        order = await(orderId, o -> o.getPaymentComplete() && o.getProcessedInstanceCount() == 1);
+        assertEquals(0, new BigDecimal("3000").compareTo(order.getAmountPaid()));
+        assertEquals(50.0, order.getProgressPercentage());
+        assertFalse(order.getProcessingComplete());
+    }
+
+    @Test
+    void rolledBackChangeIsNotQueued() {
+        Long orderId = transaction.execute(status -> createOrder("3000", "3000"));
+        await(orderId, o -> o.getPaymentComplete() != null);
+
+        transaction.executeWithoutResult(status -> {
+            entityManager.find(Order.class, orderId).addPayment(payment("500"));
+            status.setRollbackOnly();
+        });
+        // File traitée dans l'ordre : une fois la commande suivante calculée, plus rien n'est en attente
+        Long nextId = transaction.execute(status -> createOrder("1000", "0"));
+        await(nextId, o -> o.getPaymentComplete() != null);
+
+        Order order = find(orderId);
+        assertEquals(0, new BigDecimal("3000").compareTo(order.getAmountPaid()));
+        assertTrue(order.getPaymentComplete());
+    }
+
+    private Order find(Long orderId) {
+        return transaction.execute(status -> entityManager.find(Order.class, orderId));
+    }
+
+    // Attend le recalcul asynchrone de la commande
+    private Order await(Long orderId, Predicate<Order> computed) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        Order order = find(orderId);
+        while (!computed.test(order)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Commande " + orderId + " jamais recalculée");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+            order = find(orderId);
+        }
+        return order;
+    }
+
+    /**
+     * Commande d'un article à deux instances, une étape de suivi chacune
+     */
+    private Long createOrder(String total, String paid) {
+        int number = SEQUENCE.incrementAndGet();
+        Customer customer = new Customer();
+        customer.setFirstName("Client");
+        customer.setLastName("Test");
+        customer.setUsername("client-progress-" + number);
+        customer.setRole(Role.ROLE_CUSTOMER);
+        entityManager.persist(customer);
+
+        ProcessStep step = new ProcessStep();
+        step.setName("Lavage " + number);
+        step.setDescription("Lavage en machine");
+        step.setStepOrder(1);
+        entityManager.persist(step);
+
+        ArticleCategory category = new ArticleCategory();
+        category.setName("Catégorie " + number);
+        entityManager.persist(category);
+
+        Order order = new Order();
+        order.setReference("CMD-PROGRESS-" + number);
+        order.setCustomer(customer);
+        order.setTotalAmount(new BigDecimal(total));
+
+        Article article = new Article();
+        article.setName("Chemise");
+        article.setQuantity(2);
+        article.setCategory(category);
+        for (int n = 0; n < 2; n++) {
+            ArticleInstance instance = new ArticleInstance();
+            instance.setCode("INS-PROGRESS-" + number + "-" + n);
+            instance.setArticle(article);
+
+            ProcessStepTracking tracking = new ProcessStepTracking();
+            tracking.setProcessStep(step);
+            tracking.setArticleInstance(instance);
+            instance.getTrackings().add(tracking);
+
+            article.getInstances().add(instance);
+        }
+        order.addArticle(article);
+        order.addPayment(payment(paid));
+
+        entityManager.persist(order);
+        return order.getId();
+    }
+
+    private Payment payment(String amount) {
+        Payment payment = new Payment();
+        payment.setAmount(new BigDecimal(amount));
+        payment.setStatus(PaymentStatus.COMPLETED);
+        payment.setPaymentReference("PAY-PROGRESS-" + SEQUENCE.incrementAndGet());
+        return payment;
+    }
+}
@@ -0,0 +1,135 @@
+package com.irris.yamo.service.stats;
+
+import com.irris.yamo.entities.enums.OrderStatus;
+import com.irris.yamo.repositories.OrderRepository;
+import com.irris.yamo.repositories.projection.StatusCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderStatisticsStoreTest {
+
+    // « Base » : nombre de commandes validées par statut
+    private final ConcurrentMap<OrderStatus, Long> committed = new ConcurrentHashMap<>();
+    private final AtomicReference<Runnable> onCommit = new AtomicReference<>();
+
+    private OrderStatisticsStore store;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.countGroupByStatus()).thenAnswer(invocation -> committed.entrySet().stream()
+                .map(e -> new StatusCount(e.getKey(), e.getValue()))
+                .toList());
+
+        FakeTransactionManager transactionManager = new FakeTransactionManager();
+        store = new OrderStatisticsStore(orderRepository, transactionManager);
+        ReflectionTestUtils.setField(store, "reconcileLockTimeoutMs", 10_000L);
+        store.init();
+        transaction = new TransactionTemplate(transactionManager);
+
+        committed.put(OrderStatus.CREATED, 3L);
+        store.reconcile();
+    }
+
+    @Test
+    void incrementsAreAppliedAfterCommitOnly() {
+        transaction.executeWithoutResult(status -> {
+            store.onCreated(created());
+            assertEquals(3, store.getCount(OrderStatus.CREATED));
+            committed.merge(OrderStatus.CREATED, 1L, Long::sum);
+        });
+        assertEquals(4, store.getCount(OrderStatus.CREATED));
+
+        // Transaction annulée : rien n'est compté
+        transaction.executeWithoutResult(status -> {
+            store.onCreated(created());
+            status.setRollbackOnly();
+        });
+        assertEquals(4, store.getTotalOrders());
+    }
+
+    @Test
+    void reconcileBetweenCommitAndIncrementDoesNotCountTwice() {
+        Thread[] reconciler = new Thread[1];
+        onCommit.set(() -> {
+            committed.merge(OrderStatus.CREATED, 1L, Long::sum);
+            // Réconciliation lancée après le commit en base, avant l'incrément
+            reconciler[0] = new Thread(store::reconcile);
+            reconciler[0].start();
+            try {
+                reconciler[0].join(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        transaction.executeWithoutResult(status -> {
+            store.onCreated(created());
+            store.onStatusChanged(OrderStatus.CREATED, OrderStatus.RECEIVED);
+            store.onStatusChanged(OrderStatus.RECEIVED, OrderStatus.CREATED);
+        });
+        assertDoesNotThrow(() -> reconciler[0].join(5_000));
+        assertFalse(reconciler[0].isAlive());
+
+        assertEquals(4, store.getCount(OrderStatus.CREATED));
+        assertEquals(0, store.getCount(OrderStatus.RECEIVED));
+        assertEquals(4, store.getTotalOrders());
+    }
+
+    @Test
+    void reconcileInsideModifyingTransactionIsSkipped() {
+        transaction.executeWithoutResult(status -> {
+            store.onCreated(created());
+            committed.merge(OrderStatus.CREATED, 1L, Long::sum);
+            // Pas de montée du verrou de lecture vers l'écriture
+            store.reconcile();
+        });
+
+        assertEquals(4, store.getCount(OrderStatus.CREATED));
+    }
+
+    private static OrderStatsState created() {
+        return new OrderStatsState(OrderStatus.CREATED, false, false);
+    }
+
+    /**
+     * Gestionnaire de transactions sans base ; le crochet de commit simule
+     * l'instant où la base a validé mais où les synchronisations n'ont pas tourné
+     */
+    private class FakeTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            Runnable hook = onCommit.getAndSet(null);
+            if (hook != null) {
+                hook.run();
+            }
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}